@@ -7,12 +7,12 @@
 
 package oracle.nosql.model.cloud.connection;
 
+import oracle.nosql.driver.AuthorizationProvider;
 import oracle.nosql.driver.NoSQLException;
 import oracle.nosql.driver.NoSQLHandle;
 import oracle.nosql.driver.NoSQLHandleConfig;
 import oracle.nosql.driver.NoSQLHandleFactory;
 import oracle.nosql.driver.RequestTimeoutException;
-import oracle.nosql.driver.OperationThrottlingException;
 import oracle.nosql.driver.iam.SignatureProvider;
 import oracle.nosql.driver.kv.StoreAccessTokenProvider;
 import oracle.nosql.driver.ops.*;
@@ -20,7 +20,11 @@ import oracle.nosql.driver.ops.TableResult.State;
 import oracle.nosql.driver.values.MapValue;
 import oracle.nosql.model.cloud.schema.CloudSchemaBuilder;
 import oracle.nosql.model.connection.AbstractConnection;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.DdlJobManager;
 import oracle.nosql.model.connection.IConnectionProfile;
+import oracle.nosql.model.connection.UsageMonitor;
+import oracle.nosql.model.event.HandleCreationEvent;
 import oracle.nosql.model.profiletype.Cloudsim;
 import oracle.nosql.model.profiletype.Onprem;
 import oracle.nosql.model.profiletype.PublicCloud;
@@ -42,9 +46,11 @@ import java.util.List;
  */
 public class CloudConnection extends AbstractConnection {
     private final NoSQLHandle handle;
+    private final AuthorizationProvider authorizationProvider;
+    private final DdlJobManager ddlJobs;
+    private final UsageMonitor usageMonitor;
     static final int WAIT_MILLIS  = 120000;
-    static final int DELAY_MILLIS = 2000;
-    static final int SLEEP_MILLIS = 15000;
+    static final int WARM_UP_TIMEOUT_MILLIS = 15000;
 
     /**
      * Creates a connection with handle to underlying database.
@@ -53,6 +59,8 @@ public class CloudConnection extends AbstractConnection {
      */
     CloudConnection(IConnectionProfile<?> profile) {
         super(profile);
+        HandleCreationEvent event = new HandleCreationEvent();
+        event.begin();
         NoSQLHandleConfig config = null;
         if(CloudConnectionProfile.class.isInstance(profile)) {
 	        URL url = (URL) profile.getProperty(Cloudsim.PROPERTY_URL.getName());
@@ -133,7 +141,73 @@ public class CloudConnection extends AbstractConnection {
                 config.setDefaultNamespace(namespace);
             }
         }
-        handle = NoSQLHandleFactory.createNoSQLHandle(config);
+        // requests are retried by the retry policy of the connection only
+        config.configureDefaultRetryHandler(0, 0);
+        NoSQLHandle created = NoSQLHandleFactory.createNoSQLHandle(config);
+        handle = MeteredHandle.wrap(created, getMetrics(), getResultCache(),
+                getRetryPolicy());
+        authorizationProvider = config.getAuthorizationProvider();
+        ddlJobs = new DdlJobManager(polling(created));
+        usageMonitor = new UsageMonitor(polling(created));
+        if (event.shouldCommit()) {
+            event.setProfileType(profile.getType().getName());
+            event.setEndpoint(String.valueOf(config.getServiceURL()));
+            event.commit();
+        }
+    }
+
+    /**
+     * Creates a connection over a given handle instead of one configured
+     * from the profile, e.g. an in-memory handle in tests.
+     *
+     * @param profile a profile of the connection.
+     * @param handle a handle to the database. must not be null.
+     */
+    public CloudConnection(IConnectionProfile<?> profile, NoSQLHandle handle) {
+        super(profile);
+        if (handle == null) {
+            throw new IllegalArgumentException(
+                    "can not connect with null handle");
+        }
+        this.handle = MeteredHandle.wrap(handle, getMetrics(),
+                getResultCache(), getRetryPolicy());
+        this.authorizationProvider = null;
+        this.ddlJobs = new DdlJobManager(polling(handle));
+        this.usageMonitor = new UsageMonitor(polling(handle));
+    }
+
+    /**
+     * The handle of the table jobs and the usage monitor. Their requests
+     * are recorded but not retried: they poll on a schedule of their own,
+     * and a retry would sleep on their single thread and hold the jobs
+     * queued behind it.
+     */
+    private NoSQLHandle polling(NoSQLHandle handle) {
+        return MeteredHandle.wrap(handle, getMetrics(), getResultCache(),
+                null);
+    }
+
+    /**
+     * Obtains an authorization string now, so that request signing or store
+     * login does not happen inside the first user request. The providers
+     * cache the result and renew it ahead of expiry; calling this method
+     * periodically keeps the cached authorization fresh.
+     */
+    public void prefetchAuthorization() {
+        if (authorizationProvider != null) {
+            authorizationProvider.getAuthorizationString(
+                    new ListTablesRequest().setTimeout(WARM_UP_TIMEOUT_MILLIS));
+        }
+    }
+
+    /**
+     * Issues a cheap request so that the handle opens a connection of its
+     * pool, including the TLS handshake for secure endpoints.
+     */
+    public void ping() {
+        handle.listTables(new ListTablesRequest()
+                .setLimit(1)
+                .setTimeout(WARM_UP_TIMEOUT_MILLIS));
     }
 
     @Override
@@ -161,6 +235,30 @@ public class CloudConnection extends AbstractConnection {
         return qp;
     }
 
+    /**
+     * Estimates the size of a table from its latest usage record. Usage is
+     * only reported by the cloud service and in whole GB, so the size is not
+     * known for on-premises stores, the cloud simulator or tables smaller
+     * than 1 GB.
+     */
+    @Override
+    public long estimateTableSizeKB(String tableName) {
+        try {
+            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
+            TableUsageRequest request = new TableUsageRequest()
+                    .setTableName(tableName).setLimit(1);
+            TableUsageResult.TableUsage[] usage =
+                    nosqlHdl.getTableUsage(request).getUsageRecords();
+            if (usage == null || usage.length == 0) {
+                return -1;
+            }
+            int storageGB = usage[usage.length - 1].getStorageGB();
+            return storageGB > 0 ? storageGB * 1024L * 1024L : -1;
+        } catch (RuntimeException ex) {
+            return -1;
+        }
+    }
+
     @Override
     public String getConnectionString() {
         return getProfile().getConnectionString();
@@ -173,31 +271,21 @@ public class CloudConnection extends AbstractConnection {
 
     @Override
     public void deleteField(Field field) throws Exception {
-        NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-        TableRequest tableReq;
-        TableResult tableRes;
         String dropIdxDdl = "alter table " +
                 field.getOwner().getName() +
                 " (drop " +
                 field.getName() +
                 ")";
-        tableReq = new TableRequest().setStatement(dropIdxDdl);
-        tableRes = nosqlHdl.tableRequest(tableReq);
-        tableRes.waitForCompletion(nosqlHdl,5000, 100);
+        ddlJobs.submit(field.getOwner().getName(), dropIdxDdl).await(WAIT_MILLIS);
     }
 
     @Override
     public void deleteIndex(FieldGroup fieldGroup) throws Exception {
-        NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-        TableRequest tableReq;
-        TableResult tableRes;
         String dropIdxDdl = "drop index if exists " +
                 fieldGroup.getName() +
                 " on " +
                 fieldGroup.getTable().getName();
-        tableReq = new TableRequest().setStatement(dropIdxDdl);
-        tableRes = nosqlHdl.tableRequest(tableReq);
-        tableRes.waitForCompletion(nosqlHdl, 5000, 100);
+        ddlJobs.submit(fieldGroup.getTable().getName(), dropIdxDdl).await(WAIT_MILLIS);
     }
 
     @Override
@@ -211,13 +299,8 @@ public class CloudConnection extends AbstractConnection {
 
     @Override
     public void dropTable(Table table) throws Exception {
-        NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-        TableRequest tableReq;
         String dropTblDdl = "drop table if exists " + table.getName();
-        tableReq = new TableRequest().setStatement(dropTblDdl);
-        nosqlHdl.doTableRequest(tableReq,
-                    60000, /* wait up to 60 sec */
-                    1000); /* poll once per second */
+        ddlJobs.submit(table.getName(), dropTblDdl).await(60000); /* wait up to 60 sec */
     }
 
     @Override
@@ -259,8 +342,6 @@ public class CloudConnection extends AbstractConnection {
     public void createIndex(Table table, String indexName, String colNames[]) throws Exception {
         String createIdxDdl="";
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-            TableRequest tableReq;
             TableResult tableRes;
             String columns = "";
             int len = colNames.length;
@@ -269,9 +350,7 @@ public class CloudConnection extends AbstractConnection {
             }
             columns += colNames[len - 1];
             createIdxDdl = "create index " + indexName + " on " + table.getName() + " (" + columns + ")";
-            tableReq = new TableRequest().setStatement(createIdxDdl);
-            tableRes = nosqlHdl.tableRequest(tableReq);
-            tableRes.waitForCompletion(nosqlHdl, 120000, 1000);
+            tableRes = ddlJobs.submit(table.getName(), createIdxDdl).await(120000);
             final State actTableState = tableRes.getTableState();
             final State expTableState = State.ACTIVE;
 
@@ -294,8 +373,6 @@ public class CloudConnection extends AbstractConnection {
         boolean status = false;
 
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-
                 AddReplicaRequest addReplicaReq = new AddReplicaRequest()
                         .setTableName(tableName)
                         .setReplicaName(replicaName);
@@ -308,16 +385,14 @@ public class CloudConnection extends AbstractConnection {
                     addReplicaReq.setWriteUnits(writeUnits);
                 }
 
-                TableResult tableRes = nosqlHdl.addReplica(addReplicaReq);
-
                 /*
                  * Wait for the table to become active.
                  * Table request is asynchronous. It's necessary to wait for an
                  * expected state to know when the operation has completed.
                  */
-                tableRes.waitForCompletion(nosqlHdl,
-                        WAIT_MILLIS,
-                        DELAY_MILLIS);
+                ddlJobs.submit(tableName, "add replica " + replicaName + " to " + tableName,
+                        DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                        h -> h.addReplica(addReplicaReq)).await(WAIT_MILLIS);
                 status = true;
                 System.out.println("Successfully added replica " + replicaName);
 
@@ -335,23 +410,20 @@ public class CloudConnection extends AbstractConnection {
         int noOfReplica = replicas.size();
 
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
             for(int i=0; i<noOfReplica; i++) {
                 String replicaName = replicas.get(i);
                 DropReplicaRequest dropReplicaReq = new DropReplicaRequest()
                         .setTableName(tableName)
                         .setReplicaName(replicaName);
 
-                TableResult tableRes = nosqlHdl.dropReplica(dropReplicaReq);
-
                 /*
                  * Wait for the table to become active.
                  * Table request is asynchronous. It's necessary to wait for an
                  * expected state to know when the operation has completed.
                  */
-                tableRes.waitForCompletion(nosqlHdl,
-                        WAIT_MILLIS,
-                        DELAY_MILLIS);
+                ddlJobs.submit(tableName, "drop replica " + replicaName + " from " + tableName,
+                        DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                        h -> h.dropReplica(dropReplicaReq)).await(WAIT_MILLIS);
                 status = true;
                 System.out.println("Successfully dropped replica " + replicaName);
             }
@@ -368,8 +440,7 @@ public class CloudConnection extends AbstractConnection {
         boolean status = false;
         String ddl = "alter table " + tableName + " unfreeze schema";
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-            TableResult res = tableOperation("unfreeze schema", tableName, nosqlHdl, ddl, null, true);
+            TableResult res = tableOperation(tableName, ddl, null, true);
             status = true;
         } catch (Exception e) {
             throw new Exception("Exception during unfreezing schema for " + tableName + " : " + e.getMessage());
@@ -381,8 +452,7 @@ public class CloudConnection extends AbstractConnection {
         boolean status = false;
         String ddl = "alter table " + tableName + " freeze schema";
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-            TableResult res = tableOperation("freeze schema", tableName, nosqlHdl, ddl, null, true);
+            TableResult res = tableOperation(tableName, ddl, null, true);
             status = true;
         } catch (Exception e) {
             throw new Exception("Exception during freezing schema for " + tableName + " : " + e.getMessage());
@@ -390,57 +460,25 @@ public class CloudConnection extends AbstractConnection {
         return status;
     }
 
-    private TableResult tableOperation(String op, String tableName, NoSQLHandle handle, String ddl, TableLimits limits, boolean wait) throws Exception {
-        final int maxRetries = 13;
-        String info = (ddl != null ? "ddl=" + ddl : "tableName=" + tableName);
-        if (limits != null) {
-            info += ", limits=" + limits;
-        }
-
-        TableResult tres = null;
+    /**
+     * Runs a table operation as a job. Throttling of the request is retried
+     * by the job manager with backoff.
+     */
+    private TableResult tableOperation(String tableName, String ddl, TableLimits limits, boolean wait) throws Exception {
         TableRequest tableRequest = new TableRequest().setStatement(ddl).setTableLimits(limits).setTimeout(15000);
-
         if (ddl == null) {
             tableRequest.setTableName(tableName);
         }
-
-        System.out.println(op);
-
-        System.out.println(info);
-        int retry = 0;
-        while (retry < maxRetries) {
-            try {
-                tres = handle.tableRequest(tableRequest);
-                break;
-            } catch (OperationThrottlingException ex) {
-                try {
-                    Thread.sleep(5000);
-                } catch (InterruptedException e) {
-                }
-                System.out.println("[retry=" + (++retry) + "] TableRequest: " + op);
-            }
-        }
-
-        if (!wait) {
-            return tres;
-        }
-
-        if (tres != null && tres.getTableName() != null) {
-            tres.waitForCompletion(handle, WAIT_MILLIS, DELAY_MILLIS);
-        }
-
-        return tres;
+        String info = ddl != null ? ddl : "set table limits of " + tableName;
+        DdlJob job = ddlJobs.submit(tableName, info, DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                h -> h.tableRequest(tableRequest));
+        return wait ? job.await(WAIT_MILLIS) : null;
     }
 
     @Override
     public void createIndexUsingDdl(String createIdxDdl) throws Exception {
         try {
-            NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-            TableRequest tableReq;
-            TableResult tableRes;
-            tableReq = new TableRequest().setStatement(createIdxDdl);
-            tableRes = nosqlHdl.tableRequest(tableReq);
-            tableRes.waitForCompletion(nosqlHdl, 120000, 1000);
+            TableResult tableRes = ddlJobs.submit(createIdxDdl).await(120000);
             final State actTableState = tableRes.getTableState();
             final State expTableState = State.ACTIVE;
 
@@ -481,12 +519,7 @@ public class CloudConnection extends AbstractConnection {
     }
     @Override
     public boolean setTableLimits(Table table,TableLimits tableLimits) throws Exception{
-        NoSQLHandle handle = unwrap(NoSQLHandle.class);
-        TableRequest userTableReq =
-                new TableRequest().setTableName(table.getName()).setTableLimits(tableLimits);
-        handle.doTableRequest(userTableReq,
-                60000, /* wait up to 60 sec */
-                1000); /* poll once per second */
+        tableOperation(table.getName(), null, tableLimits, true);
         return true;
     }
 
@@ -522,17 +555,12 @@ public class CloudConnection extends AbstractConnection {
     @Override
     public void addNewColumn(Table table, String flattenedColumn)
             throws Exception {
-        NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-        TableRequest tableReq;
-        TableResult tableRes;
         String addNewColumnDdl = "alter table " +
                 table.getName() +
                 " (add " +
                 flattenedColumn +
                 ")";
-        tableReq = new TableRequest().setStatement(addNewColumnDdl);
-        tableRes = nosqlHdl.tableRequest(tableReq);
-        tableRes.waitForCompletion(nosqlHdl, 5000, 100);
+        ddlJobs.submit(table.getName(), addNewColumnDdl).await(WAIT_MILLIS);
     }
     @Override
     public String systemQuery(String query){
@@ -548,13 +576,8 @@ public class CloudConnection extends AbstractConnection {
     }
 
     @Override
-    public void ddlQuery(String query) {
-        NoSQLHandle nosqlHdl = unwrap(NoSQLHandle.class);
-        TableRequest tableReq;
-        TableResult tableRes;
-        tableReq = new TableRequest().setStatement(query);
-        tableRes = nosqlHdl.tableRequest(tableReq);
-        tableRes.waitForCompletion(nosqlHdl, 5000, 100);
+    public void ddlQuery(String query) throws Exception {
+        ddlJobs.submit(query).await(WAIT_MILLIS);
     }
 
     @Override
@@ -572,20 +595,23 @@ public class CloudConnection extends AbstractConnection {
             int readKB,
             int writeKB,
             int storageGB) throws Exception {
-        NoSQLHandle handle = unwrap(NoSQLHandle.class);
         TableRequest userTableReq =
                 new TableRequest().setStatement(query).setTableLimits(
                         new TableLimits(readKB, writeKB, storageGB));
-        handle.doTableRequest(userTableReq,
-                    60000, /* wait up to 60 sec */
-                    1000); /* poll once per second */
+        ddlJobs.submit(tableName, query, DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                h -> h.tableRequest(userTableReq)).await(60000); /* wait up to 60 sec */
     }
     public void createChildTable(String tableName,String query) throws Exception{
-        NoSQLHandle handle = unwrap(NoSQLHandle.class);
-        TableRequest userTableReq =
-                new TableRequest().setStatement(query);
-        handle.doTableRequest(userTableReq,
-                60000, /* wait up to 60 sec */
-                1000); /* poll once per second */
+        ddlJobs.submit(tableName, query).await(60000); /* wait up to 60 sec */
+    }
+
+    @Override
+    public DdlJobManager getDdlJobs() {
+        return ddlJobs;
+    }
+
+    @Override
+    public UsageMonitor getUsageMonitor() {
+        return usageMonitor;
     }
 }
@@ -0,0 +1,150 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.cloud.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.ThrottlingException;
+import oracle.nosql.driver.ops.Request;
+import oracle.nosql.driver.ops.Result;
+import oracle.nosql.model.connection.CircuitBreaker;
+import oracle.nosql.model.connection.ConnectionMetrics;
+import oracle.nosql.model.connection.ResultCache;
+import oracle.nosql.model.connection.RetryPolicy;
+import oracle.nosql.model.event.RequestEvent;
+
+/**
+ * Records every request issued through a <code>NoSQLHandle</code> in
+ * {@link ConnectionMetrics} and as a {@link RequestEvent flight recorder
+ * event}. Operations are named after the handle method e.g.
+ * <code>get</code>, <code>query</code> or <code>tableRequest</code>. Methods
+ * that do not take a request, such as <code>close()</code>, pass through
+ * unrecorded. <br>
+ * Requests are also {@link ResultCache#requested passed to the result cache}
+ * of the connection, so that writes invalidate the results of the tables
+ * they change. <br>
+ * Requests are issued through the {@link RetryPolicy retry policy} of the
+ * connection, if any; a request is recorded once, with its retries, whatever
+ * the number of attempts.
+ */
+class MeteredHandle implements InvocationHandler {
+    private final NoSQLHandle delegate;
+    private final ConnectionMetrics metrics;
+    private final ResultCache cache;
+    private final RetryPolicy policy;
+
+    private MeteredHandle(NoSQLHandle delegate, ConnectionMetrics metrics,
+            ResultCache cache, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    /**
+     * Wraps a handle so that its requests are recorded.
+     *
+     * @param delegate the handle to wrap
+     * @param metrics where requests are recorded
+     * @param cache cache invalidated by writes
+     * @param policy policy by which failed requests are retried, or null to
+     * issue each request once
+     * @return a handle that behaves as the given one
+     */
+    static NoSQLHandle wrap(NoSQLHandle delegate, ConnectionMetrics metrics,
+            ResultCache cache, RetryPolicy policy) {
+        return (NoSQLHandle) Proxy.newProxyInstance(
+                NoSQLHandle.class.getClassLoader(),
+                new Class<?>[] { NoSQLHandle.class },
+                new MeteredHandle(delegate, metrics, cache, policy));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable {
+        if (args == null || args.length == 0 ||
+                !(args[0] instanceof Request)) {
+            return call(method, args);
+        }
+        Request request = (Request) args[0];
+        ConnectionMetrics.OperationStats stats =
+                metrics.get(method.getName(), request.getTableName());
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] retries = new int[1];
+        Object result;
+        try {
+            result = policy == null ? call(method, args)
+                    : policy.execute(() -> call(method, args),
+                            (cause, n, delay) -> {
+                                retries[0] = n;
+                                metrics.recordRetry(cause.name());
+                            });
+        } catch (CircuitBreaker.OpenException e) {
+            stats.recordRejected();
+            metrics.recordRejected();
+            throw e;
+        } catch (Throwable t) {
+            // a failed write may still have changed the table
+            cache.requested(method.getName(), request);
+            boolean throttled = t instanceof ThrottlingException;
+            stats.recordFailure(System.nanoTime() - start,
+                    request.getNumRetries() + retries[0], throttled);
+            if (event.shouldCommit()) {
+                event.setFailed(true);
+                event.setThrottled(throttled);
+                commit(event, method, request, retries[0], 0, 0);
+            }
+            throw t;
+        }
+        long elapsed = System.nanoTime() - start;
+        cache.requested(method.getName(), request);
+        int readKB = 0;
+        int writeKB = 0;
+        if (result instanceof Result) {
+            Result r = (Result) result;
+            readKB = r.getReadKBInternal();
+            writeKB = r.getWriteKBInternal();
+            stats.recordSuccess(elapsed, request.getNumRetries() + retries[0],
+                    readKB, writeKB,
+                    r.getReadUnitsInternal(), r.getWriteUnitsInternal());
+            metrics.capture(readKB, writeKB,
+                    r.getReadUnitsInternal(), r.getWriteUnitsInternal());
+        } else {
+            stats.recordSuccess(elapsed, request.getNumRetries() + retries[0],
+                    0, 0, 0, 0);
+        }
+        if (event.shouldCommit()) {
+            commit(event, method, request, retries[0], readKB, writeKB);
+        }
+        return result;
+    }
+
+    private static void commit(RequestEvent event, Method method,
+            Request request, int retries, int readKB, int writeKB) {
+        event.setOperation(method.getName());
+        event.setTable(request.getTableName());
+        event.setRetries(request.getNumRetries() + retries);
+        event.setReadKB(readKB);
+        event.setWriteKB(writeKB);
+        event.commit();
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import oracle.nosql.driver.NoSQLHandle;
 import oracle.nosql.driver.ops.QueryRequest;
 import oracle.nosql.driver.ops.QueryResult;
 import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.event.QueryBatchEvent;
 import oracle.nosql.model.util.LazyIteratorChain;
 
 import java.util.Iterator;
@@ -61,7 +62,16 @@ class QueryIterator extends LazyIteratorChain<MapValue> {
             return null;
         }
         // fetch from database
+        QueryBatchEvent event = new QueryBatchEvent();
+        event.begin();
         QueryResult result = con.query(request);
+        if (event.shouldCommit()) {
+            event.setTable(request.getTableName());
+            event.setBatch(iterationCount);
+            event.setRows(result.getResults().size());
+            event.setReadKB(result.getReadKB());
+            event.commit();
+        }
         return result.getResults().iterator();
     }
 }
@@ -16,6 +16,9 @@ import oracle.nosql.driver.ops.TableRequest;
 import oracle.nosql.driver.ops.TableResult;
 import oracle.nosql.driver.ops.TableResult.State;
 import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.DdlJobManager;
+import oracle.nosql.model.event.TableLoadEvent;
 import oracle.nosql.model.schema.Datamodel;
 import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.Index;
@@ -37,8 +40,7 @@ public class CloudSchemaBuilder extends AbstractInmemorySchemaBuilder
         implements
         SchemaBuilder {
     private final CloudConnection connection;
-    final int MAX_WAIT_TIME = 5000;
-    final int POLLING_INTERVAL = 100;
+    final int MAX_WAIT_TIME = 120000;
 
     public CloudSchemaBuilder(CloudConnection con) {
         if (con == null) {
@@ -67,19 +69,21 @@ public class CloudSchemaBuilder extends AbstractInmemorySchemaBuilder
             int writeKB,
             int storageGB,
             State targetState) throws Exception {
-        NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
         String ddl = table.getCreateDDL();
         TableRequest userTableReq =
                 new TableRequest().setStatement(ddl).setTableLimits(
                         new TableLimits(readKB, writeKB, storageGB));
-        TableResult result = handle.tableRequest(userTableReq);
+        DdlJob job = connection.getDdlJobs().submit(table.getName(), ddl,
+                DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                h -> h.tableRequest(userTableReq));
         if (targetState != null) {
-            waitForTableState(handle, result.getTableName(), targetState);
+            job.await(MAX_WAIT_TIME);
             switch (targetState) {
             case ACTIVE:
+                NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
                 GetTableRequest getTable = new GetTableRequest();
                 getTable.setTableName(table.getName());
-                result = handle.getTable(getTable);
+                TableResult result = handle.getTable(getTable);
                 parse(result.getSchema(), table);
                 break;
             case DROPPED:
@@ -98,54 +102,38 @@ public class CloudSchemaBuilder extends AbstractInmemorySchemaBuilder
     }
 
     public boolean createIndex(Index index) throws Exception {
-        NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
-        TableRequest tableReq =
-                new TableRequest().setStatement(index.getCreateDDL());
-        TableResult tableRes = handle.tableRequest(tableReq);
-        waitForTableState(handle,
-                tableRes.getTableName(),
-                State.ACTIVE);
+        runDdl(index.getTable().getName(), index.getCreateDDL());
         return true;
     }
 
-    public boolean deleteIndex(Index index) {
-        NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
-        TableRequest tableReq =
-                new TableRequest().setStatement(index.getDropDDL());
-        TableResult tableRes = handle.tableRequest(tableReq);
-        waitForTableState(handle,
-                tableRes.getTableName(),
-                State.ACTIVE);
+    public boolean deleteIndex(Index index) throws Exception {
+        runDdl(index.getTable().getName(), index.getDropDDL());
         return true;
     }
 
     public boolean createField(Field field) throws Exception {
-        NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
-        TableRequest tableReq =
-                new TableRequest().setStatement(field.getCreateDDL());
-        TableResult tableRes = handle.tableRequest(tableReq);
-        waitForTableState(handle,
-                tableRes.getTableName(),
-                State.ACTIVE);
+        runDdl(field.getTable().getName(), field.getCreateDDL());
         return true;
     }
 
     public boolean deleteField(Field field) throws Exception {
-        NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
         String dropIdxDdl = "alter table " +
                 field.getTable().getName() +
                 " (drop " +
                 field.getName() +
                 ")";
-        TableRequest tableReq = new TableRequest();
-        tableReq.setStatement(dropIdxDdl);
-        TableResult tableRes = handle.tableRequest(tableReq);
-        waitForTableState(handle,
-                tableRes.getTableName(),
-                State.ACTIVE);
+        runDdl(field.getTable().getName(), dropIdxDdl);
         return true;
     }
 
+    /**
+     * Runs a DDL statement as a job of the connection and waits until the
+     * table is active again.
+     */
+    private void runDdl(String tableName, String ddl) throws Exception {
+        connection.getDdlJobs().submit(tableName, ddl).await(MAX_WAIT_TIME);
+    }
+
     /**
      * Builds a datamodel of given name and with a schema of given name. The
      * schema is built lazily. The table information is not fetched other than
@@ -176,18 +164,6 @@ public class CloudSchemaBuilder extends AbstractInmemorySchemaBuilder
         return tableNames;
     }
 
-    void waitForTableState(NoSQLHandle handle,
-            String tableName,
-            State targetState) {
-        int timeOut = 1000;
-        int delayMs = 10;
-        TableResult.waitForState(handle,
-                tableName,
-                targetState,
-                timeOut,
-                delayMs);
-    }
-
     public boolean existsTable(String tableName) {
         NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
         GetTableRequest request = new GetTableRequest();
@@ -208,11 +184,19 @@ public class CloudSchemaBuilder extends AbstractInmemorySchemaBuilder
      * @throws IOException
      */
     public Table refresh(Table table) {
+        TableLoadEvent event = new TableLoadEvent();
+        event.begin();
         NoSQLHandle handle = connection.unwrap(NoSQLHandle.class);
         GetTableRequest request = new GetTableRequest();
         request.setTableName(table.getName());
         TableResult result = handle.getTable(request);
         parse(result.getSchema(), table);
+        if (event.shouldCommit()) {
+            event.setTable(table.getName());
+            event.setColumns(table.getFieldCount());
+            event.setIndexes(table.getIndexCount());
+            event.commit();
+        }
         return table;
     }
 
@@ -9,6 +9,8 @@ package oracle.nosql.model.cloud.table.ui;
 
 import oracle.nosql.driver.values.FieldValue;
 import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.event.TablePageEvent;
+import oracle.nosql.model.query.ColumnProfiler;
 import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.FieldGroup;
 import oracle.nosql.model.schema.Table;
@@ -31,11 +33,18 @@ import java.util.stream.Collectors;
  *
  */
 public class CloudTablePageCache implements TablePageCache {
+    /**
+     * Name of the map in which a row of a JSON collection table holds the
+     * fields of its document other than the primary key.
+     */
+    public static final String ROW_DATA = "Rowdata";
+
     private Iterator<MapValue> result;
     private int pageSize = 10;
     private int currentPage = 0;
     private List<TablePage> pages;
     private Table table;
+    private ColumnProfiler profiler;
 
     public CloudTablePageCache() {
     }
@@ -63,13 +72,17 @@ public class CloudTablePageCache implements TablePageCache {
             return false;
         currentPage++;
         if (currentPage > pages.size()) {
+            TablePageEvent event = new TablePageEvent();
+            event.begin();
             List<TableRow> rows = new LinkedList<TableRow>();
             TablePage page = new CloudTablePage(rows);
             for (int i = 0; i < pageSize && result.hasNext(); i++) {
                 MapValue row = result.next();
+                profile(row);
                 rows.add(new CloudTableRow(row, table, page));
             }
             pages.add(page);
+            commit(event, rows.size());
         }
         return true;
     }
@@ -84,6 +97,8 @@ public class CloudTablePageCache implements TablePageCache {
             return false;
         currentPage++;
         if (currentPage > pages.size()) {
+            TablePageEvent event = new TablePageEvent();
+            event.begin();
             List<TableRow> rows = new LinkedList<TableRow>();
             TablePage page = new CloudTablePage(rows);
             FieldGroup pkGroup = table.getPrimaryKeys();
@@ -92,13 +107,30 @@ public class CloudTablePageCache implements TablePageCache {
             for (int i = 0; i < pageSize && result.hasNext(); i++) {
                 MapValue row = result.next();
                 MapValue transformedRow = getTransformedEntries(row, pkList);
+                profile(transformedRow);
                 rows.add(new CloudTableRow(transformedRow, table, page));
             }
             pages.add(page);
+            commit(event, rows.size());
         }
         return true;
     }
 
+    private void profile(MapValue row) {
+        if (profiler != null) {
+            profiler.add(row);
+        }
+    }
+
+    private void commit(TablePageEvent event, int rowCount) {
+        if (event.shouldCommit()) {
+            event.setTable(table == null ? null : table.getName());
+            event.setPage(currentPage);
+            event.setRows(rowCount);
+            event.commit();
+        }
+    }
+
     private static MapValue getTransformedEntries(@NotNull MapValue row, List<Field> pkList) {
         Map<String, FieldValue> rowMap = row.getMap();
         MapValue rowData = new MapValue();
@@ -119,7 +151,7 @@ public class CloudTablePageCache implements TablePageCache {
                 rowData.put(key, value);
         }
 
-        transformedRow.put("Rowdata", rowData);
+        transformedRow.put(ROW_DATA, rowData);
         return transformedRow;
     }
 
@@ -201,4 +233,21 @@ public class CloudTablePageCache implements TablePageCache {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
+
+    @Override
+    public void setProfiler(ColumnProfiler profiler) {
+        this.profiler = profiler;
+        if (profiler != null && pages != null) {
+            for (TablePage page : pages) {
+                for (TableRow row : page.getRows()) {
+                    profiler.add((MapValue) row.getRawData());
+                }
+            }
+        }
+    }
+
+    @Override
+    public ColumnProfiler getProfiler() {
+        return profiler;
+    }
 }
@@ -14,6 +14,8 @@ import oracle.nosql.model.table.ui.TablePage;
 import oracle.nosql.model.table.ui.TableRow;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,13 +27,26 @@ import java.util.stream.Collectors;
  *
  */
 public class CloudTableRow implements TableRow {
+    /** characters of a preview, at most */
+    public static final int PREVIEW_CHARS = 200;
+    /** ends a preview that was cut */
+    public static final char ELLIPSIS = '\u2026';
+
     private MapValue row;
-    private List<Object> cachedData;
+    private Object[] cachedData;
     private List<String> headers;
+    private final String[] previews;
 
     public CloudTableRow(MapValue row, Table table, TablePage parentpage) {
         this.row = row;
         headers = extractHeaders(row);
+        cachedData = new Object[headers.size()];
+        // previews are made here, in the thread fetching the page, so that
+        // painting a cell costs no serialization
+        previews = new String[headers.size()];
+        for (int i = 0; i < previews.length; i++) {
+            previews[i] = preview(row.get(headers.get(i)), PREVIEW_CHARS);
+        }
     }
 
     /**
@@ -46,34 +61,31 @@ public class CloudTableRow implements TableRow {
         }).collect(Collectors.toList());
     }
 
+    /**
+     * Gets the data of a column, serializing it on first use only.
+     */
     @Override
     public Object getData(int i) {
-        return getData().get(i);
+        if (cachedData[i] == null) {
+            cachedData[i] = getData(row.get(headers.get(i)));
+        }
+        return cachedData[i];
     }
 
     @Override
     public List<Object> getData() {
-        if (cachedData == null) {
-            cachedData = extractData();
-        }
-        return cachedData;
-    }
-
-    /**
-     * Extract the column data of this row.
-     * 
-     * @return list of column data.
-     */
-    private List<Object> extractData() {
         List<Object> ret = new ArrayList<Object>(headers.size());
-        Map<String, FieldValue> entries = row.entrySet().stream().collect(
-                Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
-        for (String header : headers) {
-            ret.add(getData(entries.get(header)));
+        for (int i = 0; i < headers.size(); i++) {
+            ret.add(getData(i));
         }
         return ret;
     }
 
+    @Override
+    public String getPreview(int i) {
+        return previews[i];
+    }
+
     /**
      * Extract the data from given column.
      * 
@@ -89,6 +101,141 @@ public class CloudTableRow implements TableRow {
         return field.toJson();
     }
 
+    /**
+     * Writes the start of the data of a column, as {@link #getData(int)}
+     * does but without serializing more of the value than is shown. Maps,
+     * arrays and strings are written until the preview is full, so the cost
+     * does not depend on the size of the value.
+     *
+     * @param field value of a column
+     * @param maxChars characters of the preview, at most
+     * @return the data of the column, or its first maxChars characters
+     * followed by {@link #ELLIPSIS} if it is longer.
+     */
+    public static String preview(FieldValue field, int maxChars) {
+        if (field.getType() == FieldValue.Type.NULL) {
+            return ""; //$NON-NLS-1$
+        }
+        StringBuilder sb = new StringBuilder(Math.min(maxChars + 1, 64));
+        boolean whole;
+        if (field.getType() == FieldValue.Type.BINARY) {
+            byte[] bytes = field.getBinary();
+            sb.append(new String(bytes, 0, Math.min(bytes.length, maxChars + 1)));
+            whole = bytes.length <= maxChars;
+        } else {
+            whole = appendJson(sb, field, maxChars);
+        }
+        if (!whole || sb.length() > maxChars) {
+            sb.setLength(Math.min(sb.length(), maxChars));
+            sb.append(ELLIPSIS);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return false if the value was cut because sb reached max characters.
+     */
+    private static boolean appendJson(StringBuilder sb, FieldValue value,
+                                      int max) {
+        switch (value.getType()) {
+        case MAP:
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, FieldValue> e : value.asMap().entrySet()) {
+                if (sb.length() > max) {
+                    return false;
+                }
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                if (!appendString(sb, e.getKey(), max)) {
+                    return false;
+                }
+                sb.append(':');
+                if (!appendJson(sb, e.getValue(), max)) {
+                    return false;
+                }
+            }
+            sb.append('}');
+            return true;
+        case ARRAY:
+            sb.append('[');
+            int n = 0;
+            for (FieldValue element : value.asArray()) {
+                if (sb.length() > max) {
+                    return false;
+                }
+                if (n++ > 0) {
+                    sb.append(',');
+                }
+                if (!appendJson(sb, element, max)) {
+                    return false;
+                }
+            }
+            sb.append(']');
+            return true;
+        case STRING:
+            return appendString(sb, value.getString(), max);
+        case BINARY:
+            // base64, of no more bytes than fill the preview
+            byte[] bytes = value.getBinary();
+            int room = Math.max(0, max - sb.length());
+            int length = Math.min(bytes.length, room / 4 * 3 + 3);
+            sb.append('"').append(Base64.getEncoder().encodeToString(
+                    Arrays.copyOf(bytes, length)));
+            if (length < bytes.length) {
+                return false;
+            }
+            sb.append('"');
+            return true;
+        default:
+            sb.append(value.toJson());
+            return true;
+        }
+    }
+
+    private static boolean appendString(StringBuilder sb, String s, int max) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            if (sb.length() > max) {
+                return false;
+            }
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\b':
+                sb.append("\\b");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+        return true;
+    }
+
     @Override
     public Object getRawData() {
         return row;
@@ -0,0 +1,336 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.cloud.table.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import oracle.nosql.driver.values.FieldValue;
+
+/**
+ * A node of a lazy tree over a value, for viewing documents too large to
+ * show as text.
+ * <br>
+ * Children are made when first asked for, so only the expanded part of a
+ * document takes memory. No node has more than {@link #PAGE_SIZE} children:
+ * the entries of a larger map or array are grouped into pages, and pages
+ * into pages of pages, each of which is a node too. Leaves are labelled with
+ * a {@link CloudTableRow#preview capped preview} of their value.
+ */
+public class ValueNode {
+    /** children of a node, at most */
+    public static final int PAGE_SIZE = 100;
+    /** characters of the value shown in a label, at most */
+    public static final int LABEL_CHARS = 200;
+
+    private final ValueNode parent;
+    private final String name;
+    private final FieldValue value;
+    /* entries of the map or array this node covers, none for a leaf */
+    private final int from;
+    private final int to;
+    private final boolean page;
+    private String[] keys;
+    private ValueNode[] children;
+
+    /**
+     * Creates the root of a tree.
+     *
+     * @param name name of the value, e.g. its column
+     * @param value the value
+     */
+    public ValueNode(String name, FieldValue value) {
+        this(null, name, value, false);
+    }
+
+    private ValueNode(ValueNode parent, String name, FieldValue value,
+            boolean page) {
+        this(parent, name, value, page, 0, size(value));
+    }
+
+    private ValueNode(ValueNode parent, String name, FieldValue value,
+            boolean page, int from, int to) {
+        this.parent = parent;
+        this.name = name;
+        this.value = value;
+        this.page = page;
+        this.from = from;
+        this.to = to;
+    }
+
+    public ValueNode getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the value, or the map or array a page is part of.
+     */
+    public FieldValue getValue() {
+        return value;
+    }
+
+    /**
+     * @return true if this node groups entries of a large map or array.
+     */
+    public boolean isPage() {
+        return page;
+    }
+
+    public boolean isLeaf() {
+        return !page && size(value) == 0;
+    }
+
+    public int getChildCount() {
+        int n = to - from;
+        if (n <= PAGE_SIZE) {
+            return n;
+        }
+        long span = span(n);
+        return (int) ((n + span - 1) / span);
+    }
+
+    public ValueNode getChild(int index) {
+        if (children == null) {
+            children = new ValueNode[getChildCount()];
+        }
+        if (children[index] == null) {
+            children[index] = makeChild(index);
+        }
+        return children[index];
+    }
+
+    public int getIndex(ValueNode child) {
+        if (children != null) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private ValueNode makeChild(int index) {
+        int n = to - from;
+        if (n > PAGE_SIZE) {
+            long span = span(n);
+            int start = (int) (from + index * span);
+            int end = (int) Math.min(to, start + span);
+            return new ValueNode(this, "[" + start + ".." + (end - 1) + "]",
+                    value, true, start, end);
+        }
+        int entry = from + index;
+        if (value.getType() == FieldValue.Type.MAP) {
+            String key = getKeys()[entry];
+            return new ValueNode(this, key, value.asMap().get(key), false);
+        }
+        return new ValueNode(this, "[" + entry + "]",
+                value.asArray().get(entry), false);
+    }
+
+    /* keys of a map, shared by the pages of the map */
+    private String[] getKeys() {
+        if (page) {
+            return parent.getKeys();
+        }
+        if (keys == null) {
+            keys = value.asMap().getMap().keySet().toArray(new String[0]);
+        }
+        return keys;
+    }
+
+    /**
+     * @return the label of the node: its name and a preview of a leaf, or
+     * the number of entries of a map or array.
+     */
+    public String getLabel() {
+        if (page) {
+            return name;
+        }
+        switch (value.getType()) {
+        case MAP:
+            return name + " : {" + size(value) + " fields}";
+        case ARRAY:
+            return name + " : [" + size(value) + " items]";
+        default:
+            return name + " : "
+                    + CloudTableRow.preview(value, LABEL_CHARS);
+        }
+    }
+
+    /**
+     * @return path of the value from the root, e.g. {@code doc.items[3].id};
+     * pages are not part of a path.
+     */
+    public String getPath() {
+        if (parent == null) {
+            return name;
+        }
+        if (page) {
+            return parent.getPath();
+        }
+        ValueNode container = parent;
+        while (container.page) {
+            container = container.parent;
+        }
+        return container.getPath()
+                + (name.startsWith("[") ? name : "." + name);
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+
+    /**
+     * Finds the values under this node, which is not a page, whose own path
+     * segment is part of a match of a text, e.g. {@code items[3]} or
+     * {@code .name}. The value is walked without making nodes.
+     *
+     * @param text text to look for in paths, case sensitive
+     * @param max matches to return, at most
+     * @return the matches in document order.
+     */
+    public List<Match> find(String text, int max) {
+        List<Match> matches = new ArrayList<Match>();
+        if (!text.isEmpty() && max > 0) {
+            StringBuilder path = new StringBuilder(getPath());
+            find(value, path, new int[16], 0, text, max, matches);
+        }
+        return matches;
+    }
+
+    private void find(FieldValue v, StringBuilder path, int[] route,
+            int depth, String text, int max, List<Match> matches) {
+        int n = size(v);
+        if (n == 0) {
+            return;
+        }
+        boolean map = v.getType() == FieldValue.Type.MAP;
+        int entry = 0;
+        Iterable<?> entries = map ? v.asMap().getMap().entrySet()
+                : v.asArray();
+        for (Object o : entries) {
+            if (matches.size() >= max) {
+                return;
+            }
+            FieldValue child;
+            int length = path.length();
+            if (map) {
+                @SuppressWarnings("unchecked")
+                Map.Entry<String, FieldValue> e =
+                        (Map.Entry<String, FieldValue>) o;
+                path.append('.').append(e.getKey());
+                child = e.getValue();
+            } else {
+                path.append('[').append(entry).append(']');
+                child = (FieldValue) o;
+            }
+            int[] childRoute = route.length < depth + 8 ?
+                    Arrays.copyOf(route, route.length * 2) : route;
+            int childDepth = route(childRoute, depth, n, entry);
+            // a match that ends before this segment matched an ancestor
+            int i = path.indexOf(text, Math.max(0, length - text.length() + 1));
+            if (i >= 0) {
+                matches.add(new Match(path.toString(),
+                        Arrays.copyOf(childRoute, childDepth)));
+            }
+            find(child, path, childRoute, childDepth, text, max, matches);
+            path.setLength(length);
+            entry++;
+        }
+    }
+
+    /**
+     * Appends to a route the child indexes that lead from a node of n
+     * entries to one of them, through the pages. The last page of a node
+     * may be shallower than the others.
+     *
+     * @return the length of the route.
+     */
+    private static int route(int[] r, int depth, int n, int entry) {
+        int from = 0;
+        int to = n;
+        while (to - from > PAGE_SIZE) {
+            long span = span(to - from);
+            int index = (int) ((entry - from) / span);
+            r[depth++] = index;
+            from = (int) (from + index * span);
+            to = (int) Math.min(to, from + span);
+        }
+        r[depth] = entry - from;
+        return depth + 1;
+    }
+
+    /**
+     * Follows the child indexes of a route from this node.
+     */
+    public ValueNode getNode(int[] route) {
+        ValueNode node = this;
+        for (int index : route) {
+            node = node.getChild(index);
+        }
+        return node;
+    }
+
+    /* entries covered by each child of a node of n > PAGE_SIZE entries */
+    private static long span(int n) {
+        long span = PAGE_SIZE;
+        while ((n + span - 1) / span > PAGE_SIZE) {
+            span *= PAGE_SIZE;
+        }
+        return span;
+    }
+
+    private static int size(FieldValue v) {
+        switch (v.getType()) {
+        case MAP:
+            return v.asMap().size();
+        case ARRAY:
+            return v.asArray().size();
+        default:
+            return 0;
+        }
+    }
+
+    /**
+     * A value found by {@link #find(String, int)}.
+     */
+    public static class Match {
+        private final String path;
+        private final int[] route;
+
+        Match(String path, int[] route) {
+            this.path = path;
+            this.route = route;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return child indexes from the node searched to the value, for
+         * {@link ValueNode#getNode(int[])}.
+         */
+        public int[] getRoute() {
+            return route;
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+}
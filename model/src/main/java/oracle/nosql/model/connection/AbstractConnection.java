@@ -11,6 +11,9 @@ public abstract class AbstractConnection implements IConnection {
     private final IConnectionProfile<?> profile;
     private int maxRetry = 10;
     private int timeoutMs = 5 * 1000;
+    private final ConnectionMetrics metrics = new ConnectionMetrics();
+    private final ResultCache resultCache = new ResultCache();
+    private final RetryPolicy retryPolicy = new RetryPolicy();
 
     protected AbstractConnection(IConnectionProfile<?> profile) {
         this.profile = profile;
@@ -31,7 +34,8 @@ public abstract class AbstractConnection implements IConnection {
     }
 
     /**
-     * Sets maximum number of retires when an operation fails.
+     * Sets maximum number of retires when an operation fails, whatever
+     * the cause of the failures.
      * 
      * @param maxRetry a non-zero positive number.
      * 
@@ -44,6 +48,7 @@ public abstract class AbstractConnection implements IConnection {
                     " must be greater than or equal to 0");
         }
         this.maxRetry = maxRetry;
+        retryPolicy.setMaxRetries(maxRetry);
         return this;
     }
 
@@ -57,7 +62,8 @@ public abstract class AbstractConnection implements IConnection {
     }
 
     /**
-     * Sets maximum timeout in millisecond.
+     * Sets maximum timeout in millisecond, after which an operation that
+     * fails is no longer retried.
      * 
      * @param timeoutMs a non-zero positive number.
      * @return the same connection
@@ -69,9 +75,29 @@ public abstract class AbstractConnection implements IConnection {
                     " must be greater than 0");
         }
         this.timeoutMs = timeoutMs;
+        retryPolicy.setBudgetMillis(timeoutMs);
         return this;
     }
 
+    @Override
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Gets the policy by which failed operations are retried.
+     *
+     * @return the retry policy of this connection.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
     @Override
     public String getConnectionString() {
         return "in-memory";
@@ -0,0 +1,543 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.GetResult;
+import oracle.nosql.driver.ops.QueryRequest;
+import oracle.nosql.driver.ops.QueryResult;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.event.ExportEvent;
+
+/**
+ * Writes the binary columns of rows of a table to files, one file per
+ * non-null value, named after the table, the primary key of the row and the
+ * column. A name also holds a hash of the primary key, as the key values
+ * are shortened and their characters replaced; an existing file is never
+ * overwritten, the value is reported as failed instead.
+ * <br>
+ * Rows are either given, e.g. the rows selected in a table view, or the
+ * results of a query. A given row that does not hold the binary columns is
+ * fetched by its primary key. Fetches and writes run on a pool of
+ * {@link #setParallelism(int) a few threads}; each value is written to its
+ * file through a channel as soon as its row is read, and is dropped once
+ * written. The driver reads whole rows, so the values of rows read but not
+ * yet written are what is held in memory, whether they were given, returned
+ * by the query or fetched by key: their size is capped by
+ * {@link #setMaxBufferedBytes(long)}, and the reading of the next rows waits
+ * while the cap is reached.
+ */
+public class BinaryExporter {
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final long DEFAULT_MAX_BUFFERED_BYTES = 64L << 20;
+    /** errors kept in a result, at most */
+    static final int MAX_ERRORS = 10;
+
+    private final NoSQLHandle handle;
+    private final String table;
+    private final List<String> primaryKey;
+    private final List<String> columns;
+    private final Path directory;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private long maxBufferedBytes = DEFAULT_MAX_BUFFERED_BYTES;
+    private volatile boolean cancelled;
+
+    /**
+     * @param handle handle to read rows with
+     * @param table name of the table
+     * @param primaryKey names of the primary key columns
+     * @param columns names of the binary columns to export
+     * @param directory directory to write the files to
+     */
+    public BinaryExporter(NoSQLHandle handle, String table,
+            List<String> primaryKey, List<String> columns, Path directory) {
+        this.handle = handle;
+        this.table = table;
+        this.primaryKey = primaryKey;
+        this.columns = columns;
+        this.directory = directory;
+    }
+
+    /**
+     * @param parallelism number of rows fetched or values written at once
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param maxBufferedBytes size of the values read but not yet written,
+     * at most. A single larger value is still exported, alone.
+     */
+    public void setMaxBufferedBytes(long maxBufferedBytes) {
+        if (maxBufferedBytes < 1) {
+            throw new IllegalArgumentException(
+                    "buffer must be positive: " + maxBufferedBytes);
+        }
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Stops an export in progress: no more rows are read and values not
+     * yet written are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Exports the binary columns of given rows. The values a row holds are
+     * written as they are; a row missing a binary column is read again by
+     * its primary key, which the row must hold.
+     *
+     * @param rows the rows
+     * @param listener told of the progress, may be null
+     * @return what was exported.
+     * @throws InterruptedException if the thread is interrupted while the
+     * export is in progress; the export is then cancelled.
+     */
+    public Result exportRows(List<MapValue> rows, Listener listener)
+            throws InterruptedException {
+        Run run = new Run(listener, rows.size());
+        try {
+            for (MapValue row : rows) {
+                if (cancelled) {
+                    break;
+                }
+                if (holdsColumns(row)) {
+                    run.submit(row);
+                } else if (holdsPrimaryKey(row)) {
+                    run.fetch(primaryKeyOf(row));
+                } else {
+                    run.fail(row.toJson(), new IllegalArgumentException(
+                            "row misses primary key"));
+                    run.progress();
+                }
+            }
+        } finally {
+            run.finish();
+        }
+        return run.result;
+    }
+
+    /**
+     * Exports the binary columns of the rows a query returns, e.g.
+     * {@code SELECT * FROM images WHERE kind = "png"}. The query must
+     * select the primary key and binary columns of the table.
+     *
+     * @param statement the query
+     * @param listener told of the progress, may be null
+     * @return what was exported.
+     * @throws InterruptedException if the thread is interrupted while the
+     * export is in progress; the export is then cancelled.
+     */
+    public Result exportQuery(String statement, Listener listener)
+            throws InterruptedException {
+        Run run = new Run(listener, -1);
+        try (QueryRequest request = new QueryRequest()) {
+            request.setStatement(statement);
+            do {
+                QueryResult result = handle.query(request);
+                for (MapValue row : result.getResults()) {
+                    if (cancelled) {
+                        break;
+                    }
+                    run.submit(row);
+                }
+            } while (!cancelled && !request.isDone());
+        } catch (RuntimeException e) {
+            run.fail(statement, e);
+        } finally {
+            run.finish();
+        }
+        return run.result;
+    }
+
+    /**
+     * @param row a row holding the primary key
+     * @param column a binary column
+     * @return the file a value of the row is exported to: the table, the
+     * key values, a hash of the key and the column. Rows with different
+     * keys are exported to different files, but for a collision of hashes.
+     */
+    public Path fileFor(MapValue row, String column) {
+        StringBuilder name = new StringBuilder(table);
+        MapValue key = new MapValue(true, primaryKey.size());
+        for (String keyColumn : primaryKey) {
+            FieldValue v = row.get(keyColumn);
+            name.append('-').append(v == null ? "null"
+                    : v.getType() == FieldValue.Type.STRING ? v.getString()
+                    : v.toJson());
+            if (v != null) {
+                key.put(keyColumn, v);
+            }
+        }
+        // no separators or characters some file systems refuse
+        String file = name.toString().replaceAll("[^\\w.=+-]", "_");
+        if (file.length() > 160) {
+            file = file.substring(0, 160);
+        }
+        return directory.resolve(file + '-' + hash(key.toJson()) + '-'
+                + column.replaceAll("[^\\w.=+-]", "_") + ".bin");
+    }
+
+    /* first 8 bytes of the SHA-256 of a text, in hex */
+    private static String hash(String text) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        byte[] digest = md.digest(text.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            sb.append(Character.forDigit((digest[i] >> 4) & 0xf, 16))
+                    .append(Character.forDigit(digest[i] & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes bytes to a file through a channel, replacing the file.
+     *
+     * @return the number of bytes written.
+     */
+    public static long write(byte[] bytes, Path file) throws IOException {
+        return write(bytes, file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes bytes to a new file through a channel.
+     *
+     * @return the number of bytes written.
+     * @throws FileAlreadyExistsException if the file exists.
+     */
+    public static long writeNew(byte[] bytes, Path file) throws IOException {
+        return write(bytes, file, StandardOpenOption.CREATE_NEW);
+    }
+
+    private static long write(byte[] bytes, Path file,
+            StandardOpenOption... options) throws IOException {
+        StandardOpenOption[] all = Arrays.copyOf(options, options.length + 1);
+        all[options.length] = StandardOpenOption.WRITE;
+        try (FileChannel channel = FileChannel.open(file, all)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return bytes.length;
+    }
+
+    private boolean holdsColumns(MapValue row) {
+        for (String column : columns) {
+            if (row.get(column) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean holdsPrimaryKey(MapValue row) {
+        for (String column : primaryKey) {
+            if (row.get(column) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MapValue primaryKeyOf(MapValue row) {
+        MapValue key = new MapValue();
+        for (String column : primaryKey) {
+            key.put(column, row.get(column));
+        }
+        return key;
+    }
+
+    private static long sizeOf(MapValue row, List<String> columns) {
+        long size = 0;
+        for (String column : columns) {
+            FieldValue v = row.get(column);
+            if (v != null && v.getType() == FieldValue.Type.BINARY) {
+                size += v.getBinary().length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * The state of one export.
+     */
+    private class Run {
+        private final Listener listener;
+        private final int total;
+        private final ExecutorService pool;
+        /* fetches queued or running, so rows are not read far ahead */
+        private final Semaphore slots;
+        /* bytes of values read but not yet written, guarded by the run */
+        private long buffered;
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicInteger files = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private final Result result = new Result();
+        private final ExportEvent event = new ExportEvent();
+
+        Run(Listener listener, int total) {
+            this.listener = listener;
+            this.total = total;
+            pool = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread t = new Thread(r, "NoSQL binary export");
+                t.setDaemon(true);
+                return t;
+            });
+            slots = new Semaphore(parallelism * 2);
+            event.begin();
+        }
+
+        /*
+         * Waits until values of a size can be held within the cap, then
+         * counts them; a value larger than the cap waits for all others to
+         * be written.
+         */
+        synchronized void reserve(long size) throws InterruptedException {
+            while (buffered > 0 && buffered + size > maxBufferedBytes) {
+                wait();
+            }
+            buffered += size;
+        }
+
+        /* counts values read already, e.g. fetched, without waiting */
+        synchronized void hold(long size) {
+            buffered += size;
+        }
+
+        synchronized void written(long size) {
+            buffered -= size;
+            notifyAll();
+        }
+
+        /* writes the values of a row read already */
+        void submit(MapValue row) throws InterruptedException {
+            long size = sizeOf(row, columns);
+            reserve(size);
+            try {
+                pool.execute(() -> {
+                    try {
+                        write(row);
+                    } finally {
+                        written(size);
+                    }
+                });
+            } catch (RuntimeException e) {
+                written(size);
+                throw e;
+            }
+        }
+
+        /*
+         * Reads a row by its key, then writes its values. The get is issued
+         * once the values held are within the cap; the row it reads is
+         * counted until written.
+         */
+        void fetch(MapValue key) throws InterruptedException {
+            reserve(0);
+            slots.acquire();
+            try {
+                pool.execute(() -> {
+                    try {
+                        if (cancelled) {
+                            return;
+                        }
+                        GetResult got = handle.get(new GetRequest()
+                                .setTableName(table).setKey(key));
+                        if (got.getValue() == null) {
+                            fail(key.toJson(), new IllegalStateException(
+                                    "row not found"));
+                            progress();
+                            return;
+                        }
+                        long size = sizeOf(got.getValue(), columns);
+                        hold(size);
+                        try {
+                            write(got.getValue());
+                        } finally {
+                            written(size);
+                        }
+                    } catch (RuntimeException e) {
+                        fail(key.toJson(), e);
+                        progress();
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+        }
+
+        private void write(MapValue row) {
+            for (String column : columns) {
+                if (cancelled) {
+                    return;
+                }
+                FieldValue v = row.get(column);
+                if (v == null || v.getType() != FieldValue.Type.BINARY) {
+                    continue;
+                }
+                Path file = fileFor(row, column);
+                try {
+                    bytes.addAndGet(writeNew(v.getBinary(), file));
+                    files.incrementAndGet();
+                    synchronized (result) {
+                        result.files.add(file);
+                    }
+                } catch (FileAlreadyExistsException e) {
+                    // another row, or an earlier export, has the same name
+                    fail(file.getFileName().toString(),
+                            new IOException("file exists, not overwritten"));
+                } catch (IOException | RuntimeException e) {
+                    fail(file.getFileName().toString(), e);
+                }
+            }
+            progress();
+        }
+
+        void progress() {
+            int done = rows.incrementAndGet();
+            if (listener != null) {
+                listener.progress(done, total, files.get(), bytes.get());
+            }
+        }
+
+        void fail(String what, Exception e) {
+            synchronized (result) {
+                result.failures++;
+                if (result.errors.size() < MAX_ERRORS) {
+                    result.errors.add(what + ": " + e.getMessage());
+                }
+            }
+        }
+
+        void finish() throws InterruptedException {
+            pool.shutdown();
+            try {
+                while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    // waits for the values being written
+                }
+            } catch (InterruptedException e) {
+                cancel();
+                pool.shutdownNow();
+                throw e;
+            } finally {
+                result.rows = rows.get();
+                result.bytes = bytes.get();
+                result.cancelled = cancelled;
+                if (event.shouldCommit()) {
+                    event.setKind("binary");
+                    event.setTable(table);
+                    event.setPath(directory.toString());
+                    event.setRows(files.get());
+                    event.setBytes(bytes.get());
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Is told of the progress of an export, from the threads of the export.
+     */
+    public interface Listener {
+        /**
+         * @param rows rows done so far
+         * @param total rows to export, or -1 if not known, e.g. for a query
+         * @param files files written so far
+         * @param bytes bytes written so far
+         */
+        void progress(int rows, int total, int files, long bytes);
+    }
+
+    /**
+     * What an export did.
+     */
+    public static class Result {
+        private final List<Path> files = new ArrayList<Path>();
+        private final List<String> errors = new ArrayList<String>();
+        private int rows;
+        private long bytes;
+        private int failures;
+        private boolean cancelled;
+
+        /**
+         * @return the files written, in no particular order.
+         */
+        public List<Path> getFiles() {
+            return Collections.unmodifiableList(files);
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return number of rows or values that could not be exported.
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return messages of the first failures.
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
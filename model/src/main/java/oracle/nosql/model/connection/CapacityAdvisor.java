@@ -0,0 +1,263 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import oracle.nosql.driver.ops.TableLimits;
+
+/**
+ * Recommends the capacity of a table from its {@link UsageHistory}.
+ * <br>
+ * The read and write units per second of every recorded period give the
+ * 95th percentile and the peak demand of the table. Provisioned options are
+ * sized for each with a headroom on top; the on demand option has no units
+ * to size but is capped per table by the service. The throttling risk of an
+ * option is the fraction of recorded periods whose demand it would not have
+ * served.
+ * <br>
+ * Usage is recorded per minute, so bursts within a minute do not show and
+ * demand that was throttled was not consumed; the risk is a lower bound,
+ * to be read along with the periods throttled under the current limits.
+ */
+public class CapacityAdvisor {
+    /** provisioned read units of a table, at most */
+    public static final int MAX_READ_UNITS = 40000;
+    /** provisioned write units of a table, at most */
+    public static final int MAX_WRITE_UNITS = 20000;
+    public static final int MAX_STORAGE_GB = 5000;
+    /** read units per second an on demand table is served, at most */
+    public static final int ON_DEMAND_READ_UNITS = 10000;
+    /** write units per second an on demand table is served, at most */
+    public static final int ON_DEMAND_WRITE_UNITS = 5000;
+    public static final double DEFAULT_HEADROOM = 0.2;
+
+    private final UsageHistory history;
+    private final TableLimits current;
+    private final double[] reads;
+    private final double[] writes;
+    private final double[] sortedReads;
+    private final double[] sortedWrites;
+    private int maxStorageGB;
+    private int throttledPeriods;
+    private double headroom = DEFAULT_HEADROOM;
+
+    /**
+     * @param history usage of the table, copied by the caller if it is
+     * still being recorded
+     * @param current current limits of the table, or null if not known
+     */
+    public CapacityAdvisor(UsageHistory history, TableLimits current) {
+        this.history = history;
+        this.current = current;
+        int n = history.size();
+        reads = new double[n];
+        writes = new double[n];
+        for (int i = 0; i < n; i++) {
+            reads[i] = history.getReadUnitsPerSecond(i);
+            writes[i] = history.getWriteUnitsPerSecond(i);
+            maxStorageGB = Math.max(maxStorageGB, history.getStorageGB(i));
+            if (history.getReadThrottles(i) + history.getWriteThrottles(i)
+                    + history.getStorageThrottles(i) > 0) {
+                throttledPeriods++;
+            }
+        }
+        sortedReads = reads.clone();
+        sortedWrites = writes.clone();
+        Arrays.sort(sortedReads);
+        Arrays.sort(sortedWrites);
+    }
+
+    /**
+     * Sets the share of capacity added on top of the demand an option is
+     * sized for, e.g. 0.2 for 20%.
+     */
+    public CapacityAdvisor setHeadroom(double headroom) {
+        if (headroom < 0) {
+            throw new IllegalArgumentException(
+                    "headroom must not be negative, not " + headroom);
+        }
+        this.headroom = headroom;
+        return this;
+    }
+
+    public double getHeadroom() {
+        return headroom;
+    }
+
+    public int getPeriods() {
+        return reads.length;
+    }
+
+    /**
+     * @return number of periods in which requests were throttled.
+     */
+    public int getThrottledPeriods() {
+        return throttledPeriods;
+    }
+
+    /**
+     * @param p percentile between 0 and 100
+     * @return read units per second not exceeded in p% of the periods.
+     */
+    public double getReadPercentile(double p) {
+        return percentile(sortedReads, p);
+    }
+
+    /**
+     * @param p percentile between 0 and 100
+     * @return write units per second not exceeded in p% of the periods.
+     */
+    public double getWritePercentile(double p) {
+        return percentile(sortedWrites, p);
+    }
+
+    public int getMaxStorageGB() {
+        return maxStorageGB;
+    }
+
+    /**
+     * @return the options, the current limits first if they are provisioned.
+     */
+    public List<Option> recommend() {
+        List<Option> options = new ArrayList<>();
+        int storage = units(maxStorageGB, MAX_STORAGE_GB);
+        boolean onDemand = current != null && current.getReadUnits() <= 0;
+        if (current != null && !onDemand) {
+            options.add(option("Current", current.getReadUnits(),
+                    current.getWriteUnits(), current.getStorageGB()));
+        }
+        options.add(option("Provisioned for p95",
+                units(getReadPercentile(95), MAX_READ_UNITS),
+                units(getWritePercentile(95), MAX_WRITE_UNITS), storage));
+        options.add(option("Provisioned for peak",
+                units(getReadPercentile(100), MAX_READ_UNITS),
+                units(getWritePercentile(100), MAX_WRITE_UNITS), storage));
+        options.add(new Option(onDemand ? "On demand (current)" : "On demand",
+                new TableLimits(onDemand ? current.getStorageGB() : storage),
+                ON_DEMAND_READ_UNITS, ON_DEMAND_WRITE_UNITS));
+        return options;
+    }
+
+    /**
+     * Tells when in the day the demand exceeds an option, e.g. to raise the
+     * limits of the table for those hours only.
+     *
+     * @param option an option of {@link #recommend()}
+     * @param zone time zone of the hours
+     * @return the hours of the day, 0 to 23, of the periods whose demand
+     * exceeded the option.
+     */
+    public List<Integer> getHoursAbove(Option option, TimeZone zone) {
+        boolean[] hours = new boolean[24];
+        Calendar calendar = Calendar.getInstance(zone);
+        for (int i = 0; i < reads.length; i++) {
+            if (option.exceeds(i)) {
+                calendar.setTimeInMillis(history.getStart(i));
+                hours[calendar.get(Calendar.HOUR_OF_DAY)] = true;
+            }
+        }
+        List<Integer> above = new ArrayList<>();
+        for (int h = 0; h < hours.length; h++) {
+            if (hours[h]) {
+                above.add(h);
+            }
+        }
+        return above;
+    }
+
+    private Option option(String name, int readUnits, int writeUnits,
+            int storageGB) {
+        return new Option(name,
+                new TableLimits(readUnits, writeUnits, storageGB),
+                readUnits, writeUnits);
+    }
+
+    private int units(double demand, int max) {
+        // 5 * 1.2 is 6.000000000000001, which is no reason for a 7th unit
+        return clamp((int) Math.ceil(demand * (1 + headroom) - 1e-9), max);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(max, value));
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Limits to set on the table and the risk of throttling under them.
+     */
+    public class Option {
+        private final String name;
+        private final TableLimits limits;
+        private final int readUnits;
+        private final int writeUnits;
+        private final int exceededPeriods;
+
+        /**
+         * @param readUnits read units per second served, at most
+         * @param writeUnits write units per second served, at most
+         */
+        Option(String name, TableLimits limits, int readUnits,
+                int writeUnits) {
+            this.name = name;
+            this.limits = limits;
+            this.readUnits = readUnits;
+            this.writeUnits = writeUnits;
+            int n = 0;
+            for (int i = 0; i < reads.length; i++) {
+                if (exceeds(i)) {
+                    n++;
+                }
+            }
+            exceededPeriods = n;
+        }
+
+        boolean exceeds(int period) {
+            return reads[period] > readUnits || writes[period] > writeUnits;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TableLimits getLimits() {
+            return limits;
+        }
+
+        public boolean isOnDemand() {
+            return limits.getReadUnits() <= 0;
+        }
+
+        /**
+         * @return number of recorded periods whose demand exceeded the
+         * units of this option.
+         */
+        public int getExceededPeriods() {
+            return exceededPeriods;
+        }
+
+        /**
+         * @return fraction of the recorded periods whose demand this option
+         * would not have served.
+         */
+        public double getThrottlingRisk() {
+            return reads.length == 0 ? 0 : (double) exceededPeriods / reads.length;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Fails requests fast while the endpoint of a connection is unreachable,
+ * instead of letting each of them wait for its own timeouts. <br>
+ * The breaker opens after a number of consecutive attempts failed to reach
+ * the endpoint. While open, requests are rejected. After a cool down, one
+ * request is let through: the breaker closes if it reaches the endpoint,
+ * whatever its result, and opens again if not.
+ */
+public class CircuitBreaker {
+    public static final int DEFAULT_THRESHOLD = 5;
+    public static final long DEFAULT_COOL_DOWN_MILLIS = 30 * 1000;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final LongSupplier clock;
+    private int threshold = DEFAULT_THRESHOLD;
+    private long coolDownMillis = DEFAULT_COOL_DOWN_MILLIS;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private long opened;
+
+    public CircuitBreaker() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     */
+    public CircuitBreaker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param threshold consecutive failures that open the breaker
+     * @param coolDownMillis time the breaker stays open before a request is
+     * let through
+     */
+    public synchronized void configure(int threshold, long coolDownMillis) {
+        this.threshold = threshold;
+        this.coolDownMillis = coolDownMillis;
+    }
+
+    /**
+     * Lets a request through, or rejects it.
+     *
+     * @throws OpenException if the breaker is open, or half open with the
+     * trial request still running.
+     */
+    public synchronized void acquire() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long wait = openedAt + coolDownMillis - clock.getAsLong();
+        if (state == State.OPEN && wait <= 0) {
+            state = State.HALF_OPEN;
+            return;
+        }
+        throw new OpenException("endpoint unreachable after " + failures
+                + " failed attempts, requests fail fast for "
+                + Math.max(1, (wait + 999) / 1000) + " s");
+    }
+
+    /**
+     * Records an attempt that reached the endpoint.
+     */
+    public synchronized void succeeded() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records an attempt that could not reach the endpoint.
+     */
+    public synchronized void failed() {
+        failures++;
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && failures >= threshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            opened++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return number of times the breaker opened.
+     */
+    public synchronized long getOpenedCount() {
+        return opened;
+    }
+
+    /**
+     * Thrown instead of issuing a request while the breaker is open.
+     */
+    public static class OpenException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        OpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.util.LatencyHistogram;
+
+/**
+ * Statistics of the requests issued through a {@link IConnection connection},
+ * kept per operation and table. Each entry records a
+ * {@link LatencyHistogram latency histogram}, the number of failed and
+ * throttled requests, retries and the read/write capacity consumed. <br>
+ * Recording is thread-safe and cheap enough to be always on.
+ */
+public class ConnectionMetrics {
+    /** Table name used for requests that do not address a table. */
+    public static final String NO_TABLE = "";
+
+    private final ConcurrentMap<String, OperationStats> stats =
+            new ConcurrentHashMap<String, OperationStats>();
+    private final ConcurrentMap<String, LongAdder> retriesByCause =
+            new ConcurrentHashMap<String, LongAdder>();
+    private final LongAdder rejected = new LongAdder();
+    private final ThreadLocal<Cost> capture = new ThreadLocal<Cost>();
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Gets the statistics of an operation on a table, creating them if
+     * necessary.
+     *
+     * @param operation name of the operation e.g. <code>query</code>
+     * @param tableName name of the table or null
+     * @return statistics, never null
+     */
+    public OperationStats get(String operation, String tableName) {
+        String table = tableName == null ? NO_TABLE : tableName;
+        String key = operation + '\u0000' + table.toLowerCase();
+        OperationStats s = stats.get(key);
+        if (s == null) {
+            OperationStats created = new OperationStats(operation, table);
+            s = stats.putIfAbsent(key, created);
+            if (s == null) {
+                s = created;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Records a request retried by the {@link RetryPolicy retry policy}.
+     *
+     * @param cause name of the cause of the failure e.g.
+     * <code>THROTTLING</code>
+     */
+    public void recordRetry(String cause) {
+        retriesByCause.computeIfAbsent(cause, c -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * @param cause name of the cause of the failures
+     * @return number of retries for a cause.
+     */
+    public long getRetries(String cause) {
+        LongAdder count = retriesByCause.get(cause);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Records a request failed fast by an open {@link CircuitBreaker}.
+     */
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * @return number of requests failed fast by an open circuit breaker.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Starts adding up the cost of requests issued by the current thread, so
+     * that the cost of a single statement can be reported. Captures nest; the
+     * cost of an inner capture is added to the outer one when it is closed.
+     *
+     * @return a capture to be closed by the same thread
+     */
+    public Cost startCapture() {
+        Cost cost = new Cost(capture.get());
+        capture.set(cost);
+        return cost;
+    }
+
+    /**
+     * Adds the cost of a request to the capture of the current thread, if
+     * any.
+     *
+     * @param readKB read capacity consumed
+     * @param writeKB write capacity consumed
+     * @param readUnits read units consumed
+     * @param writeUnits write units consumed
+     */
+    public void capture(int readKB, int writeKB, int readUnits,
+            int writeUnits) {
+        Cost cost = capture.get();
+        if (cost != null) {
+            cost.add(1, readKB, writeKB, readUnits, writeUnits);
+        }
+    }
+
+    /**
+     * @return statistics of all operations recorded so far ordered by
+     * operation and table
+     */
+    public List<OperationStats> getAll() {
+        List<OperationStats> all = new ArrayList<OperationStats>(stats.values());
+        Collections.sort(all, Comparator
+                .comparing(OperationStats::getOperation)
+                .thenComparing(OperationStats::getTableName));
+        return all;
+    }
+
+    /**
+     * @return time in epoch milliseconds since which statistics are recorded
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Discards all statistics.
+     */
+    public void reset() {
+        stats.clear();
+        retriesByCause.clear();
+        rejected.reset();
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * Renders the statistics as JSON. Latencies are in microseconds.
+     *
+     * @return a JSON object with a <code>since</code> timestamp, the
+     * <code>retries</code> per cause, the number of <code>rejected</code>
+     * requests and an <code>operations</code> array
+     */
+    public MapValue toJson() {
+        MapValue json = new MapValue();
+        json.put("since", since);
+        MapValue retries = new MapValue();
+        for (String cause : new TreeSet<String>(
+                retriesByCause.keySet())) {
+            retries.put(cause, getRetries(cause));
+        }
+        json.put("retries", retries);
+        json.put("rejected", getRejected());
+        ArrayValue operations = new ArrayValue();
+        for (OperationStats s : getAll()) {
+            operations.add(s.toJson());
+        }
+        json.put("operations", operations);
+        return json;
+    }
+
+    /**
+     * The cost of requests issued by a thread between
+     * {@link ConnectionMetrics#startCapture() start} and {@link #close()}.
+     */
+    public class Cost implements AutoCloseable {
+        private final Cost parent;
+        private int requests;
+        private long readKB;
+        private long writeKB;
+        private long readUnits;
+        private long writeUnits;
+        private boolean closed;
+
+        Cost(Cost parent) {
+            this.parent = parent;
+        }
+
+        void add(int requests, long readKB, long writeKB, long readUnits,
+                long writeUnits) {
+            this.requests += requests;
+            this.readKB += readKB;
+            this.writeKB += writeKB;
+            this.readUnits += readUnits;
+            this.writeUnits += writeUnits;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public long getReadKB() {
+            return readKB;
+        }
+
+        public long getWriteKB() {
+            return writeKB;
+        }
+
+        public long getReadUnits() {
+            return readUnits;
+        }
+
+        public long getWriteUnits() {
+            return writeUnits;
+        }
+
+        /**
+         * Stops capturing. Must be called by the thread that started the
+         * capture.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                capture.remove();
+            } else {
+                parent.add(requests, readKB, writeKB, readUnits, writeUnits);
+                capture.set(parent);
+            }
+        }
+    }
+
+    /**
+     * Statistics of a single operation on a single table.
+     */
+    public static class OperationStats {
+        private final String operation;
+        private final String tableName;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder readKB = new LongAdder();
+        private final LongAdder writeKB = new LongAdder();
+        private final LongAdder readUnits = new LongAdder();
+        private final LongAdder writeUnits = new LongAdder();
+
+        OperationStats(String operation, String tableName) {
+            this.operation = operation;
+            this.tableName = tableName;
+        }
+
+        /**
+         * Records a successful request.
+         *
+         * @param nanos duration of the request
+         * @param retryCount number of times the request was retried
+         * @param readKB read capacity consumed
+         * @param writeKB write capacity consumed
+         * @param readUnits read units consumed
+         * @param writeUnits write units consumed
+         */
+        public void recordSuccess(long nanos, int retryCount, int readKB,
+                int writeKB, int readUnits, int writeUnits) {
+            latency.recordNanos(nanos);
+            this.retries.add(retryCount);
+            this.readKB.add(readKB);
+            this.writeKB.add(writeKB);
+            this.readUnits.add(readUnits);
+            this.writeUnits.add(writeUnits);
+        }
+
+        /**
+         * Records a failed request.
+         *
+         * @param nanos duration of the request
+         * @param retryCount number of times the request was retried
+         * @param throttled whether the request failed for exceeding
+         * provisioned throughput
+         */
+        public void recordFailure(long nanos, int retryCount,
+                boolean throttled) {
+            latency.recordNanos(nanos);
+            this.retries.add(retryCount);
+            errors.increment();
+            if (throttled) {
+                throttles.increment();
+            }
+        }
+
+        /**
+         * Records a request failed fast by an open {@link CircuitBreaker}.
+         */
+        public void recordRejected() {
+            rejected.increment();
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getThrottles() {
+            return throttles.sum();
+        }
+
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public long getReadKB() {
+            return readKB.sum();
+        }
+
+        public long getWriteKB() {
+            return writeKB.sum();
+        }
+
+        public long getReadUnits() {
+            return readUnits.sum();
+        }
+
+        public long getWriteUnits() {
+            return writeUnits.sum();
+        }
+
+        MapValue toJson() {
+            MapValue json = new MapValue();
+            json.put("operation", operation);
+            json.put("table", tableName);
+            json.put("count", getCount());
+            json.put("errors", getErrors());
+            json.put("throttles", getThrottles());
+            json.put("retries", getRetries());
+            json.put("rejected", getRejected());
+            json.put("readKB", getReadKB());
+            json.put("writeKB", getWriteKB());
+            json.put("readUnits", getReadUnits());
+            json.put("writeUnits", getWriteUnits());
+            MapValue micros = new MapValue();
+            micros.put("mean", latency.getMeanMicros());
+            micros.put("p50", latency.getPercentileMicros(50));
+            micros.put("p90", latency.getPercentileMicros(90));
+            micros.put("p99", latency.getPercentileMicros(99));
+            micros.put("p999", latency.getPercentileMicros(99.9));
+            micros.put("max", latency.getMaxMicros());
+            json.put("latencyMicros", micros);
+            return json;
+        }
+    }
+}
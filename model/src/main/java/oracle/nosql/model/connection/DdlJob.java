@@ -0,0 +1,196 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import oracle.nosql.driver.ops.TableResult;
+
+/**
+ * A table operation submitted to a {@link DdlJobManager}. The state of a job
+ * is updated by the manager; a job is {@link #isDone() done} once it has
+ * succeeded or failed.
+ */
+public class DdlJob {
+    private static final AtomicLong IDS = new AtomicLong();
+
+    /**
+     * State of a job.
+     */
+    public enum State {
+        /** waiting for an earlier job on the same table */
+        QUEUED,
+        /** submitted to the database, waiting for the table operation */
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final long id = IDS.incrementAndGet();
+    private final String table;
+    private final String statement;
+    private final long submitTime = System.currentTimeMillis();
+    private final long deadline;
+    private final CompletableFuture<DdlJob> done = new CompletableFuture<>();
+    private volatile State state = State.QUEUED;
+    private volatile long endTime;
+    private volatile String operationId;
+    private volatile TableResult result;
+    private volatile Throwable error;
+    private volatile int polls;
+
+    DdlJob(String table, String statement, long timeoutMillis) {
+        this.table = table;
+        this.statement = statement;
+        this.deadline = submitTime + timeoutMillis;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return name of the table the job operates on, null if none
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the DDL statement or a description of the operation
+     */
+    public String getStatement() {
+        return statement;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isDone() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    public long getSubmitTime() {
+        return submitTime;
+    }
+
+    /**
+     * @return time since the job was submitted, until it was done
+     */
+    public long getElapsedMillis() {
+        return (isDone() ? endTime : System.currentTimeMillis()) - submitTime;
+    }
+
+    /**
+     * @return id of the operation in the database, null before the job
+     * runs or if the database did not return one
+     */
+    public String getOperationId() {
+        return operationId;
+    }
+
+    /**
+     * @return the latest state of the table as seen by the job, null if
+     * not known yet
+     */
+    public TableResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return state of the table as seen last, null if not known
+     */
+    public String getTableState() {
+        TableResult r = result;
+        return r == null || r.getTableState() == null ? null
+                : r.getTableState().name();
+    }
+
+    /**
+     * @return the cause of failure, null unless the job failed
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return number of times the state of the operation was polled
+     */
+    public int getPolls() {
+        return polls;
+    }
+
+    /**
+     * Calls the given action once this job is done, immediately if it is
+     * done already. The action runs on the polling thread of the manager
+     * and so must not block.
+     */
+    public DdlJob whenDone(Consumer<DdlJob> action) {
+        done.thenAccept(action);
+        return this;
+    }
+
+    /**
+     * Blocks until this job is done.
+     *
+     * @param timeoutMillis the longest time to wait
+     * @return the final state of the table
+     * @throws Exception the error of the job if it failed, or an
+     * IllegalStateException if it was not done in time
+     */
+    public TableResult await(long timeoutMillis) throws Exception {
+        try {
+            done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timeout waiting for " + statement
+                    + ", timeoutMs=" + timeoutMillis + ", table state: "
+                    + getTableState(), ex);
+        } catch (ExecutionException ex) {
+            // the future is only ever completed normally
+            throw new IllegalStateException(ex.getCause());
+        }
+        if (state == State.FAILED) {
+            throw error instanceof Exception ? (Exception) error
+                    : new IllegalStateException(error);
+        }
+        return result;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    void started(TableResult r) {
+        state = State.RUNNING;
+        result = r;
+        operationId = r == null ? null : r.getOperationId();
+    }
+
+    void polled(TableResult r) {
+        polls++;
+        result = r;
+    }
+
+    void finished(Throwable e) {
+        error = e;
+        endTime = System.currentTimeMillis();
+        state = e == null ? State.SUCCEEDED : State.FAILED;
+        done.complete(this);
+    }
+
+    @Override
+    public String toString() {
+        return "DdlJob" + id + "[" + state + " " + statement + "]";
+    }
+}
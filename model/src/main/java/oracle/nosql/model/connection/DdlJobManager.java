@@ -0,0 +1,292 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.RetryableException;
+import oracle.nosql.driver.ops.GetTableRequest;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.ops.TableResult;
+
+/**
+ * Runs table operations without blocking the caller. <br>
+ * A table operation is accepted by the database at once and completes in the
+ * background. A {@link DdlJob job} is submitted to the database and then its
+ * operation is polled until the table is active or dropped again. All jobs
+ * are submitted and polled by one scheduler thread. Polls of a job start
+ * often and back off exponentially, so a quick operation is seen done soon
+ * and a slow one costs few requests. A throttled submission is retried with
+ * backoff as well. <br>
+ * Jobs on the same table run one after the other, because the database
+ * accepts only one operation at a time on a table. Jobs on different tables
+ * run concurrently.
+ */
+public class DdlJobManager {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    static final long INITIAL_POLL_MILLIS = 250;
+    static final long MAX_POLL_MILLIS = 5000;
+    static final long INITIAL_THROTTLE_MILLIS = 1000;
+    static final long MAX_THROTTLE_MILLIS = 30000;
+    /** finished jobs kept for display */
+    static final int MAX_FINISHED = 200;
+    private static final Pattern TABLE = Pattern.compile(
+            "^\\s*(?:(?:CREATE|DROP|ALTER)\\s+TABLE(?:\\s+IF\\s+(?:NOT\\s+)?EXISTS)?"
+            + "|(?:CREATE|DROP)\\s+(?:FULLTEXT\\s+)?INDEX\\s+(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?"
+            + "[\\w.]+\\s+ON)\\s+([\\w.:]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Starts a table operation.
+     */
+    public interface Operation {
+        /**
+         * @return the state of the table once the operation was accepted
+         */
+        TableResult start(NoSQLHandle handle);
+    }
+
+    private final NoSQLHandle handle;
+    private final long initialPollMillis;
+    private final long maxPollMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final List<DdlJob> jobs = new CopyOnWriteArrayList<>();
+    /* jobs by table, the head is running. Only used by the scheduler. */
+    private final Map<String, Deque<Runnable>> queues = new HashMap<>();
+
+    public DdlJobManager(NoSQLHandle handle) {
+        this(handle, INITIAL_POLL_MILLIS, MAX_POLL_MILLIS);
+    }
+
+    /**
+     * @param handle handle to submit and poll operations with
+     * @param initialPollMillis delay of the first poll of an operation
+     * @param maxPollMillis longest delay between polls of an operation
+     */
+    public DdlJobManager(NoSQLHandle handle, long initialPollMillis,
+            long maxPollMillis) {
+        this.handle = handle;
+        this.initialPollMillis = initialPollMillis;
+        this.maxPollMillis = maxPollMillis;
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "NoSQL DDL jobs");
+            t.setDaemon(true);
+            return t;
+        });
+        // the thread exits while no job is pending
+        scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a DDL statement on the table it names.
+     *
+     * @param statement a DDL statement
+     * @return the job, not yet started
+     * @see #tableOf(String)
+     */
+    public DdlJob submit(String statement) {
+        return submit(tableOf(statement), statement);
+    }
+
+    /**
+     * Submits a DDL statement.
+     *
+     * @param table name of the table the statement operates on, null if it
+     * does not operate on a table
+     * @param statement a DDL statement
+     * @return the job, not yet started
+     */
+    public DdlJob submit(String table, String statement) {
+        return submit(table, statement, DEFAULT_TIMEOUT_MILLIS,
+                h -> h.tableRequest(new TableRequest().setStatement(statement)));
+    }
+
+    /**
+     * Submits a table operation.
+     *
+     * @param table name of the table the operation operates on, null if it
+     * does not operate on a table
+     * @param description describes the operation, e.g. its DDL statement
+     * @param timeoutMillis time after which the job fails if the operation
+     * is not complete
+     * @param operation starts the operation
+     * @return the job, not yet started
+     */
+    public DdlJob submit(String table, String description, long timeoutMillis,
+            Operation operation) {
+        DdlJob job = new DdlJob(table, description, timeoutMillis);
+        jobs.add(job);
+        scheduler.execute(() -> enqueue(job, operation));
+        return job;
+    }
+
+    /**
+     * @return jobs in the order they were submitted, including recently
+     * finished ones
+     */
+    public List<DdlJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Forgets the finished jobs.
+     */
+    public void clearFinished() {
+        jobs.removeIf(DdlJob::isDone);
+    }
+
+    /**
+     * Finds the table a DDL statement operates on.
+     *
+     * @param statement a DDL statement
+     * @return name of the table of a CREATE, ALTER or DROP of a table or an
+     * index, null for other statements
+     */
+    public static String tableOf(String statement) {
+        Matcher m = TABLE.matcher(statement);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private void enqueue(DdlJob job, Operation operation) {
+        Runnable start = () -> start(job, operation, INITIAL_THROTTLE_MILLIS);
+        if (job.getTable() == null) {
+            start.run();
+            return;
+        }
+        Deque<Runnable> queue = queues.computeIfAbsent(
+                job.getTable().toLowerCase(Locale.ROOT), k -> new ArrayDeque<>());
+        queue.add(start);
+        if (queue.size() == 1) {
+            start.run();
+        }
+    }
+
+    private void start(DdlJob job, Operation operation, long throttleDelay) {
+        TableResult r;
+        try {
+            r = operation.start(handle);
+        } catch (RetryableException ex) {
+            if (System.currentTimeMillis() + throttleDelay > job.getDeadline()) {
+                finish(job, ex);
+            } else {
+                scheduler.schedule(() -> start(job, operation,
+                        Math.min(throttleDelay * 2, MAX_THROTTLE_MILLIS)),
+                        throttleDelay, TimeUnit.MILLISECONDS);
+            }
+            return;
+        } catch (RuntimeException ex) {
+            job.started(null);
+            finish(job, ex);
+            return;
+        }
+        job.started(r);
+        if (isComplete(r)) {
+            finish(job, null);
+        } else {
+            schedulePoll(job, initialPollMillis);
+        }
+    }
+
+    private void schedulePoll(DdlJob job, long delay) {
+        scheduler.schedule(() -> poll(job, delay), delay,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(DdlJob job, long delay) {
+        TableResult last = job.getResult();
+        long next = Math.min(delay * 2, maxPollMillis);
+        try {
+            GetTableRequest request = new GetTableRequest()
+                    .setTableName(last.getTableName())
+                    .setOperationId(last.getOperationId());
+            if (last.getCompartmentId() != null) {
+                request.setCompartment(last.getCompartmentId());
+            }
+            if (last.getNamespace() != null) {
+                request.setNamespace(last.getNamespace());
+            }
+            TableResult r = handle.getTable(request);
+            job.polled(r);
+            if (isComplete(r)) {
+                finish(job, null);
+                return;
+            }
+        } catch (RetryableException ex) {
+            // poll again later
+        } catch (RuntimeException ex) {
+            finish(job, ex);
+            return;
+        }
+        if (System.currentTimeMillis() + next > job.getDeadline()) {
+            finish(job, new IllegalStateException("Timeout in " +
+                    job.getStatement() + ", table state: " +
+                    job.getTableState()));
+        } else {
+            schedulePoll(job, next);
+        }
+    }
+
+    /**
+     * An operation is complete when the table is no longer changing, or
+     * when there is nothing to poll.
+     */
+    private static boolean isComplete(TableResult r) {
+        if (r == null || r.getOperationId() == null ||
+                r.getTableName() == null) {
+            return true;
+        }
+        TableResult.State s = r.getTableState();
+        return s == TableResult.State.ACTIVE || s == TableResult.State.DROPPED;
+    }
+
+    private void finish(DdlJob job, Throwable error) {
+        job.finished(error);
+        if (job.getTable() != null) {
+            String key = job.getTable().toLowerCase(Locale.ROOT);
+            Deque<Runnable> queue = queues.get(key);
+            if (queue != null) {
+                queue.poll();
+                if (queue.isEmpty()) {
+                    queues.remove(key);
+                } else {
+                    queue.peek().run();
+                }
+            }
+        }
+        prune();
+    }
+
+    private void prune() {
+        int finished = 0;
+        for (DdlJob j : jobs) {
+            finished += j.isDone() ? 1 : 0;
+        }
+        for (DdlJob j : jobs) {
+            if (finished <= MAX_FINISHED) {
+                break;
+            }
+            if (j.isDone()) {
+                jobs.remove(j);
+                finished--;
+            }
+        }
+    }
+}
@@ -185,6 +185,15 @@ public interface IConnection {
 
     String fetchQueryPlan(String query) throws Exception;
 
+    /**
+     * Estimates the storage used by a table, to predict the cost of queries
+     * that read the whole table.
+     * 
+     * @param tableName name of the table
+     * @return size of the table in KB, or -1 if it is not known
+     */
+    long estimateTableSizeKB(String tableName);
+
     void ddlQuery(String query) throws Exception;
 
     void dmlQuery(String query) throws Exception;
@@ -274,5 +283,36 @@ public interface IConnection {
     public String systemQuery(String query);
 
     public boolean setTableLimits(Table table,TableLimits tableLimits) throws Exception;
+
+    /**
+     * Gets the statistics of requests issued through this connection.
+     * 
+     * @return metrics, never null
+     */
+    ConnectionMetrics getMetrics();
+
+    /**
+     * Gets the table operations submitted through this connection. Table
+     * operations run in the background; blocking methods of this interface
+     * that change tables wait for a job of this manager.
+     * 
+     * @return the job manager, never null
+     */
+    DdlJobManager getDdlJobs();
+
+    /**
+     * Gets the monitor polling the usage of tables of this connection.
+     * 
+     * @return the usage monitor, never null
+     */
+    UsageMonitor getUsageMonitor();
+
+    /**
+     * Gets the cache of query results read through this connection. Writes
+     * and table requests issued through the connection invalidate it.
+     * 
+     * @return the result cache, never null
+     */
+    ResultCache getResultCache();
 //    String getSDKVersion();
 }
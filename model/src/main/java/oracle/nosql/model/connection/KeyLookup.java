@@ -0,0 +1,566 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.GetResult;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.StringValue;
+import oracle.nosql.model.schema.Field;
+
+/**
+ * Reads the rows of a table by a list of primary keys, e.g. pasted by a
+ * user looking up records reported to them. <br>
+ * Keys are {@link #parseKeys(String) parsed} from lines of comma separated
+ * values, optionally under a header naming the key columns, or from lines
+ * of JSON objects. Each key is read by its own get request, a single
+ * partition read, instead of one query whose <code>OR</code> chain of keys
+ * would scan the table. Gets run on a pool of
+ * {@link #setParallelism(int) threads} and rows found are passed on as they
+ * are read, so the first ones can be shown while the others are read.
+ */
+public class KeyLookup {
+    public static final int DEFAULT_PARALLELISM = 16;
+    /** errors kept in a parse or a result, at most */
+    static final int MAX_ERRORS = 10;
+
+    private final NoSQLHandle handle;
+    private final String table;
+    private final Map<String, Field.Type> primaryKey;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private volatile boolean cancelled;
+
+    /**
+     * @param handle handle to read rows with
+     * @param table name of the table
+     * @param primaryKey types of the primary key columns, by name in key
+     * order
+     */
+    public KeyLookup(NoSQLHandle handle, String table,
+            Map<String, Field.Type> primaryKey) {
+        this.handle = handle;
+        this.table = table;
+        this.primaryKey = primaryKey;
+    }
+
+    /**
+     * @param parallelism number of rows read at once
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Stops a lookup in progress: keys not yet read are skipped.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Parses a list of primary keys, one per line. A line is either a JSON
+     * object holding the key columns, or the values of the key columns
+     * separated by commas, in key order or in the order of a first line
+     * naming the columns. A value in double quotes may hold commas; a
+     * doubled quote stands for a quote. Blank lines and lines starting with
+     * <code>#</code> are skipped, as are keys given twice.
+     *
+     * @param text the lines
+     * @return the keys, and the lines that could not be parsed.
+     */
+    public Keys parseKeys(String text) {
+        Keys keys = new Keys();
+        Map<String, MapValue> unique = new LinkedHashMap<String, MapValue>();
+        List<String> columns = new ArrayList<String>(primaryKey.keySet());
+        boolean first = true;
+        String[] lines = text.split("\r?\n|\r");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                MapValue key;
+                if (line.startsWith("{")) {
+                    key = fromJson(line);
+                } else {
+                    List<String> cells = new ArrayList<String>();
+                    List<Boolean> quoted = new ArrayList<Boolean>();
+                    splitCsv(line, cells, quoted);
+                    List<String> header = first ? header(cells) : null;
+                    if (header != null) {
+                        columns = header;
+                        first = false;
+                        continue;
+                    }
+                    key = fromCsv(columns, cells, quoted);
+                }
+                unique.putIfAbsent(key.toJson(), key);
+            } catch (IllegalArgumentException e) {
+                keys.invalid++;
+                if (keys.errors.size() < MAX_ERRORS) {
+                    keys.errors.add("line " + (n + 1) + ": " + e.getMessage());
+                }
+            }
+            first = false;
+        }
+        keys.keys.addAll(unique.values());
+        return keys;
+    }
+
+    private MapValue fromJson(String line) {
+        FieldValue json;
+        try {
+            json = FieldValue.createFromJson(line, null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                    "not a JSON object: " + e.getMessage(), e);
+        }
+        if (json.getType() != FieldValue.Type.MAP) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        MapValue key = new MapValue(true, primaryKey.size());
+        for (Map.Entry<String, Field.Type> column : primaryKey.entrySet()) {
+            FieldValue value = json.asMap().get(column.getKey());
+            if (value == null || value.isNull() || value.isJsonNull()) {
+                throw new IllegalArgumentException(
+                        "missing key column " + column.getKey());
+            }
+            if (value.getType() == FieldValue.Type.STRING
+                    && !isString(column.getValue())) {
+                value = RowChangeset.parseValue(column.getValue(),
+                        value.getString());
+            }
+            key.put(column.getKey(), value);
+        }
+        return key;
+    }
+
+    private MapValue fromCsv(List<String> columns, List<String> cells,
+            List<Boolean> quoted) {
+        if (cells.size() != columns.size()) {
+            throw new IllegalArgumentException("expected "
+                    + columns.size() + " value(s) of " + columns
+                    + ", found " + cells.size());
+        }
+        MapValue key = new MapValue(true, primaryKey.size());
+        for (String column : primaryKey.keySet()) {
+            int i = columns.indexOf(column);
+            String cell = cells.get(i);
+            Field.Type type = primaryKey.get(column);
+            FieldValue value = isString(type) ? new StringValue(cell)
+                    : RowChangeset.parseValue(type, cell);
+            if (value.isNull() || (cell.isEmpty() && !quoted.get(i))) {
+                throw new IllegalArgumentException(
+                        "missing key column " + column);
+            }
+            key.put(column, value);
+        }
+        return key;
+    }
+
+    /* key columns in the order of a first line naming them all, or null */
+    private List<String> header(List<String> cells) {
+        if (cells.size() != primaryKey.size()) {
+            return null;
+        }
+        Map<String, String> names = new LinkedHashMap<String, String>();
+        for (String column : primaryKey.keySet()) {
+            names.put(column.toLowerCase(Locale.ROOT), column);
+        }
+        List<String> columns = new ArrayList<String>();
+        for (String cell : cells) {
+            String column = names.remove(cell.toLowerCase(Locale.ROOT));
+            if (column == null) {
+                return null;
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    private static boolean isString(Field.Type type) {
+        return type == Field.Type.STRING || type == Field.Type.ENUM
+                || type == Field.Type.TIMESTAMP;
+    }
+
+    /**
+     * Splits a line of comma separated values.
+     *
+     * @param line the line
+     * @param cells receives the values, trimmed unless quoted
+     * @param quoted receives whether each value was quoted
+     */
+    static void splitCsv(String line, List<String> cells,
+            List<Boolean> quoted) {
+        int i = 0;
+        int n = line.length();
+        while (true) {
+            while (i < n && line.charAt(i) == ' ') {
+                i++;
+            }
+            StringBuilder cell = new StringBuilder();
+            boolean q = i < n && line.charAt(i) == '"';
+            if (q) {
+                for (i++;; i++) {
+                    if (i >= n) {
+                        throw new IllegalArgumentException("unclosed quote");
+                    }
+                    char c = line.charAt(i);
+                    if (c == '"') {
+                        if (i + 1 < n && line.charAt(i + 1) == '"') {
+                            cell.append('"');
+                            i++;
+                        } else {
+                            i++;
+                            break;
+                        }
+                    } else {
+                        cell.append(c);
+                    }
+                }
+                while (i < n && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < n && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException(
+                            "text after a quoted value");
+                }
+                cells.add(cell.toString());
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) {
+                    end = n;
+                }
+                cells.add(line.substring(i, end).trim());
+                i = end;
+            }
+            quoted.add(q);
+            if (i >= n) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Reads the rows of given keys. Returns once all keys are read, or the
+     * lookup is cancelled.
+     *
+     * @param keys the keys, as {@link #parseKeys(String) parsed}
+     * @param listener told of the rows found and the keys missing, from
+     * the threads of the pool
+     * @return what was found.
+     * @throws InterruptedException if the thread is interrupted while the
+     * lookup is in progress; the lookup is then cancelled.
+     */
+    public Result lookup(List<MapValue> keys, Listener listener)
+            throws InterruptedException {
+        Result result = new Result();
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "NoSQL key lookup");
+            t.setDaemon(true);
+            return t;
+        });
+        // gets queued or running, so keys are not queued far ahead
+        Semaphore slots = new Semaphore(parallelism * 2);
+        AtomicInteger done = new AtomicInteger();
+        int total = keys.size();
+        try {
+            for (MapValue key : keys) {
+                if (cancelled) {
+                    break;
+                }
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    // the gets queued are skipped, not waited for
+                    cancel();
+                    throw e;
+                }
+                try {
+                    pool.execute(() -> {
+                        try {
+                            if (!cancelled) {
+                                get(key, listener, result);
+                                listener.progress(done.incrementAndGet(),
+                                        total);
+                            }
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    slots.release();
+                    throw e;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            try {
+                while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    // waits for the gets in progress
+                }
+            } catch (InterruptedException e) {
+                cancel();
+                pool.shutdownNow();
+                throw e;
+            } finally {
+                synchronized (result) {
+                    result.cancelled = cancelled;
+                    result.millis = System.currentTimeMillis() - start;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void get(MapValue key, Listener listener, Result result) {
+        GetResult got;
+        try {
+            got = handle.get(new GetRequest().setTableName(table).setKey(key));
+        } catch (RuntimeException e) {
+            synchronized (result) {
+                result.failures++;
+                if (result.errors.size() < MAX_ERRORS) {
+                    result.errors.add(key.toJson() + ": " + e.getMessage());
+                }
+            }
+            return;
+        }
+        if (got.getValue() == null) {
+            synchronized (result) {
+                result.missing.add(key);
+            }
+            listener.missing(key);
+        } else {
+            synchronized (result) {
+                result.found++;
+            }
+            listener.found(got.getValue());
+        }
+    }
+
+    /**
+     * Told of a lookup as it goes.
+     */
+    public interface Listener {
+        void found(MapValue row);
+
+        void missing(MapValue key);
+
+        /**
+         * @param done number of keys read
+         * @param total number of keys to read
+         */
+        void progress(int done, int total);
+    }
+
+    /**
+     * The rows found by a lookup in progress, as an iterator that never
+     * waits, e.g. to be shown page by page on the event dispatch thread as
+     * the rows are read. A page is started only once it can be filled, so
+     * pages are full but for the last one: {@link #hasNext()} is false
+     * between pages until a page of rows was read or the lookup is
+     * {@link #close() over}.
+     */
+    public static class Hits implements Iterator<MapValue>, Listener {
+        private final ArrayDeque<MapValue> rows = new ArrayDeque<MapValue>();
+        private final Listener listener;
+        private final int pageSize;
+        private int taken;
+        private boolean closed;
+
+        /**
+         * @param listener told of the keys missing and the progress, may be
+         * null
+         * @param pageSize rows of a page
+         */
+        public Hits(Listener listener, int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException(
+                        "page size must be positive: " + pageSize);
+            }
+            this.listener = listener;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public synchronized void found(MapValue row) {
+            rows.add(row);
+            notifyAll();
+        }
+
+        @Override
+        public void missing(MapValue key) {
+            if (listener != null) {
+                listener.missing(key);
+            }
+        }
+
+        @Override
+        public void progress(int done, int total) {
+            if (listener != null) {
+                listener.progress(done, total);
+            }
+        }
+
+        /**
+         * Ends the rows, once the lookup is over.
+         */
+        public synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * @return number of rows read and not yet taken.
+         */
+        public synchronized int getAvailable() {
+            return rows.size();
+        }
+
+        /**
+         * Waits until a page of rows can be taken, or the lookup is over.
+         */
+        public synchronized void awaitPage() throws InterruptedException {
+            while (!closed && rows.size() < pageSize) {
+                wait();
+            }
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            if (rows.isEmpty()) {
+                return false;
+            }
+            // the rows of a page started were there when it started
+            return taken % pageSize != 0 || closed || rows.size() >= pageSize;
+        }
+
+        @Override
+        public synchronized MapValue next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            taken++;
+            return rows.poll();
+        }
+    }
+
+    /**
+     * Keys parsed from a list.
+     */
+    public static class Keys {
+        private final List<MapValue> keys = new ArrayList<MapValue>();
+        private final List<String> errors = new ArrayList<String>();
+        private int invalid;
+
+        /**
+         * @return the keys, without duplicates, in the order of the list.
+         */
+        public List<MapValue> getKeys() {
+            return keys;
+        }
+
+        /**
+         * @return number of lines that are not keys.
+         */
+        public int getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * @return why the first lines that are not keys were not parsed.
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+
+    /**
+     * What a lookup found.
+     */
+    public static class Result {
+        private int found;
+        private final List<MapValue> missing = new ArrayList<MapValue>();
+        private int failures;
+        private final List<String> errors = new ArrayList<String>();
+        private boolean cancelled;
+        private long millis;
+
+        /**
+         * @return number of keys whose row was found.
+         */
+        public synchronized int getFound() {
+            return found;
+        }
+
+        /**
+         * @return keys without a row, in the order they were read.
+         */
+        public synchronized List<MapValue> getMissing() {
+            return new ArrayList<MapValue>(missing);
+        }
+
+        /**
+         * @return number of keys that could not be read.
+         */
+        public synchronized int getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return why the first keys that could not be read failed.
+         */
+        public synchronized List<String> getErrors() {
+            return new ArrayList<String>(errors);
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return duration of the lookup.
+         */
+        public synchronized long getMillis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import oracle.nosql.driver.ops.AddReplicaRequest;
+import oracle.nosql.driver.ops.DropReplicaRequest;
+
+/**
+ * Adds or drops the replicas of many tables in many regions. <br>
+ * Each pair of table and region is a {@link DdlJob job}. A table accepts one
+ * operation at a time, so the regions of a table are processed one after the
+ * other, while different tables are processed concurrently. The service also
+ * limits the table operations in progress, so at most a given number of
+ * tables are changed at once; the jobs of the other tables are submitted as
+ * earlier ones complete.
+ */
+public class ReplicaBatch {
+    /** tables changed at once by default */
+    public static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    /**
+     * Operation on replicas.
+     */
+    public enum Action {
+        ADD, DROP
+    }
+
+    /**
+     * State of a pair of table and region.
+     */
+    public enum CellState {
+        /** not submitted yet */
+        PENDING,
+        /** excluded, e.g. the table has no replica to drop there */
+        SKIPPED,
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final DdlJobManager jobs;
+    private final Action action;
+    private final List<String> tables;
+    private final List<String> regions;
+    private final int readUnits;
+    private final int writeUnits;
+    private final int maxConcurrent;
+    private final Map<String, DdlJob> submitted = new HashMap<>();
+    private final Set<String> skipped = new HashSet<>();
+    /* regions still to be processed, by table */
+    private final Map<String, Deque<String>> remaining = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private CountDownLatch done;
+
+    /**
+     * @param jobs the job manager of the connection of the tables
+     * @param action whether to add or drop replicas
+     * @param tables names of the tables
+     * @param regions names of the regions
+     * @param readUnits read units of added replicas, 0 for those of the
+     * table
+     * @param writeUnits write units of added replicas, 0 for those of the
+     * table
+     * @param maxConcurrent number of tables changed at once
+     */
+    public ReplicaBatch(DdlJobManager jobs, Action action, List<String> tables,
+            List<String> regions, int readUnits, int writeUnits,
+            int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException(
+                    "maxConcurrent must be positive: " + maxConcurrent);
+        }
+        this.jobs = jobs;
+        this.action = action;
+        this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+        this.regions = Collections.unmodifiableList(new ArrayList<>(regions));
+        this.readUnits = readUnits;
+        this.writeUnits = writeUnits;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public List<String> getTables() {
+        return tables;
+    }
+
+    public List<String> getRegions() {
+        return regions;
+    }
+
+    /**
+     * Excludes a pair of table and region. Must be called before
+     * {@link #start()}.
+     */
+    public synchronized void skip(String table, String region) {
+        if (done != null) {
+            throw new IllegalStateException("batch already started");
+        }
+        skipped.add(key(table, region));
+    }
+
+    /**
+     * Submits the first jobs. The others are submitted as these complete.
+     *
+     * @return this batch
+     */
+    public synchronized ReplicaBatch start() {
+        if (done != null) {
+            throw new IllegalStateException("batch already started");
+        }
+        int count = 0;
+        for (String table : tables) {
+            Deque<String> queue = new ArrayDeque<>();
+            for (String region : regions) {
+                if (!skipped.contains(key(table, region))) {
+                    queue.add(region);
+                    count++;
+                }
+            }
+            if (!queue.isEmpty()) {
+                remaining.put(table, queue);
+            }
+        }
+        done = new CountDownLatch(count);
+        submitNext();
+        return this;
+    }
+
+    /**
+     * @return state of the given pair of table and region
+     */
+    public synchronized CellState getState(String table, String region) {
+        String key = key(table, region);
+        if (skipped.contains(key)) {
+            return CellState.SKIPPED;
+        }
+        DdlJob job = submitted.get(key);
+        return job == null ? CellState.PENDING
+                : CellState.valueOf(job.getState().name());
+    }
+
+    /**
+     * @return the job of the given pair of table and region, null if not
+     * submitted
+     */
+    public synchronized DdlJob getJob(String table, String region) {
+        return submitted.get(key(table, region));
+    }
+
+    /**
+     * @return number of pairs of table and region in the given state
+     */
+    public synchronized int count(CellState state) {
+        int n = 0;
+        for (String table : tables) {
+            for (String region : regions) {
+                n += getState(table, region) == state ? 1 : 0;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return whether every job of a started batch is done
+     */
+    public boolean isDone() {
+        CountDownLatch latch;
+        synchronized (this) {
+            latch = done;
+        }
+        return latch != null && latch.getCount() == 0;
+    }
+
+    /**
+     * Blocks until every job is done.
+     *
+     * @return true if the batch is done, false if it timed out
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        CountDownLatch latch;
+        synchronized (this) {
+            latch = done;
+        }
+        if (latch == null) {
+            throw new IllegalStateException("batch not started");
+        }
+        return latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * Submits the next region of tables that are not being changed, up to
+     * the concurrency limit.
+     */
+    private void submitNext() {
+        for (Map.Entry<String, Deque<String>> e : remaining.entrySet()) {
+            if (inFlight.size() >= maxConcurrent) {
+                return;
+            }
+            String table = e.getKey();
+            if (inFlight.contains(table) || e.getValue().isEmpty()) {
+                continue;
+            }
+            String region = e.getValue().poll();
+            inFlight.add(table);
+            DdlJob job = submit(table, region);
+            submitted.put(key(table, region), job);
+            job.whenDone(j -> completed(table));
+        }
+    }
+
+    private DdlJob submit(String table, String region) {
+        if (action == Action.ADD) {
+            AddReplicaRequest request = new AddReplicaRequest()
+                    .setTableName(table).setReplicaName(region);
+            if (readUnits > 0) {
+                request.setReadUnits(readUnits);
+            }
+            if (writeUnits > 0) {
+                request.setWriteUnits(writeUnits);
+            }
+            return jobs.submit(table, "add replica " + region + " to " + table,
+                    DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                    h -> h.addReplica(request));
+        }
+        DropReplicaRequest request = new DropReplicaRequest()
+                .setTableName(table).setReplicaName(region);
+        return jobs.submit(table, "drop replica " + region + " from " + table,
+                DdlJobManager.DEFAULT_TIMEOUT_MILLIS,
+                h -> h.dropReplica(request));
+    }
+
+    private synchronized void completed(String table) {
+        inFlight.remove(table);
+        done.countDown();
+        submitNext();
+    }
+
+    private static String key(String table, String region) {
+        return table + '\u0000' + region;
+    }
+}
@@ -0,0 +1,682 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import oracle.nosql.driver.ops.QueryRequest;
+import oracle.nosql.driver.ops.Request;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.BinaryValue;
+import oracle.nosql.driver.values.BooleanValue;
+import oracle.nosql.driver.values.DoubleValue;
+import oracle.nosql.driver.values.EmptyValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.IntegerValue;
+import oracle.nosql.driver.values.JsonNullValue;
+import oracle.nosql.driver.values.LongValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.NullValue;
+import oracle.nosql.driver.values.NumberValue;
+import oracle.nosql.driver.values.StringValue;
+import oracle.nosql.driver.values.TimestampValue;
+
+/**
+ * Rows of queries read through a connection, kept so that running a query
+ * again shows them without reading the table again. <br>
+ * Results are only kept for callers that {@link #record record} them, so
+ * the cache costs nothing unless used. Entries are keyed by table and by
+ * the statement with its white space normalized. Each table has a
+ * modification stamp, which every write or table request issued through the
+ * connection advances ({@link #requested(String, Request)}): a result is
+ * kept only if the stamp of its table did not change while it was read, and
+ * is not returned once the stamp changed. <br>
+ * Rows are kept encoded in a compact binary form rather than as driver
+ * values. Entries expire after a time to live, and the least recently used
+ * are dropped when the cache holds more than its size. <br>
+ * A result is recorded as its rows are read, e.g. page by page in a table
+ * view, so an entry may hold only the first rows of a result. Reading past
+ * them runs the query again and skips the rows already read.
+ */
+public class ResultCache {
+    public static final long DEFAULT_MAX_BYTES = 32L << 20;
+    public static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000;
+
+    private static final Pattern WRITE = Pattern.compile(
+            "(?is)^\\s*(?:UPDATE|INSERT\\s+INTO|UPSERT\\s+INTO|DELETE\\s+FROM)\\s+([\\w.:]+).*");
+    private static final Pattern TABLE_DDL = Pattern.compile(
+            "(?is)^\\s*(?:CREATE|DROP|ALTER)\\s+TABLE\\s+(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?([\\w.:]+).*");
+    private static final Pattern INDEX_DDL = Pattern.compile(
+            "(?is)^\\s*(?:CREATE|DROP)\\s+(?:FULLTEXT\\s+)?INDEX\\s+.*?\\bON\\s+([\\w.:]+).*");
+    private static final Pattern FROM = Pattern.compile(
+            "(?i)\\bFROM\\s+([\\w.:]+)");
+    private static final Pattern OTHER_TABLES = Pattern.compile(
+            "(?i)\\b(?:JOIN|NESTED\\s+TABLES)\\b");
+
+    private static final byte NULL = 0;
+    private static final byte JSON_NULL = 1;
+    private static final byte EMPTY = 2;
+    private static final byte FALSE = 3;
+    private static final byte TRUE = 4;
+    private static final byte INTEGER = 5;
+    private static final byte LONG = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte NUMBER = 8;
+    private static final byte STRING = 9;
+    private static final byte TIMESTAMP = 10;
+    private static final byte BINARY = 11;
+    private static final byte MAP = 12;
+    private static final byte ARRAY = 13;
+
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private final Map<String, Long> stamps = new HashMap<String, Long>();
+    private long generation;
+    /* stamp of the last change of all tables */
+    private long allChanged;
+    private long size;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    public ResultCache() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds, for expiring entries
+     */
+    public ResultCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param maxBytes size of the encoded rows kept, at most
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict(null);
+    }
+
+    /**
+     * @param ttlMillis time an entry is returned for after it was created
+     */
+    public synchronized void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return size of the encoded rows kept.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * @param table name of a table
+     * @return the modification stamp of the table, to pass to
+     * {@link #record} when a query starts.
+     */
+    public synchronized long getStamp(String table) {
+        Long stamp = stamps.get(key(table));
+        return Math.max(stamp == null ? 0 : stamp, allChanged);
+    }
+
+    /**
+     * Advances the stamp of a table, so that its results are read again.
+     */
+    public synchronized void invalidate(String table) {
+        stamps.put(key(table), ++generation);
+        entries.values().removeIf(e -> {
+            if (e.table.equals(key(table))) {
+                size -= e.data.size();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Advances the stamps of all tables and drops all results.
+     */
+    public synchronized void invalidateAll() {
+        allChanged = ++generation;
+        stamps.clear();
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Tells the cache of a request issued through the connection: a write
+     * or a table request invalidates the table it addresses, or all tables
+     * if that is not known. Reads do not change anything.
+     *
+     * @param operation name of the handle method e.g. <code>put</code>
+     * @param request the request
+     */
+    public void requested(String operation, Request request) {
+        switch (operation) {
+        case "put":
+        case "delete":
+        case "writeMultiple":
+        case "multiDelete":
+            invalidate(request.getTableName(), null);
+            break;
+        case "tableRequest":
+        case "doTableRequest":
+            invalidate(request.getTableName(),
+                    ((TableRequest) request).getStatement());
+            break;
+        case "query":
+        case "queryIterable":
+            QueryRequest query = (QueryRequest) request;
+            String statement = query.getStatement();
+            if (statement == null && query.getPreparedStatement() != null) {
+                statement = query.getPreparedStatement().getSQLText();
+            }
+            if (!isCacheable(statement)) {
+                invalidate(null, statement);
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void invalidate(String table, String statement) {
+        if (table == null && statement != null) {
+            String body = withoutDeclarations(statement);
+            for (Pattern p : new Pattern[] { WRITE, TABLE_DDL, INDEX_DDL }) {
+                Matcher m = p.matcher(body);
+                if (m.matches()) {
+                    table = m.group(1);
+                    break;
+                }
+            }
+        }
+        if (table == null) {
+            invalidateAll();
+        } else {
+            invalidate(table);
+        }
+    }
+
+    /**
+     * @return true if a statement only reads, so that its result can be
+     * kept.
+     */
+    public static boolean isCacheable(String statement) {
+        return statement != null && withoutDeclarations(statement).trim()
+                .regionMatches(true, 0, "SELECT", 0, 6);
+    }
+
+    /**
+     * Finds the table a query reads, to key and stamp its result by. Only
+     * a query with a single <code>FROM</code> and no join is known to read
+     * one table.
+     *
+     * @return name of the table the query reads, or null if the statement
+     * is not a query or may read other tables.
+     */
+    public static String getTable(String statement) {
+        if (!isCacheable(statement)) {
+            return null;
+        }
+        String body = withoutDeclarations(statement);
+        if (OTHER_TABLES.matcher(body).find()) {
+            return null;
+        }
+        Matcher m = FROM.matcher(body);
+        if (!m.find()) {
+            return null;
+        }
+        String table = m.group(1);
+        return m.find() ? null : table;
+    }
+
+    private static String withoutDeclarations(String statement) {
+        String s = statement.trim();
+        if (s.regionMatches(true, 0, "DECLARE", 0, 7)) {
+            int end = s.lastIndexOf(';', s.length() - 2);
+            return end < 0 ? s : s.substring(end + 1);
+        }
+        return s;
+    }
+
+    /**
+     * Collapses white space outside of quotes and drops a final semicolon,
+     * so that a statement typed again differently finds its result.
+     */
+    public static String normalize(String statement) {
+        StringBuilder sb = new StringBuilder(statement.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < statement.length(); i++) {
+            char c = statement.charAt(i);
+            if (quote != 0) {
+                sb.append(c);
+                if (c == '\\' && i + 1 < statement.length()) {
+                    sb.append(statement.charAt(++i));
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && sb.length() > 0) {
+                sb.append(' ');
+            }
+            space = false;
+            if (c == '"' || c == '\'') {
+                quote = c;
+            }
+            sb.append(c);
+        }
+        int last = sb.length() - 1;
+        if (last >= 0 && sb.charAt(last) == ';') {
+            sb.setLength(last);
+        }
+        return sb.toString().trim();
+    }
+
+    private static String key(String table) {
+        return table == null ? "" : table.toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String statement, String table) {
+        return key(table) + '\u0000' + normalize(statement);
+    }
+
+    /**
+     * Returns the rows kept for a query.
+     *
+     * @param statement the query
+     * @param table the table the query reads
+     * @param rerun runs the query again, if the rows kept are only the first
+     * rows of its result and more are read
+     * @return the rows, or null if none are kept.
+     */
+    public synchronized Rows get(String statement, String table,
+            Callable<Iterator<?>> rerun) {
+        String key = key(statement, table);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.stamp != getStamp(table)
+                || clock.getAsLong() - entry.created > ttlMillis) {
+            entries.remove(key);
+            size -= entry.data.size();
+            return null;
+        }
+        if (entry.rows == 0 && !entry.complete) {
+            return null;
+        }
+        return new Rows(entry.data.buffer(), entry.data.size(), entry.rows,
+                entry.complete, entry.created, rerun);
+    }
+
+    /**
+     * Keeps the rows of a query as they are read.
+     *
+     * @param statement the query
+     * @param table the table the query reads
+     * @param stamp {@link #getStamp(String) stamp of the table} taken
+     * before the query was issued
+     * @param rows the rows of the query
+     * @return the same rows, kept as they are read; or the rows unchanged if
+     * the statement is not a query or the table changed since the stamp.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized Iterator<MapValue> record(String statement,
+            String table, long stamp, Iterator<?> rows) {
+        if (!isCacheable(statement) || stamp != getStamp(table)) {
+            return (Iterator<MapValue>) rows;
+        }
+        String key = key(statement, table);
+        Entry old = entries.remove(key);
+        if (old != null) {
+            size -= old.data.size();
+        }
+        Entry entry = new Entry(key(table), stamp, clock.getAsLong());
+        entries.put(key, entry);
+        return new Recording(key, entry, rows);
+    }
+
+    private synchronized void append(String key, Entry entry, MapValue row) {
+        if (entries.get(key) != entry) {
+            // dropped or replaced since
+            return;
+        }
+        int before = entry.data.size();
+        try {
+            write(entry.out, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entry.rows++;
+        size += entry.data.size() - before;
+        evict(entry);
+    }
+
+    private synchronized void complete(String key, Entry entry) {
+        if (entries.get(key) == entry) {
+            entry.complete = true;
+        }
+    }
+
+    /* drops least recently used entries until the size fits */
+    private void evict(Entry growing) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (size > maxBytes && it.hasNext()) {
+            Entry e = it.next();
+            if (e == growing && entries.size() > 1) {
+                continue;
+            }
+            size -= e.data.size();
+            it.remove();
+        }
+    }
+
+    private static void write(DataOutputStream out, FieldValue v)
+            throws IOException {
+        switch (v.getType()) {
+        case NULL:
+            out.writeByte(NULL);
+            break;
+        case JSON_NULL:
+            out.writeByte(JSON_NULL);
+            break;
+        case EMPTY:
+            out.writeByte(EMPTY);
+            break;
+        case BOOLEAN:
+            out.writeByte(v.getBoolean() ? TRUE : FALSE);
+            break;
+        case INTEGER:
+            out.writeByte(INTEGER);
+            out.writeInt(v.getInt());
+            break;
+        case LONG:
+            out.writeByte(LONG);
+            out.writeLong(v.getLong());
+            break;
+        case DOUBLE:
+            out.writeByte(DOUBLE);
+            out.writeDouble(v.getDouble());
+            break;
+        case NUMBER:
+            out.writeByte(NUMBER);
+            writeString(out, v.getNumber().toString());
+            break;
+        case STRING:
+            out.writeByte(STRING);
+            writeString(out, v.getString());
+            break;
+        case TIMESTAMP:
+            out.writeByte(TIMESTAMP);
+            writeString(out, v.asTimestamp().getString());
+            break;
+        case BINARY:
+            out.writeByte(BINARY);
+            out.writeInt(v.getBinary().length);
+            out.write(v.getBinary());
+            break;
+        case MAP:
+            out.writeByte(MAP);
+            out.writeInt(v.asMap().size());
+            for (Map.Entry<String, FieldValue> e : v.asMap().entrySet()) {
+                writeString(out, e.getKey());
+                write(out, e.getValue());
+            }
+            break;
+        case ARRAY:
+            out.writeByte(ARRAY);
+            out.writeInt(v.asArray().size());
+            for (FieldValue item : v.asArray()) {
+                write(out, item);
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("unknown type " + v.getType());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s)
+            throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static FieldValue read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+        case NULL:
+            return NullValue.getInstance();
+        case JSON_NULL:
+            return JsonNullValue.getInstance();
+        case EMPTY:
+            return EmptyValue.getInstance();
+        case FALSE:
+            return BooleanValue.falseInstance();
+        case TRUE:
+            return BooleanValue.trueInstance();
+        case INTEGER:
+            return new IntegerValue(in.readInt());
+        case LONG:
+            return new LongValue(in.readLong());
+        case DOUBLE:
+            return new DoubleValue(in.readDouble());
+        case NUMBER:
+            return new NumberValue(new BigDecimal(readString(in)));
+        case STRING:
+            return new StringValue(readString(in));
+        case TIMESTAMP:
+            return new TimestampValue(readString(in));
+        case BINARY:
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new BinaryValue(bytes);
+        case MAP:
+            int fields = in.readInt();
+            // the order of the fields is that of the columns
+            MapValue map = new MapValue(true, fields);
+            for (int i = 0; i < fields; i++) {
+                String name = readString(in);
+                map.put(name, read(in));
+            }
+            return map;
+        case ARRAY:
+            int items = in.readInt();
+            ArrayValue array = new ArrayValue(items);
+            for (int i = 0; i < items; i++) {
+                array.add(read(in));
+            }
+            return array;
+        default:
+            throw new IOException("unknown type " + type);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rows appended to, whose array can be read up to a size taken earlier
+     * while more rows are appended.
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    private static class Entry {
+        final String table;
+        final long stamp;
+        final long created;
+        final Buffer data = new Buffer();
+        final DataOutputStream out = new DataOutputStream(data);
+        int rows;
+        boolean complete;
+
+        Entry(String table, long stamp, long created) {
+            this.table = table;
+            this.stamp = stamp;
+            this.created = created;
+        }
+    }
+
+    /**
+     * Keeps the rows of a query as they are read.
+     */
+    private class Recording implements Iterator<MapValue> {
+        private final String key;
+        private final Entry entry;
+        private final Iterator<?> rows;
+
+        Recording(String key, Entry entry, Iterator<?> rows) {
+            this.key = key;
+            this.entry = entry;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean more = rows.hasNext();
+            if (!more) {
+                complete(key, entry);
+            }
+            return more;
+        }
+
+        @Override
+        public MapValue next() {
+            MapValue row = (MapValue) rows.next();
+            append(key, entry, row);
+            return row;
+        }
+    }
+
+    /**
+     * The rows kept for a query, decoded as they are read.
+     */
+    public static class Rows implements Iterator<MapValue> {
+        private final DataInputStream in;
+        private final int cached;
+        private final boolean complete;
+        private final long created;
+        private final Callable<Iterator<?>> rerun;
+        private int read;
+        private Iterator<?> rest;
+
+        Rows(byte[] data, int length, int cached, boolean complete,
+                long created, Callable<Iterator<?>> rerun) {
+            this.in = new DataInputStream(
+                    new ByteArrayInputStream(data, 0, length));
+            this.cached = cached;
+            this.complete = complete;
+            this.created = created;
+            this.rerun = rerun;
+        }
+
+        /**
+         * @return the time the rows were read from the table.
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * @return number of rows kept.
+         */
+        public int getCachedRows() {
+            return cached;
+        }
+
+        /**
+         * @return true if the rows kept are the whole result.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (read < cached) {
+                return true;
+            }
+            if (complete || rerun == null) {
+                return false;
+            }
+            return rest().hasNext();
+        }
+
+        @Override
+        public MapValue next() {
+            if (read < cached) {
+                read++;
+                try {
+                    return read(in).asMap();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (MapValue) rest.next();
+        }
+
+        /* the rows after those kept, from the query run again */
+        private Iterator<?> rest() {
+            if (rest == null) {
+                try {
+                    rest = rerun.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                for (int i = 0; i < cached && rest.hasNext(); i++) {
+                    rest.next();
+                }
+            }
+            return rest;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import oracle.nosql.driver.OperationThrottlingException;
+import oracle.nosql.driver.RetryableException;
+import oracle.nosql.driver.SecurityInfoNotReadyException;
+import oracle.nosql.driver.ThrottlingException;
+
+/**
+ * Retries the requests of a connection that failed for a cause that may go
+ * away, waiting longer after each attempt. <br>
+ * Each {@link Cause cause} has its own {@link Backoff backoff}: the wait
+ * after the n-th failure is drawn at random between half and all of
+ * <code>base * 2^n</code>, capped, so that clients throttled together do
+ * not retry together. A request is retried at most
+ * {@link #setMaxRetries(int) a number of times} and for
+ * {@link #setBudgetMillis(long) a total time}. <br>
+ * Attempts that could not reach the endpoint are counted by a
+ * {@link CircuitBreaker}, which fails requests fast while it is open.
+ */
+public class RetryPolicy {
+    public static final int DEFAULT_MAX_RETRIES = 10;
+    public static final long DEFAULT_BUDGET_MILLIS = 5 * 1000;
+
+    /**
+     * Causes of failures that are retried.
+     */
+    public enum Cause {
+        /** read or write throughput of a table exceeded */
+        THROTTLING,
+        /** rate of table operations exceeded */
+        OPERATION_THROTTLING,
+        /** the endpoint could not be reached, or failed for a while */
+        TRANSIENT,
+        /** security information not ready yet */
+        SECURITY
+    }
+
+    /**
+     * Waits between attempts for a cause.
+     */
+    public static class Backoff {
+        private final long baseMillis;
+        private final long maxMillis;
+        private final int maxRetries;
+
+        /**
+         * @param baseMillis wait after the first failure, at most
+         * @param maxMillis wait after any failure, at most
+         * @param maxRetries retries for the cause, at most
+         */
+        public Backoff(long baseMillis, long maxMillis, int maxRetries) {
+            this.baseMillis = baseMillis;
+            this.maxMillis = maxMillis;
+            this.maxRetries = maxRetries;
+        }
+
+        public long getBaseMillis() {
+            return baseMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+    }
+
+    /**
+     * A request to issue.
+     */
+    public interface Attempt<T> {
+        T call() throws Throwable;
+    }
+
+    /**
+     * Told of each retry, e.g. to count it.
+     */
+    public interface Listener {
+        void retrying(Cause cause, int retries, long delayMillis);
+    }
+
+    /**
+     * Waits between attempts.
+     */
+    public interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final Map<Cause, Backoff> backoffs =
+            new EnumMap<Cause, Backoff>(Cause.class);
+    private final CircuitBreaker breaker;
+    private final LongSupplier clock;
+    private volatile Sleeper sleeper = Thread::sleep;
+    private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+    private volatile long budgetMillis = DEFAULT_BUDGET_MILLIS;
+
+    public RetryPolicy() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock current time in milliseconds
+     */
+    public RetryPolicy(LongSupplier clock) {
+        this.clock = clock;
+        this.breaker = new CircuitBreaker(clock);
+        backoffs.put(Cause.THROTTLING, new Backoff(100, 2000, 10));
+        backoffs.put(Cause.OPERATION_THROTTLING, new Backoff(1000, 10000, 5));
+        backoffs.put(Cause.TRANSIENT, new Backoff(200, 5000, 5));
+        backoffs.put(Cause.SECURITY, new Backoff(500, 2000, 10));
+    }
+
+    public synchronized void setBackoff(Cause cause, Backoff backoff) {
+        backoffs.put(cause, backoff);
+    }
+
+    public synchronized Backoff getBackoff(Cause cause) {
+        return backoffs.get(cause);
+    }
+
+    /**
+     * @param maxRetries retries of a request whatever the cause, at most
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param budgetMillis time from the first attempt of a request after
+     * which it is no longer retried
+     */
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public void setSleeper(Sleeper sleeper) {
+        this.sleeper = sleeper;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    /**
+     * @return the cause of a failure if it is retried, or null. An invalid
+     * authorization is not retried: the same token would fail again.
+     */
+    public static Cause classify(Throwable t) {
+        if (t instanceof OperationThrottlingException) {
+            return Cause.OPERATION_THROTTLING;
+        }
+        if (t instanceof ThrottlingException) {
+            return Cause.THROTTLING;
+        }
+        if (t instanceof SecurityInfoNotReadyException) {
+            return Cause.SECURITY;
+        }
+        if (isUnreachable(t) || t instanceof RetryableException) {
+            return Cause.TRANSIENT;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if a failure is caused by an I/O error, i.e. the
+     * endpoint was not reached.
+     */
+    static boolean isUnreachable(Throwable t) {
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof IOException) {
+                return true;
+            }
+            if (c.getCause() == c) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param cause cause of the failure
+     * @param retries retries of the request so far
+     * @param elapsedMillis time since the first attempt
+     * @return time to wait before the next attempt, or -1 if the request
+     * is not retried.
+     */
+    public long delay(Cause cause, int retries, long elapsedMillis) {
+        Backoff backoff = getBackoff(cause);
+        if (retries >= Math.min(backoff.maxRetries, maxRetries)) {
+            return -1;
+        }
+        long cap = Math.min(backoff.maxMillis,
+                backoff.baseMillis << Math.min(retries, 30));
+        long delay = cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+        if (elapsedMillis + delay > budgetMillis) {
+            return -1;
+        }
+        return delay;
+    }
+
+    /**
+     * Issues a request, retrying it while it fails for a cause that is
+     * retried and the retries and time of the request are not spent.
+     *
+     * @param attempt the request
+     * @param listener told of each retry
+     * @return the result of the request.
+     * @throws CircuitBreaker.OpenException if the endpoint is deemed
+     * unreachable.
+     * @throws Throwable the failure of the last attempt.
+     */
+    public <T> T execute(Attempt<T> attempt, Listener listener)
+            throws Throwable {
+        breaker.acquire();
+        long start = clock.getAsLong();
+        for (int retries = 0;; retries++) {
+            try {
+                T result = attempt.call();
+                breaker.succeeded();
+                return result;
+            } catch (Throwable t) {
+                if (isUnreachable(t)) {
+                    breaker.failed();
+                } else {
+                    breaker.succeeded();
+                }
+                Cause cause = classify(t);
+                long delay = cause == null ? -1
+                        : delay(cause, retries, clock.getAsLong() - start);
+                if (delay < 0) {
+                    throw t;
+                }
+                listener.retrying(cause, retries + 1, delay);
+                try {
+                    sleeper.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw t;
+                }
+                breaker.acquire();
+            }
+        }
+    }
+}
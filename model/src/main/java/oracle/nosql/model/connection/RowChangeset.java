@@ -0,0 +1,399 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.Version;
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.GetResult;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.WriteMultipleRequest;
+import oracle.nosql.driver.ops.WriteMultipleResult;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.NullValue;
+import oracle.nosql.driver.values.StringValue;
+import oracle.nosql.model.query.RowUpdate;
+import oracle.nosql.model.schema.Field;
+
+/**
+ * Cells of rows of a table edited in place and not written yet. <br>
+ * Edits are kept locally until {@link #commit(NoSQLHandle) committed}, when
+ * each edited row is read again and written with its edited cells. Rows
+ * that share a shard key are written together by a
+ * <code>WriteMultipleRequest</code> of up to {@link #MAX_BATCH} rows, which
+ * is atomic. A shard with more edited rows is written by several requests,
+ * one after the other: such a commit is not atomic, and a conflict in a
+ * later batch leaves the earlier batches written. <br>
+ * A row that changed since it was shown is not written: it is a conflict,
+ * found either when the row is read again or, if it changes after, by the
+ * write that must match the version read. A conflict found when the rows
+ * are read again leaves the rows of its shard unwritten; rows not written
+ * stay edited, so that they can be committed again or
+ * {@link #discard() discarded}. <br>
+ * A changeset is edited on one thread, e.g. the event thread, and may be
+ * committed on another: the edits are copied when the commit starts, and
+ * cells edited again during the commit stay edited.
+ */
+public class RowChangeset {
+    /** rows of a batch, at most, as rows written by one request */
+    public static final int MAX_BATCH = 50;
+
+    private final String table;
+    private final List<String> primaryKey;
+    private final List<String> shardKey;
+    private final Map<String, Change> changes =
+            new LinkedHashMap<String, Change>();
+
+    /**
+     * @param table name of the table
+     * @param primaryKey names of the primary key columns
+     * @param shardKey names of the shard key columns, or an empty list if
+     * the shard key is the primary key
+     */
+    public RowChangeset(String table, List<String> primaryKey,
+            List<String> shardKey) {
+        this.table = table;
+        this.primaryKey = primaryKey;
+        this.shardKey = shardKey.isEmpty() ? primaryKey : shardKey;
+    }
+
+    /**
+     * Edits a cell of a row. Setting a cell back to the value shown undoes
+     * its edit.
+     *
+     * @param row the row as shown
+     * @param column the column of the cell
+     * @param value the new value
+     * @throws IllegalArgumentException if the column is a primary key
+     * column or the row does not have its primary key.
+     */
+    public synchronized void set(MapValue row, String column,
+            FieldValue value) {
+        if (primaryKey.contains(column)) {
+            throw new IllegalArgumentException(
+                    "primary key column " + column + " can not be edited");
+        }
+        String key = keyOf(row, primaryKey);
+        Change change = changes.get(key);
+        FieldValue shown = row.get(column);
+        if (shown != null && RowUpdate.same(shown, value)) {
+            if (change != null) {
+                change.values.remove(column);
+                if (change.values.isEmpty()) {
+                    changes.remove(key);
+                }
+            }
+            return;
+        }
+        if (change == null) {
+            change = new Change(row);
+            changes.put(key, change);
+        }
+        change.values.put(column, value);
+    }
+
+    /**
+     * @return the edited value of a cell, or null if it is not edited.
+     */
+    public synchronized FieldValue getValue(MapValue row, String column) {
+        Change change = changes.get(keyOf(row, primaryKey));
+        return change == null ? null : change.values.get(column);
+    }
+
+    /**
+     * @return true if a cell of the row is edited.
+     */
+    public synchronized boolean isEdited(MapValue row) {
+        return changes.containsKey(keyOf(row, primaryKey));
+    }
+
+    /**
+     * @return number of edited rows.
+     */
+    public synchronized int size() {
+        return changes.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return a copy of the edited rows, in the order they were first
+     * edited.
+     */
+    public synchronized Collection<Change> getChanges() {
+        List<Change> copy = new ArrayList<Change>(changes.size());
+        for (Change change : changes.values()) {
+            copy.add(change.copy());
+        }
+        return Collections.unmodifiableCollection(copy);
+    }
+
+    /**
+     * Drops all edits.
+     */
+    public synchronized void discard() {
+        changes.clear();
+    }
+
+    /**
+     * Writes the edited rows, batched by shard key. Rows written are no
+     * longer edited; rows not written stay edited.
+     *
+     * @param handle handle to the database
+     * @return what was written.
+     */
+    public Result commit(NoSQLHandle handle) {
+        Result result = new Result();
+        Map<String, List<Change>> shards =
+                new LinkedHashMap<String, List<Change>>();
+        Set<String> held = new HashSet<String>();
+        // read and written without holding the changeset
+        for (Change change : getChanges()) {
+            String shard = keyOf(change.original, shardKey);
+            GetResult current;
+            try {
+                current = handle.get(new GetRequest().setTableName(table)
+                        .setKey(key(change.original)));
+            } catch (RuntimeException e) {
+                result.errors.add(describe(change) + ": " + e.getMessage());
+                held.add(shard);
+                continue;
+            }
+            if (current.getValue() == null) {
+                result.conflicts.add(describe(change) + " was deleted");
+                held.add(shard);
+                continue;
+            }
+            if (!unchanged(change.original, current.getValue())) {
+                result.conflicts.add(describe(change)
+                        + " was changed since it was read");
+                held.add(shard);
+                continue;
+            }
+            change.current = current.getValue();
+            change.version = current.getVersion();
+            shards.computeIfAbsent(shard, k -> new ArrayList<Change>())
+                    .add(change);
+        }
+        // the rows of a shard are written all or none, if in one batch
+        shards.keySet().removeAll(held);
+        for (List<Change> shard : shards.values()) {
+            for (int i = 0; i < shard.size(); i += MAX_BATCH) {
+                write(handle, shard.subList(i,
+                        Math.min(shard.size(), i + MAX_BATCH)), result);
+            }
+        }
+        return result;
+    }
+
+    private void write(NoSQLHandle handle, List<Change> batch,
+            Result result) {
+        WriteMultipleRequest request = new WriteMultipleRequest();
+        for (Change change : batch) {
+            MapValue row = new MapValue(true, change.current.size());
+            for (Map.Entry<String, FieldValue> e
+                    : change.current.entrySet()) {
+                row.put(e.getKey(), e.getValue());
+            }
+            for (Map.Entry<String, FieldValue> e : change.values.entrySet()) {
+                row.put(e.getKey(), e.getValue());
+            }
+            request.add(new PutRequest().setTableName(table).setValue(row)
+                    .setOption(PutRequest.Option.IfVersion)
+                    .setMatchVersion(change.version), true);
+        }
+        WriteMultipleResult written;
+        try {
+            written = handle.writeMultiple(request);
+        } catch (RuntimeException e) {
+            result.errors.add(batch.size() + " row(s) not written: "
+                    + e.getMessage());
+            return;
+        }
+        result.batches++;
+        if (written.getSuccess()) {
+            written(batch);
+            result.written += batch.size();
+            return;
+        }
+        Change failed = batch.get(written.getFailedOperationIndex());
+        result.conflicts.add(describe(failed)
+                + " was changed since it was read, "
+                + batch.size() + " row(s) of its shard not written");
+    }
+
+    /* drops the edits written, unless a cell was edited since */
+    private synchronized void written(List<Change> batch) {
+        for (Change change : batch) {
+            String key = keyOf(change.original, primaryKey);
+            Change edited = changes.get(key);
+            if (edited != null && edited.values.equals(change.values)) {
+                changes.remove(key);
+            }
+        }
+    }
+
+    /* true if the columns shown have the values of the row read again */
+    private static boolean unchanged(MapValue shown, MapValue current) {
+        for (Map.Entry<String, FieldValue> e : shown.entrySet()) {
+            FieldValue value = current.get(e.getKey());
+            if (value == null ? e.getValue().getType() != FieldValue.Type.NULL
+                    : !RowUpdate.same(e.getValue(), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MapValue key(MapValue row) {
+        MapValue key = new MapValue(true, primaryKey.size());
+        for (String column : primaryKey) {
+            FieldValue value = row.get(column);
+            if (value == null) {
+                throw new IllegalArgumentException(
+                        "row has no primary key column " + column);
+            }
+            key.put(column, value);
+        }
+        return key;
+    }
+
+    private String keyOf(MapValue row, List<String> columns) {
+        StringBuilder sb = new StringBuilder();
+        for (String column : columns) {
+            FieldValue value = row.get(column);
+            if (value == null) {
+                throw new IllegalArgumentException(
+                        "row has no primary key column " + column);
+            }
+            sb.append(value.toJson()).append('\u0000');
+        }
+        return sb.toString();
+    }
+
+    private String describe(Change change) {
+        return "row " + key(change.original).toJson();
+    }
+
+    /**
+     * Reads the text of a cell edited in place: the JSON of the value, as
+     * cells show it. An empty text is SQL NULL, and text that is not JSON is
+     * taken as a string where the column holds strings.
+     *
+     * @param type type of the column
+     * @param text the text
+     * @return the value.
+     * @throws IllegalArgumentException if the text is not a value.
+     */
+    public static FieldValue parseValue(Field.Type type, String text) {
+        if (text.trim().isEmpty()) {
+            return NullValue.getInstance();
+        }
+        boolean string = type == Field.Type.STRING || type == Field.Type.ENUM
+                || type == Field.Type.TIMESTAMP;
+        FieldValue value;
+        try {
+            value = FieldValue.createFromJson(text, null);
+        } catch (RuntimeException e) {
+            if (string) {
+                return new StringValue(text);
+            }
+            throw new IllegalArgumentException(
+                    "not a value of type " + type + ": " + e.getMessage(), e);
+        }
+        if (value.isJsonNull() && type != Field.Type.JSON) {
+            return NullValue.getInstance();
+        }
+        return value;
+    }
+
+    /**
+     * A row with edited cells.
+     */
+    public static class Change {
+        private final MapValue original;
+        private final Map<String, FieldValue> values =
+                new LinkedHashMap<String, FieldValue>();
+        private MapValue current;
+        private Version version;
+
+        Change(MapValue original) {
+            this.original = original;
+        }
+
+        Change copy() {
+            Change copy = new Change(original);
+            copy.values.putAll(values);
+            return copy;
+        }
+
+        /**
+         * @return the row as shown.
+         */
+        public MapValue getOriginal() {
+            return original;
+        }
+
+        /**
+         * @return the edited values, by column.
+         */
+        public Map<String, FieldValue> getValues() {
+            return Collections.unmodifiableMap(values);
+        }
+    }
+
+    /**
+     * What a commit wrote.
+     */
+    public static class Result {
+        private int written;
+        private int batches;
+        private final List<String> conflicts = new ArrayList<String>();
+        private final List<String> errors = new ArrayList<String>();
+
+        /**
+         * @return number of rows written.
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        /**
+         * @return number of write requests sent.
+         */
+        public int getBatches() {
+            return batches;
+        }
+
+        /**
+         * @return rows not written as they changed since they were read.
+         */
+        public List<String> getConflicts() {
+            return conflicts;
+        }
+
+        /**
+         * @return errors of rows not written.
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+
+/**
+ * An append-only log of executed statements and their cost. Each
+ * {@link Entry entry} is written as one line of JSON. When the log file grows
+ * beyond a limit, it is rolled over to a single previous generation, so the
+ * log never takes more than about twice the limit on disk. <br>
+ * Appending and reading are thread-safe.
+ */
+public class StatementLog {
+    /** Default size of the log file before it is rolled over. */
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    private final File file;
+    private final File previous;
+    private final long maxBytes;
+
+    /**
+     * Creates a log that writes to the given file.
+     *
+     * @param file the log file. Its directory is created on first append.
+     * @param maxBytes size of the log file before it is rolled over
+     */
+    public StatementLog(File file, long maxBytes) {
+        if (file == null) {
+            throw new IllegalArgumentException("can not log to null file");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("invalid log size " +
+                    maxBytes + " must be greater than 0");
+        }
+        this.file = file;
+        this.previous = new File(file.getPath() + ".1");
+        this.maxBytes = maxBytes;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Appends an entry to this log.
+     *
+     * @param entry the entry to append
+     * @throws IOException if the log can not be written
+     */
+    public synchronized void append(Entry entry) throws IOException {
+        if (file.length() >= maxBytes) {
+            if (previous.exists() && !previous.delete()) {
+                throw new IOException("can not delete " + previous);
+            }
+            if (!file.renameTo(previous)) {
+                throw new IOException("can not roll over " + file);
+            }
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("can not create directory " + dir);
+        }
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            writer.write(entry.toJson().toJson());
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Reads all entries of this log, oldest first. Lines that can not be
+     * parsed are skipped.
+     *
+     * @return entries in the order they were appended
+     * @throws IOException if the log can not be read
+     */
+    public synchronized List<Entry> read() throws IOException {
+        List<Entry> entries = new ArrayList<Entry>();
+        read(previous, entries);
+        read(file, entries);
+        return entries;
+    }
+
+    /**
+     * Deletes all entries of this log.
+     */
+    public synchronized void clear() {
+        previous.delete();
+        file.delete();
+    }
+
+    private static void read(File f, List<Entry> entries) throws IOException {
+        if (!f.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(f), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    entries.add(Entry.fromJson(
+                            FieldValue.createFromJson(line, null).asMap()));
+                } catch (RuntimeException ex) {
+                    // a partially written line e.g. after a crash
+                }
+            }
+        }
+    }
+
+    /**
+     * A statement executed on a connection with its duration, number of rows
+     * returned, capacity consumed and outcome.
+     */
+    public static class Entry {
+        private long timestamp = System.currentTimeMillis();
+        private String connectionUid;
+        private String connectionName;
+        private String kind;
+        private String table;
+        private String statement;
+        private long durationMs;
+        private long rows;
+        private long readUnits;
+        private long writeUnits;
+        private long readKB;
+        private long writeKB;
+        private String error;
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Entry setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public String getConnectionUid() {
+            return connectionUid;
+        }
+
+        public Entry setConnectionUid(String connectionUid) {
+            this.connectionUid = connectionUid;
+            return this;
+        }
+
+        public String getConnectionName() {
+            return connectionName;
+        }
+
+        public Entry setConnectionName(String connectionName) {
+            this.connectionName = connectionName;
+            return this;
+        }
+
+        /**
+         * @return kind of statement e.g. QUERY, DML or DDL
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        public Entry setKind(String kind) {
+            this.kind = kind;
+            return this;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public Entry setTable(String table) {
+            this.table = table;
+            return this;
+        }
+
+        public String getStatement() {
+            return statement;
+        }
+
+        public Entry setStatement(String statement) {
+            this.statement = statement;
+            return this;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public Entry setDurationMs(long durationMs) {
+            this.durationMs = durationMs;
+            return this;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public Entry setRows(long rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        public long getReadUnits() {
+            return readUnits;
+        }
+
+        public Entry setReadUnits(long readUnits) {
+            this.readUnits = readUnits;
+            return this;
+        }
+
+        public long getWriteUnits() {
+            return writeUnits;
+        }
+
+        public Entry setWriteUnits(long writeUnits) {
+            this.writeUnits = writeUnits;
+            return this;
+        }
+
+        public long getReadKB() {
+            return readKB;
+        }
+
+        public Entry setReadKB(long readKB) {
+            this.readKB = readKB;
+            return this;
+        }
+
+        public long getWriteKB() {
+            return writeKB;
+        }
+
+        public Entry setWriteKB(long writeKB) {
+            this.writeKB = writeKB;
+            return this;
+        }
+
+        /**
+         * Sets the consumed capacity from a captured cost.
+         *
+         * @param cost cost of the requests issued for the statement
+         * @return the same entry
+         */
+        public Entry setCost(ConnectionMetrics.Cost cost) {
+            readUnits = cost.getReadUnits();
+            writeUnits = cost.getWriteUnits();
+            readKB = cost.getReadKB();
+            writeKB = cost.getWriteKB();
+            return this;
+        }
+
+        /**
+         * @return sum of read and write units consumed
+         */
+        public long getUnits() {
+            return readUnits + writeUnits;
+        }
+
+        /**
+         * @return error message if the statement failed, null otherwise
+         */
+        public String getError() {
+            return error;
+        }
+
+        public Entry setError(String error) {
+            this.error = error;
+            return this;
+        }
+
+        public boolean isSucceeded() {
+            return error == null;
+        }
+
+        MapValue toJson() {
+            MapValue json = new MapValue();
+            json.put("ts", timestamp);
+            putIfNotNull(json, "uid", connectionUid);
+            putIfNotNull(json, "connection", connectionName);
+            putIfNotNull(json, "kind", kind);
+            putIfNotNull(json, "table", table);
+            putIfNotNull(json, "statement", statement);
+            json.put("ms", durationMs);
+            json.put("rows", rows);
+            json.put("ru", readUnits);
+            json.put("wu", writeUnits);
+            json.put("rkb", readKB);
+            json.put("wkb", writeKB);
+            putIfNotNull(json, "error", error);
+            return json;
+        }
+
+        static Entry fromJson(MapValue json) {
+            return new Entry()
+                    .setTimestamp(json.getLong("ts"))
+                    .setConnectionUid(getString(json, "uid"))
+                    .setConnectionName(getString(json, "connection"))
+                    .setKind(getString(json, "kind"))
+                    .setTable(getString(json, "table"))
+                    .setStatement(getString(json, "statement"))
+                    .setDurationMs(json.getLong("ms"))
+                    .setRows(json.getLong("rows"))
+                    .setReadUnits(json.getLong("ru"))
+                    .setWriteUnits(json.getLong("wu"))
+                    .setReadKB(json.getLong("rkb"))
+                    .setWriteKB(json.getLong("wkb"))
+                    .setError(getString(json, "error"));
+        }
+
+        private static void putIfNotNull(MapValue json, String key,
+                String value) {
+            if (value != null) {
+                json.put(key, value);
+            }
+        }
+
+        private static String getString(MapValue json, String key) {
+            FieldValue value = json.get(key);
+            return value == null || value.isNull() ? null : value.getString();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+/**
+ * Usage records of a table in a ring buffer of fixed size. A record covers
+ * a period, usually a minute, and holds the read and write units consumed,
+ * the storage and the number of throttled requests in the period. <br>
+ * Records are kept in primitive arrays, so that a day of per-minute records
+ * takes about 40 KB and recording allocates nothing. Once the buffer is
+ * full a new record replaces the oldest one.
+ */
+public class UsageHistory {
+    /** a day of per-minute records */
+    public static final int DEFAULT_CAPACITY = 24 * 60;
+
+    private final long[] starts;
+    private final int[] seconds;
+    private final int[] readUnits;
+    private final int[] writeUnits;
+    private final int[] storageGB;
+    private final int[] readThrottles;
+    private final int[] writeThrottles;
+    private final int[] storageThrottles;
+    /* slot of the next record */
+    private int next;
+    private int size;
+
+    public UsageHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public UsageHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "capacity must be positive, not " + capacity);
+        }
+        starts = new long[capacity];
+        seconds = new int[capacity];
+        readUnits = new int[capacity];
+        writeUnits = new int[capacity];
+        storageGB = new int[capacity];
+        readThrottles = new int[capacity];
+        writeThrottles = new int[capacity];
+        storageThrottles = new int[capacity];
+    }
+
+    /**
+     * Records the usage of a period. Periods must be recorded in order; a
+     * period that does not start after the latest one is ignored, so that
+     * overlapping polls record a period once.
+     *
+     * @return true if the record was added
+     */
+    public synchronized boolean record(long startMillis, int secondsInPeriod,
+            int readUnits, int writeUnits, int storageGB, int readThrottles,
+            int writeThrottles, int storageThrottles) {
+        if (size > 0 && startMillis <= getLatestStart()) {
+            return false;
+        }
+        int i = next;
+        this.starts[i] = startMillis;
+        this.seconds[i] = secondsInPeriod;
+        this.readUnits[i] = readUnits;
+        this.writeUnits[i] = writeUnits;
+        this.storageGB[i] = storageGB;
+        this.readThrottles[i] = readThrottles;
+        this.writeThrottles[i] = writeThrottles;
+        this.storageThrottles[i] = storageThrottles;
+        next = (next + 1) % starts.length;
+        size = Math.min(size + 1, starts.length);
+        return true;
+    }
+
+    public int getCapacity() {
+        return starts.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return start of the latest period in milliseconds since the epoch,
+     * or -1 if nothing was recorded.
+     */
+    public synchronized long getLatestStart() {
+        return size == 0 ? -1 : starts[slot(size - 1)];
+    }
+
+    /**
+     * Copies the records, e.g. to draw them while polling goes on.
+     */
+    public synchronized UsageHistory copy() {
+        UsageHistory copy = new UsageHistory(starts.length);
+        for (int i = 0; i < size; i++) {
+            int s = slot(i);
+            copy.record(starts[s], seconds[s], readUnits[s], writeUnits[s],
+                    storageGB[s], readThrottles[s], writeThrottles[s],
+                    storageThrottles[s]);
+        }
+        return copy;
+    }
+
+    /*
+     * Records are indexed from 0, the oldest, to size() - 1, the latest.
+     */
+
+    public synchronized long getStart(int index) {
+        return starts[slot(index)];
+    }
+
+    public synchronized int getSeconds(int index) {
+        return seconds[slot(index)];
+    }
+
+    public synchronized int getReadUnits(int index) {
+        return readUnits[slot(index)];
+    }
+
+    public synchronized int getWriteUnits(int index) {
+        return writeUnits[slot(index)];
+    }
+
+    public synchronized int getStorageGB(int index) {
+        return storageGB[slot(index)];
+    }
+
+    public synchronized int getReadThrottles(int index) {
+        return readThrottles[slot(index)];
+    }
+
+    public synchronized int getWriteThrottles(int index) {
+        return writeThrottles[slot(index)];
+    }
+
+    public synchronized int getStorageThrottles(int index) {
+        return storageThrottles[slot(index)];
+    }
+
+    /**
+     * @return read units per second consumed in a period.
+     */
+    public synchronized double getReadUnitsPerSecond(int index) {
+        int s = slot(index);
+        return seconds[s] <= 0 ? 0 : (double) readUnits[s] / seconds[s];
+    }
+
+    /**
+     * @return write units per second consumed in a period.
+     */
+    public synchronized double getWriteUnitsPerSecond(int index) {
+        int s = slot(index);
+        return seconds[s] <= 0 ? 0 : (double) writeUnits[s] / seconds[s];
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                    "index " + index + " of " + size + " records");
+        }
+        return (next - size + index + starts.length) % starts.length;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.ops.GetTableRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableUsageRequest;
+import oracle.nosql.driver.ops.TableUsageResult;
+
+/**
+ * Polls the usage of watched tables into a {@link UsageHistory} per table.
+ * <br>
+ * The cloud service reports usage per minute. Each round asks for the
+ * records after the latest one already held, along with the current limits
+ * of the table, so a round costs two small requests per table. All watched
+ * tables of a connection are polled one after the other by one scheduler
+ * thread, which only runs while a table is watched. <br>
+ * Usage is only reported by the cloud service; for other stores the error
+ * of the poll is kept instead.
+ */
+public class UsageMonitor {
+    public static final long DEFAULT_PERIOD_MILLIS = 60 * 1000;
+    /** records asked for per request */
+    static final int PAGE_SIZE = 100;
+
+    private final NoSQLHandle handle;
+    private final long periodMillis;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Watched> tables = new TreeMap<>();
+    private ScheduledFuture<?> rounds;
+
+    public UsageMonitor(NoSQLHandle handle) {
+        this(handle, DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * @param handle handle to poll usage with
+     * @param periodMillis time between rounds of polls
+     */
+    public UsageMonitor(NoSQLHandle handle, long periodMillis) {
+        this.handle = handle;
+        this.periodMillis = periodMillis;
+        scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "NoSQL usage monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts polling the usage of a table, if it is not watched yet.
+     *
+     * @param table name of a table
+     */
+    public synchronized void watch(String table) {
+        if (tables.containsKey(table)) {
+            return;
+        }
+        Watched watched = new Watched(table);
+        tables.put(table, watched);
+        if (rounds == null) {
+            rounds = scheduler.scheduleWithFixedDelay(this::poll, 0,
+                    periodMillis, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(() -> poll(watched));
+        }
+    }
+
+    /**
+     * Stops polling the usage of a table and forgets its history.
+     */
+    public synchronized void unwatch(String table) {
+        tables.remove(table);
+        if (tables.isEmpty() && rounds != null) {
+            rounds.cancel(false);
+            rounds = null;
+        }
+    }
+
+    /**
+     * @return names of the watched tables.
+     */
+    public synchronized List<String> getWatched() {
+        return new ArrayList<>(tables.keySet());
+    }
+
+    /**
+     * @return usage history of a table, or null if it is not watched.
+     */
+    public synchronized UsageHistory getHistory(String table) {
+        Watched w = tables.get(table);
+        return w == null ? null : w.history;
+    }
+
+    /**
+     * @return limits of a table as of the latest poll, null if not known.
+     */
+    public synchronized TableLimits getLimits(String table) {
+        Watched w = tables.get(table);
+        return w == null ? null : w.limits;
+    }
+
+    /**
+     * @return error of the latest poll of a table, null if it succeeded.
+     */
+    public synchronized Exception getError(String table) {
+        Watched w = tables.get(table);
+        return w == null ? null : w.error;
+    }
+
+    /**
+     * @return time of the latest poll of a table, 0 if not polled yet.
+     */
+    public synchronized long getLastPollMillis(String table) {
+        Watched w = tables.get(table);
+        return w == null ? 0 : w.lastPoll;
+    }
+
+    /**
+     * Polls all watched tables now, in the calling thread.
+     */
+    public void poll() {
+        List<Watched> watched;
+        synchronized (this) {
+            watched = new ArrayList<>(tables.values());
+        }
+        for (Watched w : watched) {
+            poll(w);
+        }
+    }
+
+    /**
+     * Polls a watched table now, in the calling thread.
+     *
+     * @return false if the table is not watched
+     */
+    public boolean poll(String table) {
+        Watched w;
+        synchronized (this) {
+            w = tables.get(table);
+        }
+        if (w == null) {
+            return false;
+        }
+        poll(w);
+        return true;
+    }
+
+    private void poll(Watched w) {
+        // a table polled by a round and on demand at once is polled in turn
+        synchronized (w) {
+            pollTable(w);
+        }
+    }
+
+    private void pollTable(Watched w) {
+        try {
+            TableLimits limits = handle.getTable(new GetTableRequest()
+                    .setTableName(w.table)).getTableLimits();
+            long latest = w.history.getLatestStart();
+            long start = latest >= 0 ? latest + 1
+                    : System.currentTimeMillis()
+                    - w.history.getCapacity() * 60 * 1000L;
+            while (true) {
+                TableUsageResult.TableUsage[] records = handle.getTableUsage(
+                        new TableUsageRequest()
+                                .setTableName(w.table)
+                                .setStartTime(start)
+                                .setLimit(PAGE_SIZE)).getUsageRecords();
+                if (records == null || records.length == 0) {
+                    break;
+                }
+                for (TableUsageResult.TableUsage u : records) {
+                    w.history.record(u.getStartTime(), u.getSecondsInPeriod(),
+                            u.getReadUnits(), u.getWriteUnits(),
+                            u.getStorageGB(), u.getReadThrottleCount(),
+                            u.getWriteThrottleCount(),
+                            u.getStorageThrottleCount());
+                }
+                if (records.length < PAGE_SIZE) {
+                    break;
+                }
+                start = records[records.length - 1].getStartTime() + 1;
+            }
+            synchronized (this) {
+                w.limits = limits;
+                w.error = null;
+                w.lastPoll = System.currentTimeMillis();
+            }
+        } catch (Exception ex) {
+            synchronized (this) {
+                w.error = ex;
+                w.lastPoll = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private static class Watched {
+        final String table;
+        final UsageHistory history = new UsageHistory();
+        TableLimits limits;
+        Exception error;
+        long lastPoll;
+
+        Watched(String table) {
+            this.table = table;
+        }
+    }
+}
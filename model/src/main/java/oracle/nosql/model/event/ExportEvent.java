@@ -0,0 +1,62 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for writing data to a local file e.g. a downloaded
+ * query result or binary column.
+ */
+@Name(ExportEvent.NAME)
+@Label("NoSQL Export")
+@Category({ "Oracle NoSQL", "Export" })
+@Description("Data written from the database to a local file")
+public class ExportEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.Export";
+
+    @Label("Kind")
+    private String kind;
+
+    @Label("Table")
+    private String table;
+
+    @Label("Path")
+    private String path;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Size")
+    @DataAmount(DataAmount.BYTES)
+    private long bytes;
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for building the <code>NoSQLHandle</code> of a
+ * connection, including its authorization provider.
+ */
+@Name(HandleCreationEvent.NAME)
+@Label("NoSQL Handle Creation")
+@Category({ "Oracle NoSQL", "Connection" })
+@Description("Creation of a database handle and its authorization provider")
+public class HandleCreationEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.HandleCreation";
+
+    @Label("Profile Type")
+    private String profileType;
+
+    @Label("Endpoint")
+    private String endpoint;
+
+    public void setProfileType(String profileType) {
+        this.profileType = profileType;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+}
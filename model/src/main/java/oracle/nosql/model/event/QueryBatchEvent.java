@@ -0,0 +1,53 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for fetching one batch of query results.
+ */
+@Name(QueryBatchEvent.NAME)
+@Label("NoSQL Query Batch")
+@Category({ "Oracle NoSQL", "Requests" })
+@Description("A batch of query results fetched from the database")
+public class QueryBatchEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.QueryBatch";
+
+    @Label("Table")
+    private String table;
+
+    @Label("Batch")
+    @Description("Zero based position of the batch in the query result")
+    private int batch;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Read KB")
+    private int readKB;
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setBatch(int batch) {
+        this.batch = batch;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public void setReadKB(int readKB) {
+        this.readKB = readKB;
+    }
+}
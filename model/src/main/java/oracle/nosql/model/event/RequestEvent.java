@@ -0,0 +1,74 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a single request issued through a
+ * <code>NoSQLHandle</code>.
+ */
+@Name(RequestEvent.NAME)
+@Label("NoSQL Request")
+@Category({ "Oracle NoSQL", "Requests" })
+@Description("A request issued to the database")
+public class RequestEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.Request";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Table")
+    private String table;
+
+    @Label("Read KB")
+    private int readKB;
+
+    @Label("Write KB")
+    private int writeKB;
+
+    @Label("Retries")
+    private int retries;
+
+    @Label("Failed")
+    private boolean failed;
+
+    @Label("Throttled")
+    private boolean throttled;
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setReadKB(int readKB) {
+        this.readKB = readKB;
+    }
+
+    public void setWriteKB(int writeKB) {
+        this.writeKB = writeKB;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    public void setThrottled(boolean throttled) {
+        this.throttled = throttled;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for loading the definition of a table into the
+ * schema model.
+ */
+@Name(TableLoadEvent.NAME)
+@Label("NoSQL Table Load")
+@Category({ "Oracle NoSQL", "Schema" })
+@Description("Loading of a table definition")
+public class TableLoadEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.TableLoad";
+
+    @Label("Table")
+    private String table;
+
+    @Label("Columns")
+    private int columns;
+
+    @Label("Indexes")
+    private int indexes;
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public void setIndexes(int indexes) {
+        this.indexes = indexes;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for filling a page of the table view.
+ */
+@Name(TablePageEvent.NAME)
+@Label("NoSQL Table Page")
+@Category({ "Oracle NoSQL", "Table View" })
+@Description("A page of rows fetched for the table view")
+public class TablePageEvent extends jdk.jfr.Event {
+    public static final String NAME = "oracle.nosql.TablePage";
+
+    @Label("Table")
+    private String table;
+
+    @Label("Page")
+    private int page;
+
+    @Label("Rows")
+    private int rows;
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.util.HyperLogLog;
+import oracle.nosql.model.util.TDigest;
+
+/**
+ * Profiles the columns of query result rows as they stream by, so that the
+ * rows fetched for display are profiled without another scan. For each
+ * top-level column it keeps the null rate, the smallest and largest value,
+ * an estimate of the distinct values and, for numbers, estimated quantiles.
+ * For JSON columns it counts the rows each field path is present in. <br>
+ * Memory is fixed per column: distinct values are estimated with a
+ * HyperLogLog sketch and quantiles with a t-digest.
+ */
+public class ColumnProfiler {
+    /** field paths counted per JSON column, other paths are not tracked */
+    public static final int MAX_PATHS = 64;
+    /** nesting depth of the field paths counted in JSON columns */
+    public static final int MAX_DEPTH = 4;
+    private static final int MAX_SHOWN_LENGTH = 40;
+    private static final int MAX_SHOWN_PATHS = 10;
+
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private long rows;
+
+    /**
+     * Adds a row to the profile.
+     */
+    public synchronized void add(MapValue row) {
+        rows++;
+        for (Map.Entry<String, FieldValue> e : row.entrySet()) {
+            columns.computeIfAbsent(e.getKey(), Column::new).add(e.getValue());
+        }
+    }
+
+    /**
+     * @return number of rows profiled.
+     */
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /**
+     * @param name a column name
+     * @return profile of the column, or null if no row had the column.
+     */
+    public synchronized Column getColumn(String name) {
+        return columns.get(name);
+    }
+
+    public synchronized Collection<String> getColumnNames() {
+        return new ArrayList<>(columns.keySet());
+    }
+
+    /**
+     * Profile of a column.
+     */
+    public class Column {
+        private final String name;
+        private long values;
+        private FieldValue min;
+        private FieldValue max;
+        private final HyperLogLog distinct = new HyperLogLog();
+        private TDigest numbers;
+        private final Map<String, Long> paths = new LinkedHashMap<>();
+        private boolean pathsTruncated;
+
+        Column(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        void add(FieldValue value) {
+            if (value == null || value.isNull() || value.isJsonNull()) {
+                return;
+            }
+            values++;
+            if (value.isMap()) {
+                Set<String> seen = new HashSet<>();
+                collectPaths(value.asMap(), "", 1, seen);
+                for (String path : seen) {
+                    if (paths.containsKey(path) || paths.size() < MAX_PATHS) {
+                        paths.merge(path, 1L, Long::sum);
+                    } else {
+                        pathsTruncated = true;
+                    }
+                }
+            }
+            distinct.add(value.toJson());
+            if (value.isMap() || value.isArray() || value.isBinary()) {
+                return;
+            }
+            if (value.isNumeric()) {
+                double number = value.getType() == FieldValue.Type.DOUBLE
+                        ? value.getDouble() : value.getNumber().doubleValue();
+                if (!Double.isFinite(number)) {
+                    // NaN and infinities are counted, but not as numbers
+                    return;
+                }
+                if (numbers == null) {
+                    numbers = new TDigest();
+                }
+                numbers.add(number);
+            }
+            if (min == null || compare(value, min) < 0) {
+                min = value;
+            }
+            if (max == null || compare(value, max) > 0) {
+                max = value;
+            }
+        }
+
+        private void collectPaths(MapValue map, String prefix, int depth,
+                Set<String> seen) {
+            for (Map.Entry<String, FieldValue> e : map.entrySet()) {
+                String path = prefix + e.getKey();
+                seen.add(path);
+                if (e.getValue().isMap() && depth < MAX_DEPTH) {
+                    collectPaths(e.getValue().asMap(), path + ".", depth + 1,
+                            seen);
+                }
+            }
+        }
+
+        /**
+         * @return number of rows where the column is missing or null.
+         */
+        public long getNulls() {
+            synchronized (ColumnProfiler.this) {
+                return rows - values;
+            }
+        }
+
+        public FieldValue getMin() {
+            return min;
+        }
+
+        public FieldValue getMax() {
+            return max;
+        }
+
+        /**
+         * @return estimated number of distinct non-null values.
+         */
+        public long getDistinct() {
+            synchronized (ColumnProfiler.this) {
+                return Math.min(distinct.estimate(), values);
+            }
+        }
+
+        /**
+         * @param q a quantile between 0 and 1
+         * @return estimated value at the quantile of the numeric values, NaN
+         * if the column had no numbers.
+         */
+        public double getQuantile(double q) {
+            synchronized (ColumnProfiler.this) {
+                return numbers == null ? Double.NaN : numbers.quantile(q);
+            }
+        }
+
+        /**
+         * @return number of rows each JSON field path is present in.
+         */
+        public Map<String, Long> getPaths() {
+            synchronized (ColumnProfiler.this) {
+                return new LinkedHashMap<>(paths);
+            }
+        }
+
+        /**
+         * Describes the profile, one statistic per line.
+         */
+        public List<String> describe() {
+            synchronized (ColumnProfiler.this) {
+                List<String> lines = new ArrayList<>();
+                lines.add(String.format(Locale.ROOT, "nulls: %d of %d rows (%.1f%%)",
+                        getNulls(), rows, rows == 0 ? 0 : 100.0 * getNulls() / rows));
+                lines.add("distinct: ~" + getDistinct());
+                if (min != null) {
+                    lines.add("min: " + shorten(min.toJson()));
+                    lines.add("max: " + shorten(max.toJson()));
+                }
+                if (numbers != null) {
+                    lines.add(String.format(Locale.ROOT,
+                            "p50: %.6g, p90: %.6g, p99: %.6g",
+                            numbers.quantile(0.5), numbers.quantile(0.9),
+                            numbers.quantile(0.99)));
+                }
+                if (!paths.isEmpty()) {
+                    List<Map.Entry<String, Long>> byCount =
+                            new ArrayList<>(paths.entrySet());
+                    byCount.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+                    lines.add("fields present:");
+                    for (int i = 0; i < byCount.size() && i < MAX_SHOWN_PATHS; i++) {
+                        Map.Entry<String, Long> e = byCount.get(i);
+                        lines.add(String.format(Locale.ROOT, "  %s %.1f%%",
+                                e.getKey(), 100.0 * e.getValue() / values));
+                    }
+                    if (byCount.size() > MAX_SHOWN_PATHS || pathsTruncated) {
+                        lines.add("  ...");
+                    }
+                }
+                return lines;
+            }
+        }
+    }
+
+    /**
+     * Compares values of the same kind; values that can not be compared,
+     * e.g. a number and a string of a JSON column, compare as equal.
+     */
+    private static int compare(FieldValue a, FieldValue b) {
+        try {
+            if (a.isNumeric() && b.isNumeric()) {
+                return a.getNumber().compareTo(b.getNumber());
+            }
+            return a.compareTo(b);
+        } catch (ClassCastException | IllegalArgumentException ex) {
+            return 0;
+        }
+    }
+
+    private static String shorten(String s) {
+        return s.length() <= MAX_SHOWN_LENGTH ? s
+                : s.substring(0, MAX_SHOWN_LENGTH) + "...";
+    }
+}
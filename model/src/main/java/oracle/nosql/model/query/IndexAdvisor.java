@@ -0,0 +1,583 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.Index;
+import oracle.nosql.model.schema.Table;
+
+/**
+ * Recommends secondary indexes for a table from the queries run against it.
+ * <br>
+ * For every query whose {@link QueryPlan plan} scans the table in full, the
+ * paths compared in its WHERE clause and, if the plan sorts, the paths of its
+ * ORDER BY clause are collected. Equality paths come first in a proposed
+ * index, followed by one range path or else the sort paths, which is the
+ * order in which an index can serve them. Proposals already served by an
+ * existing index are dropped. Paths keep the case of the query: field names
+ * in JSON are case-sensitive, so only paths of typed columns are compared
+ * regardless of case.
+ * <br>
+ * Proposals are ranked by the read units they would save: the cost of the
+ * full scan times the fraction of rows the index would skip, estimated from
+ * the number of distinct values in a sample of rows. The same sample gives
+ * the size of an index entry, from which the storage of the index and the
+ * write units it adds to every write are estimated.
+ */
+public class IndexAdvisor {
+    /** selectivity of an equality when the sample does not tell */
+    static final double DEFAULT_EQUALITY_SELECTIVITY = 0.1;
+    /** selectivity of a range condition */
+    static final double RANGE_SELECTIVITY = 1.0 / 3;
+    /** bytes of an index entry beyond its field values and primary key */
+    static final int ENTRY_OVERHEAD_BYTES = 8;
+
+    private static final Set<String> EQUALITY = new HashSet<String>(
+            Collections.singletonList("EQUAL"));
+    private static final Set<String> RANGE = new HashSet<String>(
+            Arrays.asList("LESS_THAN", "LESS_OR_EQUAL",
+                    "GREATER_THAN", "GREATER_OR_EQUAL"));
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "\\bORDER\\s+BY\\s+(.+?)(?:\\bLIMIT\\b|\\bOFFSET\\b|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern FROM = Pattern.compile(
+            "\\bFROM\\s+([\\w.:]+)(?:\\s+(?:AS\\s+)?\\$?(\\w+))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Set<String> NOT_ALIASES = new HashSet<String>(
+            Arrays.asList("where", "order", "group", "limit",
+                    "offset", "nested", "left"));
+
+    private final String table;
+    private final List<String> primaryKey;
+    private final List<List<String>> indexes;
+    private final Set<String> typedFields;
+    private final Map<List<String>, Recommendation> candidates =
+            new LinkedHashMap<List<String>, Recommendation>();
+    private long tableSizeKB = -1;
+    private List<MapValue> sample = Collections.emptyList();
+
+    /**
+     * Creates an advisor for a table.
+     *
+     * @param table name of the table
+     * @param primaryKey names of the primary key fields
+     * @param indexes paths of the fields of each existing index
+     * @param typedFields names of the top level fields that are not JSON.
+     * Paths starting with any other name are indexed as
+     * <code>ANYATOMIC</code>, which covers JSON collection tables.
+     */
+    public IndexAdvisor(String table, List<String> primaryKey,
+            List<List<String>> indexes, Set<String> typedFields) {
+        this.table = table;
+        this.primaryKey = primaryKey;
+        this.indexes = new ArrayList<List<String>>();
+        for (List<String> index : indexes) {
+            List<String> paths = new ArrayList<String>();
+            for (String path : index) {
+                paths.add(path.toLowerCase(Locale.ROOT));
+            }
+            this.indexes.add(paths);
+        }
+        this.typedFields = new HashSet<String>();
+        for (String f : typedFields) {
+            this.typedFields.add(f.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Creates an advisor for a table of the schema.
+     *
+     * @param table a table with its fields and indexes loaded
+     * @return an advisor for the table
+     */
+    public static IndexAdvisor forTable(Table table) {
+        List<String> primaryKey = new ArrayList<String>();
+        if (table.getPrimaryKeys() != null) {
+            for (Field f : table.getPrimaryKeys().getFields()) {
+                primaryKey.add(f.getName());
+            }
+        }
+        List<List<String>> indexes = new ArrayList<List<String>>();
+        for (Index index : table.getIndexes()) {
+            List<String> paths = new ArrayList<String>();
+            for (Field f : index.getFields()) {
+                // fields of an index are named <path>|index or <path>|index.path
+                String name = f.getName();
+                int bar = name.indexOf('|');
+                paths.add(bar < 0 ? name : name.substring(0, bar));
+            }
+            indexes.add(paths);
+        }
+        Set<String> typed = new HashSet<String>();
+        for (Field f : table.getFields()) {
+            if (f.getType() != null && f.getType() != Field.Type.JSON) {
+                typed.add(f.getName());
+            }
+        }
+        return new IndexAdvisor(table.getName(), primaryKey, indexes, typed);
+    }
+
+    /**
+     * Sets the size of the table, to predict the cost of a full scan.
+     *
+     * @param tableSizeKB size in KB, or -1 if not known
+     */
+    public void setTableSizeKB(long tableSizeKB) {
+        this.tableSizeKB = tableSizeKB;
+    }
+
+    /**
+     * Sets a sample of rows of the table, to estimate the selectivity of
+     * conditions and the size of index entries.
+     *
+     * @param sample rows of the table, may be empty
+     */
+    public void setSample(List<MapValue> sample) {
+        this.sample = sample;
+    }
+
+    /**
+     * Adds a query run against the table.
+     *
+     * @param statement the query
+     * @param plan plan of the query as returned by the database
+     * @param runs number of times the query was run
+     * @param readUnits read units consumed by a run of the query, or -1 if
+     * not known
+     */
+    public void addQuery(String statement, String plan, int runs,
+            long readUnits) {
+        QueryPlan parsed = QueryPlan.parse(plan);
+        if (parsed == null) {
+            return;
+        }
+        boolean scanned = false;
+        for (String t : QueryPlanAnalyzer.analyze(parsed).getScannedTables()) {
+            scanned |= table.equalsIgnoreCase(t);
+        }
+        if (!scanned) {
+            return;
+        }
+        List<String> equality = new ArrayList<String>();
+        List<String> range = new ArrayList<String>();
+        for (QueryPlan.Node node : parsed.find("TABLE")) {
+            String variable = node.getString("row variable");
+            if (variable != null &&
+                    table.equalsIgnoreCase(node.getString("target table"))) {
+                collect(parsed.getRoot(), variable, equality, range);
+            }
+        }
+        List<String> sort = new ArrayList<String>();
+        if (!parsed.find("SORT").isEmpty() || !parsed.find("SORT1").isEmpty()
+                || !parsed.find("SORT2").isEmpty()) {
+            sort = orderByPaths(statement);
+        }
+        canonical(equality);
+        canonical(range);
+        canonical(sort);
+        List<String> paths = new ArrayList<String>(
+                new LinkedHashSet<String>(equality));
+        String rangePath = null;
+        for (String path : range) {
+            if (!paths.contains(path)) {
+                rangePath = path;
+                break;
+            }
+        }
+        if (rangePath != null) {
+            paths.add(rangePath);
+        } else {
+            for (String path : sort) {
+                if (!paths.contains(path)) {
+                    paths.add(path);
+                }
+            }
+        }
+        if (paths.isEmpty() || isServed(paths)) {
+            return;
+        }
+        Recommendation r = candidates.get(paths);
+        if (r == null) {
+            int equalities = paths.size() - (rangePath != null ? 1 : 0);
+            r = new Recommendation(paths, Math.min(equalities,
+                    new LinkedHashSet<String>(equality).size()),
+                    rangePath != null);
+            candidates.put(paths, r);
+        }
+        r.add(statement, runs, readUnits);
+    }
+
+    /**
+     * Gets the recommended indexes, the most read units saved first.
+     *
+     * @return recommendations, empty if no query would benefit from an index
+     */
+    public List<Recommendation> recommend() {
+        List<Recommendation> result =
+                new ArrayList<Recommendation>(candidates.values());
+        long rows = estimateRows();
+        for (Recommendation r : result) {
+            r.estimate(rows);
+        }
+        Collections.sort(result, (a, b) -> {
+            int c = Long.compare(b.savedReadUnits, a.savedReadUnits);
+            return c != 0 ? c : Integer.compare(b.runs, a.runs);
+        });
+        return result;
+    }
+
+    /**
+     * Lowercases the paths of typed columns, whose names are not
+     * case-sensitive, so that their spellings are the same path. Paths
+     * into JSON keep their case.
+     */
+    private void canonical(List<String> paths) {
+        for (int i = 0; i < paths.size(); i++) {
+            String path = paths.get(i);
+            if (isTyped(path)) {
+                paths.set(i, path.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private boolean isTyped(String path) {
+        return typedFields.contains(
+                path.split("\\.")[0].toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isServed(List<String> paths) {
+        List<String> lower = new ArrayList<String>();
+        for (String path : paths) {
+            lower.add(path.toLowerCase(Locale.ROOT));
+        }
+        for (List<String> index : indexes) {
+            if (index.size() >= lower.size() &&
+                    index.subList(0, lower.size()).equals(lower)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the paths of the given row variable compared in conditions
+     * that every result must satisfy, i.e. not below an OR.
+     */
+    private static void collect(QueryPlan.Node node, String variable,
+            List<String> equality, List<String> range) {
+        String kind = node.getKind();
+        if ("OR".equals(kind)) {
+            return;
+        }
+        if (EQUALITY.contains(kind) || RANGE.contains(kind)) {
+            String path = path(node.get("left operand"), variable);
+            if (path == null) {
+                path = path(node.get("right operand"), variable);
+            }
+            if (path != null) {
+                (EQUALITY.contains(kind) ? equality : range).add(path);
+            }
+        }
+        for (QueryPlan.Node child : node.getChildren()) {
+            collect(child, variable, equality, range);
+        }
+    }
+
+    /**
+     * @return the path of a chain of field steps starting at the given
+     * variable, or null if the operand is something else
+     */
+    static String path(FieldValue operand, String variable) {
+        List<String> steps = new ArrayList<String>();
+        while (operand != null && operand.isMap()) {
+            MapValue m = operand.asMap();
+            String kind = m.getString(QueryPlan.KIND);
+            if ("FIELD_STEP".equals(kind)) {
+                steps.add(0, m.getString("field name"));
+                operand = m.get("input iterator");
+            } else if ("VAR_REF".equals(kind)) {
+                return variable.equals(m.getString("variable")) &&
+                        !steps.isEmpty() ? String.join(".", steps) : null;
+            } else {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The plan only tells that results are sorted, so the sort paths are
+     * taken from the ORDER BY clause of the query.
+     */
+    List<String> orderByPaths(String statement) {
+        List<String> paths = new ArrayList<String>();
+        Matcher m = ORDER_BY.matcher(statement);
+        if (!m.find()) {
+            return paths;
+        }
+        Set<String> prefixes = new HashSet<String>();
+        prefixes.add(table.toLowerCase(Locale.ROOT));
+        Matcher from = FROM.matcher(statement);
+        if (from.find() && from.group(2) != null &&
+                !NOT_ALIASES.contains(from.group(2).toLowerCase(Locale.ROOT))) {
+            prefixes.add(from.group(2).toLowerCase(Locale.ROOT));
+        }
+        for (String item : m.group(1).split(",")) {
+            String path = item.trim().split("\\s+")[0];
+            if (path.isEmpty() || path.contains("(")) {
+                continue;
+            }
+            if (path.startsWith("$")) {
+                path = path.substring(1);
+            }
+            int dot = path.indexOf('.');
+            if (dot > 0 && prefixes.contains(
+                    path.substring(0, dot).toLowerCase(Locale.ROOT))) {
+                path = path.substring(dot + 1);
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    private long estimateRows() {
+        if (tableSizeKB <= 0 || sample.isEmpty()) {
+            return -1;
+        }
+        long bytes = 0;
+        for (MapValue row : sample) {
+            bytes += row.toJson().length();
+        }
+        long avg = Math.max(1, bytes / sample.size());
+        return tableSizeKB * 1024 / avg;
+    }
+
+    private double selectivity(String path) {
+        if (sample.isEmpty()) {
+            return DEFAULT_EQUALITY_SELECTIVITY;
+        }
+        Set<String> distinct = new HashSet<String>();
+        for (MapValue row : sample) {
+            FieldValue v = valueAt(row, path);
+            distinct.add(v == null ? "" : v.toJson());
+        }
+        return 1.0 / distinct.size();
+    }
+
+    private long averageBytes(String path) {
+        if (sample.isEmpty()) {
+            return 0;
+        }
+        long bytes = 0;
+        for (MapValue row : sample) {
+            FieldValue v = valueAt(row, path);
+            bytes += v == null ? 1 : v.toJson().length();
+        }
+        return bytes / sample.size();
+    }
+
+    static FieldValue valueAt(MapValue row, String path) {
+        FieldValue v = row;
+        for (String step : path.split("\\.")) {
+            if (v == null || !v.isMap()) {
+                return null;
+            }
+            FieldValue next = v.asMap().get(step);
+            if (next == null) {
+                for (Map.Entry<String, FieldValue> e : v.asMap().entrySet()) {
+                    if (e.getKey().equalsIgnoreCase(step)) {
+                        next = e.getValue();
+                        break;
+                    }
+                }
+            }
+            v = next;
+        }
+        return v;
+    }
+
+    /**
+     * A proposed index.
+     */
+    public class Recommendation {
+        private final List<String> paths;
+        private final int equalities;
+        private final boolean range;
+        private final List<String> queries = new ArrayList<String>();
+        private int runs;
+        private double scanUnits;
+        private double selectivity = 1;
+        private long savedReadUnits;
+        private long entryBytes;
+        private long storageKB = -1;
+
+        /**
+         * @param paths indexed paths
+         * @param equalities number of leading paths compared for equality
+         * @param range true if the path after them is compared by a range
+         */
+        Recommendation(List<String> paths, int equalities, boolean range) {
+            this.paths = paths;
+            this.equalities = equalities;
+            this.range = range;
+        }
+
+        void add(String statement, int n, long readUnits) {
+            if (!queries.contains(statement)) {
+                queries.add(statement);
+            }
+            runs += n;
+            scanUnits += (double) n * Math.max(0, Math.max(readUnits, tableSizeKB));
+        }
+
+        /**
+         * Only conditions reduce the rows read; an index that serves only
+         * the sort saves nothing but the sort itself.
+         */
+        void estimate(long rows) {
+            double s = 1;
+            for (int i = 0; i < equalities; i++) {
+                s *= selectivity(paths.get(i));
+            }
+            if (range) {
+                s *= RANGE_SELECTIVITY;
+            }
+            selectivity = Math.min(1, s);
+            savedReadUnits = Math.max(0, Math.round(scanUnits * (1 - selectivity)));
+            long bytes = ENTRY_OVERHEAD_BYTES;
+            for (String path : paths) {
+                bytes += averageBytes(path);
+            }
+            for (String key : primaryKey) {
+                bytes += averageBytes(key.toLowerCase(Locale.ROOT));
+            }
+            entryBytes = bytes;
+            storageKB = rows < 0 ? -1 : (rows * bytes + 1023) / 1024;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * @return paths of the indexed fields in index order
+         */
+        public List<String> getPaths() {
+            return Collections.unmodifiableList(paths);
+        }
+
+        /**
+         * @return the distinct queries that would use the index
+         */
+        public List<String> getQueries() {
+            return Collections.unmodifiableList(queries);
+        }
+
+        /**
+         * @return number of runs of the queries
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return estimated fraction of the rows the index selects
+         */
+        public double getSelectivity() {
+            return selectivity;
+        }
+
+        /**
+         * @return read units the queries would have saved over all their
+         * runs, 0 if the cost of the scans is not known
+         */
+        public long getSavedReadUnits() {
+            return savedReadUnits;
+        }
+
+        /**
+         * @return estimated size in bytes of an entry of the index
+         */
+        public long getEntryBytes() {
+            return entryBytes;
+        }
+
+        /**
+         * @return estimated storage of the index in KB, -1 if not known
+         */
+        public long getStorageKB() {
+            return storageKB;
+        }
+
+        /**
+         * @return write units added to every write of a row, one per KB of
+         * index entry
+         */
+        public long getExtraWriteUnits() {
+            return Math.max(1, (entryBytes + 1023) / 1024);
+        }
+
+        /**
+         * @return estimated ratio of write units of a row with the index to
+         * those without, 0 if the size of rows is not known
+         */
+        public double getWriteAmplification() {
+            if (sample.isEmpty()) {
+                return 0;
+            }
+            long bytes = 0;
+            for (MapValue row : sample) {
+                bytes += row.toJson().length();
+            }
+            long rowUnits = Math.max(1, (bytes / sample.size() + 1023) / 1024);
+            return (double) (rowUnits + getExtraWriteUnits()) / rowUnits;
+        }
+
+        /**
+         * @return the statement that creates the index
+         */
+        public String getDdl() {
+            StringBuilder name = new StringBuilder("idx");
+            StringBuilder fields = new StringBuilder();
+            for (String path : paths) {
+                name.append('_').append(path.replaceAll("[^A-Za-z0-9]", "_"));
+                if (fields.length() > 0) {
+                    fields.append(", ");
+                }
+                fields.append(path);
+                if (!isTyped(path)) {
+                    fields.append(" AS ANYATOMIC");
+                }
+            }
+            String indexName = name.length() > 64 ? name.substring(0, 64)
+                    : name.toString();
+            return "CREATE INDEX " + indexName + " ON " + table + "(" +
+                    fields + ")";
+        }
+
+        @Override
+        public String toString() {
+            return getDdl();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+
+/**
+ * A query execution plan as a tree of iterators. The plan is parsed from the
+ * JSON returned by the database when a query is prepared. Each JSON object
+ * with an <code>iterator kind</code> becomes a {@link Node node}; objects
+ * nested in its properties, directly or in arrays, become its children.
+ */
+public class QueryPlan {
+    static final String KIND = "iterator kind";
+
+    private final Node root;
+
+    private QueryPlan(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses a query plan.
+     *
+     * @param plan the plan as returned by the database
+     * @return a plan, or null if the given text is not a plan in JSON format
+     */
+    public static QueryPlan parse(String plan) {
+        if (plan == null || plan.trim().isEmpty()) {
+            return null;
+        }
+        FieldValue json;
+        try {
+            json = FieldValue.createFromJson(plan, null);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+        if (!json.isMap() || !json.asMap().contains(KIND)) {
+            return null;
+        }
+        return new QueryPlan(new Node(json.asMap()));
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Finds all nodes of given kind in depth-first order.
+     *
+     * @param kind an iterator kind e.g. TABLE, ignoring case
+     * @return matching nodes, never null
+     */
+    public List<Node> find(String kind) {
+        List<Node> found = new ArrayList<Node>();
+        root.collect(kind, found);
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        root.print(buf, 0);
+        return buf.toString();
+    }
+
+    /**
+     * An iterator of a query plan.
+     */
+    public static class Node {
+        private final String kind;
+        private final MapValue properties;
+        private final List<Node> children = new ArrayList<Node>();
+
+        Node(MapValue json) {
+            this.kind = json.getString(KIND);
+            this.properties = json;
+            for (Map.Entry<String, FieldValue> e : json.entrySet()) {
+                addChildren(e.getValue());
+            }
+        }
+
+        private void addChildren(FieldValue value) {
+            if (value.isMap()) {
+                if (value.asMap().contains(KIND)) {
+                    children.add(new Node(value.asMap()));
+                } else {
+                    for (FieldValue v : value.asMap().values()) {
+                        addChildren(v);
+                    }
+                }
+            } else if (value.isArray()) {
+                for (FieldValue v : value.asArray()) {
+                    addChildren(v);
+                }
+            }
+        }
+
+        /**
+         * @return kind of iterator e.g. RECEIVE, SELECT, TABLE or SORT
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        /**
+         * @return all properties of this iterator as given in the plan
+         */
+        public MapValue getProperties() {
+            return properties;
+        }
+
+        /**
+         * Gets a property of this iterator.
+         *
+         * @param name name of the property e.g. <code>target table</code>
+         * @return value of the property or null if it is not present
+         */
+        public FieldValue get(String name) {
+            return properties.get(name);
+        }
+
+        /**
+         * Gets a property of this iterator as string.
+         *
+         * @param name name of the property
+         * @return value of the property or null if it is not present or not a
+         * string
+         */
+        public String getString(String name) {
+            FieldValue v = properties.get(name);
+            return v == null || v.getType() != FieldValue.Type.STRING ? null
+                    : v.getString();
+        }
+
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        void collect(String k, List<Node> found) {
+            if (k.equalsIgnoreCase(kind)) {
+                found.add(this);
+            }
+            for (Node child : children) {
+                child.collect(k, found);
+            }
+        }
+
+        void print(StringBuilder buf, int depth) {
+            for (int i = 0; i < depth; i++) {
+                buf.append("  ");
+            }
+            buf.append(kind);
+            String table = getString("target table");
+            if (table != null) {
+                buf.append(' ').append(table);
+            }
+            buf.append('\n');
+            for (Node child : children) {
+                child.print(buf, depth + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import oracle.nosql.driver.values.FieldValue;
+
+/**
+ * Finds the parts of a {@link QueryPlan query plan} whose cost grows with the
+ * size of a table: scans of an index without key bounds, sorts that are not
+ * supported by an index and grouping over such scans. <br>
+ * A scan without bounds reads every row of the table, so its cost in read
+ * units can be predicted from the size of the table.
+ */
+public class QueryPlanAnalyzer {
+    private static final String PRIMARY_INDEX = "primary index";
+
+    /**
+     * Kind of expensive operation found in a plan.
+     */
+    public enum Kind {
+        /** the primary index is scanned without shard or primary key bounds */
+        FULL_TABLE_SCAN,
+        /** a secondary index is scanned without bounds */
+        FULL_INDEX_SCAN,
+        /** results are sorted after they are read instead of by an index */
+        SORT_WITHOUT_INDEX,
+        /** results of a scan without bounds are grouped after they are read */
+        UNBOUNDED_GROUP_BY
+    }
+
+    /**
+     * An expensive operation found in a plan.
+     */
+    public static class Finding {
+        private final Kind kind;
+        private final String table;
+        private final String message;
+
+        Finding(Kind kind, String table, String message) {
+            this.kind = kind;
+            this.table = table;
+            this.message = message;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the table concerned, may be null
+         */
+        public String getTable() {
+            return table;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    /**
+     * Result of analyzing a plan.
+     */
+    public static class Analysis {
+        private final List<Finding> findings;
+        private final Set<String> scannedTables;
+
+        Analysis(List<Finding> findings, Set<String> scannedTables) {
+            this.findings = findings;
+            this.scannedTables = scannedTables;
+        }
+
+        /**
+         * @return expensive operations of the plan, empty if there are none
+         */
+        public List<Finding> getFindings() {
+            return Collections.unmodifiableList(findings);
+        }
+
+        /**
+         * @return true if the plan reads all rows of at least one table
+         */
+        public boolean isFullScan() {
+            return !scannedTables.isEmpty();
+        }
+
+        /**
+         * @return names of the tables that are read entirely
+         */
+        public Set<String> getScannedTables() {
+            return Collections.unmodifiableSet(scannedTables);
+        }
+
+        /**
+         * Predicts the read units consumed by the scans without bounds. A read
+         * unit is consumed for every kilobyte read with eventual
+         * consistency, so a full scan consumes about as many units as the
+         * table has kilobytes.
+         *
+         * @param tableKB size of tables in kilobytes by name. A negative or
+         * missing size means the size is not known.
+         * @return predicted read units, 0 if nothing is scanned in full or -1
+         * if the size of a scanned table is not known
+         */
+        public long predictReadUnits(Map<String, Long> tableKB) {
+            long units = 0;
+            for (String table : scannedTables) {
+                Long kb = tableKB.get(table);
+                if (kb == null || kb < 0) {
+                    return -1;
+                }
+                units += kb;
+            }
+            return units;
+        }
+    }
+
+    /**
+     * Analyzes a plan.
+     *
+     * @param plan a plan, may be null
+     * @return analysis of the plan, without findings for a null plan
+     */
+    public static Analysis analyze(QueryPlan plan) {
+        List<Finding> findings = new ArrayList<Finding>();
+        Set<String> scanned = new LinkedHashSet<String>();
+        if (plan == null) {
+            return new Analysis(findings, scanned);
+        }
+        boolean singlePartition = false;
+        for (QueryPlan.Node receive : plan.find("RECEIVE")) {
+            if ("SINGLE_PARTITION".equals(
+                    receive.getString("distribution kind"))) {
+                singlePartition = true;
+            }
+        }
+        if (!singlePartition) {
+            for (QueryPlan.Node node : plan.find("TABLE")) {
+                if (isBounded(node)) {
+                    continue;
+                }
+                String table = node.getString("target table");
+                String index = node.getString("index used");
+                if (index == null || PRIMARY_INDEX.equals(index)) {
+                    findings.add(new Finding(Kind.FULL_TABLE_SCAN, table,
+                            "Full scan of table " + table +
+                            ": no shard or primary key condition, every row is read"));
+                } else {
+                    findings.add(new Finding(Kind.FULL_INDEX_SCAN, table,
+                            "Full scan of index " + index + " on table " +
+                            table + ": no condition on the indexed fields"));
+                }
+                scanned.add(table);
+            }
+        }
+        if (!sorts(plan).isEmpty()) {
+            findings.add(new Finding(Kind.SORT_WITHOUT_INDEX, null,
+                    "ORDER BY is not supported by an index: all results are read and sorted before the first is returned"));
+        }
+        if (!scanned.isEmpty() && !plan.find("GROUP").isEmpty()) {
+            findings.add(new Finding(Kind.UNBOUNDED_GROUP_BY, null,
+                    "GROUP BY over a full scan: every row is read to compute the groups"));
+        }
+        return new Analysis(findings, scanned);
+    }
+
+    private static List<QueryPlan.Node> sorts(QueryPlan plan) {
+        List<QueryPlan.Node> sorts = new ArrayList<QueryPlan.Node>();
+        sorts.addAll(plan.find("SORT"));
+        sorts.addAll(plan.find("SORT1"));
+        sorts.addAll(plan.find("SORT2"));
+        return sorts;
+    }
+
+    /**
+     * A scan is bounded if any of its index scans has an equality or range
+     * condition. Older plans put the conditions directly on the iterator.
+     */
+    private static boolean isBounded(QueryPlan.Node table) {
+        FieldValue scans = table.get("index scans");
+        if (scans != null && scans.isArray()) {
+            for (FieldValue scan : scans.asArray()) {
+                if (scan.isMap() && (hasCondition(scan.asMap().get(
+                        "equality conditions")) ||
+                        hasCondition(scan.asMap().get("range conditions")))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return hasCondition(table.get("equality conditions")) ||
+                hasCondition(table.get("range conditions"));
+    }
+
+    private static boolean hasCondition(FieldValue conditions) {
+        if (conditions == null || conditions.isNull()) {
+            return false;
+        }
+        if (conditions.isMap()) {
+            return conditions.asMap().size() > 0;
+        }
+        if (conditions.isArray()) {
+            return conditions.asArray().size() > 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.StringValue;
+
+/**
+ * An UPDATE statement that changes only the fields an edit of a row
+ * changed, instead of setting every column of the row. <br>
+ * The row as read and the row as edited are compared down into maps,
+ * records and JSON documents: a changed field is set, fields added to a
+ * map or document are put into it and a field the edited row lacks is
+ * removed. A column of a table with a schema can not be removed, so a
+ * column the edited row lacks is set to NULL; a top-level field of a
+ * {@link #diffDocument JSON collection} is removed. An array that differs
+ * is set as a whole. Values are compared by
+ * their JSON, so a row edited as text matches the row it was read from,
+ * e.g. for binary values shown as base64. <br>
+ * A column the row as read did not have can not be set by path, so such an
+ * edit {@link #requiresFullWrite() needs the whole row to be written}.
+ */
+public class RowUpdate {
+    /** alias of the table in generated statements */
+    public static final String ALIAS = TableDiff.ALIAS;
+
+    private static final Pattern IDENTIFIER =
+            Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+
+    private final List<String> clauses = new ArrayList<String>();
+    private final String table;
+    private final String where;
+    private final long rowBytes;
+    private boolean fullWrite;
+
+    private RowUpdate(String table, String where, long rowBytes) {
+        this.table = table;
+        this.where = where;
+        this.rowBytes = rowBytes;
+    }
+
+    /**
+     * Compares a row with an edited copy of it.
+     *
+     * @param table name of the table
+     * @param primaryKey names of the primary key columns
+     * @param original the row as read
+     * @param edited the row as edited
+     * @return the changes of the row.
+     * @throws IllegalArgumentException if the rows do not have the same
+     * primary key.
+     */
+    public static RowUpdate diff(String table, List<String> primaryKey,
+            MapValue original, MapValue edited) {
+        return diff(table, primaryKey, original, edited, false);
+    }
+
+    /**
+     * Compares a row of a JSON collection table with an edited copy of its
+     * document.
+     *
+     * @param table name of the table
+     * @param primaryKey names of the primary key fields
+     * @param original the row as a table page reads it: the primary key
+     * and, in a map named {@code nested}, the other fields of the document
+     * @param nested name of the map of the other fields, e.g.
+     * {@code CloudTablePageCache.ROW_DATA}
+     * @param edited the document as edited, every field at the top level
+     * @return the changes of the row.
+     * @throws IllegalArgumentException if the rows do not have the same
+     * primary key.
+     */
+    public static RowUpdate diffDocument(String table, List<String> primaryKey,
+            MapValue original, String nested, MapValue edited) {
+        MapValue document = new MapValue();
+        for (Map.Entry<String, FieldValue> e : original.entrySet()) {
+            if (e.getKey().equals(nested)
+                    && e.getValue().getType() == FieldValue.Type.MAP) {
+                for (Map.Entry<String, FieldValue> field
+                        : e.getValue().asMap().entrySet()) {
+                    document.put(field.getKey(), field.getValue());
+                }
+            } else {
+                document.put(e.getKey(), e.getValue());
+            }
+        }
+        return diff(table, primaryKey, document, edited, true);
+    }
+
+    private static RowUpdate diff(String table, List<String> primaryKey,
+            MapValue original, MapValue edited, boolean document) {
+        StringBuilder where = new StringBuilder();
+        for (String column : primaryKey) {
+            FieldValue key = original.get(column);
+            FieldValue editedKey = edited.get(column);
+            if (key == null || editedKey == null || !same(key, editedKey)) {
+                throw new IllegalArgumentException(
+                        "primary key " + column + " must not change");
+            }
+            where.append(where.length() == 0 ? "" : " AND ")
+                    .append(path(ALIAS, column)).append(" = ")
+                    .append(key.toJson());
+        }
+        RowUpdate update = new RowUpdate(table, where.toString(),
+                edited.toJson().getBytes(StandardCharsets.UTF_8).length);
+        for (Map.Entry<String, FieldValue> e : original.entrySet()) {
+            String column = e.getKey();
+            if (primaryKey.contains(column)) {
+                continue;
+            }
+            FieldValue value = edited.get(column);
+            if (value == null) {
+                update.clauses.add(document ? "REMOVE " + path(ALIAS, column)
+                        : "SET " + path(ALIAS, column) + " = NULL");
+            } else {
+                update.diff(path(ALIAS, column), e.getValue(), value);
+            }
+        }
+        for (String column : edited.getMap().keySet()) {
+            if (original.get(column) == null) {
+                update.fullWrite = true;
+            }
+        }
+        return update;
+    }
+
+    private void diff(String path, FieldValue before, FieldValue after) {
+        if (same(before, after)) {
+            return;
+        }
+        if (before.getType() != FieldValue.Type.MAP
+                || after.getType() != FieldValue.Type.MAP) {
+            clauses.add("SET " + path + " = " + after.toJson());
+            return;
+        }
+        MapValue added = new MapValue();
+        for (Map.Entry<String, FieldValue> e : before.asMap().entrySet()) {
+            FieldValue value = after.asMap().get(e.getKey());
+            if (value == null) {
+                clauses.add("REMOVE " + path(path, e.getKey()));
+            } else {
+                diff(path(path, e.getKey()), e.getValue(), value);
+            }
+        }
+        for (Map.Entry<String, FieldValue> e : after.asMap().entrySet()) {
+            if (before.asMap().get(e.getKey()) == null) {
+                added.put(e.getKey(), e.getValue());
+            }
+        }
+        if (added.size() > 0) {
+            clauses.add("PUT " + path + " " + added.toJson());
+        }
+    }
+
+    /**
+     * @return true if both values have the same JSON, whatever the order of
+     * the fields of maps.
+     */
+    public static boolean same(FieldValue a, FieldValue b) {
+        if (a.getType() == FieldValue.Type.MAP
+                && b.getType() == FieldValue.Type.MAP) {
+            MapValue left = a.asMap();
+            MapValue right = b.asMap();
+            if (left.size() != right.size()) {
+                return false;
+            }
+            for (Map.Entry<String, FieldValue> e : left.entrySet()) {
+                FieldValue other = right.get(e.getKey());
+                if (other == null || !same(e.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a.getType() == FieldValue.Type.ARRAY
+                && b.getType() == FieldValue.Type.ARRAY) {
+            ArrayValue left = a.asArray();
+            ArrayValue right = b.asArray();
+            if (left.size() != right.size()) {
+                return false;
+            }
+            for (int i = 0; i < left.size(); i++) {
+                if (!same(left.get(i), right.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.toJson().equals(b.toJson());
+    }
+
+    private static String path(String parent, String name) {
+        if (IDENTIFIER.matcher(name).matches()) {
+            return parent + "." + name;
+        }
+        return parent + "." + new StringValue(name).toJson();
+    }
+
+    /**
+     * @return true if nothing was changed.
+     */
+    public boolean isEmpty() {
+        return clauses.isEmpty() && !fullWrite;
+    }
+
+    /**
+     * @return true if the edit added a column the row as read did not
+     * have, which only writing the whole row can do.
+     */
+    public boolean requiresFullWrite() {
+        return fullWrite;
+    }
+
+    /**
+     * @return the clauses of the statement, e.g. {@code SET t.doc.a = 1}.
+     */
+    public List<String> getClauses() {
+        return clauses;
+    }
+
+    /**
+     * @return the statement, or null if nothing was changed.
+     */
+    public String getStatement() {
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        return "UPDATE " + table + " AS " + ALIAS + " "
+                + String.join(", ", clauses) + " WHERE " + where;
+    }
+
+    /**
+     * @return size of the statement in bytes.
+     */
+    public long getStatementBytes() {
+        String statement = getStatement();
+        return statement == null ? 0
+                : statement.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * @return size in bytes of the edited row as JSON, which is about what
+     * writing the whole row sends.
+     */
+    public long getRowBytes() {
+        return rowBytes;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+
+/**
+ * Compares the rows of a query run again with the rows of its previous
+ * run, to show what changed without redrawing all rows. <br>
+ * Rows are matched by primary key and compared by a hash of their content,
+ * so only the hashes of the previous run are kept. A row without the
+ * primary key columns, e.g. of a query selecting other columns, is matched
+ * by its content: a change of such a row is seen as a row deleted and a row
+ * inserted.
+ */
+public class RowWatcher {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> primaryKey;
+    private List<String> keys = Collections.emptyList();
+    private Map<String, Long> hashes = Collections.emptyMap();
+
+    /**
+     * @param primaryKey names of the primary key columns
+     */
+    public RowWatcher(List<String> primaryKey) {
+        this.primaryKey = primaryKey;
+    }
+
+    /**
+     * Compares rows with those of the previous call, which they replace.
+     *
+     * @param rows the rows of the latest run
+     * @return the changes since the previous call.
+     */
+    public Changes update(List<MapValue> rows) {
+        List<String> newKeys = new ArrayList<String>(rows.size());
+        Map<String, Long> newHashes = new HashMap<String, Long>();
+        Map<String, Integer> occurrences = new HashMap<String, Integer>();
+        for (MapValue row : rows) {
+            long hash = hash(row);
+            String key = keyOf(row, hash);
+            // rows of the same key, e.g. of a join, are told apart by order
+            int n = occurrences.merge(key, 1, Integer::sum);
+            if (n > 1) {
+                key = key + '#' + n;
+            }
+            newKeys.add(key);
+            newHashes.put(key, hash);
+        }
+        Changes changes = new Changes();
+        List<String> kept = new ArrayList<String>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (newHashes.containsKey(keys.get(i))) {
+                kept.add(keys.get(i));
+            } else {
+                changes.deleted.add(i);
+            }
+        }
+        int k = 0;
+        for (int i = 0; i < newKeys.size(); i++) {
+            String key = newKeys.get(i);
+            Long before = hashes.get(key);
+            if (before == null) {
+                changes.inserted.add(i);
+                continue;
+            }
+            if (!key.equals(kept.get(k++))) {
+                changes.reordered = true;
+            }
+            if (before.longValue() != newHashes.get(key).longValue()) {
+                changes.updated.add(i);
+            }
+        }
+        keys = newKeys;
+        hashes = newHashes;
+        return changes;
+    }
+
+    private String keyOf(MapValue row, long hash) {
+        if (primaryKey.isEmpty()) {
+            return "#" + hash;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String column : primaryKey) {
+            FieldValue value = row.get(column);
+            if (value == null) {
+                return "#" + hash;
+            }
+            sb.append(value.toJson()).append('\u0000');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return a 64 bit FNV-1a hash of the JSON of a row.
+     */
+    static long hash(MapValue row) {
+        long hash = FNV_OFFSET;
+        for (byte b : row.toJson().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Rows changed between two runs. Deleted rows are given by their index
+     * in the previous run, other rows by their index in the latest run.
+     */
+    public static class Changes {
+        private final List<Integer> deleted = new ArrayList<Integer>();
+        private final List<Integer> inserted = new ArrayList<Integer>();
+        private final List<Integer> updated = new ArrayList<Integer>();
+        private boolean reordered;
+
+        /**
+         * @return indexes in the previous run of rows no longer returned,
+         * ascending.
+         */
+        public List<Integer> getDeleted() {
+            return deleted;
+        }
+
+        /**
+         * @return indexes of rows not returned by the previous run,
+         * ascending.
+         */
+        public List<Integer> getInserted() {
+            return inserted;
+        }
+
+        /**
+         * @return indexes of rows returned by both runs with another
+         * content, ascending.
+         */
+        public List<Integer> getUpdated() {
+            return updated;
+        }
+
+        /**
+         * @return true if rows returned by both runs are not in the same
+         * order, so that changes can not be told row by row.
+         */
+        public boolean isReordered() {
+            return reordered;
+        }
+
+        /**
+         * @return true if no row changed.
+         */
+        public boolean isEmpty() {
+            return deleted.isEmpty() && inserted.isEmpty() && updated.isEmpty()
+                    && !reordered;
+        }
+    }
+}
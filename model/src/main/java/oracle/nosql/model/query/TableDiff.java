@@ -0,0 +1,563 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.query;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+
+/**
+ * Compares the rows of two tables, or of two queries, that are ordered by
+ * the same primary key. <br>
+ * Both streams of rows are read once, side by side, in a merge join on the
+ * primary key, so memory does not grow with the number of rows. A row found
+ * only on the left is {@link Kind#MISSING missing}, a row found only on the
+ * right is {@link Kind#EXTRA extra}, and rows with the same key but other
+ * values are {@link Kind#DIFFERENT different} with the list of differing
+ * fields. <br>
+ * Large tables can be compared {@link #diffByRanges by ranges} of the
+ * primary key instead: the rows of each range are reduced to a digest on
+ * both sides in parallel, and only the ranges whose digests differ are
+ * joined row by row.
+ */
+public class TableDiff {
+    /** alias of the table in generated queries */
+    public static final String ALIAS = "t";
+
+    /**
+     * Kind of difference between two streams of rows.
+     */
+    public enum Kind {
+        /** the row is on the left only */
+        MISSING,
+        /** the row is on the right only */
+        EXTRA,
+        /** the rows with the same key have different values */
+        DIFFERENT
+    }
+
+    /**
+     * A field whose value differs between two rows.
+     */
+    public static class FieldDifference {
+        private final String path;
+        private final FieldValue left;
+        private final FieldValue right;
+
+        FieldDifference(String path, FieldValue left, FieldValue right) {
+            this.path = path;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * @return dot separated path of the field
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return value on the left, null if the field is absent there
+         */
+        public FieldValue getLeft() {
+            return left;
+        }
+
+        /**
+         * @return value on the right, null if the field is absent there
+         */
+        public FieldValue getRight() {
+            return right;
+        }
+
+        @Override
+        public String toString() {
+            return path + ": " + left + " <> " + right;
+        }
+    }
+
+    /**
+     * A row that is missing, extra or different.
+     */
+    public static class Difference {
+        private final Kind kind;
+        private final MapValue key;
+        private final MapValue left;
+        private final MapValue right;
+        private final List<FieldDifference> fields;
+
+        Difference(Kind kind, MapValue key, MapValue left, MapValue right,
+                List<FieldDifference> fields) {
+            this.kind = kind;
+            this.key = key;
+            this.left = left;
+            this.right = right;
+            this.fields = fields;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the primary key of the row
+         */
+        public MapValue getKey() {
+            return key;
+        }
+
+        /**
+         * @return the row on the left, null if it is extra
+         */
+        public MapValue getLeft() {
+            return left;
+        }
+
+        /**
+         * @return the row on the right, null if it is missing
+         */
+        public MapValue getRight() {
+            return right;
+        }
+
+        /**
+         * @return the differing fields of a different row, empty otherwise
+         */
+        public List<FieldDifference> getFields() {
+            return fields;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + key.toJson()
+                    + (fields.isEmpty() ? "" : " " + fields);
+        }
+    }
+
+    /**
+     * Receives the differences as they are found.
+     */
+    public interface Listener {
+        /**
+         * @return false to stop comparing
+         */
+        boolean onDifference(Difference difference);
+    }
+
+    /**
+     * Supplies the rows of one side of a comparison by ranges.
+     */
+    public interface RowSource {
+        /**
+         * @param condition a condition on the rows of a range, in terms of
+         * {@link #ALIAS}, or null for all rows
+         * @return the rows that satisfy the condition, ordered by primary key
+         */
+        Iterator<MapValue> rows(String condition);
+    }
+
+    /**
+     * Counts of a comparison.
+     */
+    public static class Summary {
+        private long compared;
+        private long equal;
+        private long missing;
+        private long extra;
+        private long different;
+        private int ranges;
+        private int differentRanges;
+        private boolean complete = true;
+
+        /**
+         * @return number of distinct primary keys seen on either side
+         */
+        public long getCompared() {
+            return compared;
+        }
+
+        public long getEqual() {
+            return equal;
+        }
+
+        public long getMissing() {
+            return missing;
+        }
+
+        public long getExtra() {
+            return extra;
+        }
+
+        public long getDifferent() {
+            return different;
+        }
+
+        /**
+         * @return number of ranges compared by digest, 0 for a comparison of
+         * rows
+         */
+        public int getRanges() {
+            return ranges;
+        }
+
+        /**
+         * @return number of ranges whose digests differed
+         */
+        public int getDifferentRanges() {
+            return differentRanges;
+        }
+
+        /**
+         * @return false if the listener stopped the comparison
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        public boolean isIdentical() {
+            return complete && missing == 0 && extra == 0 && different == 0;
+        }
+
+        private void add(Summary other) {
+            compared += other.compared;
+            equal += other.equal;
+            missing += other.missing;
+            extra += other.extra;
+            different += other.different;
+            complete &= other.complete;
+        }
+
+        @Override
+        public String toString() {
+            return compared + " row(s) compared, " + equal + " equal, "
+                    + missing + " missing, " + extra + " extra, "
+                    + different + " different"
+                    + (ranges > 0 ? ", " + differentRanges + " of " + ranges
+                            + " range(s) differ" : "")
+                    + (complete ? "" : " (stopped)");
+        }
+    }
+
+    private final List<String> primaryKey;
+
+    /**
+     * @param primaryKey names of the primary key fields, in the order of the
+     * key
+     */
+    public TableDiff(List<String> primaryKey) {
+        if (primaryKey == null || primaryKey.isEmpty()) {
+            throw new IllegalArgumentException("no primary key to join on");
+        }
+        this.primaryKey = new ArrayList<String>(primaryKey);
+    }
+
+    /**
+     * Builds a query of the rows of a table ordered by primary key.
+     *
+     * @param condition a condition in terms of {@link #ALIAS}, or null
+     */
+    public String orderedQuery(String table, String condition) {
+        StringBuilder sb = new StringBuilder("SELECT * FROM ").append(table)
+                .append(' ').append(ALIAS);
+        if (condition != null && !condition.trim().isEmpty()) {
+            sb.append(" WHERE ").append(condition);
+        }
+        sb.append(" ORDER BY ");
+        for (int i = 0; i < primaryKey.size(); i++) {
+            sb.append(i == 0 ? "" : ", ").append(ALIAS).append('.')
+                    .append(primaryKey.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compares two streams of rows ordered by primary key.
+     *
+     * @param listener receives the differences, in primary key order
+     */
+    public Summary diff(Iterator<MapValue> left, Iterator<MapValue> right,
+            Listener listener) {
+        Summary summary = new Summary();
+        MapValue l = next(left);
+        MapValue r = next(right);
+        while (l != null || r != null) {
+            int c = l == null ? 1 : r == null ? -1 : compareKeys(l, r);
+            Difference d = null;
+            summary.compared++;
+            if (c < 0) {
+                summary.missing++;
+                d = new Difference(Kind.MISSING, keyOf(l), l, null,
+                        Collections.<FieldDifference>emptyList());
+                l = next(left);
+            } else if (c > 0) {
+                summary.extra++;
+                d = new Difference(Kind.EXTRA, keyOf(r), null, r,
+                        Collections.<FieldDifference>emptyList());
+                r = next(right);
+            } else {
+                List<FieldDifference> fields = compareFields(l, r);
+                if (fields.isEmpty()) {
+                    summary.equal++;
+                } else {
+                    summary.different++;
+                    d = new Difference(Kind.DIFFERENT, keyOf(l), l, r, fields);
+                }
+                l = next(left);
+                r = next(right);
+            }
+            if (d != null && !listener.onDifference(d)) {
+                summary.complete = false;
+                break;
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Compares two tables range by range. The digests of the ranges are
+     * computed on both sides with the given number of threads. The ranges
+     * whose digests differ are then compared row by row, in order, on the
+     * calling thread.
+     *
+     * @param ranges conditions that together select every row exactly once
+     * @param threads number of ranges read at once
+     * @param listener receives the differences, in primary key order
+     */
+    public Summary diffByRanges(RowSource left, RowSource right,
+            List<String> ranges, int threads, Listener listener)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(threads, 2 * ranges.size())));
+        List<Future<Digest>> leftDigests = new ArrayList<Future<Digest>>();
+        List<Future<Digest>> rightDigests = new ArrayList<Future<Digest>>();
+        try {
+            for (final String range : ranges) {
+                leftDigests.add(executor.submit(() -> digest(left.rows(range))));
+                rightDigests.add(executor.submit(() -> digest(right.rows(range))));
+            }
+            Summary summary = new Summary();
+            summary.ranges = ranges.size();
+            for (int i = 0; i < ranges.size(); i++) {
+                Digest l = leftDigests.get(i).get();
+                Digest r = rightDigests.get(i).get();
+                if (l.equals(r)) {
+                    summary.compared += l.rows;
+                    summary.equal += l.rows;
+                    continue;
+                }
+                summary.differentRanges++;
+                summary.add(diff(left.rows(ranges.get(i)),
+                        right.rows(ranges.get(i)), listener));
+                if (!summary.complete) {
+                    break;
+                }
+            }
+            return summary;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits a range of values of a numeric key field into conditions on
+     * ranges of about the same width.
+     *
+     * @param field name of the first primary key field
+     * @param min smallest value of the field
+     * @param max largest value of the field
+     * @param parts number of ranges wanted
+     * @return conditions that together select every row exactly once
+     */
+    public static List<String> splitRanges(String field, long min, long max,
+            int parts) {
+        String f = ALIAS + '.' + field;
+        long span = max - min;
+        // width rounded up, so that the ranges reach max
+        long width = Math.max(1, span / parts + (span % parts == 0 ? 0 : 1));
+        long count = Math.min(parts, span / width + 1);
+        List<String> ranges = new ArrayList<String>();
+        for (long i = 0; i < count; i++) {
+            long low = min + i * width;
+            long high = low + width;
+            // the first and last ranges are open, in case of rows added since
+            if (count == 1) {
+                ranges.add(null);
+            } else if (i == 0) {
+                ranges.add(f + " < " + high);
+            } else if (i == count - 1) {
+                ranges.add(f + " >= " + low);
+            } else {
+                ranges.add(f + " >= " + low + " AND " + f + " < " + high);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Compares the fields of two rows. Nested maps are compared field by
+     * field; other values are compared whole.
+     *
+     * @return the differing fields, empty if the rows are equal
+     */
+    public static List<FieldDifference> compareFields(MapValue left,
+            MapValue right) {
+        List<FieldDifference> differences = new ArrayList<FieldDifference>();
+        compareFields("", left, right, differences);
+        return differences;
+    }
+
+    private static void compareFields(String prefix, MapValue left,
+            MapValue right, List<FieldDifference> differences) {
+        TreeSet<String> names = new TreeSet<String>(left.getMap().keySet());
+        names.addAll(right.getMap().keySet());
+        for (String name : names) {
+            FieldValue l = left.get(name);
+            FieldValue r = right.get(name);
+            String path = prefix + name;
+            if (l != null && r != null && l.isMap() && r.isMap()) {
+                compareFields(path + ".", l.asMap(), r.asMap(), differences);
+            } else if (!sameValue(l, r)) {
+                differences.add(new FieldDifference(path, l, r));
+            }
+        }
+    }
+
+    private static boolean sameValue(FieldValue l, FieldValue r) {
+        if (l == null || r == null) {
+            return l == r;
+        }
+        if (l.isNumeric() && r.isNumeric()) {
+            return l.compareTo(r) == 0;
+        }
+        return l.equals(r);
+    }
+
+    /**
+     * Compares the primary keys of two rows in the order of the key.
+     */
+    int compareKeys(MapValue left, MapValue right) {
+        for (String field : primaryKey) {
+            FieldValue l = left.get(field);
+            FieldValue r = right.get(field);
+            if (l == null || r == null) {
+                throw new IllegalArgumentException("row without primary key "
+                        + "field " + field + ": " + (l == null ? left : right));
+            }
+            int c = l.compareTo(r);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private MapValue keyOf(MapValue row) {
+        MapValue key = new MapValue();
+        for (String field : primaryKey) {
+            key.put(field, row.get(field));
+        }
+        return key;
+    }
+
+    private static MapValue next(Iterator<MapValue> rows) {
+        return rows.hasNext() ? rows.next() : null;
+    }
+
+    /**
+     * Digest of the rows of a range. The rows are encoded with their fields
+     * sorted by name, so that tables with the same fields in another order
+     * have the same digest.
+     */
+    static Digest digest(Iterator<MapValue> rows) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        long count = 0;
+        StringBuilder sb = new StringBuilder();
+        while (rows.hasNext()) {
+            sb.setLength(0);
+            canonical(rows.next(), sb);
+            sb.append('\n');
+            md.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+            count++;
+        }
+        return new Digest(count, md.digest());
+    }
+
+    private static void canonical(FieldValue value, StringBuilder sb) {
+        if (value.isMap()) {
+            Map<String, FieldValue> map = value.asMap().getMap();
+            sb.append('{');
+            boolean first = true;
+            for (String name : new TreeSet<String>(map.keySet())) {
+                sb.append(first ? "" : ",").append('"').append(name)
+                        .append("\":");
+                canonical(map.get(name), sb);
+                first = false;
+            }
+            sb.append('}');
+        } else if (value.isArray()) {
+            ArrayValue array = value.asArray();
+            sb.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                sb.append(i == 0 ? "" : ",");
+                canonical(array.get(i), sb);
+            }
+            sb.append(']');
+        } else if (value.getType() == FieldValue.Type.DOUBLE
+                && !Double.isFinite(value.getDouble())) {
+            // NaN and infinities have no decimal form
+            sb.append(value.getDouble());
+        } else if (value.isNumeric()) {
+            // 1, 1L and 1.0 are the same number
+            sb.append(value.getNumber().stripTrailingZeros().toPlainString());
+        } else {
+            sb.append(value.toJson());
+        }
+    }
+
+    static class Digest {
+        final long rows;
+        final byte[] hash;
+
+        Digest(long rows, byte[] hash) {
+            this.rows = rows;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Digest && ((Digest) o).rows == rows
+                    && Arrays.equals(((Digest) o).hash, hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+}
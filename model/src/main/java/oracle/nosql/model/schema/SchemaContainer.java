@@ -50,6 +50,15 @@ public interface SchemaContainer<O extends SchemaContainer<?, ?>,
      */
     C getChildAt(int pos);
 
+    /**
+     * Gets the position of given child in this container.
+     * 
+     * @param child a child element
+     * @return 0-based position of the child or -1 if the given element is not
+     * a child of this container
+     */
+    int indexOfChild(C child);
+
     /**
      * Adds given child to this container. This container must not contain a
      * child of given name. If it does, and overwrite is false, this method
@@ -56,6 +56,31 @@ public interface Table extends SchemaContainer<Schema, Field> {
      */
     public List<Index> getIndexes();
 
+    /**
+     * Gets number of indexes in this table.
+     * 
+     * @return number of indexes in this table.
+     */
+    public int getIndexCount();
+
+    /**
+     * Gets index at given position.
+     * 
+     * @param idx 0-based position of an index
+     * @return an index
+     * @throws NoSuchElementException if no index exists at given position
+     */
+    public Index getIndexAt(int idx);
+
+    /**
+     * Gets the position of given index in this table.
+     * 
+     * @param index an index
+     * @return 0-based position of the index or -1 if the index does not belong
+     * to this table
+     */
+    public int indexOfIndex(Index index);
+
     /**
      * Gets index of given name.
      * 
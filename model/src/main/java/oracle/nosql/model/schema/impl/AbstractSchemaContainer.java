@@ -14,7 +14,6 @@ import java.util.NoSuchElementException;
 import oracle.nosql.model.schema.DuplicateElementException;
 import oracle.nosql.model.schema.SchemaContainer;
 import oracle.nosql.model.schema.SchemaElement;
-import oracle.nosql.model.util.Levensthien;
 import oracle.nosql.model.util.NamedMap;
 
 /**
@@ -47,6 +46,15 @@ abstract class AbstractSchemaContainer<O extends SchemaContainer<?, ?>,
     @Override
     public void removeAllChildren() {
         children.clear();
+        childrenChanged();
+    }
+
+    /**
+     * Callback when a child has been added or removed. Subclasses that derive
+     * state from the children override this to discard it.
+     */
+    protected void childrenChanged() {
+        // no derived state by default
     }
 
     @Override
@@ -64,13 +72,14 @@ abstract class AbstractSchemaContainer<O extends SchemaContainer<?, ?>,
             return children.get(name);
         }
         List<String> candidates = getChildrenNames();
-        String closest = Levensthien.findClosest(name, candidates);
+        C closest = children.closest(name);
         throw new NoSuchElementException("named element " +
                 name +
                 " does not exist. " +
                 "current elements are " +
                 prune(candidates, 4) +
-                (closest == null ? "" : " did you mean " + closest + "?"));
+                (closest == null ? "" :
+                        " did you mean " + closest.getName() + "?"));
     }
 
     String prune(List<String> list, int max) {
@@ -90,6 +99,15 @@ abstract class AbstractSchemaContainer<O extends SchemaContainer<?, ?>,
         return children.getAt(idx);
     }
 
+    @Override
+    public int indexOfChild(C child) {
+        if (child == null) {
+            return -1;
+        }
+        int idx = children.indexOf(child.getName());
+        return idx >= 0 && children.getAt(idx) == child ? idx : -1;
+    }
+
     @Override
     public final List<C> getChildren() {
         return children.values();
@@ -112,7 +130,11 @@ abstract class AbstractSchemaContainer<O extends SchemaContainer<?, ?>,
 
     @Override
     public final C removeChild(String name) {
-        return children.remove(name);
+        C removed = children.remove(name);
+        if (removed != null) {
+            childrenChanged();
+        }
+        return removed;
     }
 
     @SuppressWarnings("unchecked")
@@ -133,6 +155,7 @@ abstract class AbstractSchemaContainer<O extends SchemaContainer<?, ?>,
                             " because an element of same name exists");
         }
         children.add(child, overwrite);
+        childrenChanged();
         return child;
     }
 
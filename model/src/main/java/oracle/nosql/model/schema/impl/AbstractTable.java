@@ -33,6 +33,8 @@ public abstract class AbstractTable extends
             Pattern.compile(TABLE_NAME_REGEX);
     private int readKB, writeKB, storageGB, TTL;
     private String TTLUnit;
+    private transient FieldGroup primaryKeys;
+    private transient FieldGroup shardKeys;
 
     public int getTTL() {
         return TTL;
@@ -94,28 +96,73 @@ public abstract class AbstractTable extends
     }
 
     /**
-     * Gets a list of primary key names.
+     * Gets a list of primary key names. The group is computed once and reused
+     * until a field is added, removed or changes its key status.
      * 
      * @return a non-empty, non-null list.
      */
     @Override
     public FieldGroup getPrimaryKeys() {
-        List<Field> fields = this
-                .getChildren()
-                    .stream()
-                    .filter(f -> f.isPrimaryKey())
-                    .collect(Collectors.toList());
-        FieldGroupImpl pkFields = new FieldGroupImpl("PrimaryKey", fields);
-        ((AbstractSchemaElement<Table>) pkFields).setOwner(this);
-        pkFields.setType(FieldGroup.Type.PRIMARY_KEY);
+        FieldGroup pkFields = primaryKeys;
+        if (pkFields == null) {
+            pkFields = newKeyGroup("PrimaryKey",
+                    FieldGroup.Type.PRIMARY_KEY,
+                    this.getChildren()
+                            .stream()
+                            .filter(f -> f.isPrimaryKey())
+                            .collect(Collectors.toList()));
+            primaryKeys = pkFields;
+        }
         return pkFields;
     }
 
+    private FieldGroup newKeyGroup(String name,
+            FieldGroup.Type type,
+            List<Field> fields) {
+        FieldGroupImpl group = new FieldGroupImpl(name, fields);
+        ((AbstractSchemaElement<Table>) group).setOwner(this);
+        group.setType(type);
+        return group;
+    }
+
+    /**
+     * Discards the memoized key groups. Called when a field is added or
+     * removed, or when a field of this table changes its key status.
+     */
+    void keysChanged() {
+        primaryKeys = null;
+        shardKeys = null;
+    }
+
+    @Override
+    protected void childrenChanged() {
+        keysChanged();
+    }
+
     @Override
     public List<Index> getIndexes() {
         return indexes.values();
     }
 
+    @Override
+    public int getIndexCount() {
+        return indexes.size();
+    }
+
+    @Override
+    public Index getIndexAt(int idx) {
+        return indexes.getAt(idx);
+    }
+
+    @Override
+    public int indexOfIndex(Index index) {
+        if (index == null) {
+            return -1;
+        }
+        int idx = indexes.indexOf(index.getName());
+        return idx >= 0 && indexes.getAt(idx) == index ? idx : -1;
+    }
+
     @Override
     public Index getIndex(String indexName) {
         if (!indexes.containsKey(indexName)) {
@@ -128,21 +175,24 @@ public abstract class AbstractTable extends
     }
 
     /**
-     * Gets a list of shard key names.
+     * Gets a list of shard key names. The group is memoized like
+     * {@link #getPrimaryKeys() primary keys}.
      * 
      * @return a non-null list. can be empty.
      */
     @Override
     public FieldGroup getShardKeys() {
-        List<Field> fields = this
-                .getChildren()
-                    .stream()
-                    .filter(f -> f.isShardKey())
-                    .collect(Collectors.toList());
-        FieldGroupImpl shardKeys = new FieldGroupImpl("ShardKey", fields);
-        ((AbstractSchemaElement<Table>) shardKeys).setOwner(this);
-        shardKeys.setType(FieldGroup.Type.SHARD_KEY);
-        return shardKeys;
+        FieldGroup skFields = shardKeys;
+        if (skFields == null) {
+            skFields = newKeyGroup("ShardKey",
+                    FieldGroup.Type.SHARD_KEY,
+                    this.getChildren()
+                            .stream()
+                            .filter(f -> f.isShardKey())
+                            .collect(Collectors.toList()));
+            shardKeys = skFields;
+        }
+        return skFields;
     }
 
     /**
@@ -8,7 +8,6 @@
 package oracle.nosql.model.schema.impl;
 
 import oracle.nosql.model.schema.Field;
-import oracle.nosql.model.schema.Index;
 import oracle.nosql.model.schema.Table;
 
 /**
@@ -91,6 +90,7 @@ public class FieldImpl extends AbstractSchemaElement<Table> implements Field {
 
     public FieldImpl setPrimaryKey(boolean primaryKey) {
         this.primaryKey = primaryKey;
+        notifyKeysChanged();
         return this;
     }
 
@@ -101,9 +101,19 @@ public class FieldImpl extends AbstractSchemaElement<Table> implements Field {
 
     public FieldImpl setShardKey(boolean shardKey) {
         this.shardKey = shardKey;
+        notifyKeysChanged();
         return this;
     }
 
+    /**
+     * Lets the owning table discard its memoized key groups.
+     */
+    private void notifyKeysChanged() {
+        if (getOwner() instanceof AbstractTable) {
+            ((AbstractTable) getOwner()).keysChanged();
+        }
+    }
+
     @Override
     public String toString() {
         return getName() + ":" + getType();
@@ -166,8 +176,9 @@ public class FieldImpl extends AbstractSchemaElement<Table> implements Field {
 
     @Override
     public boolean isIndexKey() {
-        for (Index index : getTable().getIndexes()) {
-            if (index.hasField(this.getName()))
+        Table table = getTable();
+        for (int i = 0; i < table.getIndexCount(); i++) {
+            if (table.getIndexAt(i).hasField(this.getName()))
                 return true;
         }
         return false;
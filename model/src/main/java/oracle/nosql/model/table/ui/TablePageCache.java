@@ -9,6 +9,7 @@ package oracle.nosql.model.table.ui;
 
 import java.util.List;
 
+import oracle.nosql.model.query.ColumnProfiler;
 import oracle.nosql.model.schema.Table;
 
 /**
@@ -81,4 +82,17 @@ public interface TablePageCache {
     public void setResult(Object result, Table table);
 
     void setPageSize(int pageSize);
+
+    /**
+     * Profiles the rows of this cache, those already fetched and those
+     * fetched by later pages.
+     *
+     * @param profiler a profiler, or null to stop profiling.
+     */
+    void setProfiler(ColumnProfiler profiler);
+
+    /**
+     * @return the profiler of the rows, or null if rows are not profiled.
+     */
+    ColumnProfiler getProfiler();
 }
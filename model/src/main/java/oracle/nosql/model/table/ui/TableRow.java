@@ -24,6 +24,16 @@ public interface TableRow {
      */
     public Object getData(int index);
 
+    /**
+     * Gets the start of the data of a column, cut to a length that fits a
+     * table cell, for display.
+     * 
+     * @param index - column index
+     * @return preview of the column data, never longer than a few hundred
+     * characters.
+     */
+    public String getPreview(int index);
+
     /**
      * @return list of data associated with columns of this row.
      */
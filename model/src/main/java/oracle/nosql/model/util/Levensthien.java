@@ -7,11 +7,13 @@
 
 package oracle.nosql.model.util;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
- * Computes <em>distance</em> between strings.
+ * Computes <em>distance</em> between strings. The distance is computed on
+ * primitive character arrays, keeping two rows of the cost matrix and
+ * stopping early once the distance exceeds the best candidate seen so far.
  * 
  *
  */
@@ -40,30 +42,99 @@ public class Levensthien {
     public static String findClosest(String key,
             List<String> candidates,
             boolean caseInsensitive) {
-        int[] editCosts = new int[] { 1, 1, 1 };
-        DistanceMetric<Character> metric = new CharDistance(caseInsensitive);
-        List<List<Character>> lists = new ArrayList<List<Character>>();
+        if (key == null || candidates == null) {
+            return null;
+        }
+        char[] k = toChars(key, caseInsensitive);
+        String closest = null;
+        int min = Integer.MAX_VALUE - 1;
         for (String c : candidates) {
-            lists.add(toCharList(c));
+            if (c == null) {
+                continue;
+            }
+            int d = distance(k, toChars(c, caseInsensitive), min);
+            if (d < min || closest == null) {
+                min = d;
+                closest = c;
+            }
         }
-        List<Character> closest = new SequenceDistance<Character>()
-                .closest(toCharList(key), lists, editCosts, metric);
-        return fromCharList(closest);
+        return closest;
     }
 
-    private static List<Character> toCharList(String s) {
-        List<Character> list = new ArrayList<Character>();
-        for (int i = 0; i < s.length(); i++) {
-            list.add(s.charAt(i));
-        }
-        return list;
+    /**
+     * Computes the edit distance between two strings, giving up as soon as
+     * it is known to exceed the given maximum.
+     * 
+     * @param s1 a string
+     * @param s2 another string
+     * @param max the largest distance of interest
+     * @param caseInsensitive if true, the matching ignores character case.
+     * @return distance between the strings, or <code>max + 1</code> if the
+     * distance is greater than <code>max</code>
+     */
+    public static int distance(String s1,
+            String s2,
+            int max,
+            boolean caseInsensitive) {
+        return distance(toChars(s1, caseInsensitive),
+                toChars(s2, caseInsensitive), max);
     }
 
-    private static String fromCharList(List<Character> list) {
-        char[] chars = new char[list.size()];
-        for (int i = 0; i < list.size(); i++) {
-            chars[i] = list.get(i);
+    /**
+     * Computes the edit distance between two character arrays with unit cost
+     * for insert, substitute and delete. Only two rows of the cost matrix are
+     * kept, and the computation stops once every entry of a row exceeds the
+     * given maximum.
+     * 
+     * @param s1 an array
+     * @param s2 another array
+     * @param max the largest distance of interest
+     * @return distance between the arrays, or <code>max + 1</code> if the
+     * distance is greater than <code>max</code>
+     */
+    public static int distance(char[] s1, char[] s2, int max) {
+        if (max < 0) {
+            return 0;
+        }
+        int cutoff = max + 1;
+        if (Math.abs(s1.length - s2.length) > max) {
+            return cutoff;
+        }
+        if (s1.length < s2.length) {
+            char[] t = s1;
+            s1 = s2;
+            s2 = t;
         }
-        return new String(chars);
+        int[] prev = new int[s2.length + 1];
+        int[] curr = new int[s2.length + 1];
+        for (int j = 0; j <= s2.length; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= s1.length; i++) {
+            curr[0] = i;
+            int rowMin = i;
+            char c1 = s1[i - 1];
+            for (int j = 1; j <= s2.length; j++) {
+                int cost = c1 == s2[j - 1] ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1),
+                        prev[j - 1] + cost);
+                curr[j] = d;
+                if (d < rowMin) {
+                    rowMin = d;
+                }
+            }
+            if (rowMin > max) {
+                return cutoff;
+            }
+            int[] t = prev;
+            prev = curr;
+            curr = t;
+        }
+        return Math.min(prev[s2.length], cutoff);
+    }
+
+    static char[] toChars(String s, boolean caseInsensitive) {
+        return caseInsensitive ? s.toLowerCase(Locale.ROOT).toCharArray()
+                : s.toCharArray();
     }
 }
@@ -0,0 +1,204 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A trigram index over {@link Named named elements} for fuzzy, case
+ * insensitive lookup by name. Unlike {@link NamedMap}, several elements may
+ * share a name, so the index can span elements of different containers e.g.
+ * columns of every table in a schema. <br>
+ * Each name is lower-cased and padded before being split into trigrams. A
+ * query visits only the names that share at least one trigram with it and
+ * ranks them as exact, prefix, substring and finally by
+ * {@link Levensthien#distance(char[], char[], int) edit distance}. <br>
+ * The index is append-only and not thread-safe.
+ *
+ * @param <V> the type of Named element in the index
+ */
+public class NameIndex<V extends Named> {
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int SUBSTRING = 2;
+    private static final int FUZZY = 3;
+    private static final char PAD = (char) 0xFFFF;
+
+    private final List<V> elements = new ArrayList<V>();
+    private final List<char[]> names = new ArrayList<char[]>();
+    private final Map<Long, int[]> postings = new HashMap<Long, int[]>();
+
+    /**
+     * Adds an element to this index.
+     *
+     * @param v a non-null element with non-null name
+     */
+    public void add(V v) {
+        add(v == null ? null : v.getName(), v);
+    }
+
+    /**
+     * Adds an element to this index under the given name.
+     *
+     * @param key name by which the element is found
+     * @param v a non-null element
+     */
+    public void add(String key, V v) {
+        if (v == null || key == null) {
+            throw new IllegalArgumentException(
+                    "can not index null value or value with null name");
+        }
+        int id = elements.size();
+        char[] name = Levensthien.toChars(key, true);
+        elements.add(v);
+        names.add(name);
+        for (long gram : trigrams(name)) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                list = new int[] { 0, 0, 0, 0 };
+                postings.put(gram, list);
+            } else if (list[0] + 1 == list.length) {
+                list = Arrays.copyOf(list, list.length * 2);
+                postings.put(gram, list);
+            }
+            // slot 0 holds the count, ids are appended in increasing order
+            if (list[0] == 0 || list[list[0]] != id) {
+                list[++list[0]] = id;
+            }
+        }
+    }
+
+    /**
+     * Adds all given elements to this index.
+     *
+     * @param values elements to add
+     */
+    public void addAll(Iterable<? extends V> values) {
+        for (V v : values) {
+            add(v);
+        }
+    }
+
+    /**
+     * @return number of elements in this index
+     */
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * Finds the element whose name is closest to the given name, provided it
+     * is {@link #search(String, int) close enough}.
+     *
+     * @param name a name to match
+     * @return closest element or null if no name is close enough
+     */
+    public V closest(String name) {
+        List<V> found = search(name, 1);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Finds elements whose name matches the given query. Exact matches come
+     * first, followed by names that start with or contain the query and then
+     * names within an edit distance of one for queries shorter than four
+     * characters, and of two or a third of the query's length otherwise.
+     *
+     * @param query a name or part of a name
+     * @param limit maximum number of elements returned
+     * @return matching elements, best match first
+     */
+    public List<V> search(String query, int limit) {
+        List<V> result = new ArrayList<V>();
+        if (query == null || query.isEmpty() || limit <= 0) {
+            return result;
+        }
+        char[] q = Levensthien.toChars(query, true);
+        int maxDistance = q.length < 4 ? 1 : Math.max(2, q.length / 3);
+        int[] shared = new int[elements.size()];
+        int[] touched = new int[elements.size()];
+        int touchedCount = 0;
+        for (long gram : trigrams(q)) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 1; i <= list[0]; i++) {
+                if (shared[list[i]]++ == 0) {
+                    touched[touchedCount++] = list[i];
+                }
+            }
+        }
+        long[] ranked = new long[touchedCount];
+        int rankedCount = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int id = touched[i];
+            int score = score(q, names.get(id), maxDistance);
+            if (score >= 0) {
+                // order by score, then by shorter name, then by insertion
+                long length = Math.min(names.get(id).length, 0xFFFF);
+                ranked[rankedCount++] = ((long) score << 48) |
+                        (length << 32) | id;
+            }
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+        for (int i = 0; i < rankedCount && result.size() < limit; i++) {
+            result.add(elements.get((int) (ranked[i] & 0xFFFFFFFFL)));
+        }
+        return result;
+    }
+
+    private static int score(char[] query, char[] name, int maxDistance) {
+        if (Arrays.equals(query, name)) {
+            return EXACT;
+        }
+        int at = indexOf(name, query);
+        if (at == 0) {
+            return PREFIX;
+        } else if (at > 0) {
+            return SUBSTRING;
+        }
+        int d = Levensthien.distance(query, name, maxDistance);
+        return d > maxDistance ? -1 : FUZZY + d;
+    }
+
+    private static int indexOf(char[] s, char[] sub) {
+        outer: for (int i = 0; i + sub.length <= s.length; i++) {
+            for (int j = 0; j < sub.length; j++) {
+                if (s[i + j] != sub[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Splits a name into trigrams after padding it with two leading and one
+     * trailing marker, so that names shorter than three characters and the
+     * start of each name are indexed as well.
+     */
+    private static long[] trigrams(char[] name) {
+        int n = name.length + 1;
+        long[] grams = new long[n];
+        for (int i = 0; i < n; i++) {
+            grams[i] = ((long) at(name, i - 2) << 32) |
+                    ((long) at(name, i - 1) << 16) | at(name, i);
+        }
+        return grams;
+    }
+
+    private static char at(char[] name, int i) {
+        return i < 0 || i >= name.length ? PAD : name[i];
+    }
+}
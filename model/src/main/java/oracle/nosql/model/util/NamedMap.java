@@ -9,10 +9,12 @@ package oracle.nosql.model.util;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -26,6 +28,13 @@ import oracle.nosql.model.schema.DuplicateElementException;
  * empty name can not be added to this map. <br>
  * The iterator of the map is stable. The iteration order is same as the order
  * in which elements have been {@link #add(Named, boolean) added}. <br>
+ * The map maintains a positional index and a case-folded name index alongside
+ * the entries, so that {@link #getAt(int) positional} and case-insensitive
+ * {@link #get(String) lookup} are constant time. Appending an element updates
+ * the indices incrementally; removal or overwrite rebuilds them lazily on the
+ * next read. A {@link #closest(String) fuzzy} name index is likewise kept
+ * once it has been asked for. The map is not meant to be mutated through
+ * its views.<br>
  * <br>
  * 
  * 
@@ -38,6 +47,12 @@ import oracle.nosql.model.schema.DuplicateElementException;
 public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
         implements
         Iterable<V> {
+    private transient List<V> positions;
+    private transient Map<String, Integer> keyPositions;
+    private transient Map<String, String> foldedKeys;
+    private transient NameIndex<V> nameIndex;
+    private transient boolean stale = true;
+
     /**
      * Declare an element by given name. If given name exists, the existing
      * element is returned. Otherwise, the given element is added by given
@@ -66,20 +81,58 @@ public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
      * @return the element at given index
      */
     public V getAt(int idx) {
-        Iterator<V> iterator = super.values().iterator();
-        V v = null;
-        for (int i = 0; i <= idx; i++) {
-            if (iterator.hasNext()) {
-                v = iterator.next();
-            } else {
-                throw new NoSuchElementException("element at index " +
-                        idx +
-                        " do not exist in range (0, " +
-                        idx +
-                        "])");
+        List<V> list = positions();
+        if (idx < 0 || idx >= list.size()) {
+            throw new NoSuchElementException("element at index " +
+                    idx +
+                    " do not exist in range (0, " +
+                    list.size() +
+                    "])");
+        }
+        return list.get(idx);
+    }
+
+    /**
+     * Gets the 0-based position of the element of given name. The name is
+     * matched exactly first and then ignoring case.
+     * 
+     * @param name name of an element
+     * @return position of the element or -1 if no such element exists
+     */
+    public int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        positions();
+        Integer pos = keyPositions.get(name);
+        if (pos == null) {
+            String key = foldedKeys.get(fold(name));
+            pos = key == null ? null : keyPositions.get(key);
+        }
+        return pos == null ? -1 : pos;
+    }
+
+    /**
+     * Finds the element whose name is closest to the given name. The fuzzy
+     * {@link NameIndex index} is built on first use and kept in step with
+     * the map thereafter.
+     * 
+     * @param name a name to match
+     * @return the closest element or null if no name is close enough
+     */
+    public V closest(String name) {
+        if (name == null) {
+            return null;
+        }
+        positions();
+        if (nameIndex == null) {
+            NameIndex<V> index = new NameIndex<V>();
+            for (Map.Entry<String, V> e : entrySet()) {
+                index.add(e.getKey(), e.getValue());
             }
+            nameIndex = index;
         }
-        return v;
+        return nameIndex.closest(name);
     }
 
     /**
@@ -134,13 +187,7 @@ public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
      * @return true if name is present in map, otherwise false.
      */
     public boolean containsName(String name) {
-        List<String> names = getNames();
-        for (String lname : names) {
-            if (lname.equalsIgnoreCase(name))
-                return true;
-        }
-        return false;
-        // return getNames().contains(name);
+        return containsKey(name);
     }
 
     /**
@@ -150,12 +197,7 @@ public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
     public boolean containsKey(String key) {
         if (super.containsKey(key))
             return true;
-        Set<String> keys = keySet();
-        for (String lkey : keys) {
-            if (lkey.equalsIgnoreCase(key))
-                return true;
-        }
-        return false;
+        return key != null && foldedKey(key) != null;
     }
 
     /**
@@ -164,14 +206,10 @@ public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
      */
     public V get(String key) {
         V ret = super.get(key);
-        if (ret != null)
+        if (ret != null || key == null)
             return ret;
-        Set<Map.Entry<String, V>> entries = entrySet();
-        for (Map.Entry<String, V> entry : entries) {
-            if (entry.getKey().equalsIgnoreCase(key))
-                return entry.getValue();
-        }
-        return null;
+        String actual = foldedKey(key);
+        return actual == null ? null : super.get(actual);
     }
 
     /**
@@ -197,6 +235,76 @@ public class NamedMap<V extends Named> extends LinkedHashMap<String, V>
         return super.values().iterator();
     }
 
+    @Override
+    public V put(String key, V value) {
+        boolean existing = super.containsKey(key);
+        V old = super.put(key, value);
+        if (existing) {
+            stale = true;
+        } else if (!stale && positions != null) {
+            keyPositions.put(key, positions.size());
+            positions.add(value);
+            foldedKeys.putIfAbsent(fold(key), key);
+            if (nameIndex != null) {
+                nameIndex.add(key, value);
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends V> m) {
+        for (Map.Entry<? extends String, ? extends V> e : m.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (super.containsKey(key)) {
+            stale = true;
+        }
+        return super.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        stale = true;
+    }
+
+    private static String fold(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    private String foldedKey(String key) {
+        positions();
+        return foldedKeys.get(fold(key));
+    }
+
+    /**
+     * Gets the positional index, rebuilding all indices if the map has been
+     * mutated other than by appending since they were last built.
+     */
+    private List<V> positions() {
+        if (stale || positions == null || positions.size() != size()) {
+            List<V> list = new ArrayList<V>(size());
+            Map<String, Integer> pos = new HashMap<String, Integer>();
+            Map<String, String> folded = new HashMap<String, String>();
+            for (Map.Entry<String, V> e : entrySet()) {
+                pos.put(e.getKey(), list.size());
+                list.add(e.getValue());
+                folded.putIfAbsent(fold(e.getKey()), e.getKey());
+            }
+            positions = list;
+            keyPositions = pos;
+            foldedKeys = folded;
+            nameIndex = null;
+            stale = false;
+        }
+        return positions;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean equals(Object other) {
@@ -0,0 +1,180 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.util;
+
+import java.util.Arrays;
+
+/**
+ * A merging t-digest for estimating quantiles of a stream of numbers in
+ * bounded memory. Values are buffered and periodically merged into sorted
+ * centroids. A centroid may only grow while it stays within the size the
+ * scale function allows at its quantile, so centroids near the tails stay
+ * small and extreme quantiles are accurate. <br>
+ * The number of centroids is bounded by the compression, 100 by default.
+ */
+public class TDigest {
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private final double[] means;
+    private final double[] weights;
+    private int centroids;
+    private final double[] buffer;
+    private int buffered;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException(
+                    "compression must be at least 10, not " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(2 * compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[capacity * 5];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (buffered == buffer.length) {
+            merge();
+        }
+        buffer[buffered++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @return number of values added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Estimates the value at a quantile.
+     *
+     * @param q a quantile between 0 and 1
+     * @return the estimated value, or NaN if nothing was added
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        merge();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q == 0) {
+            return q == 1 ? max : centroids == 1 ? means[0] : min;
+        }
+        double rank = q * count;
+        // each centroid covers weight/2 on both sides of its mean
+        double seen = weights[0] / 2;
+        if (rank < seen) {
+            return min + (means[0] - min) * rank / seen;
+        }
+        for (int i = 1; i < centroids; i++) {
+            double step = (weights[i - 1] + weights[i]) / 2;
+            if (rank < seen + step) {
+                double t = (rank - seen) / step;
+                return means[i - 1] + t * (means[i] - means[i - 1]);
+            }
+            seen += step;
+        }
+        double last = weights[centroids - 1] / 2;
+        double t = Math.min(1, (rank - seen) / last);
+        return means[centroids - 1] + t * (max - means[centroids - 1]);
+    }
+
+    /**
+     * @return number of centroids summarizing the values.
+     */
+    public int getCentroidCount() {
+        merge();
+        return centroids;
+    }
+
+    private void merge() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroids + buffered;
+        double[] m = new double[n];
+        double[] w = new double[n];
+        System.arraycopy(means, 0, m, 0, centroids);
+        System.arraycopy(weights, 0, w, 0, centroids);
+        for (int i = 0; i < buffered; i++) {
+            m[centroids + i] = buffer[i];
+            w[centroids + i] = 1;
+        }
+        buffered = 0;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(m[a], m[b]));
+
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += w[i];
+        }
+        int out = 0;
+        double seen = 0;
+        double mean = m[order[0]];
+        double weight = w[order[0]];
+        double limit = total * qLimit(0);
+        for (int k = 1; k < n; k++) {
+            int i = order[k];
+            if (seen + weight + w[i] <= limit || out == means.length - 1) {
+                weight += w[i];
+                mean += (m[i] - mean) * w[i] / weight;
+            } else {
+                seen += weight;
+                means[out] = mean;
+                weights[out] = weight;
+                out++;
+                limit = total * qLimit(seen / total);
+                mean = m[i];
+                weight = w[i];
+            }
+        }
+        means[out] = mean;
+        weights[out] = weight;
+        centroids = out + 1;
+    }
+
+    /**
+     * Upper quantile a centroid starting at quantile q may reach, from the
+     * scale function k(q) = compression / (2 pi) * asin(2q - 1).
+     */
+    private double qLimit(double q) {
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        double limit = (Math.sin(Math.min(Math.PI / 2,
+                k * 2 * Math.PI / compression)) + 1) / 2;
+        return Math.max(limit, q);
+    }
+}
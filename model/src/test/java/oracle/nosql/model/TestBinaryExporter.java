@@ -0,0 +1,150 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.connection.BinaryExporter;
+import oracle.nosql.model.fake.InMemoryHandle;
+
+public class TestBinaryExporter {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static byte[] bytes(int id) {
+		byte[] b = new byte[3000 + id];
+		Arrays.fill(b, (byte) id);
+		return b;
+	}
+
+	private static InMemoryHandle images(int count) {
+		InMemoryHandle handle = new InMemoryHandle();
+		handle.tableRequest(new TableRequest().setStatement(
+				"CREATE TABLE images (id INTEGER, name STRING, data BINARY, PRIMARY KEY(id))")
+				.setTableLimits(new TableLimits(100, 100, 1)));
+		for (int i = 0; i < count; i++) {
+			MapValue row = new MapValue().put("id", i).put("name", "image " + i);
+			if (i % 5 != 4) {
+				row.put("data", bytes(i));
+			}
+			handle.put(new PutRequest().setTableName("images").setValue(row));
+		}
+		return handle;
+	}
+
+	private static BinaryExporter exporter(InMemoryHandle handle, Path dir) {
+		return new BinaryExporter(handle, "images", Arrays.asList("id"),
+				Arrays.asList("data"), dir);
+	}
+
+	@Test
+	public void rowsWithoutValuesAreFetchedByKey() throws Exception {
+		InMemoryHandle handle = images(10);
+		Path dir = folder.newFolder().toPath();
+		List<MapValue> rows = new ArrayList<MapValue>();
+		// a row of a view holds its values, a key alone is fetched
+		rows.add(new MapValue().put("id", 1).put("data", bytes(1)));
+		rows.add(new MapValue().put("id", 2).put("name", "image 2"));
+		rows.add(new MapValue().put("id", 4));
+		rows.add(new MapValue().put("id", 42));
+		rows.add(new MapValue().put("name", "no key"));
+		long before = handle.getRequestCount();
+		AtomicInteger reported = new AtomicInteger();
+		BinaryExporter exporter = exporter(handle, dir);
+		BinaryExporter.Result result = exporter
+				.exportRows(rows, (done, total, files, bytes) -> {
+					assertEquals(5, total);
+					reported.incrementAndGet();
+				});
+
+		assertEquals(3, handle.getRequestCount() - before);
+		assertEquals(5, result.getRows());
+		assertEquals(5, reported.get());
+		assertEquals(2, result.getFiles().size());
+		assertEquals(6003, result.getBytes());
+		// the row not found and the row without a key
+		assertEquals(2, result.getFailures());
+		assertArrayEquals(bytes(2), Files.readAllBytes(exporter.fileFor(new MapValue().put("id", 2), "data")));
+		assertFalse(Files.exists(exporter.fileFor(new MapValue().put("id", 4), "data")));
+	}
+
+	@Test
+	public void queryResultsAreWrittenWithinTheBuffer() throws Exception {
+		InMemoryHandle handle = images(250);
+		Path dir = folder.newFolder().toPath();
+		BinaryExporter exporter = exporter(handle, dir);
+		// less than two values may wait to be written
+		exporter.setMaxBufferedBytes(6 * 1024);
+		exporter.setParallelism(3);
+		AtomicInteger last = new AtomicInteger();
+		BinaryExporter.Result result = exporter.exportQuery(
+				"SELECT * FROM images WHERE id >= 100",
+				(done, total, files, bytes) -> {
+					assertEquals(-1, total);
+					last.accumulateAndGet(done, Math::max);
+				});
+
+		assertEquals(150, result.getRows());
+		assertEquals(150, last.get());
+		assertEquals(120, result.getFiles().size());
+		assertEquals(0, result.getFailures());
+		assertFalse(result.isCancelled());
+		assertEquals(120, Files.list(dir).count());
+		assertArrayEquals(bytes(213), Files.readAllBytes(exporter.fileFor(new MapValue().put("id", 213), "data")));
+	}
+
+	@Test
+	public void filesOfDifferentKeysDiffer() throws Exception {
+		InMemoryHandle handle = images(3);
+		Path dir = folder.newFolder().toPath();
+		BinaryExporter exporter = new BinaryExporter(handle, "images",
+				Arrays.asList("a", "b"), Arrays.asList("data"), dir);
+		String name = exporter.fileFor(new MapValue().put("a", "x/y").put("b", "z"), "data")
+				.getFileName().toString();
+		assertTrue(name, name.matches("images-x_y-z-[0-9a-f]{16}-data\\.bin"));
+		// the same name but for the hash of the key
+		assertFalse(name.equals(exporter.fileFor(new MapValue().put("a", "x_y").put("b", "z"), "data")
+				.getFileName().toString()));
+		assertFalse(name.equals(exporter.fileFor(new MapValue().put("a", "x-y").put("b", "z"), "data")
+				.getFileName().toString()));
+		assertFalse(name.equals(exporter.fileFor(new MapValue().put("a", "x").put("b", "y-z"), "data")
+				.getFileName().toString()));
+
+		// a file written already is not overwritten
+		exporter = exporter(handle, dir);
+		Path file = exporter.fileFor(new MapValue().put("id", 1), "data");
+		Files.write(file, new byte[] { 42 });
+		List<MapValue> rows = new ArrayList<MapValue>();
+		rows.add(new MapValue().put("id", 1).put("data", bytes(1)));
+		rows.add(new MapValue().put("id", 2).put("data", bytes(2)));
+		BinaryExporter.Result result = exporter.exportRows(rows, null);
+		assertEquals(1, result.getFiles().size());
+		assertEquals(1, result.getFailures());
+		assertTrue(result.getErrors().get(0), result.getErrors().get(0).endsWith("file exists, not overwritten"));
+		assertArrayEquals(new byte[] { 42 }, Files.readAllBytes(file));
+	}
+}
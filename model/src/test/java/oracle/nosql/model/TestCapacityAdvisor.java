@@ -0,0 +1,81 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.model.connection.CapacityAdvisor;
+import oracle.nosql.model.connection.UsageHistory;
+
+public class TestCapacityAdvisor {
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+	/**
+	 * 100 minutes from midnight UTC reading 10 units/s, except for 3 minutes
+	 * from 01:00 reading 100 units/s, of which one was throttled.
+	 */
+	private static UsageHistory history() {
+		UsageHistory history = new UsageHistory();
+		for (int i = 0; i < 100; i++) {
+			boolean peak = i >= 60 && i < 63;
+			history.record(i * 60000L, 60, (peak ? 100 : 10) * 60, 60, 2,
+					i == 61 ? 5 : 0, 0, 0);
+		}
+		return history;
+	}
+
+	@Test
+	public void optionsAreSizedForPercentilesWithHeadroom() {
+		CapacityAdvisor advisor = new CapacityAdvisor(history(),
+				new TableLimits(50, 5, 1));
+		assertEquals(10, advisor.getReadPercentile(95), 0);
+		assertEquals(100, advisor.getReadPercentile(100), 0);
+		assertEquals(1, advisor.getThrottledPeriods());
+
+		List<CapacityAdvisor.Option> options = advisor.recommend();
+		assertEquals(Arrays.asList("Current", "Provisioned for p95",
+				"Provisioned for peak", "On demand"),
+				Arrays.asList(options.get(0).getName(), options.get(1).getName(),
+						options.get(2).getName(), options.get(3).getName()));
+		CapacityAdvisor.Option p95 = options.get(1);
+		assertEquals(12, p95.getLimits().getReadUnits());
+		assertEquals(2, p95.getLimits().getWriteUnits());
+		assertEquals(3, p95.getLimits().getStorageGB());
+		assertEquals(0.03, p95.getThrottlingRisk(), 1e-9);
+		assertEquals(120, options.get(2).getLimits().getReadUnits());
+		assertEquals(0, options.get(2).getThrottlingRisk(), 0);
+		assertEquals(3, options.get(0).getExceededPeriods());
+		assertTrue(options.get(3).isOnDemand());
+		assertEquals(0, options.get(3).getThrottlingRisk(), 0);
+
+		assertEquals(Arrays.asList(1), advisor.getHoursAbove(p95, UTC));
+	}
+
+	@Test
+	public void headroomIsAppliedAndUnitsAreClamped() {
+		UsageHistory history = new UsageHistory();
+		history.record(0, 60, 50000 * 60, 0, 6000, 0, 0, 0);
+		CapacityAdvisor advisor = new CapacityAdvisor(history, null)
+				.setHeadroom(0);
+		List<CapacityAdvisor.Option> options = advisor.recommend();
+		assertEquals("Provisioned for p95", options.get(0).getName());
+		TableLimits limits = options.get(0).getLimits();
+		assertEquals(CapacityAdvisor.MAX_READ_UNITS, limits.getReadUnits());
+		assertEquals(1, limits.getWriteUnits());
+		assertEquals(CapacityAdvisor.MAX_STORAGE_GB, limits.getStorageGB());
+		assertEquals(1, options.get(0).getThrottlingRisk(), 0);
+	}
+}
@@ -0,0 +1,63 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.BinaryValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.NullValue;
+import oracle.nosql.model.cloud.table.ui.CloudTableRow;
+
+public class TestCloudTableRow {
+
+	@Test
+	public void shortValuesArePreviewedWhole() {
+		MapValue doc = new MapValue().put("name", "a \"quoted\"\n\u0001name")
+				.put("tags", new ArrayValue().add(1).add(2.5).add(true))
+				.put("bin", new BinaryValue(new byte[] { 1, 2, 3 }))
+				.put("none", NullValue.getInstance());
+		MapValue row = new MapValue().put("doc", doc);
+		CloudTableRow tableRow = new CloudTableRow(row, null, null);
+		assertEquals(doc.toJson(), tableRow.getPreview(0));
+		assertEquals(doc.toJson(), tableRow.getData(0));
+		// a column is serialized once
+		assertSame(tableRow.getData(0), tableRow.getData(0));
+		assertEquals("7", CloudTableRow.preview(
+				new MapValue().put("id", 7).get("id"), 10));
+		assertEquals("", CloudTableRow.preview(NullValue.getInstance(), 10));
+	}
+
+	@Test
+	public void longValuesAreCut() {
+		StringBuilder text = new StringBuilder();
+		ArrayValue items = new ArrayValue();
+		for (int i = 0; i < 100000; i++) {
+			text.append('x');
+			items.add(new MapValue().put("i", i).put("s", "value " + i));
+		}
+		MapValue doc = new MapValue().put("items", items);
+		String preview = CloudTableRow.preview(doc, 50);
+		assertEquals(51, preview.length());
+		assertEquals(CloudTableRow.ELLIPSIS, preview.charAt(50));
+		assertTrue(doc.toJson().startsWith(preview.substring(0, 50)));
+
+		preview = CloudTableRow.preview(
+				new MapValue().put("s", text.toString()).get("s"), 10);
+		assertEquals("\"xxxxxxxxx" + CloudTableRow.ELLIPSIS, preview);
+		preview = CloudTableRow.preview(
+				new MapValue().put("b", new byte[1000]).get("b"), 10);
+		assertEquals(11, preview.length());
+		assertEquals(CloudTableRow.ELLIPSIS, preview.charAt(10));
+	}
+}
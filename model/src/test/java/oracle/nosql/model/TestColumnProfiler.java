@@ -0,0 +1,124 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.table.ui.CloudTablePageCache;
+import oracle.nosql.model.query.ColumnProfiler;
+import oracle.nosql.model.util.HyperLogLog;
+import oracle.nosql.model.util.TDigest;
+
+public class TestColumnProfiler {
+
+	@Test
+	public void distinctCountsAreEstimatedClosely() {
+		HyperLogLog small = new HyperLogLog();
+		for (int i = 0; i < 300; i++) {
+			small.add("v" + (i % 100));
+		}
+		assertEquals(100, small.estimate(), 2);
+
+		HyperLogLog large = new HyperLogLog();
+		for (int i = 0; i < 200000; i++) {
+			large.add(Integer.toString(i));
+		}
+		assertEquals(200000, large.estimate(), 200000 * 0.05);
+	}
+
+	@Test
+	public void quantilesAreEstimatedClosely() {
+		TDigest digest = new TDigest();
+		Random random = new Random(7);
+		for (int i = 0; i < 100000; i++) {
+			digest.add(random.nextDouble() * 1000);
+		}
+		assertEquals(500, digest.quantile(0.5), 10);
+		assertEquals(990, digest.quantile(0.99), 3);
+		assertEquals(digest.getMax(), digest.quantile(1), 0);
+		assertTrue(digest.getCentroidCount() <= 2 * TDigest.DEFAULT_COMPRESSION);
+		assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+	}
+
+	@Test
+	public void nonFiniteDoublesAreNotNumbers() {
+		ColumnProfiler profiler = new ColumnProfiler();
+		double[] values = { 2.5, Double.NaN, Double.POSITIVE_INFINITY, -1, Double.NEGATIVE_INFINITY };
+		for (double v : values) {
+			profiler.add(new MapValue().put("d", v).put("f", (float) v));
+		}
+		for (String name : new String[] { "d", "f" }) {
+			ColumnProfiler.Column column = profiler.getColumn(name);
+			assertEquals(0, column.getNulls());
+			assertEquals(5, column.getDistinct());
+			assertEquals(-1, column.getMin().getDouble(), 0);
+			assertEquals(2.5, column.getMax().getDouble(), 0);
+			assertEquals(2.5, column.getQuantile(1), 0);
+		}
+	}
+
+	@Test
+	public void columnsAndJsonPathsAreProfiled() {
+		ColumnProfiler profiler = new ColumnProfiler();
+		for (int i = 0; i < 10; i++) {
+			MapValue info = new MapValue().put("city", "c" + (i % 3));
+			if (i % 2 == 0) {
+				info.put("address", new MapValue().put("zip", i));
+			}
+			MapValue row = new MapValue().put("id", i).put("info", info);
+			if (i < 8) {
+				row.put("name", "n" + i);
+			}
+			profiler.add(row);
+		}
+		assertEquals(10, profiler.getRows());
+		ColumnProfiler.Column id = profiler.getColumn("id");
+		assertEquals(0, id.getNulls());
+		assertEquals(10, id.getDistinct());
+		assertEquals(0, id.getMin().getInt());
+		assertEquals(9, id.getMax().getInt());
+		assertEquals(2, profiler.getColumn("name").getNulls());
+		assertTrue(Double.isNaN(profiler.getColumn("name").getQuantile(0.5)));
+
+		ColumnProfiler.Column info = profiler.getColumn("info");
+		assertEquals(Long.valueOf(10), info.getPaths().get("city"));
+		assertEquals(Long.valueOf(5), info.getPaths().get("address.zip"));
+		assertNull(info.getMin());
+		assertTrue(info.describe().contains("  address.zip 50.0%"));
+	}
+
+	@Test
+	public void pageCacheProfilesFetchedRows() throws Exception {
+		List<MapValue> rows = new ArrayList<MapValue>();
+		for (int i = 0; i < 25; i++) {
+			rows.add(new MapValue().put("id", i));
+		}
+		CloudTablePageCache cache = new CloudTablePageCache();
+		cache.setResult(rows.iterator(), null);
+		cache.setPageSize(10);
+		cache.nextPage();
+		ColumnProfiler profiler = new ColumnProfiler();
+		// rows already fetched are profiled when profiling starts
+		cache.setProfiler(profiler);
+		assertEquals(10, profiler.getRows());
+		cache.nextPage();
+		cache.prevPage();
+		cache.nextPage();
+		assertEquals(20, profiler.getRows());
+		assertEquals(19, profiler.getColumn("id").getMax().getInt());
+	}
+}
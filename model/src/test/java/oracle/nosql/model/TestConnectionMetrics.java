@@ -0,0 +1,112 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import oracle.nosql.model.connection.ConnectionMetrics;
+import oracle.nosql.model.connection.StatementLog;
+import oracle.nosql.model.util.LatencyHistogram;
+
+public class TestConnectionMetrics {
+
+	@Test
+	public void percentilesAreWithinBucketPrecision() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int i = 1; i <= 10000; i++) {
+			h.recordNanos(TimeUnit.MICROSECONDS.toNanos(i));
+		}
+		assertEquals(10000, h.getCount());
+		assertEquals(10000, h.getMaxMicros());
+		assertWithin(5000, h.getPercentileMicros(50));
+		assertWithin(9900, h.getPercentileMicros(99));
+		assertEquals(10000, h.getPercentileMicros(100));
+		h.reset();
+		assertEquals(0, h.getPercentileMicros(50));
+	}
+
+	@Test
+	public void statsAreKeptPerOperationAndTable() {
+		ConnectionMetrics metrics = new ConnectionMetrics();
+		ConnectionMetrics.OperationStats get = metrics.get("get", "Users");
+		assertSame(get, metrics.get("get", "users"));
+		get.recordSuccess(1000000, 0, 1, 0, 1, 0);
+		get.recordFailure(2000000, 3, true);
+		metrics.get("query", null).recordSuccess(1000, 0, 5, 0, 5, 0);
+
+		assertEquals(2, metrics.getAll().size());
+		assertEquals(2, get.getCount());
+		assertEquals(1, get.getErrors());
+		assertEquals(1, get.getThrottles());
+		assertEquals(3, get.getRetries());
+		assertEquals(1, get.getReadKB());
+		assertEquals(ConnectionMetrics.NO_TABLE,
+				metrics.getAll().get(1).getTableName());
+		assertEquals(2, metrics.toJson().get("operations").asArray().size());
+		metrics.reset();
+		assertTrue(metrics.getAll().isEmpty());
+	}
+
+	@Test
+	public void nestedCaptureAddsUpToOuter() {
+		ConnectionMetrics metrics = new ConnectionMetrics();
+		metrics.capture(1, 1, 1, 1);
+		ConnectionMetrics.Cost outer = metrics.startCapture();
+		metrics.capture(2, 0, 2, 0);
+		ConnectionMetrics.Cost inner = metrics.startCapture();
+		metrics.capture(3, 4, 3, 4);
+		inner.close();
+		outer.close();
+		metrics.capture(100, 100, 100, 100);
+		assertEquals(1, inner.getRequests());
+		assertEquals(4, inner.getWriteUnits());
+		assertEquals(2, outer.getRequests());
+		assertEquals(5, outer.getReadUnits());
+		assertEquals(4, outer.getWriteKB());
+	}
+
+	@Test
+	public void statementLogSurvivesRollOver() throws Exception {
+		File dir = Files.createTempDirectory("statements").toFile();
+		StatementLog log = new StatementLog(new File(dir, "log.ndjson"), 200);
+		for (int i = 0; i < 10; i++) {
+			log.append(new StatementLog.Entry().setKind("QUERY")
+					.setStatement("select * from t" + i).setTable("t" + i)
+					.setDurationMs(i).setRows(i * 10).setReadUnits(i)
+					.setError(i == 9 ? "failed \"badly\"" : null));
+		}
+		List<StatementLog.Entry> entries = log.read();
+		assertTrue(entries.size() < 10);
+		StatementLog.Entry last = entries.get(entries.size() - 1);
+		assertEquals("select * from t9", last.getStatement());
+		assertEquals(90, last.getRows());
+		assertEquals(9, last.getUnits());
+		assertEquals("failed \"badly\"", last.getError());
+		assertFalse(last.isSucceeded());
+		assertNull(entries.get(0).getConnectionUid());
+		assertTrue(entries.get(0).isSucceeded());
+		log.clear();
+		assertTrue(log.read().isEmpty());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue(actual + " not near " + expected,
+				Math.abs(actual - expected) <= expected / 32 + 1);
+	}
+}
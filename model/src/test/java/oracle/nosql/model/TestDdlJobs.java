@@ -0,0 +1,182 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.OperationThrottlingException;
+import oracle.nosql.driver.ops.AddReplicaRequest;
+import oracle.nosql.driver.ops.GetTableRequest;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.ops.TableResult;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.DdlJobManager;
+import oracle.nosql.model.connection.ReplicaBatch;
+
+public class TestDdlJobs {
+
+	@Test
+	public void jobsOnATableRunInOrderAndTablesRunConcurrently() throws Exception {
+		FakeDdl ddl = new FakeDdl(3, 0);
+		DdlJobManager manager = new DdlJobManager(ddl.handle(), 1, 4);
+		DdlJob first = manager.submit("CREATE INDEX a ON t1(x)");
+		DdlJob second = manager.submit("DROP INDEX IF EXISTS b ON t1");
+		DdlJob other = manager.submit("ALTER TABLE t2 (ADD y INTEGER)");
+		second.await(5000);
+		other.await(5000);
+		first.await(5000);
+
+		// the second job on t1 waits for the first, the job on t2 does not
+		assertEquals(Arrays.asList(first.getStatement(), other.getStatement(),
+				second.getStatement()), ddl.started);
+		for (DdlJob job : Arrays.asList(first, second, other)) {
+			assertEquals(DdlJob.State.SUCCEEDED, job.getState());
+			assertEquals("ACTIVE", job.getTableState());
+			assertEquals(3, job.getPolls());
+		}
+		assertEquals(3, manager.getJobs().size());
+		manager.clearFinished();
+		assertTrue(manager.getJobs().isEmpty());
+	}
+
+	@Test
+	public void throttledSubmissionIsRetried() throws Exception {
+		FakeDdl ddl = new FakeDdl(0, 1);
+		DdlJobManager manager = new DdlJobManager(ddl.handle(), 1, 4);
+		DdlJob job = manager.submit("CREATE TABLE IF NOT EXISTS t3 (id INTEGER, PRIMARY KEY(id))");
+		job.await(5000);
+		assertEquals(DdlJob.State.SUCCEEDED, job.getState());
+		assertEquals(2, ddl.requests);
+		assertNull(job.getError());
+	}
+
+	@Test
+	public void failureSurfacesThroughAwait() throws Exception {
+		FakeDdl ddl = new FakeDdl(0, 0);
+		DdlJobManager manager = new DdlJobManager(ddl.handle(), 1, 4);
+		DdlJob failed = manager.submit("t4", "fail");
+		DdlJob next = manager.submit("t4", "ALTER TABLE t4 (ADD z STRING)");
+		try {
+			failed.await(5000);
+			fail("expected the job to fail");
+		} catch (IllegalArgumentException ex) {
+			assertEquals(DdlJob.State.FAILED, failed.getState());
+		}
+		// a failure does not block the queue of the table
+		next.await(5000);
+		assertEquals(DdlJob.State.SUCCEEDED, next.getState());
+	}
+
+	@Test
+	public void replicaBatchLimitsTablesChangedAtOnce() throws Exception {
+		FakeDdl ddl = new FakeDdl(2, 0);
+		DdlJobManager manager = new DdlJobManager(ddl.handle(), 1, 4);
+		ReplicaBatch batch = new ReplicaBatch(manager, ReplicaBatch.Action.ADD,
+				Arrays.asList("t1", "t2", "t3"), Arrays.asList("r1", "r2"), 0, 0, 2);
+		batch.skip("t3", "r1");
+		assertEquals(ReplicaBatch.CellState.SKIPPED, batch.getState("t3", "r1"));
+		batch.start();
+		assertTrue(batch.await(5000));
+		assertTrue(batch.isDone());
+		assertEquals(5, batch.count(ReplicaBatch.CellState.SUCCEEDED));
+		assertEquals(5, ddl.started.size());
+		assertTrue(ddl.maxActive <= 2);
+		assertEquals("add replica r2 to t1", batch.getJob("t1", "r2").getStatement());
+	}
+
+	@Test
+	public void tableOfStatement() {
+		assertEquals("users", DdlJobManager.tableOf("create table if not exists users (id integer, primary key(id))"));
+		assertEquals("ns:users.child", DdlJobManager.tableOf("DROP TABLE ns:users.child"));
+		assertEquals("users", DdlJobManager.tableOf("CREATE INDEX IF NOT EXISTS idx ON users(name)"));
+		assertNull(DdlJobManager.tableOf("CREATE NAMESPACE ns"));
+	}
+
+	/**
+	 * Answers table requests with an operation that becomes active after a
+	 * number of polls.
+	 */
+	private static class FakeDdl {
+		final List<String> started = new CopyOnWriteArrayList<String>();
+		final Map<String, Integer> pending = new HashMap<String, Integer>();
+		final int polls;
+		int throttles;
+		int requests;
+		int maxActive;
+
+		FakeDdl(int polls, int throttles) {
+			this.polls = polls;
+			this.throttles = throttles;
+		}
+
+		NoSQLHandle handle() {
+			return (NoSQLHandle) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { NoSQLHandle.class }, (proxy, method, args) -> {
+						if (method.getName().equals("tableRequest")) {
+							return tableRequest((TableRequest) args[0]);
+						}
+						if (method.getName().equals("addReplica")) {
+							AddReplicaRequest request = (AddReplicaRequest) args[0];
+							return started(request.getTableName(), "add replica "
+									+ request.getReplicaName() + " to " + request.getTableName());
+						}
+						if (method.getName().equals("getTable")) {
+							return getTable((GetTableRequest) args[0]);
+						}
+						throw new UnsupportedOperationException(method.getName());
+					});
+		}
+
+		synchronized TableResult tableRequest(TableRequest request) {
+			requests++;
+			if (throttles > 0) {
+				throttles--;
+				throw new OperationThrottlingException("throttled");
+			}
+			String statement = request.getStatement();
+			if (statement.equals("fail")) {
+				throw new IllegalArgumentException("bad statement");
+			}
+			return started(DdlJobManager.tableOf(statement), statement);
+		}
+
+		synchronized TableResult started(String table, String statement) {
+			started.add(statement);
+			String operation = "op" + started.size();
+			pending.put(operation, polls);
+			int active = 0;
+			for (int left : pending.values()) {
+				active += left > 0 ? 1 : 0;
+			}
+			maxActive = Math.max(maxActive, active);
+			return new TableResult().setTableName(table).setOperationId(operation)
+					.setState(polls == 0 ? TableResult.State.ACTIVE : TableResult.State.UPDATING);
+		}
+
+		synchronized TableResult getTable(GetTableRequest request) {
+			int left = pending.get(request.getOperationId()) - 1;
+			pending.put(request.getOperationId(), left);
+			return new TableResult().setTableName(request.getTableName())
+					.setOperationId(request.getOperationId())
+					.setState(left > 0 ? TableResult.State.UPDATING : TableResult.State.ACTIVE);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.WriteThrottlingException;
+import oracle.nosql.driver.ops.DeleteRequest;
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.GetTableRequest;
+import oracle.nosql.driver.ops.ListTablesRequest;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.WriteMultipleRequest;
+import oracle.nosql.driver.ops.WriteMultipleResult;
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.fake.InMemoryHandle;
+
+public class TestInMemoryHandle {
+	private static final String USERS =
+			"CREATE TABLE users (id INTEGER, name STRING, PRIMARY KEY(id))";
+
+	@Test
+	public void queryIsReadInBatchesThroughConnection() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		CloudConnection con = handle.connect();
+		con.ddlQuery(USERS);
+		for (int i = 249; i >= 0; i--) {
+			handle.put(put(i, "user" + i));
+		}
+		assertEquals(250, handle.size("users"));
+
+		long before = handle.getRequestCount();
+		Iterator<?> rows = con.query("SELECT * FROM users u WHERE u.id >= 10 LIMIT 150");
+		int expected = 10;
+		while (rows.hasNext()) {
+			assertEquals(expected++, ((MapValue) rows.next()).getInt("id"));
+		}
+		assertEquals(160, expected);
+		// batches of 100 rows
+		assertEquals(2, handle.getRequestCount() - before);
+	}
+
+	@Test
+	public void ddlChangesSchema() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		CloudConnection con = handle.connect();
+		con.ddlQuery(USERS);
+		con.ddlQuery("ALTER TABLE users (ADD age INTEGER, DROP name)");
+		con.ddlQuery("CREATE INDEX idx_age ON users (age)");
+		MapValue schema = (MapValue) MapValue.createFromJson(handle.getTable(
+				new GetTableRequest().setTableName("users")).getSchema(), null);
+		ArrayValue fields = schema.get("fields").asArray();
+		assertEquals(2, fields.size());
+		assertEquals("id", fields.get(0).asMap().getString("name"));
+		assertEquals("INTEGER", fields.get(1).asMap().getString("type"));
+		assertTrue(fields.get(1).asMap().getBoolean("nullable"));
+		assertEquals("idx_age", schema.get("indexes").asArray().get(0)
+				.asMap().getString("name"));
+		con.ddlQuery("DROP TABLE users");
+		assertEquals(0, handle.listTables(
+				new ListTablesRequest()).getTables().length);
+	}
+
+	@Test
+	public void writeMultipleIsAllOrNothing() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		handle.connect().ddlQuery(USERS);
+		handle.put(put(1, "a"));
+		WriteMultipleRequest request = new WriteMultipleRequest();
+		request.add(put(2, "b"), true);
+		request.add(put(1, "c").setOption(PutRequest.Option.IfAbsent), true);
+		WriteMultipleResult result = handle.writeMultiple(request);
+		assertEquals(1, result.getFailedOperationIndex());
+		assertEquals(1, handle.size("users"));
+
+		request = new WriteMultipleRequest();
+		request.add(put(2, "b"), true);
+		request.add(new DeleteRequest().setTableName("users")
+				.setKey(new MapValue().put("id", 1)), true);
+		assertTrue(handle.writeMultiple(request).getSuccess());
+		assertNull(handle.get(new GetRequest().setTableName("users")
+				.setKey(new MapValue().put("id", 1))).getValue());
+		assertEquals("b", handle.get(new GetRequest().setTableName("users")
+				.setKey(new MapValue().put("id", 2))).getValue().getString("name"));
+	}
+
+	@Test
+	public void throttledRequestsFail() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		CloudConnection con = handle.connect();
+		handle.throttleNext(1);
+		// DDL jobs retry on throttling
+		DdlJob job = con.getDdlJobs().submit(USERS);
+		job.await(10000);
+		assertEquals(DdlJob.State.SUCCEEDED, job.getState());
+
+		handle.throttleNext(1);
+		try {
+			handle.put(put(1, "a"));
+			fail("expected the put to be throttled");
+		} catch (WriteThrottlingException ex) {
+			assertEquals(0, handle.size("users"));
+		}
+		assertFalse(handle.put(put(1, "a")).getVersion() == null);
+	}
+
+	private static PutRequest put(int id, String name) {
+		return new PutRequest().setTableName("users")
+				.setValue(new MapValue().put("id", id).put("name", name));
+	}
+}
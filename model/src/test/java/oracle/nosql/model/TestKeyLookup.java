@@ -0,0 +1,148 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.connection.KeyLookup;
+import oracle.nosql.model.fake.InMemoryHandle;
+import oracle.nosql.model.schema.Field;
+
+public class TestKeyLookup {
+
+	private static Map<String, Field.Type> key() {
+		Map<String, Field.Type> key = new LinkedHashMap<String, Field.Type>();
+		key.put("region", Field.Type.STRING);
+		key.put("id", Field.Type.INTEGER);
+		return key;
+	}
+
+	@Test
+	public void keysAreParsedFromCsvOrJson() {
+		KeyLookup lookup = new KeyLookup(new InMemoryHandle(), "accounts", key());
+		KeyLookup.Keys keys = lookup.parseKeys(
+				"ID, Region\n"
+				+ "1, eu\n"
+				+ "\n"
+				+ "# reported twice\n"
+				+ "1,eu\r\n"
+				+ "2,\"us, east\"\n"
+				+ "{\"region\":\"ap\",\"id\":\"3\"}\n"
+				+ "x,eu\n"
+				+ "4\n"
+				+ "{\"id\":5}\n");
+		assertEquals(3, keys.getKeys().size());
+		assertEquals("{\"region\":\"eu\",\"id\":1}", keys.getKeys().get(0).toJson());
+		assertEquals("us, east", keys.getKeys().get(1).getString("region"));
+		assertEquals(3, keys.getKeys().get(2).getInt("id"));
+		assertEquals(3, keys.getInvalid());
+		assertTrue(keys.getErrors().get(2), keys.getErrors().get(2).startsWith("line 10: missing key column"));
+
+		// without a header, values are in key order
+		keys = lookup.parseKeys("eu,7\n\"\"\"q\"\"\",8");
+		assertEquals(7, keys.getKeys().get(0).getInt("id"));
+		assertEquals("\"q\"", keys.getKeys().get(1).getString("region"));
+	}
+
+	@Test
+	public void rowsFoundAreStreamedAndMissesListed() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		handle.tableRequest(new TableRequest().setStatement(
+				"CREATE TABLE accounts (region STRING, id INTEGER, name STRING, "
+						+ "PRIMARY KEY(SHARD(region), id))")
+				.setTableLimits(new TableLimits(100, 100, 1)));
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			handle.put(new PutRequest().setTableName("accounts").setValue(new MapValue()
+					.put("region", i % 2 == 0 ? "eu" : "us").put("id", i).put("name", "a" + i)));
+			text.append(i % 2 == 0 ? "eu" : "us").append(',').append(i * 2).append('\n');
+		}
+		KeyLookup lookup = new KeyLookup(handle, "accounts", key());
+		lookup.setParallelism(8);
+		List<MapValue> keys = lookup.parseKeys(text.toString()).getKeys();
+		assertEquals(200, keys.size());
+
+		List<MapValue> missing = new ArrayList<MapValue>();
+		KeyLookup.Hits hits = new KeyLookup.Hits(new KeyLookup.Listener() {
+			@Override
+			public void found(MapValue row) {
+			}
+
+			@Override
+			public synchronized void missing(MapValue key) {
+				missing.add(key);
+			}
+
+			@Override
+			public void progress(int done, int total) {
+			}
+		}, 20);
+		// nothing read yet: no row to take, and no waiting for one
+		assertFalse(hits.hasNext());
+		long before = handle.getRequestCount();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<KeyLookup.Result> future = executor.submit(() -> {
+				try {
+					return lookup.lookup(keys, hits);
+				} finally {
+					hits.close();
+				}
+			});
+			hits.awaitPage();
+			assertTrue(hits.isClosed() || hits.getAvailable() >= 20);
+			TreeSet<Integer> found = new TreeSet<Integer>();
+			int pages = 0;
+			while (!hits.isClosed() || hits.hasNext()) {
+				hits.awaitPage();
+				if (!hits.hasNext()) {
+					continue;
+				}
+				pages++;
+				// a page is full but for the last one
+				for (int i = 0; i < 20 && hits.hasNext(); i++) {
+					MapValue row = hits.next();
+					assertEquals("a" + row.getInt("id"), row.getString("name"));
+					found.add(row.getInt("id"));
+				}
+				assertTrue(found.size() == 50 || found.size() == pages * 20);
+			}
+			KeyLookup.Result result = future.get();
+			// even keys in eu up to 199, but keys of odd rows are in us
+			assertEquals(50, found.size());
+			assertEquals(3, pages);
+			assertEquals(50, result.getFound());
+			assertEquals(150, result.getMissing().size());
+			assertEquals(150, missing.size());
+			assertEquals(0, result.getFailures());
+			assertFalse(result.isCancelled());
+			assertFalse(hits.hasNext());
+		} finally {
+			executor.shutdown();
+		}
+		// one get per key
+		assertEquals(200, handle.getRequestCount() - before);
+	}
+}
@@ -0,0 +1,148 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.FieldGroup;
+import oracle.nosql.model.schema.impl.AbstractTable;
+import oracle.nosql.model.schema.impl.FieldImpl;
+import oracle.nosql.model.util.Levensthien;
+import oracle.nosql.model.util.NameIndex;
+import oracle.nosql.model.util.NamedMap;
+
+public class TestNamedMap {
+
+	@Test
+	public void positionalAccessFollowsInsertionOrder() {
+		NamedMap<FieldImpl> map = newMap(1000);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("f" + i, map.getAt(i).getName());
+			assertEquals(i, map.indexOf("f" + i));
+		}
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void positionOutOfRangeIsRejected() {
+		newMap(3).getAt(3);
+	}
+
+	@Test
+	public void lookupIgnoresCase() {
+		NamedMap<FieldImpl> map = newMap(10);
+		assertTrue(map.containsKey("F7"));
+		assertTrue(map.containsName("F7"));
+		assertEquals("f7", map.get("F7").getName());
+		assertEquals(7, map.indexOf("F7"));
+		assertFalse(map.containsKey("g7"));
+		assertNull(map.get("g7"));
+		assertEquals(-1, map.indexOf("g7"));
+	}
+
+	@Test
+	public void indexIsRebuiltAfterRemoval() {
+		NamedMap<FieldImpl> map = newMap(5);
+		map.remove("f1");
+		assertEquals("f2", map.getAt(1).getName());
+		assertEquals(3, map.indexOf("F4"));
+		assertFalse(map.containsKey("F1"));
+		map.add(new FieldImpl("f1"), false);
+		assertEquals(4, map.indexOf("f1"));
+		map.clear();
+		assertFalse(map.containsKey("F2"));
+	}
+
+	@Test
+	public void keyGroupsAreMemoizedUntilKeysChange() {
+		AbstractTable table = new AbstractTable("t") {
+			@Override
+			public boolean isFetched() {
+				return true;
+			}
+
+			@Override
+			public void refresh() {
+			}
+		};
+		FieldImpl id = new FieldImpl("id");
+		table.addField(id, false);
+		id.setPrimaryKey(true);
+		table.addField(new FieldImpl("name"), false);
+
+		FieldGroup pk = table.getPrimaryKeys();
+		assertSame(pk, table.getPrimaryKeys());
+		assertEquals(1, pk.getChildCount());
+
+		Field region = new FieldImpl("region");
+		table.addField(region, false);
+		((FieldImpl) region).setPrimaryKey(true);
+		FieldGroup pk2 = table.getPrimaryKeys();
+		assertNotSame(pk, pk2);
+		assertEquals(2, pk2.getChildCount());
+		assertEquals(2, table.indexOfChild(region));
+	}
+
+	@Test
+	public void closestNameIsFoundThroughIndex() {
+		NamedMap<FieldImpl> map = newMap(0);
+		map.add(new FieldImpl("customer_id"), false);
+		map.add(new FieldImpl("order_date"), false);
+		map.add(new FieldImpl("amount"), false);
+		assertEquals("customer_id", map.closest("custmer_id").getName());
+		assertEquals("order_date", map.closest("ORDER_DATE").getName());
+		assertNull(map.closest("zzz"));
+		map.add(new FieldImpl("shipped"), false);
+		assertEquals("shipped", map.closest("shiped").getName());
+		map.remove("shipped");
+		assertNull(map.closest("shiped"));
+	}
+
+	@Test
+	public void searchRanksExactThenPrefixThenSubstringThenFuzzy() {
+		NameIndex<FieldImpl> index = new NameIndex<FieldImpl>();
+		index.add(new FieldImpl("user_name"));
+		index.add(new FieldImpl("username"));
+		index.add(new FieldImpl("name"));
+		index.add(new FieldImpl("nmae"));
+		index.add(new FieldImpl("id"));
+		List<FieldImpl> found = index.search("name", 10);
+		assertEquals(4, found.size());
+		assertEquals("name", found.get(0).getName());
+		assertEquals("username", found.get(1).getName());
+		assertEquals("user_name", found.get(2).getName());
+		assertEquals("nmae", found.get(3).getName());
+		assertEquals(1, index.search("name", 1).size());
+	}
+
+	@Test
+	public void distanceStopsAtCutoff() {
+		assertEquals(0, Levensthien.distance("abc", "ABC", 3, true));
+		assertEquals(3, Levensthien.distance("kitten", "sitting", 5, false));
+		assertEquals(3, Levensthien.distance("kitten", "sitting", 2, false));
+		assertEquals(2, Levensthien.distance("a", "abcdef", 1, false));
+	}
+
+	private static NamedMap<FieldImpl> newMap(int n) {
+		NamedMap<FieldImpl> map = new NamedMap<FieldImpl>();
+		for (int i = 0; i < n; i++) {
+			map.add(new FieldImpl("f" + i), false);
+		}
+		return map;
+	}
+}
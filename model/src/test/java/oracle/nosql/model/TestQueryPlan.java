@@ -0,0 +1,209 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.query.IndexAdvisor;
+import oracle.nosql.model.query.QueryPlan;
+import oracle.nosql.model.query.QueryPlanAnalyzer;
+import oracle.nosql.model.query.QueryPlanAnalyzer.Analysis;
+import oracle.nosql.model.query.QueryPlanAnalyzer.Kind;
+
+public class TestQueryPlan {
+
+	@Test
+	public void fullScanWithSortIsFound() {
+		Analysis analysis = QueryPlanAnalyzer.analyze(QueryPlan.parse(
+				plan("ALL_PARTITIONS", "primary index", "{}", "SORT")));
+		assertTrue(analysis.isFullScan());
+		assertEquals(2, analysis.getFindings().size());
+		assertEquals(Kind.FULL_TABLE_SCAN, analysis.getFindings().get(0).getKind());
+		assertEquals("users", analysis.getFindings().get(0).getTable());
+		assertEquals(Kind.SORT_WITHOUT_INDEX, analysis.getFindings().get(1).getKind());
+
+		Map<String, Long> sizes = new HashMap<String, Long>();
+		assertEquals(-1, analysis.predictReadUnits(sizes));
+		sizes.put("users", 2048L);
+		assertEquals(2048, analysis.predictReadUnits(sizes));
+	}
+
+	@Test
+	public void boundedScansAreNotFlagged() {
+		Analysis byKey = QueryPlanAnalyzer.analyze(QueryPlan.parse(
+				plan("SINGLE_PARTITION", "primary index", "{ \"id\" : 1 }", "SELECT")));
+		assertFalse(byKey.isFullScan());
+		assertTrue(byKey.getFindings().isEmpty());
+
+		Analysis byIndex = QueryPlanAnalyzer.analyze(QueryPlan.parse(
+				plan("ALL_SHARDS", "idx_age", "{ \"age\" : 30 }", "SELECT")));
+		assertFalse(byIndex.isFullScan());
+		assertEquals(0, byIndex.predictReadUnits(new HashMap<String, Long>()));
+	}
+
+	@Test
+	public void unboundedIndexScanAndGroupAreFound() {
+		Analysis analysis = QueryPlanAnalyzer.analyze(QueryPlan.parse(
+				plan("ALL_SHARDS", "idx_age", "{}", "GROUP")));
+		assertEquals(Kind.FULL_INDEX_SCAN, analysis.getFindings().get(0).getKind());
+		assertEquals(Kind.UNBOUNDED_GROUP_BY, analysis.getFindings().get(1).getKind());
+	}
+
+	@Test
+	public void textThatIsNotAPlanIsIgnored() {
+		assertNull(QueryPlan.parse("SFW([TABLE users])"));
+		assertNull(QueryPlan.parse(""));
+		assertTrue(QueryPlanAnalyzer.analyze(null).getFindings().isEmpty());
+	}
+
+	@Test
+	public void advisorProposesEqualityThenRange() {
+		IndexAdvisor advisor = new IndexAdvisor("users", Arrays.asList("id"),
+				Collections.<List<String>>emptyList(),
+				new HashSet<String>(Arrays.asList("id", "name", "age")));
+		List<MapValue> sample = new ArrayList<MapValue>();
+		for (int i = 0; i < 10; i++) {
+			sample.add(new MapValue().put("id", i).put("name", "n" + (i % 5)).put("age", 20 + i));
+		}
+		advisor.setSample(sample);
+		advisor.setTableSizeKB(1000);
+		advisor.addQuery("SELECT * FROM users u WHERE u.age > 30 AND u.name = 'n1'",
+				filteredPlan("AND", "GREATER_THAN", "age", "EQUAL", "name"), 3, -1);
+
+		List<IndexAdvisor.Recommendation> recommendations = advisor.recommend();
+		assertEquals(1, recommendations.size());
+		IndexAdvisor.Recommendation r = recommendations.get(0);
+		assertEquals(Arrays.asList("name", "age"), r.getPaths());
+		assertEquals("CREATE INDEX idx_name_age ON users(name, age)", r.getDdl());
+		assertEquals(3, r.getRuns());
+		// 5 distinct names and a range: 1/5 * 1/3 of 3 scans of 1000 KB is read
+		assertEquals(2800, r.getSavedReadUnits());
+		assertTrue(r.getStorageKB() > 0);
+		assertEquals(1, r.getExtraWriteUnits());
+		assertEquals(2.0, r.getWriteAmplification(), 0.0);
+	}
+
+	@Test
+	public void advisorSkipsServedAndDisjunctiveQueries() {
+		IndexAdvisor advisor = new IndexAdvisor("users", Arrays.asList("id"),
+				Collections.singletonList(Arrays.asList("name", "age")),
+				new HashSet<String>(Arrays.asList("id", "name", "age")));
+		advisor.addQuery("SELECT * FROM users WHERE name = 'a'",
+				filteredPlan("AND", "EQUAL", "name", "EQUAL", "name"), 1, 10);
+		advisor.addQuery("SELECT * FROM users WHERE age = 1 OR name = 'a'",
+				filteredPlan("OR", "EQUAL", "age", "EQUAL", "name"), 1, 10);
+		assertTrue(advisor.recommend().isEmpty());
+	}
+
+	@Test
+	public void advisorIndexesJsonPathsAndSorts() {
+		IndexAdvisor advisor = new IndexAdvisor("orders", Arrays.asList("id"),
+				Collections.<List<String>>emptyList(),
+				new HashSet<String>(Arrays.asList("id")));
+		String sorted = plan("ALL_PARTITIONS", "primary index", "{}", "SORT")
+				.replace("users", "orders");
+		advisor.addQuery("SELECT * FROM orders o ORDER BY o.info.total DESC LIMIT 10",
+				sorted, 1, 500);
+		IndexAdvisor.Recommendation r = advisor.recommend().get(0);
+		assertEquals("CREATE INDEX idx_info_total ON orders(info.total AS ANYATOMIC)", r.getDdl());
+		assertEquals(0, r.getSavedReadUnits());
+	}
+
+	@Test
+	public void advisorKeepsTheCaseOfJsonPaths() {
+		IndexAdvisor advisor = new IndexAdvisor("users", Arrays.asList("id"),
+				Collections.<List<String>>emptyList(),
+				new HashSet<String>(Arrays.asList("id", "Name")));
+		String plan = filteredPlan("AND", "EQUAL", "info", "EQUAL", "NAME");
+		MapValue info = new MapValue().put("iterator kind", "FIELD_STEP")
+				.put("field name", "firstName")
+				.put("input iterator", comparison("EQUAL", "info").get("left operand"));
+		plan = plan.replace(comparison("EQUAL", "info").get("left operand").toJson(),
+				info.toJson());
+		advisor.addQuery("SELECT * FROM users u WHERE u.info.firstName = 'a' AND u.NAME = 'b'",
+				plan, 1, 10);
+		IndexAdvisor.Recommendation r = advisor.recommend().get(0);
+		assertEquals(Arrays.asList("info.firstName", "name"), r.getPaths());
+		assertEquals("CREATE INDEX idx_info_firstName_name ON users(info.firstName AS ANYATOMIC, name)",
+				r.getDdl());
+
+		// an index on the same paths serves the query whatever their case
+		advisor = new IndexAdvisor("users", Arrays.asList("id"),
+				Collections.singletonList(Arrays.asList("info.firstName", "Name")),
+				new HashSet<String>(Arrays.asList("id", "Name")));
+		advisor.addQuery("SELECT * FROM users u WHERE u.info.firstName = 'a' AND u.NAME = 'b'",
+				plan, 1, 10);
+		assertTrue(advisor.recommend().isEmpty());
+	}
+
+	/**
+	 * Plan of a full scan of users filtered by two comparisons.
+	 */
+	private static String filteredPlan(String connective, String op1, String path1,
+			String op2, String path2) {
+		MapValue select = FieldValue.createFromJson(
+				plan("ALL_PARTITIONS", "primary index", "{}", "SELECT"), null)
+				.asMap().get("input iterator").asMap();
+		MapValue where = new MapValue().put("iterator kind", connective);
+		where.put("input iterators", new ArrayValue()
+				.add(comparison(op1, path1)).add(comparison(op2, path2)));
+		select.get("input iterator").asMap().put("WHERE", where);
+		return new MapValue().put("iterator kind", "RECEIVE")
+				.put("distribution kind", "ALL_PARTITIONS")
+				.put("input iterator", select).toJson();
+	}
+
+	private static MapValue comparison(String op, String field) {
+		MapValue var = new MapValue().put("iterator kind", "VAR_REF").put("variable", "$$u");
+		MapValue step = new MapValue().put("iterator kind", "FIELD_STEP")
+				.put("field name", field).put("input iterator", var);
+		return new MapValue().put("iterator kind", op).put("left operand", step)
+				.put("right operand", new MapValue().put("iterator kind", "CONST").put("value", 1));
+	}
+
+	private static String plan(String distribution, String index,
+			String equality, String topKind) {
+		return "{\"iterator kind\" : \"RECEIVE\","
+				+ " \"distribution kind\" : \"" + distribution + "\","
+				+ " \"input iterator\" : {"
+				+ "   \"iterator kind\" : \"" + topKind + "\","
+				+ "   \"input iterator\" : {"
+				+ "     \"iterator kind\" : \"SELECT\","
+				+ "     \"FROM\" : {"
+				+ "       \"iterator kind\" : \"TABLE\","
+				+ "       \"target table\" : \"users\","
+				+ "       \"row variable\" : \"$$u\","
+				+ "       \"index used\" : \"" + index + "\","
+				+ "       \"covering index\" : false,"
+				+ "       \"index scans\" : [ { \"equality conditions\" : " + equality
+				+ ", \"range conditions\" : {} } ]"
+				+ "     },"
+				+ "     \"FROM variable\" : \"$$u\","
+				+ "     \"SELECT expressions\" : [ { \"field name\" : \"u\","
+				+ "       \"field expression\" : { \"iterator kind\" : \"VAR_REF\", \"variable\" : \"$$u\" } } ]"
+				+ "   }"
+				+ " }"
+				+ "}";
+	}
+}
@@ -0,0 +1,206 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.JsonNullValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.NullValue;
+import oracle.nosql.driver.values.TimestampValue;
+import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.connection.ResultCache;
+import oracle.nosql.model.fake.InMemoryHandle;
+
+public class TestResultCache {
+	private static final String QUERY = "SELECT * FROM users";
+
+	private static InMemoryHandle users(int count) {
+		InMemoryHandle handle = new InMemoryHandle();
+		handle.tableRequest(new TableRequest().setStatement(
+				"CREATE TABLE users (id INTEGER, name STRING, PRIMARY KEY(id))")
+				.setTableLimits(new TableLimits(100, 100, 1)));
+		for (int i = 0; i < count; i++) {
+			handle.put(new PutRequest().setTableName("users")
+					.setValue(new MapValue().put("id", i).put("name", "user " + i)));
+		}
+		return handle;
+	}
+
+	private static List<MapValue> read(Iterator<?> rows, int max) {
+		List<MapValue> list = new ArrayList<MapValue>();
+		while (list.size() < max && rows.hasNext()) {
+			list.add((MapValue) rows.next());
+		}
+		return list;
+	}
+
+	/* runs a query as a table view does, through the cache */
+	private static Iterator<MapValue> run(CloudConnection con, String query) {
+		ResultCache cache = con.getResultCache();
+		Iterator<MapValue> cached = cache.get(query, "users", () -> con.query(query));
+		if (cached != null) {
+			return cached;
+		}
+		long stamp = cache.getStamp("users");
+		return cache.record(query, "users", stamp, con.query(query));
+	}
+
+	@Test
+	public void reRunsAreServedUntilTheTableIsWritten() {
+		InMemoryHandle handle = users(250);
+		CloudConnection con = handle.connect();
+		ResultCache cache = con.getResultCache();
+		assertNull(cache.get(QUERY, "users", null));
+
+		assertEquals(250, read(run(con, QUERY), Integer.MAX_VALUE).size());
+		long requests = handle.getRequestCount();
+		ResultCache.Rows rows = cache.get("  SELECT *\n FROM users ;", "USERS", null);
+		assertNotNull(rows);
+		assertTrue(rows.isComplete());
+		List<MapValue> cached = read(rows, Integer.MAX_VALUE);
+		assertEquals(250, cached.size());
+		assertEquals(handle.getRequestCount(), requests);
+		assertEquals("user 7", cached.get(7).getString("name"));
+		// string literals are not normalized
+		assertEquals("SELECT * FROM t WHERE s = 'a  b'",
+				ResultCache.normalize("SELECT  *  FROM t\tWHERE s = 'a  b';"));
+
+		// only the first page was read: the rest is read again from the table
+		read(run(con, "SELECT * FROM users LIMIT 200"), 50);
+		requests = handle.getRequestCount();
+		rows = cache.get("SELECT * FROM users LIMIT 200", "users",
+				() -> con.query("SELECT * FROM users LIMIT 200"));
+		assertFalse(rows.isComplete());
+		assertEquals(50, rows.getCachedRows());
+		assertEquals(requests, handle.getRequestCount());
+		List<MapValue> all = read(rows, Integer.MAX_VALUE);
+		assertEquals(200, all.size());
+		assertTrue(handle.getRequestCount() > requests);
+		assertEquals("user 50", all.get(50).getString("name"));
+
+		// a write through the connection drops the results of its table,
+		// even if it fails as updates do on the in-memory handle
+		try {
+			con.query("UPDATE users u SET u.name = 'x' WHERE u.id = 1").hasNext();
+		} catch (RuntimeException expected) {
+		}
+		assertNull(cache.get(QUERY, "users", null));
+		read(run(con, QUERY), Integer.MAX_VALUE);
+		long stamp = cache.getStamp("users");
+		con.unwrap(NoSQLHandle.class).put(new PutRequest()
+				.setTableName("users").setValue(new MapValue().put("id", 1000)));
+		assertTrue(cache.getStamp("users") > stamp);
+		assertNull(cache.get(QUERY, "users", null));
+		assertEquals(0, cache.getSize());
+
+		// a result read while the table changed is not kept
+		stamp = cache.getStamp("users");
+		cache.invalidate("users");
+		read(cache.record(QUERY, "users", stamp, con.query(QUERY)), Integer.MAX_VALUE);
+		assertNull(cache.get(QUERY, "users", null));
+	}
+
+	@Test
+	public void resultsAreKeyedByTheTableTheQueryReads() {
+		assertEquals("users", ResultCache.getTable("SELECT * FROM users u WHERE u.id > 1"));
+		assertEquals("Users.Addresses", ResultCache.getTable(
+				"DECLARE $id INTEGER; SELECT * FROM Users.Addresses WHERE id = $id"));
+		// the plan of these may read other tables, or may not be a query
+		assertNull(ResultCache.getTable("SELECT * FROM NESTED TABLES(users a DESCENDANTS(users.addresses))"));
+		assertNull(ResultCache.getTable("SELECT * FROM users u LEFT OUTER JOIN users.addresses a ON u.id = a.id"));
+		assertNull(ResultCache.getTable("SELECT * FROM users WHERE s = 'FROM orders'"));
+		assertNull(ResultCache.getTable("SELECT 1"));
+		assertNull(ResultCache.getTable("DELETE FROM users"));
+	}
+
+	@Test
+	public void entriesExpireAndFitTheSize() {
+		AtomicLong now = new AtomicLong(1000);
+		ResultCache cache = new ResultCache(now::get);
+		cache.setTtlMillis(60000);
+		List<MapValue> rows = new ArrayList<MapValue>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(new MapValue().put("id", i).put("name", "user " + i));
+		}
+		read(cache.record("SELECT * FROM a", "a", 0, rows.iterator()), 200);
+		long size = cache.getSize();
+		assertTrue(size > 1000);
+		read(cache.record("SELECT * FROM b", "b", 0, rows.iterator()), 200);
+		read(cache.record("SELECT * FROM c", "c", 0, rows.iterator()), 200);
+		assertEquals(3 * size, cache.getSize());
+
+		// a was used last, so b is dropped first
+		assertNotNull(cache.get("SELECT * FROM a", "a", null));
+		cache.setMaxBytes(2 * size);
+		assertEquals(2, cache.getEntryCount());
+		assertNull(cache.get("SELECT * FROM b", "b", null));
+		assertNotNull(cache.get("SELECT * FROM a", "a", null));
+
+		now.addAndGet(60001);
+		assertNull(cache.get("SELECT * FROM a", "a", null));
+		assertEquals(size, cache.getSize());
+
+		// statements that write are not kept
+		assertFalse(ResultCache.isCacheable("UPDATE a SET x = 1"));
+		assertTrue(ResultCache.isCacheable("declare $x integer; select * from a"));
+		read(cache.record("DELETE FROM a", "a", 0, rows.iterator()), 200);
+		assertNull(cache.get("DELETE FROM a", "a", null));
+	}
+
+	@Test
+	public void valuesKeepTheirTypes() {
+		MapValue row = new MapValue(true, 10)
+				.put("s", "text \u00e9")
+				.put("i", 7)
+				.put("l", 1L << 40)
+				.put("d", 1.5)
+				.put("n", new BigDecimal("12345678901234567890.5"))
+				.put("b", true)
+				.put("bin", new byte[] { 1, 2, 3 })
+				.put("ts", new TimestampValue("2024-01-02T03:04:05.678"))
+				.put("nul", NullValue.getInstance())
+				.put("doc", new MapValue().put("jnull", JsonNullValue.getInstance())
+						.put("a", new ArrayValue().add(1).add("x")));
+		ResultCache cache = new ResultCache();
+		List<MapValue> rows = new ArrayList<MapValue>();
+		rows.add(row);
+		read(cache.record(QUERY, "users", 0, rows.iterator()), 10);
+		MapValue copy = cache.get(QUERY, "users", null).next();
+
+		assertEquals(new ArrayList<String>(row.getMap().keySet()),
+				new ArrayList<String>(copy.getMap().keySet()));
+		for (String name : row.getMap().keySet()) {
+			FieldValue value = row.get(name);
+			assertEquals(name, value.getType(), copy.get(name).getType());
+			assertEquals(name, value.toJson(), copy.get(name).toJson());
+		}
+		assertArrayEquals(row.get("bin").getBinary(), copy.get("bin").getBinary());
+		assertEquals(FieldValue.Type.JSON_NULL,
+				copy.get("doc").asMap().get("jnull").getType());
+	}
+}
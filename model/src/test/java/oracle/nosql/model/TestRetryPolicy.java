@@ -0,0 +1,171 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.InvalidAuthorizationException;
+import oracle.nosql.driver.ReadThrottlingException;
+import oracle.nosql.driver.TableNotFoundException;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.connection.CircuitBreaker;
+import oracle.nosql.model.connection.ConnectionMetrics;
+import oracle.nosql.model.connection.RetryPolicy;
+import oracle.nosql.model.fake.InMemoryHandle;
+
+public class TestRetryPolicy {
+
+	/* a policy whose sleeps only move its clock on */
+	private static RetryPolicy policy(AtomicLong clock, List<Long> delays) {
+		RetryPolicy policy = new RetryPolicy(clock::get);
+		policy.setSleeper(millis -> {
+			delays.add(millis);
+			clock.addAndGet(millis);
+		});
+		return policy;
+	}
+
+	@Test
+	public void throttlingIsRetriedWithGrowingJitteredDelays() throws Throwable {
+		AtomicLong clock = new AtomicLong();
+		List<Long> delays = new ArrayList<Long>();
+		RetryPolicy policy = policy(clock, delays);
+		policy.setBudgetMillis(60000);
+		AtomicInteger attempts = new AtomicInteger();
+		List<RetryPolicy.Cause> causes = new ArrayList<RetryPolicy.Cause>();
+		String result = policy.execute(() -> {
+			if (attempts.incrementAndGet() <= 5) {
+				throw new ReadThrottlingException("throttled read");
+			}
+			return "done";
+		}, (cause, retries, delay) -> causes.add(cause));
+		assertEquals("done", result);
+		assertEquals(5, delays.size());
+		assertEquals(RetryPolicy.Cause.THROTTLING, causes.get(0));
+		// between half and all of 100 ms doubled per retry, up to 2 s
+		long[] caps = { 100, 200, 400, 800, 1600 };
+		for (int i = 0; i < caps.length; i++) {
+			assertTrue(delays.get(i) >= caps[i] / 2 && delays.get(i) <= caps[i]);
+		}
+
+		// throttled for good: at most 10 retries
+		attempts.set(-100);
+		try {
+			policy.execute(() -> {
+				attempts.incrementAndGet();
+				throw new ReadThrottlingException("throttled read");
+			}, (cause, retries, delay) -> { });
+			fail("retried for ever");
+		} catch (ReadThrottlingException expected) {
+		}
+		assertEquals(-100 + 11, attempts.get());
+	}
+
+	@Test
+	public void budgetAndCauseBoundRetries() throws Throwable {
+		AtomicLong clock = new AtomicLong();
+		List<Long> delays = new ArrayList<Long>();
+		RetryPolicy policy = policy(clock, delays);
+		policy.setBudgetMillis(1000);
+		try {
+			policy.execute(() -> {
+				throw new ReadThrottlingException("throttled read");
+			}, (cause, retries, delay) -> { });
+			fail("retried beyond the budget");
+		} catch (ReadThrottlingException expected) {
+		}
+		long waited = 0;
+		for (long delay : delays) {
+			waited += delay;
+		}
+		assertTrue(waited <= 1000);
+
+		delays.clear();
+		TableNotFoundException notFound = new TableNotFoundException("t");
+		try {
+			policy.execute(() -> {
+				throw notFound;
+			}, (cause, retries, delay) -> { });
+			fail("not thrown");
+		} catch (TableNotFoundException expected) {
+			assertSame(notFound, expected);
+		}
+		assertTrue(delays.isEmpty());
+		assertNull(RetryPolicy.classify(notFound));
+		// the same token would be refused again
+		assertNull(RetryPolicy.classify(new InvalidAuthorizationException("expired")));
+		assertEquals(RetryPolicy.Cause.TRANSIENT, RetryPolicy.classify(
+				new RuntimeException(new ConnectException("refused"))));
+	}
+
+	@Test
+	public void unreachableEndpointOpensTheBreaker() throws Throwable {
+		AtomicLong clock = new AtomicLong();
+		List<Long> delays = new ArrayList<Long>();
+		RetryPolicy policy = policy(clock, delays);
+		policy.setBudgetMillis(60000);
+		CircuitBreaker breaker = policy.getCircuitBreaker();
+		AtomicInteger attempts = new AtomicInteger();
+		try {
+			policy.execute(() -> {
+				attempts.incrementAndGet();
+				throw new RuntimeException(new ConnectException("refused"));
+			}, (cause, retries, delay) -> { });
+			fail("reached");
+		} catch (CircuitBreaker.OpenException expected) {
+		}
+		// the fifth failure opens the breaker, the retry is rejected
+		assertEquals(CircuitBreaker.DEFAULT_THRESHOLD, attempts.get());
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		try {
+			policy.execute(() -> "reached", (cause, retries, delay) -> { });
+			fail("not failed fast");
+		} catch (CircuitBreaker.OpenException expected) {
+		}
+
+		clock.addAndGet(CircuitBreaker.DEFAULT_COOL_DOWN_MILLIS);
+		assertEquals("reached",
+				policy.execute(() -> "reached", (cause, retries, delay) -> { }));
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(1, breaker.getOpenedCount());
+	}
+
+	@Test
+	public void connectionRetriesThrottledRequests() throws Exception {
+		InMemoryHandle handle = new InMemoryHandle();
+		CloudConnection connection = handle.connect();
+		connection.getRetryPolicy().setSleeper(millis -> { });
+		connection.ddlQuery("CREATE TABLE t (id INTEGER, PRIMARY KEY(id))");
+		handle.put(new PutRequest().setTableName("t")
+				.setValue(new MapValue().put("id", 1)));
+		handle.throttleNext(2);
+		Iterator<?> rows = connection.query("SELECT * FROM t");
+		assertEquals(1, ((MapValue) rows.next()).getInt("id"));
+		ConnectionMetrics metrics = connection.getMetrics();
+		assertEquals(2, metrics.get("query", null).getRetries());
+		assertEquals(0, metrics.get("query", null).getErrors());
+		assertEquals(2, metrics.getRetries("THROTTLING"));
+		assertEquals(2, metrics.toJson().get("retries").asMap()
+				.getLong("THROTTLING"));
+	}
+}
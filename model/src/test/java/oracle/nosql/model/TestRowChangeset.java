@@ -0,0 +1,201 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.QueryRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.ops.WriteMultipleRequest;
+import oracle.nosql.driver.ops.WriteMultipleResult;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.IntegerValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.StringValue;
+import oracle.nosql.model.connection.RowChangeset;
+import oracle.nosql.model.fake.InMemoryHandle;
+import oracle.nosql.model.schema.Field;
+
+public class TestRowChangeset {
+
+	/* orders of two customers, the customer being the shard key */
+	private static InMemoryHandle orders() {
+		return orders(new InMemoryHandle());
+	}
+
+	private static InMemoryHandle orders(InMemoryHandle handle) {
+		handle.tableRequest(new TableRequest().setStatement(
+				"CREATE TABLE orders (customer INTEGER, id INTEGER, status STRING, "
+						+ "total INTEGER, note STRING, PRIMARY KEY(SHARD(customer), id))")
+				.setTableLimits(new TableLimits(100, 100, 1)));
+		for (int c = 1; c <= 2; c++) {
+			for (int i = 1; i <= 3; i++) {
+				handle.put(new PutRequest().setTableName("orders")
+						.setValue(new MapValue().put("customer", c).put("id", i)
+								.put("status", "new").put("total", 10 * i).put("note", "n")));
+			}
+		}
+		return handle;
+	}
+
+	/* the rows as a table view shows them: the columns selected */
+	private static List<MapValue> shown(InMemoryHandle handle) {
+		List<MapValue> rows = new ArrayList<MapValue>();
+		for (MapValue row : handle.query(new QueryRequest()
+				.setStatement("SELECT * FROM orders")).getResults()) {
+			row.remove("note");
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private static MapValue get(InMemoryHandle handle, int customer, int id) {
+		return handle.get(new GetRequest().setTableName("orders").setKey(
+				new MapValue().put("customer", customer).put("id", id))).getValue();
+	}
+
+	private static RowChangeset changeset() {
+		return new RowChangeset("orders", Arrays.asList("customer", "id"),
+				Arrays.asList("customer"));
+	}
+
+	@Test
+	public void editsAreWrittenInOneBatchPerShard() {
+		InMemoryHandle handle = orders();
+		List<MapValue> rows = shown(handle);
+		RowChangeset changes = changeset();
+		for (MapValue row : rows) {
+			changes.set(row, "status", new StringValue("paid"));
+		}
+		MapValue first = rows.get(0);
+		changes.set(first, "total", new IntegerValue(99));
+		changes.set(first, "total", new IntegerValue(98));
+		assertEquals(6, changes.size());
+		assertEquals(98, changes.getValue(first, "total").getInt());
+		assertNull(changes.getValue(rows.get(1), "total"));
+		// setting the value shown undoes the edit
+		changes.set(rows.get(1), "status", new StringValue("new"));
+		assertFalse(changes.isEdited(rows.get(1)));
+		try {
+			changes.set(first, "id", new IntegerValue(5));
+			fail("a key was edited");
+		} catch (IllegalArgumentException expected) {
+		}
+
+		long before = handle.getRequestCount();
+		RowChangeset.Result result = changes.commit(handle);
+		assertEquals(5, result.getWritten());
+		assertEquals(2, result.getBatches());
+		assertTrue(result.getConflicts().isEmpty());
+		// each row is read again, and written with the rows of its shard
+		assertEquals(5 + 2, handle.getRequestCount() - before);
+		assertTrue(changes.isEmpty());
+
+		MapValue written = get(handle, first.getInt("customer"), first.getInt("id"));
+		assertEquals("paid", written.getString("status"));
+		assertEquals(98, written.getInt("total"));
+		// a column not shown keeps its value
+		assertEquals("n", written.getString("note"));
+		MapValue unedited = rows.get(1);
+		assertEquals("new", get(handle, unedited.getInt("customer"),
+				unedited.getInt("id")).getString("status"));
+	}
+
+	@Test
+	public void aChangedRowLeavesItsShardUnwritten() {
+		InMemoryHandle handle = orders();
+		List<MapValue> rows = shown(handle);
+		RowChangeset changes = changeset();
+		for (MapValue row : rows) {
+			changes.set(row, "total", new IntegerValue(0));
+		}
+		MapValue changed = null;
+		for (MapValue row : rows) {
+			if (row.getInt("customer") == 1 && row.getInt("id") == 2) {
+				changed = row;
+			}
+		}
+		handle.put(new PutRequest().setTableName("orders").setValue(new MapValue()
+				.put("customer", 1).put("id", 2).put("status", "cancelled")
+				.put("total", 20).put("note", "n")));
+
+		RowChangeset.Result result = changes.commit(handle);
+		assertEquals(3, result.getWritten());
+		assertEquals(Collections.singletonList("row {\"customer\":1,\"id\":2} was changed since it was read"),
+				result.getConflicts());
+		// the other orders of the customer are not written either
+		assertEquals(3, changes.size());
+		assertTrue(changes.isEdited(changed));
+		assertEquals(10, get(handle, 1, 1).getInt("total"));
+		assertEquals(0, get(handle, 2, 3).getInt("total"));
+
+		changes.discard();
+		assertTrue(changes.isEmpty());
+		assertEquals("cancelled", get(handle, 1, 2).getString("status"));
+	}
+
+	@Test
+	public void cellsEditedDuringACommitStayEdited() {
+		RowChangeset changes = changeset();
+		InMemoryHandle handle = new InMemoryHandle() {
+			@Override
+			public synchronized WriteMultipleResult writeMultiple(WriteMultipleRequest request) {
+				// as the event thread would, while the commit writes
+				for (RowChangeset.Change change : changes.getChanges()) {
+					if (change.getOriginal().getInt("customer") == 1) {
+						changes.set(change.getOriginal(), "status", new StringValue("late"));
+					}
+				}
+				return super.writeMultiple(request);
+			}
+		};
+		for (MapValue row : shown(orders(handle))) {
+			changes.set(row, "status", new StringValue("paid"));
+		}
+
+		RowChangeset.Result result = changes.commit(handle);
+		assertEquals(6, result.getWritten());
+		// the rows of customer 1 were written as edited before
+		assertEquals("paid", get(handle, 1, 1).getString("status"));
+		assertEquals(3, changes.size());
+		for (RowChangeset.Change change : changes.getChanges()) {
+			assertEquals("late", change.getValues().get("status").getString());
+		}
+	}
+
+	@Test
+	public void cellTextIsParsedByColumnType() {
+		assertEquals(FieldValue.Type.NULL, RowChangeset.parseValue(Field.Type.INTEGER, " ").getType());
+		assertEquals(42, RowChangeset.parseValue(Field.Type.INTEGER, "42").getInt());
+		assertEquals("a b", RowChangeset.parseValue(Field.Type.STRING, "\"a b\"").getString());
+		assertEquals("a b", RowChangeset.parseValue(Field.Type.STRING, "a b").getString());
+		assertEquals(FieldValue.Type.NULL, RowChangeset.parseValue(Field.Type.STRING, "null").getType());
+		assertEquals(FieldValue.Type.JSON_NULL, RowChangeset.parseValue(Field.Type.JSON, "null").getType());
+		assertEquals(2, RowChangeset.parseValue(Field.Type.JSON, "{\"a\":[1,2]}")
+				.asMap().get("a").asArray().size());
+		try {
+			RowChangeset.parseValue(Field.Type.INTEGER, "forty");
+			fail("not a number");
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
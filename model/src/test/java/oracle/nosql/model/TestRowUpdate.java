@@ -0,0 +1,136 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.table.ui.CloudTablePageCache;
+import oracle.nosql.model.query.RowUpdate;
+
+public class TestRowUpdate {
+
+	private static MapValue row() {
+		ArrayValue tags = new ArrayValue().add("a").add("b");
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			text.append("lorem ipsum ");
+		}
+		MapValue doc = new MapValue()
+				.put("flag", false)
+				.put("text", text.toString())
+				.put("tags", tags)
+				.put("owner", new MapValue().put("name", "ann").put("zip", 1234));
+		return new MapValue().put("id", 7).put("data", new byte[] { 1, 2, 3 })
+				.put("note", "old").put("doc", doc);
+	}
+
+	/* reads a row back as the edit dialog does, from its JSON */
+	private static MapValue edit(MapValue row) {
+		return FieldValue.createFromJson(row.toJson(), null).asMap();
+	}
+
+	private static List<String> sorted(List<String> clauses) {
+		List<String> list = new ArrayList<String>(clauses);
+		Collections.sort(list);
+		return list;
+	}
+
+	@Test
+	public void onlyChangedFieldsAreWritten() {
+		MapValue original = row();
+		MapValue edited = edit(original);
+		assertTrue(RowUpdate.diff("docs", Arrays.asList("id"), original, edited).isEmpty());
+
+		MapValue doc = edited.get("doc").asMap();
+		doc.put("flag", true);
+		doc.get("owner").asMap().remove("zip");
+		doc.get("owner").asMap().put("e-mail", "ann@example.com").put("city", "Oslo");
+		doc.get("tags").asArray().add("c");
+		edited.remove("note");
+		RowUpdate update = RowUpdate.diff("docs", Arrays.asList("id"), original, edited);
+
+		assertFalse(update.isEmpty());
+		assertFalse(update.requiresFullWrite());
+		assertEquals(Arrays.asList(
+				"PUT t.doc.owner " + new MapValue().put("e-mail", "ann@example.com")
+						.put("city", "Oslo").toJson(),
+				"REMOVE t.doc.owner.zip",
+				"SET t.doc.flag = true",
+				"SET t.doc.tags = [\"a\",\"b\",\"c\"]",
+				// a column of the schema is set to NULL, not removed
+				"SET t.note = NULL"), sorted(update.getClauses()));
+		assertTrue(update.getStatement().startsWith("UPDATE docs AS t "));
+		assertTrue(update.getStatement().endsWith(" WHERE t.id = 7"));
+		// the large text is not sent again
+		assertTrue(update.getStatementBytes() < 400);
+		assertTrue(update.getRowBytes() > 120000);
+	}
+
+	@Test
+	public void keysMustNotChangeAndNewColumnsNeedTheWholeRow() {
+		MapValue original = row();
+		MapValue edited = edit(original).put("id", 8);
+		try {
+			RowUpdate.diff("docs", Arrays.asList("id"), original, edited);
+			fail("the key changed");
+		} catch (IllegalArgumentException expected) {
+		}
+
+		edited = edit(original).put("color", "red");
+		RowUpdate update = RowUpdate.diff("docs", Arrays.asList("id"), original, edited);
+		assertTrue(update.requiresFullWrite());
+		assertFalse(update.isEmpty());
+		assertNull(update.getStatement());
+
+		edited = edit(original);
+		edited.get("doc").asMap().put("name with space", 1);
+		update = RowUpdate.diff("docs", Arrays.asList("id"), original, edited);
+		assertEquals(Arrays.asList("PUT t.doc {\"name with space\":1}"), update.getClauses());
+		edited.remove("doc");
+		edited.put("doc", original.get("doc")).get("doc").asMap().remove("owner");
+		update = RowUpdate.diff("docs", Arrays.asList("id"), row(), edited);
+		assertEquals(Arrays.asList("REMOVE t.doc.owner"), update.getClauses());
+	}
+
+	@Test
+	public void documentsOfJsonCollectionsAreUpdatedByField() {
+		// a table page nests the fields of the document, the edit is flat
+		MapValue document = row().get("doc").asMap().put("note", "old");
+		MapValue original = new MapValue(true, 2).put("id", 7)
+				.put(CloudTablePageCache.ROW_DATA, document);
+		MapValue edited = edit(document).put("id", 7);
+		assertTrue(RowUpdate.diffDocument("docs", Arrays.asList("id"), original,
+				CloudTablePageCache.ROW_DATA, edited).isEmpty());
+
+		edited.put("flag", true).remove("note");
+		edited.get("owner").asMap().put("city", "Oslo");
+		RowUpdate update = RowUpdate.diffDocument("docs", Arrays.asList("id"), original,
+				CloudTablePageCache.ROW_DATA, edited);
+		assertFalse(update.requiresFullWrite());
+		assertEquals(Arrays.asList(
+				"PUT t.owner {\"city\":\"Oslo\"}",
+				"REMOVE t.note",
+				"SET t.flag = true"), sorted(update.getClauses()));
+		assertTrue(update.getStatement().endsWith(" WHERE t.id = 7"));
+		assertTrue(update.getStatementBytes() < 200);
+	}
+}
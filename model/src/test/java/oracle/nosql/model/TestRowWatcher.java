@@ -0,0 +1,72 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.query.RowWatcher;
+
+public class TestRowWatcher {
+
+	private static MapValue job(int id, String status) {
+		return new MapValue(true, 2).put("id", id).put("status", status);
+	}
+
+	@Test
+	public void changedRowsAreToldByKey() {
+		RowWatcher watcher = new RowWatcher(Arrays.asList("id"));
+		List<MapValue> rows = new ArrayList<MapValue>(Arrays.asList(
+				job(1, "queued"), job(2, "queued"), job(3, "running")));
+		RowWatcher.Changes changes = watcher.update(rows);
+		assertEquals(Arrays.asList(0, 1, 2), changes.getInserted());
+
+		assertTrue(watcher.update(Arrays.asList(
+				job(1, "queued"), job(2, "queued"), job(3, "running"))).isEmpty());
+
+		// 1 is done and gone, 3 finished, 4 was queued
+		changes = watcher.update(Arrays.asList(
+				job(2, "queued"), job(3, "done"), job(4, "queued")));
+		assertEquals(Arrays.asList(0), changes.getDeleted());
+		assertEquals(Arrays.asList(1), changes.getUpdated());
+		assertEquals(Arrays.asList(2), changes.getInserted());
+		assertFalse(changes.isReordered());
+
+		changes = watcher.update(Arrays.asList(
+				job(3, "done"), job(2, "queued"), job(4, "queued")));
+		assertTrue(changes.isReordered());
+		assertEquals(Collections.emptyList(), changes.getUpdated());
+	}
+
+	@Test
+	public void rowsWithoutKeyAreToldByContent() {
+		RowWatcher watcher = new RowWatcher(Arrays.asList("id"));
+		MapValue a = new MapValue().put("status", "queued").put("count", 3);
+		MapValue b = new MapValue().put("status", "running").put("count", 1);
+		watcher.update(Arrays.asList(a, b));
+		RowWatcher.Changes changes = watcher.update(Arrays.asList(a,
+				new MapValue().put("status", "running").put("count", 2)));
+		assertEquals(Arrays.asList(1), changes.getDeleted());
+		assertEquals(Arrays.asList(1), changes.getInserted());
+		assertTrue(changes.getUpdated().isEmpty());
+
+		// equal rows are told apart by order
+		changes = watcher.update(Arrays.asList(a, a));
+		assertEquals(Arrays.asList(1), changes.getDeleted());
+		assertEquals(Arrays.asList(1), changes.getInserted());
+	}
+}
@@ -0,0 +1,149 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.query.TableDiff;
+import oracle.nosql.model.query.TableDiff.Difference;
+import oracle.nosql.model.query.TableDiff.Kind;
+import oracle.nosql.model.query.TableDiff.Summary;
+
+public class TestTableDiff {
+
+	@Test
+	public void mergeJoinFindsMissingExtraAndDifferentRows() {
+		List<MapValue> left = Arrays.asList(row(1, "a", 10), row(2, "b", 20),
+				row(4, "d", 40));
+		List<MapValue> right = Arrays.asList(row(1, "a", 10), row(3, "c", 30),
+				row(4, "d", 41));
+		List<Difference> differences = new ArrayList<Difference>();
+		Summary summary = new TableDiff(Arrays.asList("id")).diff(
+				left.iterator(), right.iterator(), differences::add);
+
+		assertEquals(4, summary.getCompared());
+		assertEquals(1, summary.getEqual());
+		assertEquals(3, differences.size());
+		assertEquals(Kind.MISSING, differences.get(0).getKind());
+		assertEquals(2, differences.get(0).getKey().getInt("id"));
+		assertEquals(Kind.EXTRA, differences.get(1).getKind());
+		assertEquals(Kind.DIFFERENT, differences.get(2).getKind());
+		assertEquals("info.total", differences.get(2).getFields().get(0).getPath());
+		assertFalse(summary.isIdentical());
+	}
+
+	@Test
+	public void fieldsAreComparedByValue() {
+		MapValue l = new MapValue().put("id", 1).put("n", 5);
+		MapValue r = new MapValue().put("n", 5L).put("id", 1).put("extra", "x");
+		List<TableDiff.FieldDifference> fields = TableDiff.compareFields(l, r);
+		assertEquals(1, fields.size());
+		assertEquals("extra", fields.get(0).getPath());
+		assertNull(fields.get(0).getLeft());
+	}
+
+	@Test
+	public void onlyRangesWithOtherDigestsAreJoined() throws Exception {
+		List<MapValue> left = new ArrayList<MapValue>();
+		List<MapValue> right = new ArrayList<MapValue>();
+		for (int i = 0; i < 100; i++) {
+			left.add(row(i, "n" + i, i));
+			right.add(row(i, "n" + i, i == 77 ? -1 : i));
+		}
+		List<String> ranges = TableDiff.splitRanges("id", 0, 99, 4);
+		assertEquals(Arrays.asList("t.id < 25", "t.id >= 25 AND t.id < 50",
+				"t.id >= 50 AND t.id < 75", "t.id >= 75"), ranges);
+
+		AtomicInteger reads = new AtomicInteger();
+		List<Difference> differences = new ArrayList<Difference>();
+		Summary summary = new TableDiff(Arrays.asList("id")).diffByRanges(
+				source(left, reads), source(right, reads), ranges, 4,
+				differences::add);
+		assertEquals(100, summary.getCompared());
+		assertEquals(99, summary.getEqual());
+		assertEquals(1, summary.getDifferentRanges());
+		assertEquals(1, differences.size());
+		assertEquals(77, differences.get(0).getKey().getInt("id"));
+		// 4 ranges digested on both sides, then one joined again
+		assertEquals(10, reads.get());
+	}
+
+	@Test
+	public void nonFiniteDoublesAreDigested() throws Exception {
+		List<MapValue> left = new ArrayList<MapValue>();
+		List<MapValue> right = new ArrayList<MapValue>();
+		for (int i = 0; i < 10; i++) {
+			left.add(new MapValue().put("id", i).put("d", i == 3 ? Double.NaN : i));
+			right.add(new MapValue().put("id", i).put("d", i == 3 ? Double.NaN
+					: i == 5 ? Double.POSITIVE_INFINITY : i));
+		}
+		List<Difference> differences = new ArrayList<Difference>();
+		Summary summary = new TableDiff(Arrays.asList("id")).diffByRanges(
+				source(left, new AtomicInteger()), source(right, new AtomicInteger()),
+				TableDiff.splitRanges("id", 0, 9, 2), 2, differences::add);
+		assertEquals(1, summary.getDifferentRanges());
+		assertEquals(1, differences.size());
+		assertEquals(5, differences.get(0).getKey().getInt("id"));
+	}
+
+	@Test
+	public void queriesAreOrderedByPrimaryKey() {
+		TableDiff diff = new TableDiff(Arrays.asList("region", "id"));
+		assertEquals("SELECT * FROM users t WHERE t.id < 5 ORDER BY t.region, t.id",
+				diff.orderedQuery("users", "t.id < 5"));
+		assertEquals(Arrays.asList((String) null), TableDiff.splitRanges("id", 7, 7, 4));
+		assertTrue(new TableDiff(Arrays.asList("id")).diff(
+				new ArrayList<MapValue>().iterator(),
+				new ArrayList<MapValue>().iterator(), d -> true).isIdentical());
+	}
+
+	private static MapValue row(int id, String name, int total) {
+		return new MapValue().put("id", id).put("name", name)
+				.put("info", new MapValue().put("total", total));
+	}
+
+	/**
+	 * Rows of a range given as produced by splitRanges on id.
+	 */
+	private static TableDiff.RowSource source(List<MapValue> rows, AtomicInteger reads) {
+		return condition -> {
+			reads.incrementAndGet();
+			long low = Long.MIN_VALUE;
+			long high = Long.MAX_VALUE;
+			if (condition != null) {
+				for (String part : condition.split(" AND ")) {
+					long bound = Long.parseLong(part.substring(part.lastIndexOf(' ') + 1));
+					if (part.contains(">=")) {
+						low = bound;
+					} else {
+						high = bound;
+					}
+				}
+			}
+			List<MapValue> range = new ArrayList<MapValue>();
+			for (MapValue row : rows) {
+				int id = row.getInt("id");
+				if (id >= low && id < high) {
+					range.add(row);
+				}
+			}
+			return range.iterator();
+		};
+	}
+}
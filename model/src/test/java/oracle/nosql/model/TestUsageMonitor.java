@@ -0,0 +1,114 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.TableNotFoundException;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.ops.TableUsageRequest;
+import oracle.nosql.driver.ops.TableUsageResult;
+import oracle.nosql.model.connection.UsageHistory;
+import oracle.nosql.model.connection.UsageMonitor;
+import oracle.nosql.model.fake.InMemoryHandle;
+
+public class TestUsageMonitor {
+
+	@Test
+	public void ringBufferKeepsLatestRecordsInOrder() {
+		UsageHistory history = new UsageHistory(3);
+		for (int i = 1; i <= 5; i++) {
+			assertTrue(history.record(i * 60000L, 60, i * 60, i, 1, 0, 0, 0));
+		}
+		// an overlapping poll does not record a period twice
+		assertFalse(history.record(5 * 60000L, 60, 0, 0, 0, 0, 0, 0));
+		assertEquals(3, history.size());
+		assertEquals(3 * 60000L, history.getStart(0));
+		assertEquals(5 * 60000L, history.getLatestStart());
+		assertEquals(5.0, history.getReadUnitsPerSecond(2), 0);
+		assertEquals(4, history.copy().getWriteUnits(1));
+	}
+
+	@Test
+	public void usageIsPolledIncrementallyInPages() {
+		UsageHandle handle = new UsageHandle();
+		handle.tableRequest(new TableRequest().setStatement(
+				"CREATE TABLE users (id INTEGER, PRIMARY KEY(id))")
+				.setTableLimits(new TableLimits(100, 50, 1)));
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 150; i++) {
+			handle.add(now - (150 - i) * 60000L, i % 7 == 0 ? 2 : 0);
+		}
+		UsageMonitor monitor = new UsageMonitor(handle);
+		monitor.watch("users");
+		monitor.watch("missing");
+		monitor.poll();
+
+		UsageHistory history = monitor.getHistory("users");
+		assertEquals(150, history.size());
+		assertEquals(2, history.getReadThrottles(7));
+		assertEquals(100, monitor.getLimits("users").getReadUnits());
+		assertNull(monitor.getError("users"));
+		assertTrue(monitor.getError("missing") instanceof TableNotFoundException);
+
+		handle.add(now, 0);
+		monitor.poll();
+		assertEquals(151, history.size());
+		// only the records after the latest one are asked for; the round
+		// started by watch may poll too, so look for the start among all
+		assertTrue(handle.starts.contains(now - 60000L + 1));
+
+		monitor.unwatch("users");
+		monitor.unwatch("missing");
+		assertTrue(monitor.getWatched().isEmpty());
+	}
+
+	/**
+	 * Reports a usage record per minute for every table.
+	 */
+	private static class UsageHandle extends InMemoryHandle {
+		final List<TableUsageResult.TableUsage> usage =
+				new ArrayList<TableUsageResult.TableUsage>();
+		final List<Long> starts = new ArrayList<Long>();
+
+		void add(long start, int throttles) {
+			TableUsageResult.TableUsage u = new TableUsageResult.TableUsage();
+			u.startTimeMillis = start;
+			u.secondsInPeriod = 60;
+			u.readUnits = 600;
+			u.writeUnits = 60;
+			u.readThrottleCount = throttles;
+			usage.add(u);
+		}
+
+		@Override
+		public synchronized TableUsageResult getTableUsage(TableUsageRequest request) {
+			super.getTableUsage(request);
+			starts.add(request.getStartTime());
+			List<TableUsageResult.TableUsage> page =
+					new ArrayList<TableUsageResult.TableUsage>();
+			for (TableUsageResult.TableUsage u : usage) {
+				if (u.startTimeMillis >= request.getStartTime()
+						&& page.size() < request.getLimit()) {
+					page.add(u);
+				}
+			}
+			return new TableUsageResult().setUsageRecords(
+					page.toArray(new TableUsageResult.TableUsage[0]));
+		}
+	}
+}
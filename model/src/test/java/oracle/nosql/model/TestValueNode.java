@@ -0,0 +1,99 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.table.ui.ValueNode;
+
+public class TestValueNode {
+
+	private static MapValue document(int items) {
+		ArrayValue array = new ArrayValue();
+		for (int i = 0; i < items; i++) {
+			array.add(new MapValue().put("id", i).put("name", "item " + i));
+		}
+		return new MapValue().put("title", "big").put("items", array);
+	}
+
+	private static ValueNode child(ValueNode node, String name) {
+		for (int i = 0; i < node.getChildCount(); i++) {
+			if (node.getChild(i).getName().equals(name)) {
+				return node.getChild(i);
+			}
+		}
+		throw new AssertionError("no child " + name);
+	}
+
+	@Test
+	public void largeArraysArePagedInPagesOfPages() {
+		ValueNode root = new ValueNode("doc", document(25000));
+		assertEquals("doc : {2 fields}", root.getLabel());
+		ValueNode items = child(root, "items");
+		assertEquals("items : [25000 items]", items.getLabel());
+		// 250 pages of 100 would be too many children, so pages of 10000
+		assertEquals(3, items.getChildCount());
+		ValueNode last = items.getChild(2);
+		assertTrue(last.isPage());
+		assertEquals("[20000..24999]", last.getName());
+		assertEquals(50, last.getChildCount());
+		ValueNode item = last.getChild(1).getChild(5);
+		assertEquals("[20105]", item.getName());
+		assertEquals("doc.items[20105]", item.getPath());
+		assertEquals("name : \"item 20105\"", child(item, "name").getLabel());
+		assertTrue(child(item, "id").isLeaf());
+		assertSame(item, items.getChild(2).getChild(1).getChild(5));
+	}
+
+	@Test
+	public void pathsAreFoundWithRoutesToTheirNodes() {
+		ValueNode root = new ValueNode("doc", document(25000));
+		List<ValueNode.Match> matches = root.find("items[20105]", 10);
+		assertEquals(1, matches.size());
+		ValueNode.Match match = matches.get(0);
+		assertEquals("doc.items[20105]", match.getPath());
+		int items = root.getIndex(child(root, "items"));
+		assertArrayEquals(new int[] { items, 2, 1, 5 }, match.getRoute());
+		assertEquals("doc.items[20105]", root.getNode(match.getRoute()).getPath());
+
+		// descendants of a match do not match for the ancestor's segment
+		assertEquals(1, root.find("items", 10).size());
+		matches = root.find(".name", 3);
+		assertEquals(3, matches.size());
+		assertEquals("doc.items[2].name", matches.get(2).getPath());
+		assertEquals("name : \"item 2\"",
+				root.getNode(matches.get(2).getRoute()).getLabel());
+	}
+
+	@Test
+	public void entriesOfAShortLastPageAreFound() {
+		// 101 pages of 100, the last of which holds 50 entries
+		MapValue map = new MapValue(true, 10050);
+		for (int i = 0; i < 10050; i++) {
+			map.put("k" + i, i);
+		}
+		ValueNode root = new ValueNode("doc", map);
+		List<ValueNode.Match> matches = root.find("k10049", 10);
+		assertEquals(1, matches.size());
+		assertArrayEquals(new int[] { 1, 49 }, matches.get(0).getRoute());
+		assertEquals("k10049 : 10049",
+				root.getNode(matches.get(0).getRoute()).getLabel());
+		matches = root.find("k9999", 10);
+		assertArrayEquals(new int[] { 0, 99, 99 }, matches.get(0).getRoute());
+		assertEquals("doc.k9999", root.getNode(matches.get(0).getRoute()).getPath());
+	}
+}
@@ -0,0 +1,877 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.model.fake;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import oracle.nosql.driver.IndexNotFoundException;
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.OperationThrottlingException;
+import oracle.nosql.driver.ReadThrottlingException;
+import oracle.nosql.driver.StatsControl;
+import oracle.nosql.driver.TableExistsException;
+import oracle.nosql.driver.TableNotFoundException;
+import oracle.nosql.driver.UserInfo;
+import oracle.nosql.driver.Version;
+import oracle.nosql.driver.WriteThrottlingException;
+import oracle.nosql.driver.ops.AddReplicaRequest;
+import oracle.nosql.driver.ops.DeleteRequest;
+import oracle.nosql.driver.ops.DeleteResult;
+import oracle.nosql.driver.ops.DropReplicaRequest;
+import oracle.nosql.driver.ops.GetIndexesRequest;
+import oracle.nosql.driver.ops.GetIndexesResult;
+import oracle.nosql.driver.ops.GetRequest;
+import oracle.nosql.driver.ops.GetResult;
+import oracle.nosql.driver.ops.GetTableRequest;
+import oracle.nosql.driver.ops.ListTablesRequest;
+import oracle.nosql.driver.ops.ListTablesResult;
+import oracle.nosql.driver.ops.MultiDeleteRequest;
+import oracle.nosql.driver.ops.MultiDeleteResult;
+import oracle.nosql.driver.ops.PrepareRequest;
+import oracle.nosql.driver.ops.PrepareResult;
+import oracle.nosql.driver.ops.PutRequest;
+import oracle.nosql.driver.ops.PutResult;
+import oracle.nosql.driver.ops.QueryIterableResult;
+import oracle.nosql.driver.ops.QueryRequest;
+import oracle.nosql.driver.ops.QueryResult;
+import oracle.nosql.driver.ops.ReplicaStatsRequest;
+import oracle.nosql.driver.ops.ReplicaStatsResult;
+import oracle.nosql.driver.ops.Request;
+import oracle.nosql.driver.ops.SystemRequest;
+import oracle.nosql.driver.ops.SystemResult;
+import oracle.nosql.driver.ops.SystemStatusRequest;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.driver.ops.TableRequest;
+import oracle.nosql.driver.ops.TableResult;
+import oracle.nosql.driver.ops.TableUsageRequest;
+import oracle.nosql.driver.ops.TableUsageResult;
+import oracle.nosql.driver.ops.WriteMultipleRequest;
+import oracle.nosql.driver.ops.WriteMultipleResult;
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.BinaryValue;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.driver.values.StringValue;
+import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.cloud.connection.CloudConnectionProfile;
+
+/**
+ * A database held in memory behind the driver API, for tests and benchmarks
+ * that must not depend on a cloud service, the cloud simulator or a store.
+ * <br>
+ * Rows of a table are kept in a map sorted by primary key. DDL supports
+ * creating, altering and dropping tables and indexes; the tables are active
+ * as soon as a statement returns. Queries are limited to
+ * <code>SELECT * FROM table [alias] [WHERE cond AND ...] [ORDER BY ...]
+ * [LIMIT n]</code> where a condition compares a top-level field with a
+ * literal. Rows are always returned in primary key order, in batches of
+ * the request limit, with a continuation key between batches as the
+ * driver does.
+ * <br>
+ * Every request can be slowed down by a fixed latency, and the next
+ * requests can be made to fail with throttling exceptions.
+ */
+public class InMemoryHandle implements NoSQLHandle {
+    /** rows returned by a query batch when the request sets no limit */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "(?is)^\\s*CREATE\\s+TABLE\\s+(IF\\s+NOT\\s+EXISTS\\s+)?([\\w.:]+)\\s*\\((.*)\\)[^)]*$");
+    private static final Pattern DROP_TABLE = Pattern.compile(
+            "(?is)^\\s*DROP\\s+TABLE\\s+(IF\\s+EXISTS\\s+)?([\\w.:]+)\\s*$");
+    private static final Pattern ALTER_TABLE = Pattern.compile(
+            "(?is)^\\s*ALTER\\s+TABLE\\s+([\\w.:]+)\\s*\\((.*)\\)\\s*$");
+    private static final Pattern FREEZE = Pattern.compile(
+            "(?is)^\\s*ALTER\\s+TABLE\\s+([\\w.:]+)\\s+(UN)?FREEZE.*$");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?is)^\\s*CREATE\\s+INDEX\\s+(IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)\\s+ON\\s+([\\w.:]+)\\s*\\((.*)\\)\\s*$");
+    private static final Pattern DROP_INDEX = Pattern.compile(
+            "(?is)^\\s*DROP\\s+INDEX\\s+(IF\\s+EXISTS\\s+)?(\\w+)\\s+ON\\s+([\\w.:]+)\\s*$");
+    private static final Pattern PRIMARY_KEY = Pattern.compile(
+            "(?is)^PRIMARY\\s+KEY\\s*\\((.*)\\)$");
+    private static final Pattern SHARD = Pattern.compile(
+            "(?is)^SHARD\\s*\\((.*)\\)$");
+    private static final Pattern SELECT = Pattern.compile(
+            "(?is)^\\s*SELECT\\s+\\*\\s+FROM\\s+([\\w.:]+)(?:\\s+(?:AS\\s+)?(?!WHERE\\b|ORDER\\b|LIMIT\\b)(\\w+))?"
+            + "(?:\\s+WHERE\\s+(.*?))?(?:\\s+ORDER\\s+BY\\s+.*?)?(?:\\s+LIMIT\\s+(\\d+))?\\s*$");
+    private static final Pattern CONDITION = Pattern.compile(
+            "(?s)^\\s*(?:\\w+\\.)?(\\w+)\\s*(=|!=|<>|<=|>=|<|>)\\s*(.+?)\\s*$");
+
+    private final Map<String, TableData> tables =
+            new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long latencyMillis;
+    private int throttleNext;
+
+    /**
+     * Creates a connection of the model over this handle.
+     *
+     * @return a connection whose requests are served by this handle.
+     */
+    public CloudConnection connect() {
+        CloudConnectionProfile profile = new CloudConnectionProfile();
+        profile.setName("in-memory");
+        return new CloudConnection(profile, this);
+    }
+
+    /**
+     * Delays every following request.
+     *
+     * @param millis delay of each request in milliseconds
+     */
+    public void setLatencyMillis(long millis) {
+        this.latencyMillis = millis;
+    }
+
+    /**
+     * Fails the next requests with a throttling exception, as the service
+     * does when a table exceeds its provisioned throughput.
+     *
+     * @param count number of requests to fail
+     */
+    public synchronized void throttleNext(int count) {
+        this.throttleNext = count;
+    }
+
+    /**
+     * @return number of requests received, including the throttled ones.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @param tableName name of a table
+     * @return number of rows of the table
+     */
+    public synchronized int size(String tableName) {
+        return table(tableName).rows.size();
+    }
+
+    @Override
+    public synchronized GetResult get(GetRequest request) {
+        TableData table = begin(request, false);
+        Row row = table.rows.get(table.keyOf(request.getKey()));
+        GetResult result = new GetResult();
+        if (row != null) {
+            result.setValue(table.typed(copy(row.value)));
+            result.setVersion(row.version);
+            result.setReadKB(sizeKB(row.value));
+            result.setReadUnits(sizeKB(row.value));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized PutResult put(PutRequest request) {
+        TableData table = begin(request, true);
+        PutResult result = new PutResult();
+        result.setVersion(doPut(table, request));
+        result.setWriteKB(sizeKB(request.getValue()));
+        return result;
+    }
+
+    @Override
+    public synchronized DeleteResult delete(DeleteRequest request) {
+        TableData table = begin(request, true);
+        DeleteResult result = new DeleteResult();
+        result.setSuccess(doDelete(table, request));
+        return result;
+    }
+
+    /**
+     * Applies all operations or, when an operation that must succeed fails,
+     * none of them.
+     */
+    @Override
+    public synchronized WriteMultipleResult writeMultiple(
+            WriteMultipleRequest request) {
+        begin(request, true);
+        Map<String, TableData> before = snapshot();
+        WriteMultipleResult result = new WriteMultipleResult();
+        List<WriteMultipleRequest.OperationRequest> ops = request.getOperations();
+        for (int i = 0; i < ops.size(); i++) {
+            Request op = ops.get(i).getRequest();
+            TableData table = table(op.getTableName());
+            WriteMultipleResult.OperationResult r =
+                    new WriteMultipleResult.OperationResult();
+            if (op instanceof PutRequest) {
+                Version version = doPut(table, (PutRequest) op);
+                r.setSuccess(version != null).setVersion(version);
+            } else {
+                r.setSuccess(doDelete(table, (DeleteRequest) op));
+            }
+            if (!r.getSuccess() && ops.get(i).isAbortIfUnsuccessful()) {
+                tables.clear();
+                tables.putAll(before);
+                WriteMultipleResult aborted = new WriteMultipleResult();
+                aborted.setFailedOperationIndex(i);
+                aborted.addResult(r);
+                return aborted;
+            }
+            result.addResult(r);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized QueryResult query(QueryRequest request) {
+        begin(request, false);
+        Matcher m = SELECT.matcher(request.getStatement());
+        if (!m.matches()) {
+            throw new IllegalArgumentException(
+                    "unsupported query " + request.getStatement());
+        }
+        TableData table = table(m.group(1));
+        List<Condition> conditions = conditions(m.group(3));
+        int limit = m.group(4) == null ? Integer.MAX_VALUE
+                : Integer.parseInt(m.group(4));
+        int batchSize = request.getLimit() > 0 ? request.getLimit()
+                : DEFAULT_BATCH_SIZE;
+
+        // the continuation key holds the last key returned and the count
+        NavigableMap<List<FieldValue>, Row> rows = table.rows;
+        int returned = 0;
+        if (request.getContKey() != null) {
+            MapValue cont = FieldValue.createFromJson(new String(
+                    request.getContKey(), StandardCharsets.UTF_8), null).asMap();
+            rows = rows.tailMap(table.keyOf(cont.get("key").asMap()), false);
+            returned = cont.getInt("returned");
+        }
+        List<MapValue> batch = new ArrayList<>();
+        List<FieldValue> last = null;
+        int readKB = 0;
+        Iterator<Map.Entry<List<FieldValue>, Row>> it = rows.entrySet().iterator();
+        while (it.hasNext() && returned < limit && batch.size() < batchSize) {
+            Map.Entry<List<FieldValue>, Row> e = it.next();
+            readKB += sizeKB(e.getValue().value);
+            if (matches(e.getValue().value, conditions)) {
+                batch.add(table.typed(copy(e.getValue().value)));
+                returned++;
+            }
+            last = e.getKey();
+        }
+        byte[] contKey = null;
+        if (it.hasNext() && returned < limit) {
+            MapValue cont = new MapValue()
+                    .put("key", table.keyValue(last))
+                    .put("returned", returned);
+            contKey = cont.toJson().getBytes(StandardCharsets.UTF_8);
+        }
+        request.setContKey(contKey);
+        QueryResult result = new QueryResult(request);
+        result.setResults(batch);
+        result.setContinuationKey(contKey);
+        result.setReadKB(readKB);
+        result.setReadUnits(readKB);
+        return result;
+    }
+
+    @Override
+    public synchronized TableResult tableRequest(TableRequest request) {
+        begin(request, false);
+        String statement = request.getStatement();
+        if (statement == null) {
+            TableData table = table(request.getTableName());
+            table.limits = request.getTableLimits();
+            return result(table, TableResult.State.ACTIVE);
+        }
+        TableResult result = ddl(statement);
+        if (request.getTableLimits() != null) {
+            tables.get(result.getTableName()).limits = request.getTableLimits();
+            result.setTableLimits(request.getTableLimits());
+        }
+        return result;
+    }
+
+    @Override
+    public TableResult doTableRequest(TableRequest request, int timeoutMs,
+            int pollIntervalMs) {
+        return tableRequest(request);
+    }
+
+    @Override
+    public synchronized TableResult getTable(GetTableRequest request) {
+        begin(request, false);
+        return result(table(request.getTableName()), TableResult.State.ACTIVE);
+    }
+
+    @Override
+    public synchronized ListTablesResult listTables(ListTablesRequest request) {
+        begin(request, false);
+        List<String> names = new ArrayList<>();
+        for (TableData table : tables.values()) {
+            names.add(table.name);
+        }
+        int start = Math.min(request.getStartIndex(), names.size());
+        int end = request.getLimit() > 0
+                ? Math.min(start + request.getLimit(), names.size())
+                : names.size();
+        ListTablesResult result = new ListTablesResult();
+        result.setTables(names.subList(start, end).toArray(new String[0]));
+        result.setLastIndexReturned(end);
+        return result;
+    }
+
+    @Override
+    public synchronized GetIndexesResult getIndexes(GetIndexesRequest request) {
+        begin(request, false);
+        TableData table = table(request.getTableName());
+        List<GetIndexesResult.IndexInfo> infos = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : table.indexes.entrySet()) {
+            if (request.getIndexName() == null
+                    || request.getIndexName().equalsIgnoreCase(e.getKey())) {
+                String[] fields = e.getValue().toArray(new String[0]);
+                infos.add(new GetIndexesResult.IndexInfo(e.getKey(), fields,
+                        new String[fields.length]));
+            }
+        }
+        if (request.getIndexName() != null && infos.isEmpty()) {
+            throw new IndexNotFoundException("Index not found: "
+                    + request.getIndexName());
+        }
+        GetIndexesResult result = new GetIndexesResult();
+        result.setIndexes(infos.toArray(new GetIndexesResult.IndexInfo[0]));
+        return result;
+    }
+
+    @Override
+    public synchronized TableUsageResult getTableUsage(
+            TableUsageRequest request) {
+        begin(request, false);
+        table(request.getTableName());
+        return new TableUsageResult();
+    }
+
+    @Override
+    public String[] listNamespaces() {
+        return new String[0];
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public MultiDeleteResult multiDelete(MultiDeleteRequest request) {
+        throw unsupported("multiDelete");
+    }
+
+    @Override
+    public QueryIterableResult queryIterable(QueryRequest request) {
+        throw unsupported("queryIterable");
+    }
+
+    @Override
+    public PrepareResult prepare(PrepareRequest request) {
+        throw unsupported("prepare");
+    }
+
+    @Override
+    public SystemResult systemRequest(SystemRequest request) {
+        throw unsupported("systemRequest");
+    }
+
+    @Override
+    public SystemResult systemStatus(SystemStatusRequest request) {
+        throw unsupported("systemStatus");
+    }
+
+    @Override
+    public String[] listRoles() {
+        throw unsupported("listRoles");
+    }
+
+    @Override
+    public UserInfo[] listUsers() {
+        throw unsupported("listUsers");
+    }
+
+    @Override
+    public SystemResult doSystemRequest(String statement, int timeoutMs,
+            int pollIntervalMs) {
+        throw unsupported("doSystemRequest");
+    }
+
+    @Override
+    public TableResult addReplica(AddReplicaRequest request) {
+        throw unsupported("addReplica");
+    }
+
+    @Override
+    public TableResult dropReplica(DropReplicaRequest request) {
+        throw unsupported("dropReplica");
+    }
+
+    @Override
+    public ReplicaStatsResult getReplicaStats(ReplicaStatsRequest request) {
+        throw unsupported("getReplicaStats");
+    }
+
+    @Override
+    public StatsControl getStatsControl() {
+        throw unsupported("getStatsControl");
+    }
+
+    private static UnsupportedOperationException unsupported(String method) {
+        return new UnsupportedOperationException(
+                method + " is not supported by the in-memory handle");
+    }
+
+    /**
+     * Counts, delays and possibly throttles a request. Called with the lock
+     * held.
+     *
+     * @return the table of the request if it names one.
+     */
+    private TableData begin(Request request, boolean write) {
+        requests.incrementAndGet();
+        // waits without holding the lock, so concurrent requests overlap
+        long until = System.currentTimeMillis() + latencyMillis;
+        for (long left = latencyMillis; left > 0;
+                left = until - System.currentTimeMillis()) {
+            try {
+                wait(left);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (throttleNext > 0) {
+            throttleNext--;
+            if (request instanceof TableRequest) {
+                throw new OperationThrottlingException("throttled DDL");
+            }
+            throw write ? new WriteThrottlingException("throttled write")
+                    : new ReadThrottlingException("throttled read");
+        }
+        String name = request.getTableName();
+        return name == null || request instanceof TableRequest
+                ? null : table(name);
+    }
+
+    private TableData table(String name) {
+        TableData table = name == null ? null : tables.get(name);
+        if (table == null) {
+            throw new TableNotFoundException("Table not found: " + name);
+        }
+        return table;
+    }
+
+    private Version doPut(TableData table, PutRequest request) {
+        MapValue value = request.getValue();
+        List<FieldValue> key = table.keyOf(value);
+        Row existing = table.rows.get(key);
+        PutRequest.Option option = request.getOption();
+        if ((option == PutRequest.Option.IfAbsent && existing != null)
+                || (option == PutRequest.Option.IfPresent && existing == null)) {
+            return null;
+        }
+        if (request.getMatchVersion() != null && (existing == null
+                || !existing.version.equals(request.getMatchVersion()))) {
+            return null;
+        }
+        Row row = new Row(copy(value), nextVersion());
+        table.rows.put(key, row);
+        return row.version;
+    }
+
+    private boolean doDelete(TableData table, DeleteRequest request) {
+        List<FieldValue> key = table.keyOf(request.getKey());
+        Row existing = table.rows.get(key);
+        if (existing == null || (request.getMatchVersion() != null
+                && !existing.version.equals(request.getMatchVersion()))) {
+            return false;
+        }
+        table.rows.remove(key);
+        return true;
+    }
+
+    private Version nextVersion() {
+        return Version.createVersion(ByteBuffer.allocate(Long.BYTES)
+                .putLong(versions.incrementAndGet()).array());
+    }
+
+    private Map<String, TableData> snapshot() {
+        Map<String, TableData> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, TableData> e : tables.entrySet()) {
+            copy.put(e.getKey(), e.getValue().copy());
+        }
+        return copy;
+    }
+
+    private TableResult ddl(String statement) {
+        Matcher m;
+        if ((m = CREATE_TABLE.matcher(statement)).matches()) {
+            String name = m.group(2);
+            if (tables.containsKey(name)) {
+                if (m.group(1) == null) {
+                    throw new TableExistsException("Table exists: " + name);
+                }
+                return result(tables.get(name), TableResult.State.ACTIVE);
+            }
+            TableData table = new TableData(name);
+            for (String def : split(m.group(3))) {
+                Matcher pk = PRIMARY_KEY.matcher(def);
+                if (pk.matches()) {
+                    for (String part : split(pk.group(1))) {
+                        Matcher shard = SHARD.matcher(part);
+                        if (shard.matches()) {
+                            for (String f : split(shard.group(1))) {
+                                table.primaryKey.add(f);
+                                table.shardKey.add(f);
+                            }
+                        } else {
+                            table.primaryKey.add(part);
+                        }
+                    }
+                } else {
+                    table.addField(def);
+                }
+            }
+            if (table.primaryKey.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "table " + name + " has no primary key");
+            }
+            table.ddl = statement.trim();
+            tables.put(name, table);
+            return result(table, TableResult.State.ACTIVE);
+        }
+        if ((m = DROP_TABLE.matcher(statement)).matches()) {
+            TableData table = tables.remove(m.group(2));
+            if (table == null) {
+                if (m.group(1) == null) {
+                    throw new TableNotFoundException(
+                            "Table not found: " + m.group(2));
+                }
+                return new TableResult().setTableName(m.group(2))
+                        .setState(TableResult.State.DROPPED);
+            }
+            return result(table, TableResult.State.DROPPED);
+        }
+        if ((m = FREEZE.matcher(statement)).matches()) {
+            return result(table(m.group(1)), TableResult.State.ACTIVE);
+        }
+        if ((m = ALTER_TABLE.matcher(statement)).matches()) {
+            TableData table = table(m.group(1));
+            for (String change : split(m.group(2))) {
+                String[] words = change.split("\\s+", 2);
+                if (words[0].equalsIgnoreCase("ADD")) {
+                    table.addField(words[1]);
+                } else if (words[0].equalsIgnoreCase("DROP")) {
+                    if (table.primaryKey.contains(words[1])) {
+                        throw new IllegalArgumentException(
+                                "can not drop primary key field " + words[1]);
+                    }
+                    table.fields.remove(words[1]);
+                    for (Row row : table.rows.values()) {
+                        row.value.remove(words[1]);
+                    }
+                } else {
+                    throw new IllegalArgumentException(
+                            "unsupported statement " + statement);
+                }
+            }
+            return result(table, TableResult.State.ACTIVE);
+        }
+        if ((m = CREATE_INDEX.matcher(statement)).matches()) {
+            TableData table = table(m.group(3));
+            if (table.indexes.containsKey(m.group(2)) && m.group(1) == null) {
+                throw new IllegalArgumentException(
+                        "Index exists: " + m.group(2));
+            }
+            table.indexes.putIfAbsent(m.group(2), split(m.group(4)));
+            return result(table, TableResult.State.ACTIVE);
+        }
+        if ((m = DROP_INDEX.matcher(statement)).matches()) {
+            TableData table = table(m.group(3));
+            if (table.indexes.remove(m.group(2)) == null && m.group(1) == null) {
+                throw new IndexNotFoundException(
+                        "Index not found: " + m.group(2));
+            }
+            return result(table, TableResult.State.ACTIVE);
+        }
+        throw new IllegalArgumentException("unsupported statement " + statement);
+    }
+
+    private TableResult result(TableData table, TableResult.State state) {
+        return new TableResult()
+                .setTableName(table.name)
+                .setOperationId(String.valueOf(operations.incrementAndGet()))
+                .setState(state)
+                .setSchema(table.schema())
+                .setDdl(table.ddl)
+                .setTableLimits(table.limits);
+    }
+
+    /**
+     * Splits a list on the commas outside parentheses.
+     */
+    private static List<String> split(String list) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < list.length(); i++) {
+            char c = list.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(list.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        String last = list.substring(start).trim();
+        if (!last.isEmpty()) {
+            parts.add(last);
+        }
+        return parts;
+    }
+
+    private static List<Condition> conditions(String where) {
+        List<Condition> conditions = new ArrayList<>();
+        if (where == null) {
+            return conditions;
+        }
+        for (String part : where.split("(?i)\\s+AND\\s+")) {
+            Matcher m = CONDITION.matcher(part);
+            if (!m.matches()) {
+                throw new IllegalArgumentException(
+                        "unsupported condition " + part);
+            }
+            conditions.add(new Condition(m.group(1), m.group(2),
+                    literal(m.group(3))));
+        }
+        return conditions;
+    }
+
+    private static FieldValue literal(String text) {
+        if (text.length() > 1 && (text.startsWith("'") || text.startsWith("\""))) {
+            return new StringValue(text.substring(1, text.length() - 1));
+        }
+        return FieldValue.createFromJson(text, null);
+    }
+
+    private static boolean matches(MapValue row, List<Condition> conditions) {
+        for (Condition c : conditions) {
+            FieldValue value = row.get(c.field);
+            if (value == null || value.isNull() || value.isJsonNull()) {
+                return false;
+            }
+            int cmp;
+            try {
+                cmp = compare(value, c.literal);
+            } catch (ClassCastException | IllegalArgumentException ex) {
+                return false;
+            }
+            boolean ok;
+            switch (c.op) {
+            case "=":
+                ok = cmp == 0;
+                break;
+            case "!=":
+            case "<>":
+                ok = cmp != 0;
+                break;
+            case "<":
+                ok = cmp < 0;
+                break;
+            case "<=":
+                ok = cmp <= 0;
+                break;
+            case ">":
+                ok = cmp > 0;
+                break;
+            default:
+                ok = cmp >= 0;
+            }
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(FieldValue a, FieldValue b) {
+        if (a.isNumeric() && b.isNumeric()) {
+            return a.getNumber().compareTo(b.getNumber());
+        }
+        return a.compareTo(b);
+    }
+
+    private static MapValue copy(MapValue value) {
+        return FieldValue.createFromJson(value.toJson(), null).asMap();
+    }
+
+    private static int sizeKB(MapValue value) {
+        return value == null ? 0 : value.toJson().length() / 1024 + 1;
+    }
+
+    private static class Condition {
+        final String field;
+        final String op;
+        final FieldValue literal;
+
+        Condition(String field, String op, FieldValue literal) {
+            this.field = field;
+            this.op = op;
+            this.literal = literal;
+        }
+    }
+
+    private static class Row {
+        final MapValue value;
+        final Version version;
+
+        Row(MapValue value, Version version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private static class TableData {
+        final String name;
+        final Map<String, String> fields = new LinkedHashMap<>();
+        final List<String> primaryKey = new ArrayList<>();
+        final List<String> shardKey = new ArrayList<>();
+        final Map<String, List<String>> indexes = new LinkedHashMap<>();
+        final TreeMap<List<FieldValue>, Row> rows =
+                new TreeMap<>(TableData::compareKeys);
+        String ddl;
+        TableLimits limits;
+
+        TableData(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a field from its definition, e.g. <code>age INTEGER</code>.
+         */
+        void addField(String definition) {
+            String[] words = definition.trim().split("\\s+", 2);
+            if (words.length < 2) {
+                throw new IllegalArgumentException(
+                        "field " + definition + " has no type");
+            }
+            String type = words[1].split("[\\s(]", 2)[0].toUpperCase(Locale.ROOT);
+            fields.put(words[0], type);
+        }
+
+        /**
+         * Gives binary fields of a copy back the type JSON loses.
+         */
+        MapValue typed(MapValue value) {
+            for (Map.Entry<String, String> e : fields.entrySet()) {
+                FieldValue v = value.get(e.getKey());
+                if (e.getValue().equals("BINARY") && v != null
+                        && v.getType() == FieldValue.Type.STRING) {
+                    value.put(e.getKey(), new BinaryValue(
+                            BinaryValue.decodeBase64(v.getString())));
+                }
+            }
+            return value;
+        }
+
+        List<FieldValue> keyOf(MapValue value) {
+            List<FieldValue> key = new ArrayList<>();
+            for (String f : primaryKey) {
+                FieldValue v = value == null ? null : value.get(f);
+                if (v == null) {
+                    throw new IllegalArgumentException(
+                            "primary key field " + f + " is missing");
+                }
+                key.add(v);
+            }
+            return key;
+        }
+
+        MapValue keyValue(List<FieldValue> key) {
+            MapValue value = new MapValue();
+            for (int i = 0; i < primaryKey.size(); i++) {
+                value.put(primaryKey.get(i), key.get(i));
+            }
+            return value;
+        }
+
+        static int compareKeys(List<FieldValue> a, List<FieldValue> b) {
+            for (int i = 0; i < a.size(); i++) {
+                int cmp = compare(a.get(i), b.get(i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Describes the table in the JSON format of the service.
+         */
+        String schema() {
+            ArrayValue fieldArray = new ArrayValue();
+            for (Map.Entry<String, String> e : fields.entrySet()) {
+                fieldArray.add(new MapValue()
+                        .put("name", e.getKey())
+                        .put("type", e.getValue())
+                        .put("nullable", !primaryKey.contains(e.getKey())));
+            }
+            ArrayValue indexArray = new ArrayValue();
+            for (Map.Entry<String, List<String>> e : indexes.entrySet()) {
+                indexArray.add(new MapValue()
+                        .put("name", e.getKey())
+                        .put("fields", strings(e.getValue())));
+            }
+            MapValue schema = new MapValue()
+                    .put("json_version", 1)
+                    .put("type", "table")
+                    .put("name", name)
+                    .put("fields", fieldArray)
+                    .put("primaryKey", strings(primaryKey))
+                    .put("shardKey", strings(shardKey.isEmpty()
+                            ? primaryKey : shardKey));
+            if (!indexes.isEmpty()) {
+                schema.put("indexes", indexArray);
+            }
+            return schema.toJson();
+        }
+
+        TableData copy() {
+            TableData copy = new TableData(name);
+            copy.fields.putAll(fields);
+            copy.primaryKey.addAll(primaryKey);
+            copy.shardKey.addAll(shardKey);
+            copy.indexes.putAll(indexes);
+            copy.rows.putAll(rows);
+            copy.ddl = ddl;
+            copy.limits = limits;
+            return copy;
+        }
+
+        private static ArrayValue strings(List<String> values) {
+            ArrayValue array = new ArrayValue();
+            for (String v : values) {
+                array.add(v);
+            }
+            return array;
+        }
+    }
+}
@@ -38,6 +38,17 @@ import java.util.HashMap;
 public class ConnectionDataProviderService implements Serializable,PersistentStateComponent<ConnectionDataProviderService.State> {
     public static final String KEY_PROFILE_TYPE = "/profile_type";
     public static final String KEY_SHOW_TABLE_PAGE_SIZE = "/show_table/page_size";
+    /**
+     * Predicted read units of a query above which a full scan must be
+     * confirmed before it runs. 0 disables the confirmation.
+     */
+    public static final String KEY_FULL_SCAN_THRESHOLD = "/query/full_scan_threshold_ru";
+    public static final String DEFAULT_FULL_SCAN_THRESHOLD = "100000";
+    /**
+     * "true" if table views show the kept rows of a query run again instead
+     * of reading the table, until the table is written.
+     */
+    public static final String KEY_RESULT_CACHE = "/query/result_cache";
 
 
     public static String getKeyForProperty(IConnectionProfileType profileType, ConfigurableProperty property) {
@@ -0,0 +1,33 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.common;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.ProjectActivity;
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Starts the {@link ConnectionWarmUpService warm-up} of the active connection
+ * when a project is opened.
+ */
+public class ConnectionWarmUpActivity implements ProjectActivity, DumbAware {
+    /**
+     * The suspending {@code execute} of {@link ProjectActivity}. It does not
+     * suspend, the warm-up runs on a pooled thread.
+     */
+    @Nullable
+    @Override
+    public Object execute(@NotNull Project project, @NotNull Continuation<? super Unit> continuation) {
+        ConnectionWarmUpService.getInstance(project).warmUpInBackground();
+        return Unit.INSTANCE;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.common;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import oracle.nosql.model.cloud.connection.CloudConnection;
+import oracle.nosql.model.connection.IConnection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the active connection in the background: builds its handle,
+ * obtains the authorization and opens the transport with a cheap request, so
+ * that the first user action runs at steady-state latency. The authorization
+ * is then renewed on a timer ahead of expiry.
+ * <p>
+ * The duration of each phase of a warm-up is logged for diagnosis.
+ */
+public class ConnectionWarmUpService implements Disposable {
+    private static final Logger LOG = Logger.getInstance(ConnectionWarmUpService.class);
+
+    /** Request signatures are valid for five minutes, renew well before. */
+    private static final long REFRESH_INTERVAL_MINUTES = 4;
+
+    private final Project project;
+    private ScheduledFuture<?> refresher;
+    private volatile String warmedUid;
+
+    private ConnectionWarmUpService(Project project) {
+        this.project = project;
+        project.getMessageBus().connect(this).subscribe(ConnectionManagerListener.TOPIC,
+                (ConnectionManagerListener) this::warmUpInBackground);
+    }
+
+    public static ConnectionWarmUpService getInstance(@NotNull Project project) {
+        return project.getService(ConnectionWarmUpService.class);
+    }
+
+    /**
+     * Runs {@link #warmUp()} on a pooled thread.
+     */
+    public void warmUpInBackground() {
+        ApplicationManager.getApplication().executeOnPooledThread(this::warmUp);
+    }
+
+    /**
+     * Warms up the active connection. Must not be called on the event
+     * dispatch thread. Failures are logged and otherwise ignored; the first
+     * user action will report them as usual.
+     */
+    public void warmUp() {
+        DBProject dbProject = DBProject.getInstance(project);
+        String uid = dbProject.getActiveConnectionUid();
+        if (uid == null || project.isDisposed()) {
+            return;
+        }
+        StringBuilder phases = new StringBuilder();
+        try {
+            long start = System.nanoTime();
+            IConnection con = dbProject.getConnection(uid);
+            record(phases, "handle", start);
+            if (con instanceof CloudConnection) {
+                CloudConnection cloudConnection = (CloudConnection) con;
+                start = System.nanoTime();
+                cloudConnection.prefetchAuthorization();
+                record(phases, "authorization", start);
+                start = System.nanoTime();
+                cloudConnection.ping();
+                record(phases, "first request", start);
+            }
+            LOG.info("Warmed up NoSQL connection " + uid + ": " + phases);
+        } catch (Exception ex) {
+            LOG.info("Warm-up of NoSQL connection " + uid + " failed: " + ex.getMessage());
+            return;
+        }
+        scheduleRefresh(uid);
+    }
+
+    private static void record(StringBuilder phases, String phase, long startNanos) {
+        phases.append(phases.length() == 0 ? "" : ", ").append(phase).append(' ')
+                .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).append(" ms");
+    }
+
+    private synchronized void scheduleRefresh(String uid) {
+        warmedUid = uid;
+        if (refresher != null) {
+            return;
+        }
+        refresher = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::refreshAuthorization, REFRESH_INTERVAL_MINUTES, REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void refreshAuthorization() {
+        String uid = warmedUid;
+        if (uid == null || project.isDisposed()) {
+            return;
+        }
+        try {
+            IConnection con = DBProject.getInstance(project).getConnection(uid);
+            if (con instanceof CloudConnection) {
+                ((CloudConnection) con).prefetchAuthorization();
+            }
+        } catch (Exception ex) {
+            LOG.debug("Refreshing authorization of NoSQL connection " + uid + " failed", ex);
+        }
+    }
+
+    @Override
+    public synchronized void dispose() {
+        if (refresher != null) {
+            refresher.cancel(false);
+            refresher = null;
+        }
+    }
+}
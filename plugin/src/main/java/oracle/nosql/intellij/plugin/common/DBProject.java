@@ -11,17 +11,27 @@ import com.intellij.ide.plugins.IdeaPluginDescriptor;
 import com.intellij.ide.plugins.PluginManagerCore;
 import com.intellij.openapi.extensions.PluginId;
 import com.intellij.openapi.project.Project;
+import oracle.nosql.driver.NoSQLHandle;
 import oracle.nosql.model.connection.ConfigurableProperty;
 import oracle.nosql.model.connection.ConnectionFactory;
 import oracle.nosql.model.connection.IConnection;
 import oracle.nosql.model.connection.IConnectionProfile;
 import oracle.nosql.model.connection.IConnectionProfileType;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.FieldGroup;
+import oracle.nosql.model.schema.Schema;
+import oracle.nosql.model.schema.SchemaElement;
+import oracle.nosql.model.schema.Table;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 public class DBProject {
 
     private Project project;
+    private final Map<String, CachedConnection> connections = new HashMap<>();
     private static final String ID = OracleNoSqlBundle.message("oracle.nosql.plugin.Id");
 
     private static IdeaPluginDescriptor GetPluginDesc() {
@@ -37,14 +47,177 @@ public class DBProject {
         return project.getService(DBProject.class);
     }
 
+    /**
+     * Gets the connection selected as active in the connection settings.
+     */
     public IConnection getConnection() throws Exception {
+        String uid = getActiveConnectionUid();
+        if (uid != null) {
+            return getConnection(uid);
+        }
         return getConnectionProfile().getConnection();
     }
 
+    /**
+     * Gets the connection of given uid. Each configured connection keeps its
+     * own handle, created on first use and reused until the settings of that
+     * connection change; the handle replaced is then closed. Preferences kept
+     * with the settings, e.g. the page size, do not define the connection.
+     *
+     * @param uid uid of a connection in {@link MultipleConnectionsDataProviderService}
+     */
+    public IConnection getConnection(String uid) throws Exception {
+        MultipleConnectionsDataProviderService.State states =
+                Objects.requireNonNull(MultipleConnectionsDataProviderService.getInstance(project).getState());
+        ConnectionDataProviderService.State state = states.dict.get(uid);
+        if (state == null) {
+            throw new IllegalArgumentException("No connection exists with uid " + uid);
+        }
+        Map<String, String> settings = connectionSettings(state);
+        synchronized (connections) {
+            CachedConnection cached = connections.get(uid);
+            if (cached == null || !cached.settings.equals(settings)) {
+                CachedConnection replaced = cached;
+                cached = new CachedConnection(settings,
+                        getConnectionProfile(state).getConnection());
+                connections.put(uid, cached);
+                if (replaced != null) {
+                    close(replaced.connection);
+                }
+            }
+            return cached.connection;
+        }
+    }
+
+    /**
+     * Gets the settings that define a connection: its profile type and the
+     * properties of that type.
+     */
+    private static Map<String, String> connectionSettings(ConnectionDataProviderService.State state) {
+        String type = state.dict.get(ConnectionDataProviderService.KEY_PROFILE_TYPE);
+        Map<String, String> settings = new HashMap<>();
+        for (Map.Entry<String, String> e : state.dict.entrySet()) {
+            if (e.getKey().equals(ConnectionDataProviderService.KEY_PROFILE_TYPE) ||
+                    (type != null && e.getKey().startsWith("/" + type + "/"))) {
+                settings.put(e.getKey(), e.getValue());
+            }
+        }
+        return settings;
+    }
+
+    private static void close(IConnection connection) {
+        try {
+            connection.unwrap(NoSQLHandle.class).close();
+        } catch (RuntimeException ex) {
+            // the connection is dropped anyway
+        }
+    }
+
+    /**
+     * Gets the connections that have been opened so far.
+     *
+     * @return a snapshot of open connections by uid
+     */
+    public Map<String, IConnection> getOpenConnections() {
+        Map<String, IConnection> open = new HashMap<>();
+        synchronized (connections) {
+            for (Map.Entry<String, CachedConnection> e : connections.entrySet()) {
+                open.put(e.getKey(), e.getValue().connection);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Gets the connection from which the given table, column, index or schema
+     * was loaded. Falls back to the active connection for elements that were
+     * not loaded through the schema explorer.
+     */
+    public IConnection getConnection(SchemaElement<?> element) throws Exception {
+        String uid = getConnectionUid(element);
+        if (uid != null && Objects.requireNonNull(MultipleConnectionsDataProviderService.getInstance(project).getState()).dict.containsKey(uid)) {
+            return getConnection(uid);
+        }
+        return getConnection();
+    }
+
+    /**
+     * Gets the settings of the connection from which the given element was
+     * loaded, or of the active connection for detached elements.
+     */
+    public ConnectionDataProviderService.State getConnectionState(SchemaElement<?> element) {
+        String uid = getConnectionUid(element);
+        ConnectionDataProviderService.State state = uid == null ? null : MultipleConnectionsDataProviderService.getInstance(project).getValue(uid);
+        return state != null ? state : ConnectionDataProviderService.getInstance(project).getState();
+    }
+
+    /**
+     * Gets the profile type name i.e. Cloud, Onprem or Cloudsim of the
+     * connection from which the given element was loaded.
+     */
+    public String getConnectionType(SchemaElement<?> element) {
+        String uid = getConnectionUid(element);
+        String type = uid == null ? null : MultipleConnectionsDataProviderService.getInstance(project).getConType(uid);
+        if (type == null) {
+            type = ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_PROFILE_TYPE);
+        }
+        return type;
+    }
+
+    /**
+     * Gets the uid of the connection the given element belongs to. The
+     * schema explorer names the datamodel of each connection by its uid.
+     *
+     * @return uid of the connection or null if the element is detached
+     */
+    public static String getConnectionUid(SchemaElement<?> element) {
+        if (element instanceof Field) {
+            element = ((Field) element).getTable();
+        } else if (element instanceof FieldGroup) {
+            element = ((FieldGroup) element).getTable();
+        }
+        if (element instanceof Table) {
+            element = ((Table) element).getSchema();
+        }
+        if (element instanceof Schema && ((Schema) element).getDatastore() != null) {
+            return ((Schema) element).getDatastore().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the uid of the connection selected as active in the connection
+     * settings.
+     *
+     * @return uid of the active connection or null if none matches
+     */
+    public String getActiveConnectionUid() {
+        ConnectionDataProviderService.State active = ConnectionDataProviderService.getInstance(project).getState();
+        MultipleConnectionsDataProviderService.State states = MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (active == null || states == null) {
+            return null;
+        }
+        for (Map.Entry<String, ConnectionDataProviderService.State> e : states.dict.entrySet()) {
+            if (connectionSettings(active).equals(connectionSettings(e.getValue()))) {
+                return e.getKey();
+            }
+        }
+        return null;
+    }
+
     public IConnectionProfile<?>  getConnectionProfile() throws Exception {
+        return getConnectionProfile(ConnectionDataProviderService.getInstance(project).getState());
+    }
+
+    /**
+     * Creates a profile from the settings of a connection.
+     *
+     * @param state settings of a connection
+     */
+    public IConnectionProfile<?> getConnectionProfile(ConnectionDataProviderService.State state) throws Exception {
         IConnectionProfileType profileType =
                 ConnectionFactory.getProfileTypes()[0]; // default
-        String selectedProfileTypeAsString = ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_PROFILE_TYPE);
+        String selectedProfileTypeAsString = state.dict.get(ConnectionDataProviderService.KEY_PROFILE_TYPE);
         for (IConnectionProfileType pType : ConnectionFactory
                 .getProfileTypes()) {
             String pTypeValue = pType.getName();
@@ -58,7 +231,7 @@ public class DBProject {
                 "default");
         for (ConfigurableProperty property : profileType
                 .getRequiredProperties()) {
-            String perfPropertyValue = ConnectionDataProviderService.getInstance(project).getValue(
+            String perfPropertyValue = state.dict.get(
                     ConnectionDataProviderService.getKeyForProperty(profileType,property));
             if(perfPropertyValue == null ) {
                 perfPropertyValue = property.getDefaultValue();
@@ -67,7 +240,7 @@ public class DBProject {
         }
         for (ConfigurableProperty property : profileType
                 .getOptionalProperties()) {
-            String perfPropertyValue = ConnectionDataProviderService.getInstance(project).getValue(
+            String perfPropertyValue = state.dict.get(
                     ConnectionDataProviderService.getKeyForProperty(profileType,property));
             if(perfPropertyValue == null ) {
                 perfPropertyValue = property.getDefaultValue();
@@ -76,4 +249,14 @@ public class DBProject {
         }
         return profile;
     }
+
+    private static class CachedConnection {
+        private final Map<String, String> settings;
+        private final IConnection connection;
+
+        CachedConnection(Map<String, String> settings, IConnection connection) {
+            this.settings = settings;
+            this.connection = connection;
+        }
+    }
 }
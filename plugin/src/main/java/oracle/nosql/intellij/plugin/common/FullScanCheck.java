@@ -0,0 +1,142 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.common;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.query.QueryPlan;
+import oracle.nosql.model.query.QueryPlanAnalyzer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.JOptionPane;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Analyzes the plan of a query before it is executed. A full scan predicted
+ * to consume more read units than the configured threshold runs only if the
+ * user confirms it. Every place that executes a query typed or picked by the
+ * user goes through this check, e.g. the table view, a watch of its query or
+ * a statement run again from the log.
+ */
+public class FullScanCheck {
+    /** time after which the size of a table is estimated again */
+    public static final long SIZE_TTL_MILLIS = 10 * 60 * 1000;
+
+    private final Project project;
+    /* estimated sizes of tables, by connection uid and table name */
+    private final Map<String, TableSize> tableSizes = new ConcurrentHashMap<>();
+
+    private static final class TableSize {
+        final long kilobytes;
+        final long estimatedAt;
+
+        TableSize(long kilobytes, long estimatedAt) {
+            this.kilobytes = kilobytes;
+            this.estimatedAt = estimatedAt;
+        }
+    }
+
+    public FullScanCheck(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Checks a query. Runs in a background thread.
+     *
+     * @param connectionUid uid of the connection, or null for the active one
+     * @param con connection the query runs on
+     * @param query the query
+     * @param warning shown the expensive operations of the query as HTML, or
+     *                null if there is none; may be null
+     * @return false if the user cancelled the query
+     */
+    public boolean check(@Nullable String connectionUid, @NotNull IConnection con, @NotNull String query,
+                         @Nullable Consumer<String> warning) {
+        QueryPlanAnalyzer.Analysis analysis;
+        try {
+            analysis = QueryPlanAnalyzer.analyze(QueryPlan.parse(con.fetchQueryPlan(query)));
+        } catch (Exception ex) {
+            // errors in the query are reported when it is executed
+            show(warning, null);
+            return true;
+        }
+        if (analysis.getFindings().isEmpty()) {
+            show(warning, null);
+            return true;
+        }
+        String uid = connectionUid != null ? connectionUid : DBProject.getInstance(project).getActiveConnectionUid();
+        long units = predictReadUnits(uid, con, analysis);
+        StringBuilder text = new StringBuilder("<html>");
+        for (QueryPlanAnalyzer.Finding finding : analysis.getFindings()) {
+            text.append(finding.getMessage()).append("<br/>");
+        }
+        if (units > 0) {
+            text.append("Predicted cost: about ").append(String.format("%,d", units)).append(" read units");
+        }
+        text.append("</html>");
+        show(warning, text.toString());
+
+        long threshold = getThreshold();
+        if (threshold <= 0 || units < threshold) {
+            return true;
+        }
+        String msg = "<html>This query reads every row of " + String.join(", ", analysis.getScannedTables()) +
+                " and is predicted to consume about " + String.format("%,d", units) +
+                " read units.<br/>Do you want to execute it?</html>";
+        boolean[] confirmed = new boolean[1];
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            int result = JOptionPane.showConfirmDialog(null, msg, "FULL SCAN", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonWarning);
+            confirmed[0] = result == JOptionPane.OK_OPTION;
+        });
+        return confirmed[0];
+    }
+
+    private long predictReadUnits(String uid, IConnection con, QueryPlanAnalyzer.Analysis analysis) {
+        Map<String, Long> sizes = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (String table : analysis.getScannedTables()) {
+            // a table of the same name on another connection has a size of its own
+            String key = uid + "/" + table;
+            TableSize size = tableSizes.get(key);
+            if (size == null || now - size.estimatedAt >= SIZE_TTL_MILLIS) {
+                size = new TableSize(con.estimateTableSizeKB(table), now);
+                tableSizes.put(key, size);
+            }
+            sizes.put(table, size.kilobytes);
+        }
+        return analysis.predictReadUnits(sizes);
+    }
+
+    /**
+     * @return predicted read units above which a full scan must be
+     * confirmed, 0 or less if it never is
+     */
+    public long getThreshold() {
+        String threshold = ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD);
+        if (threshold == null) {
+            threshold = ConnectionDataProviderService.DEFAULT_FULL_SCAN_THRESHOLD;
+        }
+        try {
+            return Long.parseLong(threshold);
+        } catch (NumberFormatException ex) {
+            return Long.parseLong(ConnectionDataProviderService.DEFAULT_FULL_SCAN_THRESHOLD);
+        }
+    }
+
+    private static void show(Consumer<String> warning, String text) {
+        if (warning != null) {
+            warning.accept(text);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.common;
+
+import com.intellij.util.messages.Topic;
+import oracle.nosql.model.connection.StatementLog;
+
+import java.util.EventListener;
+
+/**
+ * Interface to subscribe and notify when a statement is added to the
+ * statement log.
+ */
+public interface StatementLogListener extends EventListener {
+    Topic<StatementLogListener> TOPIC = Topic.create("Statement logged", StatementLogListener.class);
+    void statementLogged(StatementLog.Entry entry);
+}
@@ -0,0 +1,218 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.common;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import oracle.nosql.model.connection.ConnectionMetrics;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.StatementLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a persistent log of the queries, DML and DDL statements executed in
+ * a project with their duration, rows and consumed capacity. The log is kept
+ * in the IDE system directory, separately for each project.
+ */
+public class StatementLogService {
+    private static final Logger LOG = Logger.getInstance(StatementLogService.class);
+
+    public static final String QUERY = "QUERY";
+    public static final String DML = "DML";
+    public static final String DDL = "DDL";
+
+    private final Project project;
+    private final StatementLog log;
+    private final FullScanCheck fullScanCheck;
+
+    private StatementLogService(Project project) {
+        this.project = project;
+        this.log = new StatementLog(PathManager.getSystemDir()
+                .resolve("oracle-nosql")
+                .resolve(project.getLocationHash())
+                .resolve("statements.ndjson").toFile(), StatementLog.DEFAULT_MAX_BYTES);
+        this.fullScanCheck = new FullScanCheck(project);
+    }
+
+    public static StatementLogService getInstance(@NotNull Project project) {
+        return project.getService(StatementLogService.class);
+    }
+
+    /**
+     * Starts recording a statement. The returned recorder must be completed
+     * on the thread that executes the statement.
+     *
+     * @param connectionUid uid of the connection, or null for the active one
+     * @param con connection that executes the statement
+     * @param kind one of {@link #QUERY}, {@link #DML} or {@link #DDL}
+     * @param table table the statement addresses, if known
+     * @param statement the statement
+     */
+    public Recorder start(@Nullable String connectionUid, @NotNull IConnection con, @NotNull String kind,
+                          @Nullable String table, @NotNull String statement) {
+        String uid = connectionUid != null ? connectionUid : DBProject.getInstance(project).getActiveConnectionUid();
+        StatementLog.Entry entry = new StatementLog.Entry()
+                .setConnectionUid(uid)
+                .setConnectionName(getConnectionName(uid))
+                .setKind(kind)
+                .setTable(table)
+                .setStatement(statement);
+        return new Recorder(entry, con.getMetrics().startCapture());
+    }
+
+    /**
+     * @return all logged statements, oldest first
+     */
+    public List<StatementLog.Entry> getEntries() throws IOException {
+        return log.read();
+    }
+
+    /**
+     * Deletes all logged statements.
+     */
+    public void clear() {
+        log.clear();
+    }
+
+    /**
+     * Executes a logged statement again on the same connection. A query goes
+     * through the {@link FullScanCheck full scan check} of the table view
+     * first; DML and DDL statements must be confirmed by the caller. Query
+     * results are read to the end, so that the logged cost covers the whole
+     * result.
+     *
+     * @param entry a logged statement
+     * @param indicator indicator to report progress and cancel on
+     * @return the new log entry, or null if the user cancelled a full scan
+     */
+    @Nullable
+    public StatementLog.Entry rerun(StatementLog.Entry entry, ProgressIndicator indicator) throws Exception {
+        DBProject dbProject = DBProject.getInstance(project);
+        IConnection con = entry.getConnectionUid() == null ? dbProject.getConnection()
+                : dbProject.getConnection(entry.getConnectionUid());
+        if (QUERY.equals(entry.getKind())) {
+            indicator.setText2("Checking query plan");
+            if (!fullScanCheck.check(entry.getConnectionUid(), con, entry.getStatement(), null)) {
+                return null;
+            }
+            indicator.setText2(null);
+        }
+        Recorder recorder = start(entry.getConnectionUid(), con, entry.getKind(), entry.getTable(), entry.getStatement());
+        try {
+            long rows = 0;
+            if (QUERY.equals(entry.getKind())) {
+                Iterator<?> result = con.query(entry.getStatement());
+                while (result.hasNext()) {
+                    indicator.checkCanceled();
+                    result.next();
+                    rows++;
+                    if (rows % 1000 == 0) {
+                        indicator.setText2(rows + " rows");
+                    }
+                }
+            } else if (DML.equals(entry.getKind())) {
+                con.dmlQuery(entry.getStatement());
+            } else {
+                con.systemQuery(entry.getStatement());
+            }
+            return recorder.succeeded(rows);
+        } catch (Exception ex) {
+            recorder.failed(ex);
+            throw ex;
+        } finally {
+            // the capture of this thread ends even if neither completed it
+            recorder.close();
+        }
+    }
+
+    private String getConnectionName(String uid) {
+        MultipleConnectionsDataProviderService.State states =
+                MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (uid != null && states != null) {
+            for (Map.Entry<String, String> e : states.nameToUidMap.entrySet()) {
+                if (uid.equals(e.getValue())) {
+                    return e.getKey();
+                }
+            }
+        }
+        return uid;
+    }
+
+    private void append(StatementLog.Entry entry) {
+        try {
+            log.append(entry);
+        } catch (IOException ex) {
+            LOG.warn("Can not write statement log " + log.getFile(), ex);
+            return;
+        }
+        if (!project.isDisposed()) {
+            project.getMessageBus().syncPublisher(StatementLogListener.TOPIC).statementLogged(entry);
+        }
+    }
+
+    /**
+     * Records the duration and cost of a statement being executed.
+     */
+    public class Recorder {
+        private final StatementLog.Entry entry;
+        private final ConnectionMetrics.Cost cost;
+        private final long start = System.nanoTime();
+
+        private Recorder(StatementLog.Entry entry, ConnectionMetrics.Cost cost) {
+            this.entry = entry;
+            this.cost = cost;
+        }
+
+        /**
+         * Logs the statement as succeeded.
+         *
+         * @param rows number of rows returned
+         * @return the logged entry
+         */
+        public StatementLog.Entry succeeded(long rows) {
+            return complete(rows, null);
+        }
+
+        /**
+         * Logs the statement as failed.
+         *
+         * @param error the failure
+         * @return the logged entry
+         */
+        public StatementLog.Entry failed(Throwable error) {
+            return complete(0, String.valueOf(error.getMessage()));
+        }
+
+        /**
+         * Stops capturing the cost on this thread without logging the
+         * statement, if it was not completed. Does nothing otherwise.
+         */
+        public void close() {
+            cost.close();
+        }
+
+        private StatementLog.Entry complete(long rows, String error) {
+            cost.close();
+            entry.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .setRows(rows)
+                    .setCost(cost)
+                    .setError(error);
+            append(entry);
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.ddlJobs;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.model.connection.DdlJob;
+
+/**
+ * Reports the outcome of a submitted DDL job, so that the submitting action
+ * does not have to wait for it.
+ */
+public class DdlJobNotifier {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+
+    private DdlJobNotifier() {
+    }
+
+    /**
+     * Once the given job is done, records it in the statement log, runs the
+     * given action if it succeeded and notifies the outcome. These run on a
+     * pooled thread, as the action typically refreshes the schema.
+     *
+     * @param recorder records the statement, may be null
+     * @param onSuccess runs if the job succeeded, may be null
+     * @param successMessage notified if the job succeeded
+     * @param errorMessage notified with the error if the job failed
+     */
+    public static void whenDone(Project project, DdlJob job, StatementLogService.Recorder recorder,
+                                Runnable onSuccess, String successMessage, String errorMessage) {
+        job.whenDone(j -> ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            if (j.getState() == DdlJob.State.FAILED) {
+                if (recorder != null) {
+                    recorder.failed(j.getError());
+                }
+                Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                        errorMessage + j.getError().getMessage(), NotificationType.ERROR);
+                Notifications.Bus.notify(notification, project);
+                return;
+            }
+            if (recorder != null) {
+                recorder.succeeded(0);
+            }
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+            Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                    successMessage, NotificationType.INFORMATION);
+            Notifications.Bus.notify(notification, project);
+        }));
+    }
+}
@@ -0,0 +1,164 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.ddlJobs;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.IConnection;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toolwindow listing the table operations of the open connections: those
+ * queued or running, and those recently finished with the final state of
+ * their table.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public class DdlJobsToolWindow extends SimpleToolWindowPanel implements Disposable {
+    private static final int REFRESH_MILLIS = 1000;
+    private static final String[] COLUMNS = {"Submitted", "Connection", "Table", "Statement",
+            "State", "Elapsed (s)", "Polls", "Table State", "Error"};
+
+    private final Project project;
+    private final JobTableModel tableModel = new JobTableModel();
+    private final Timer timer;
+
+    public DdlJobsToolWindow(Project project) {
+        super(true, true);
+        this.project = project;
+        JBTable table = new JBTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        setContent(ScrollPaneFactory.createScrollPane(table));
+        setToolbar(createToolbar().getComponent());
+        timer = new Timer(REFRESH_MILLIS, e -> {
+            if (isShowing()) {
+                refresh();
+            }
+        });
+        timer.start();
+        refresh();
+    }
+
+    private ActionToolbar createToolbar() {
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Refresh jobs", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                refresh();
+            }
+        });
+        group.add(new DumbAwareAction("Clear Finished", "Remove the jobs that are done", AllIcons.Actions.GC) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                for (IConnection con : DBProject.getInstance(project).getOpenConnections().values()) {
+                    con.getDdlJobs().clearFinished();
+                }
+                refresh();
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, group, true);
+        toolbar.setTargetComponent(this);
+        return toolbar;
+    }
+
+    /**
+     * Reloads the jobs of the open connections, latest first.
+     */
+    public void refresh() {
+        Map<String, String> names = getConnectionNames();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, IConnection> e : DBProject.getInstance(project).getOpenConnections().entrySet()) {
+            String name = names.getOrDefault(e.getKey(), e.getKey());
+            for (DdlJob job : e.getValue().getDdlJobs().getJobs()) {
+                rows.add(new Object[]{job.getSubmitTime(), name, job.getTable(), job.getStatement(),
+                        job.getState().name(), job.getElapsedMillis() / 1000.0, (long) job.getPolls(),
+                        job.getTableState(), job.getError() == null ? null : job.getError().getMessage()});
+            }
+        }
+        rows.sort(Comparator.comparing((Object[] r) -> (Long) r[0]).reversed());
+        tableModel.setRows(rows);
+    }
+
+    private Map<String, String> getConnectionNames() {
+        Map<String, String> names = new HashMap<>();
+        MultipleConnectionsDataProviderService.State states =
+                MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (states != null) {
+            for (Map.Entry<String, String> e : states.nameToUidMap.entrySet()) {
+                names.put(e.getValue(), e.getKey());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+
+    private static class JobTableModel extends AbstractTableModel {
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+        private List<Object[]> rows = new ArrayList<>();
+
+        void setRows(List<Object[]> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            if (column == 5) {
+                return Double.class;
+            }
+            return column == 6 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Object value = rows.get(row)[column];
+            return column == 0 ? timeFormat.format(new Date((Long) value)) : value;
+        }
+    }
+}
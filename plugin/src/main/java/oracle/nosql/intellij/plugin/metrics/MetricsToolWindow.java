@@ -0,0 +1,272 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.metrics;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.driver.values.ArrayValue;
+import oracle.nosql.driver.values.JsonOptions;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService;
+import oracle.nosql.model.connection.ConnectionMetrics;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.RetryPolicy;
+import oracle.nosql.model.event.ExportEvent;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Toolwindow showing per operation and table latency percentiles, failures,
+ * retries and consumed capacity of the open connections. A last row per
+ * connection sums up its retries by cause.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public class MetricsToolWindow extends SimpleToolWindowPanel implements Disposable {
+    private static final int REFRESH_MILLIS = 2000;
+    private static final String[] COLUMNS = {"Connection", "Operation", "Table", "Count",
+            "p50 (ms)", "p90 (ms)", "p99 (ms)", "Max (ms)", "Errors", "Throttled", "Retries", "Rejected",
+            "Read KB", "Write KB"};
+
+    private final Project project;
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final Timer timer;
+
+    public MetricsToolWindow(Project project) {
+        super(true, true);
+        this.project = project;
+        JBTable table = new JBTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        setContent(ScrollPaneFactory.createScrollPane(table));
+        setToolbar(createToolbar().getComponent());
+        timer = new Timer(REFRESH_MILLIS, e -> {
+            if (isShowing()) {
+                refresh();
+            }
+        });
+        timer.start();
+        refresh();
+    }
+
+    private ActionToolbar createToolbar() {
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Refresh metrics", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                refresh();
+            }
+        });
+        group.add(new DumbAwareAction("Reset", "Discard metrics recorded so far", AllIcons.Actions.GC) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                for (IConnection con : DBProject.getInstance(project).getOpenConnections().values()) {
+                    con.getMetrics().reset();
+                }
+                refresh();
+            }
+        });
+        group.add(new DumbAwareAction("Export JSON", "Save metrics as JSON", AllIcons.ToolbarDecorator.Export) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                export();
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, group, true);
+        toolbar.setTargetComponent(this);
+        return toolbar;
+    }
+
+    /**
+     * Reloads the metrics of the open connections.
+     */
+    public void refresh() {
+        Map<String, String> names = getConnectionNames();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, IConnection> e : new TreeMap<>(DBProject.getInstance(project).getOpenConnections()).entrySet()) {
+            String name = names.getOrDefault(e.getKey(), e.getKey());
+            ConnectionMetrics metrics = e.getValue().getMetrics();
+            long retries = 0;
+            for (ConnectionMetrics.OperationStats s : metrics.getAll()) {
+                rows.add(new Object[]{name, s.getOperation(), s.getTableName(), s.getCount(),
+                        millis(s.getLatency().getPercentileMicros(50)),
+                        millis(s.getLatency().getPercentileMicros(90)),
+                        millis(s.getLatency().getPercentileMicros(99)),
+                        millis(s.getLatency().getMaxMicros()),
+                        s.getErrors(), s.getThrottles(), s.getRetries(), s.getRejected(),
+                        s.getReadKB(), s.getWriteKB()});
+                retries += s.getRetries();
+            }
+            if (retries > 0 || metrics.getRejected() > 0) {
+                rows.add(new Object[]{name, "(all)", retriesByCause(metrics), null, null, null, null, null,
+                        null, null, retries, metrics.getRejected(), null, null});
+            }
+        }
+        tableModel.setRows(rows);
+    }
+
+    /**
+     * @return the retries of a connection by cause, e.g. "THROTTLING: 3"
+     */
+    private static String retriesByCause(ConnectionMetrics metrics) {
+        StringBuilder text = new StringBuilder();
+        for (RetryPolicy.Cause cause : RetryPolicy.Cause.values()) {
+            long count = metrics.getRetries(cause.name());
+            if (count > 0) {
+                text.append(text.length() == 0 ? "" : ", ").append(cause.name()).append(": ").append(count);
+            }
+        }
+        return text.toString();
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    private Map<String, String> getConnectionNames() {
+        Map<String, String> names = new HashMap<>();
+        MultipleConnectionsDataProviderService.State states =
+                MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (states != null) {
+            for (Map.Entry<String, String> e : states.nameToUidMap.entrySet()) {
+                names.put(e.getValue(), e.getKey());
+            }
+        }
+        return names;
+    }
+
+    private void export() {
+        String home = System.getProperty("user.home");
+        String pathname = home + File.separator + "Downloads" + File.separator + "nosqlMetrics.json";
+        JFileChooser jFileChooser = new JFileChooser() {
+            @Override
+            public void approveSelection() {
+                File selectedFile = getSelectedFile();
+                if (selectedFile.exists() && getDialogType() == SAVE_DIALOG) {
+                    int option = JOptionPane.showConfirmDialog(this, "The file exists, overwrite?", "Existing file", JOptionPane.YES_NO_CANCEL_OPTION);
+                    if (option == JOptionPane.CANCEL_OPTION) {
+                        cancelSelection();
+                    }
+                    if (option != JOptionPane.YES_OPTION) {
+                        return;
+                    }
+                }
+                super.approveSelection();
+            }
+        };
+        jFileChooser.setSelectedFile(new File(pathname));
+        if (jFileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selectedFile = jFileChooser.getSelectedFile();
+        Map<String, String> names = getConnectionNames();
+        Map<String, IConnection> open = DBProject.getInstance(project).getOpenConnections();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Exporting NoSQL metrics", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                ArrayValue connections = new ArrayValue();
+                for (Map.Entry<String, IConnection> e : new TreeMap<>(open).entrySet()) {
+                    MapValue connection = e.getValue().getMetrics().toJson();
+                    connection.put("uid", e.getKey());
+                    connection.put("name", names.getOrDefault(e.getKey(), e.getKey()));
+                    connections.add(connection);
+                }
+                MapValue json = new MapValue();
+                json.put("timestamp", System.currentTimeMillis());
+                json.put("connections", connections);
+                ExportEvent event = new ExportEvent();
+                event.begin();
+                try (BufferedWriter writer = new BufferedWriter(new FileWriter(selectedFile))) {
+                    writer.write(json.toJson(new JsonOptions().setPrettyPrint(true)));
+                } catch (IOException ex) {
+                    Notification notification = new Notification("Oracle NOSQL", "Oracle NoSQL Metrics",
+                            "Error exporting metrics: " + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                if (event.shouldCommit()) {
+                    event.setKind("metrics");
+                    event.setPath(selectedFile.getPath());
+                    event.setRows(connections.size());
+                    event.setBytes(selectedFile.length());
+                    event.commit();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+
+    private static class MetricsTableModel extends AbstractTableModel {
+        private List<Object[]> rows = new ArrayList<>();
+
+        void setRows(List<Object[]> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            if (column < 3) {
+                return String.class;
+            }
+            return column >= 4 && column <= 7 ? Double.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.get(row)[column];
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.metrics;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentFactoryImpl;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Entry point for creating the metrics toolwindow.
+ */
+public class MetricsToolWindowFactory implements ToolWindowFactory, DumbAware {
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        MetricsToolWindow metricsWindow = new MetricsToolWindow(project);
+        ContentFactory contentFactory = new ContentFactoryImpl();
+        Content content = contentFactory.createContent(metricsWindow, null, false);
+        content.setDisposer(metricsWindow);
+        toolWindow.getContentManager().addContent(content);
+    }
+}
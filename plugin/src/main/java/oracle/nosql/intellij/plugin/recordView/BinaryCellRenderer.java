@@ -0,0 +1,51 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.recordView;
+
+import com.intellij.ui.JBColor;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.font.TextAttribute;
+import java.util.Collections;
+
+/**
+ * Paints a link to download the value of a binary cell, or "null" for an
+ * empty cell. Only the preview of the cell is looked at, the bytes are
+ * fetched on click by {@link DownloadBinaryObject}.
+ */
+class BinaryCellRenderer extends DefaultTableCellRenderer {
+    private static final String LINK_TEXT = "Download binary object";
+    private static final Color LINK_COLOR = new JBColor(new Color(0x1E90FF), new Color(0x1E90FF));
+
+    private Font linkFont;
+    private Font baseFont;
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        boolean empty = value == null || value.toString().trim().isEmpty();
+        super.getTableCellRendererComponent(table, empty ? "null" : LINK_TEXT, isSelected, hasFocus, row, column);
+        if (!empty) {
+            Font font = table.getFont();
+            // the underlined font is derived once per table font
+            if (linkFont == null || baseFont != font) {
+                baseFont = font;
+                linkFont = font.deriveFont(Collections.singletonMap(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON));
+            }
+            setFont(linkFont);
+            if (!isSelected) {
+                setForeground(LINK_COLOR);
+            }
+        }
+        return this;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.recordView;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationAction;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.model.connection.BinaryExporter;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Desktop;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports the binary columns of rows of a table to a directory with a
+ * {@link BinaryExporter}, showing its progress. The rows are either given,
+ * e.g. the rows selected in a table view, or the results of a query.
+ */
+public class BinaryExportTask extends Task.Backgroundable {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+
+    private final Table table;
+    private final List<MapValue> rows;
+    private final String query;
+    private final File directory;
+
+    private BinaryExportTask(Project project, Table table, List<MapValue> rows, String query, File directory) {
+        super(project, "Exporting binary objects of " + table.getName(), true);
+        this.table = table;
+        this.rows = rows;
+        this.query = query;
+        this.directory = directory;
+    }
+
+    /**
+     * @param rows rows holding at least their primary key
+     */
+    public static BinaryExportTask forRows(Project project, Table table, List<MapValue> rows, File directory) {
+        return new BinaryExportTask(project, table, rows, null, directory);
+    }
+
+    /**
+     * @param query a query selecting the primary key and binary columns
+     */
+    public static BinaryExportTask forQuery(Project project, Table table, String query, File directory) {
+        return new BinaryExportTask(project, table, null, query, directory);
+    }
+
+    /**
+     * @return names of the binary and fixed binary columns of a table.
+     */
+    public static List<String> binaryColumns(Table table) {
+        List<String> columns = new ArrayList<>();
+        for (Field field : table.getFields()) {
+            if (field.getType() == Field.Type.BINARY || field.getType() == Field.Type.FIXED_BINARY) {
+                columns.add(field.getName());
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        BinaryExporter.Result result;
+        try {
+            IConnection con = DBProject.getInstance(myProject).getConnection(table);
+            List<String> primaryKey = new ArrayList<>();
+            for (Field field : table.getPrimaryKeys().getFields()) {
+                primaryKey.add(field.getName());
+            }
+            BinaryExporter exporter = new BinaryExporter(con.unwrap(NoSQLHandle.class), table.getName(),
+                    primaryKey, binaryColumns(table), directory.toPath());
+            indicator.setIndeterminate(rows == null);
+            BinaryExporter.Listener listener = (done, total, files, bytes) -> {
+                if (indicator.isCanceled()) {
+                    exporter.cancel();
+                }
+                if (total > 0) {
+                    indicator.setFraction((double) done / total);
+                }
+                indicator.setText2(done + " row(s), " + files + " file(s), " + StringUtil.formatFileSize(bytes));
+            };
+            result = rows != null ? exporter.exportRows(rows, listener) : exporter.exportQuery(query, listener);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Error exporting binary objects: " + e.getMessage(), NotificationType.ERROR);
+            Notifications.Bus.notify(notification, myProject);
+            return;
+        }
+        setNotification(result);
+    }
+
+    /**
+     * Method to display the notification in the IDE
+     */
+    private void setNotification(BinaryExporter.Result result) {
+        StringBuilder message = new StringBuilder();
+        message.append(result.isCancelled() ? "Binary export cancelled: " : "Binary objects exported: ")
+                .append(result.getFiles().size()).append(" file(s), ")
+                .append(StringUtil.formatFileSize(result.getBytes()));
+        if (result.getFailures() > 0) {
+            message.append("<br>").append(result.getFailures()).append(" failed:");
+            for (String error : result.getErrors()) {
+                message.append("<br>").append(StringUtil.escapeXmlEntities(error));
+            }
+        }
+        NotificationType type = result.getFailures() > 0 ? NotificationType.WARNING : NotificationType.INFORMATION;
+        Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, message.toString(), type);
+        notification.addAction(new NotificationAction(directory.getName()) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e, @NotNull Notification notification) {
+                try {
+                    if (Desktop.isDesktopSupported()) {
+                        Desktop.getDesktop().open(directory);
+                    }
+                } catch (IOException | SecurityException ex) {
+                    Notification errorNotification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Error opening folder: " + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(errorNotification, myProject);
+                }
+            }
+        });
+        Notifications.Bus.notify(notification, myProject);
+    }
+}
@@ -7,10 +7,25 @@
 
 package oracle.nosql.intellij.plugin.recordView;
 
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.util.text.StringUtil;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.model.cloud.table.ui.CloudTableRow;
+import oracle.nosql.model.connection.RowChangeset;
+import oracle.nosql.model.query.ColumnProfiler;
+import oracle.nosql.model.query.RowWatcher;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.Table;
 import oracle.nosql.model.table.ui.TablePageCache;
 import oracle.nosql.model.table.ui.TableRow;
 
+import javax.swing.JOptionPane;
+import javax.swing.JTable;
 import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Model for Database Table.
@@ -20,6 +35,8 @@ import javax.swing.table.AbstractTableModel;
 @SuppressWarnings({"SameParameterValue", "unused"})
 class DataBaseTableModel extends AbstractTableModel {
     private TablePageCache pageCache;
+    private RowChangeset changeset;
+    private Set<Integer> changedRows = Collections.emptySet();
 
     DataBaseTableModel(TablePageCache pageCache) {
         super();
@@ -35,9 +52,45 @@ class DataBaseTableModel extends AbstractTableModel {
      */
     void setPageCache(TablePageCache pageCache) {
         this.pageCache = pageCache;
+        changedRows = Collections.emptySet();
         fireTableStructureChanged();
     }
 
+    /**
+     * Shows the page of a query run again with the same columns, telling
+     * the table which rows changed rather than that all did. Rows inserted
+     * or updated are marked until the next run.
+     */
+    void setWatchedPage(TablePageCache pageCache, RowWatcher.Changes changes) {
+        this.pageCache = pageCache;
+        Set<Integer> changed = new HashSet<>(changes.getInserted());
+        changed.addAll(changes.getUpdated());
+        changedRows = changed;
+        if (changes.isReordered()) {
+            fireTableDataChanged();
+            return;
+        }
+        // from the previous rows: remove those deleted, then insert the new
+        for (int i = changes.getDeleted().size() - 1; i >= 0; i--) {
+            int row = changes.getDeleted().get(i);
+            fireTableRowsDeleted(row, row);
+        }
+        for (int row : changes.getInserted()) {
+            fireTableRowsInserted(row, row);
+        }
+        for (int row : changes.getUpdated()) {
+            fireTableRowsUpdated(row, row);
+        }
+    }
+
+    /**
+     * Returns true if a row was inserted or updated by the last run of a
+     * watched query.
+     */
+    boolean isChangedRow(int rowIndex) {
+        return changedRows.contains(rowIndex);
+    }
+
     @Override
     public int getRowCount() {
         if(pageCache != null) {
@@ -54,15 +107,135 @@ class DataBaseTableModel extends AbstractTableModel {
         return 0;
     }
 
+    /**
+     * Sets the edits of cells shown in place of the values fetched, or null
+     * if cells are not edited.
+     */
+    void setChangeset(RowChangeset changeset) {
+        this.changeset = changeset;
+        fireTableDataChanged();
+    }
+
+    RowChangeset getChangeset() {
+        return changeset;
+    }
+
+    /**
+     * Returns the preview of a cell, which is all a cell paints. Use
+     * {@link #getFullValueAt(int, int)} for the whole value.
+     */
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
         if(pageCache != null) {
+            FieldValue edited = getEditedValueAt(rowIndex, columnIndex);
+            if (edited != null) {
+                return CloudTableRow.preview(edited, CloudTableRow.PREVIEW_CHARS);
+            }
+            TableRow row = pageCache.getCurrentPage().getRow(rowIndex);
+            return row.getPreview(columnIndex);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the whole value of a cell, serialized on first use.
+     */
+    public String getFullValueAt(int rowIndex, int columnIndex) {
+        if(pageCache != null) {
+            FieldValue edited = getEditedValueAt(rowIndex, columnIndex);
+            if (edited != null) {
+                return edited.isNull() ? "" : edited.toJson();
+            }
             TableRow row = pageCache.getCurrentPage().getRow(rowIndex);
             return row.getData(columnIndex).toString();
         }
         return null;
     }
 
+    /**
+     * Returns the edited value of a cell, or null if it is not edited.
+     */
+    FieldValue getEditedValueAt(int rowIndex, int columnIndex) {
+        if (changeset == null || changeset.isEmpty()) {
+            return null;
+        }
+        MapValue raw = getRawRowAt(rowIndex);
+        return raw == null ? null : changeset.getValue(raw, getColumnName(columnIndex));
+    }
+
+    /**
+     * Cells are editable while edits are collected, except for key, binary
+     * and unknown columns.
+     */
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        if (changeset == null || getRawRowAt(rowIndex) == null) {
+            return false;
+        }
+        Field field = getField(columnIndex);
+        return field != null && !field.isPrimaryKey() && !field.isShardKey()
+                && field.getType() != Field.Type.BINARY && field.getType() != Field.Type.FIXED_BINARY;
+    }
+
+    /**
+     * Collects the text edited in a cell into the changeset.
+     */
+    @Override
+    public void setValueAt(Object value, int rowIndex, int columnIndex) {
+        Field field = getField(columnIndex);
+        MapValue raw = getRawRowAt(rowIndex);
+        if (changeset == null || field == null || raw == null) {
+            return;
+        }
+        try {
+            changeset.set(raw, field.getName(), RowChangeset.parseValue(field.getType(), String.valueOf(value)));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(null, ex.getMessage(), "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            return;
+        }
+        fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+
+    private Field getField(int columnIndex) {
+        Table table = pageCache == null ? null : pageCache.getTable();
+        String name = getColumnName(columnIndex);
+        return table != null && table.hasField(name) ? table.getField(name) : null;
+    }
+
+    /**
+     * Returns the value of a cell as fetched, without serializing it.
+     */
+    public FieldValue getRawValueAt(int rowIndex, int columnIndex) {
+        MapValue raw = getRawRowAt(rowIndex);
+        return raw == null ? null : raw.get(getColumnName(columnIndex));
+    }
+
+    /**
+     * Returns a row as fetched, or null if the rows are not values of the
+     * driver.
+     */
+    public MapValue getRawRowAt(int rowIndex) {
+        if(pageCache != null) {
+            Object raw = pageCache.getCurrentPage().getRow(rowIndex).getRawData();
+            if (raw instanceof MapValue) {
+                return (MapValue) raw;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the whole value of a cell of a table given by view indexes,
+     * as {@link JTable#getValueAt(int, int)} returns its preview.
+     */
+    static String getFullValue(JTable table, int row, int column) {
+        if (table.getModel() instanceof DataBaseTableModel) {
+            return ((DataBaseTableModel) table.getModel()).getFullValueAt(
+                    table.convertRowIndexToModel(row), table.convertColumnIndexToModel(column));
+        }
+        return (String) table.getValueAt(row, column);
+    }
+
     @Override
     public String getColumnName(int column) {
         if(pageCache != null) {
@@ -74,13 +247,37 @@ class DataBaseTableModel extends AbstractTableModel {
 
     public void refresh(TablePageCache pageCache) {
         this.pageCache = pageCache;
+        changedRows = Collections.emptySet();
         fireTableDataChanged();
     }
     public boolean isPrimaryKey(int column) {
         return pageCache.getTable().getFieldAt(column).isPrimaryKey();
     }
 
+    /**
+     * Describes a column by its type and, when the rows are profiled, by
+     * statistics of the rows fetched so far.
+     */
     public String getHeaderToolTip(int column) {
-        return pageCache.getTable().getFieldAt(column).getType().toString();
+        if (pageCache == null) {
+            return null;
+        }
+        String name = getColumnName(column);
+        Table table = pageCache.getTable();
+        String type = table != null && table.hasField(name) ?
+                table.getField(name).getType().toString() : null;
+        ColumnProfiler profiler = pageCache.getProfiler();
+        ColumnProfiler.Column stats = profiler == null ? null : profiler.getColumn(name);
+        if (stats == null) {
+            return type;
+        }
+        StringBuilder tip = new StringBuilder("<html><b>").append(StringUtil.escapeXmlEntities(name)).append("</b>");
+        if (type != null) {
+            tip.append(" ").append(type);
+        }
+        for (String line : stats.describe()) {
+            tip.append("<br>").append(StringUtil.escapeXmlEntities(line).replace("  ", "&nbsp;&nbsp;"));
+        }
+        return tip.append("</html>").toString();
     }
 }
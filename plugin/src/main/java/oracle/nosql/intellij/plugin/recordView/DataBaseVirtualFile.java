@@ -8,8 +8,11 @@
 package oracle.nosql.intellij.plugin.recordView;
 
 import com.intellij.testFramework.LightVirtualFile;
+import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.model.schema.Table;
 
+import java.util.Objects;
+
 public class DataBaseVirtualFile extends LightVirtualFile {
     private final Table table;
     public DataBaseVirtualFile(Table table) {
@@ -26,8 +29,16 @@ public class DataBaseVirtualFile extends LightVirtualFile {
         if(obj == null) return false;
 
         if(obj instanceof  DataBaseVirtualFile) {
-            return ((DataBaseVirtualFile) obj).table.getName().equals(this.table.getName());
+            Table other = ((DataBaseVirtualFile) obj).table;
+            // tables of the same name in different connections are distinct
+            return other.getName().equals(this.table.getName()) &&
+                    Objects.equals(DBProject.getConnectionUid(other), DBProject.getConnectionUid(this.table));
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(table.getName(), DBProject.getConnectionUid(table));
+    }
 }
@@ -12,13 +12,19 @@ import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.ActionPopupMenu;
 import com.intellij.openapi.project.Project;
 import com.intellij.ui.table.JBTable;
+import oracle.nosql.driver.values.FieldValue;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.model.connection.IConnection;
 import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
 import org.json.JSONObject;
 
 import javax.swing.*;
+import javax.swing.table.JTableHeader;
+import java.awt.Component;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.HashSet;
@@ -36,6 +42,9 @@ class DatabaseTable extends JBTable {
         // setCellSelectionEnabled(false);
         setRowSelectionAllowed(true);
         setAutoResizeMode(AUTO_RESIZE_OFF);
+        setDefaultRenderer(Object.class, new PreviewCellRenderer());
+        setTransferHandler(new FullValueTransferHandler());
+        setDefaultEditor(Object.class, new FullValueCellEditor());
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -45,7 +54,10 @@ class DatabaseTable extends JBTable {
                     final int column = jTable.columnAtPoint(e.getPoint());
                     if(row>jTable.getRowCount() || column>jTable.getColumnCount() || row ==-1 || column==-1)
                         return;
-                    final String valueInCell = (String) jTable.getValueAt(row, column);
+                    if (jTable.isCellEditable(row, column)) {
+                        // the cell is edited in place
+                        return;
+                    }
                     //create dialog and show contents
                     Table table = model.getPageCache().getTable();
                     String bin = jTable.getColumnName(jTable.columnAtPoint(e.getPoint()));
@@ -57,7 +69,17 @@ class DatabaseTable extends JBTable {
                         } else {
                             valueType = table.getField(bin).getType();
                         }
-                        DatabaseTableCellDialog dialog = new DatabaseTableCellDialog(project, valueInCell, valueType);
+                        FieldValue value = model.getRawValueAt(jTable.convertRowIndexToModel(row),
+                                jTable.convertColumnIndexToModel(column));
+                        DatabaseTableCellDialog dialog;
+                        if (value != null && (value.getType() == FieldValue.Type.MAP
+                                || value.getType() == FieldValue.Type.ARRAY)) {
+                            // documents are browsed as a tree, serialized only if small
+                            dialog = new DatabaseTableCellDialog(project, bin, value, valueType);
+                        } else {
+                            dialog = new DatabaseTableCellDialog(project,
+                                    DataBaseTableModel.getFullValue(jTable, row, column), valueType);
+                        }
                         dialog.show();
                     }
                 }
@@ -107,7 +129,7 @@ class DatabaseTable extends JBTable {
 
             private boolean isJsonCollection(Project project, Table table) {
                 try {
-                    IConnection connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                    IConnection connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                     String schema = connection.showSchema(table);
                     JSONObject schemaJson = new JSONObject(schema);
                     return schemaJson.has("jsonCollection");
@@ -118,7 +140,53 @@ class DatabaseTable extends JBTable {
         });
     }
 
-    /*@NotNull
+    /**
+     * Edits the whole value of a cell, as the cell only holds its preview.
+     */
+    private static class FullValueCellEditor extends DefaultCellEditor {
+        FullValueCellEditor() {
+            super(new JTextField());
+        }
+
+        @Override
+        public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected, int row, int column) {
+            return super.getTableCellEditorComponent(table, DataBaseTableModel.getFullValue(table, row, column),
+                    isSelected, row, column);
+        }
+    }
+
+    /**
+     * Copies the whole values of the selected cells, tab separated, as the
+     * cells only hold their previews.
+     */
+    private static class FullValueTransferHandler extends TransferHandler {
+        @Override
+        public int getSourceActions(JComponent c) {
+            return COPY;
+        }
+
+        @Override
+        protected Transferable createTransferable(JComponent c) {
+            JTable table = (JTable) c;
+            int[] rows = table.getSelectedRows();
+            int[] columns = table.getColumnSelectionAllowed() ? table.getSelectedColumns() : null;
+            if (rows.length == 0) {
+                return null;
+            }
+            StringBuilder text = new StringBuilder();
+            for (int row : rows) {
+                int count = columns == null ? table.getColumnCount() : columns.length;
+                for (int i = 0; i < count; i++) {
+                    String value = DataBaseTableModel.getFullValue(table, row, columns == null ? i : columns[i]);
+                    text.append(i == 0 ? "" : "\t").append(value == null ? "" : value);
+                }
+                text.append('\n');
+            }
+            return new StringSelection(text.toString());
+        }
+    }
+
+    @NotNull
     @Override
     protected JTableHeader createDefaultTableHeader() {
         return new JBTableHeader() {
@@ -127,21 +195,12 @@ class DatabaseTable extends JBTable {
                 DataBaseTableModel model = (DataBaseTableModel) getModel();
                 final int i = columnAtPoint(event.getPoint());
                 final int infoIndex = i >= 0 ? convertColumnIndexToModel(i) : -1;
-                final String tooltipText = infoIndex >= 0 && infoIndex <model.getColumnCount() ?model.getHeaderToolTip(infoIndex):null;
-                if(tooltipText != null) {
+                final String tooltipText = infoIndex >= 0 && infoIndex < model.getColumnCount() ? model.getHeaderToolTip(infoIndex) : null;
+                if (tooltipText != null) {
                     return tooltipText;
                 }
                 return super.getToolTipText(event);
             }
-//            public String getToolTipText(MouseEvent e) {
-//                String tip = null;
-//                Point p = e.getPoint();
-//                int index = columnModel.getColumnIndexAtX(p.x);
-//                if(index == -1) { return "";}
-//                int realIndex = columnModel.getColumn(index).getModelIndex();
-//                DataBaseTableModel model = (DataBaseTableModel) getModel();
-//                return model.getHeaderToolTip(realIndex);
-//            }
         };
-    }*/
+    }
 }
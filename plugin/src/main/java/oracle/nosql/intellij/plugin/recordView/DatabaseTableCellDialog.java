@@ -11,34 +11,83 @@ import com.intellij.json.JsonLanguage;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTabbedPane;
+import com.intellij.util.ui.JBUI;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.model.cloud.table.ui.CloudTableRow;
 import org.jetbrains.annotations.Nullable;
 import oracle.nosql.model.schema.Field;
 
 import javax.swing.JComponent;
+import javax.swing.SwingConstants;
 
 class DatabaseTableCellDialog extends DialogWrapper {
+    /** characters of a document shown as text, at most */
+    static final int MAX_TEXT_CHARS = 256 * 1024;
+
     private final Project project;
     private final String textToDisplay;
     private final Field.Type fieldType;
+    private final String name;
+    private final FieldValue value;
     private DatabaseCellTextField textField;
+    private JsonTreeViewer treeViewer;
 
     public DatabaseTableCellDialog(Project project, String text, Field.Type type) {
         super(project, true);
         this.project = project;
         this.textToDisplay = text;
         this.fieldType = type;
+        this.name = null;
+        this.value = null;
+        init();
+    }
+
+    /**
+     * Shows a map or array as a tree, and as text too if it is small.
+     *
+     * @param name name of the column of the value
+     */
+    public DatabaseTableCellDialog(Project project, String name, FieldValue value, Field.Type type) {
+        super(project, true);
+        this.project = project;
+        // a cut preview tells the value is too large for the text editor
+        // without serializing more of it than the editor would take
+        String text = CloudTableRow.preview(value, MAX_TEXT_CHARS);
+        this.textToDisplay = text.length() > MAX_TEXT_CHARS ? null : text;
+        this.fieldType = type;
+        this.name = name;
+        this.value = value;
         init();
     }
 
     @Nullable
     @Override
     protected JComponent createCenterPanel() {
-        textField = new DatabaseCellTextField(JsonLanguage.findInstance(JsonLanguage.class), project, textToDisplay, false);
-        return textField;
+        if (value == null) {
+            textField = new DatabaseCellTextField(JsonLanguage.findInstance(JsonLanguage.class), project, textToDisplay, false);
+            return textField;
+        }
+        JBTabbedPane tabs = new JBTabbedPane();
+        treeViewer = new JsonTreeViewer(name, value);
+        treeViewer.setPreferredSize(JBUI.size(700, 500));
+        tabs.addTab("Tree", treeViewer);
+        if (textToDisplay != null) {
+            textField = new DatabaseCellTextField(JsonLanguage.findInstance(JsonLanguage.class), project, textToDisplay, false);
+            tabs.addTab("Text", textField);
+        } else {
+            tabs.addTab("Text", new JBLabel("The value is larger than " + MAX_TEXT_CHARS / 1024
+                    + " KB of text and is only shown as a tree.", SwingConstants.CENTER));
+        }
+        return tabs;
     }
 
     @Override
     public @Nullable JComponent getPreferredFocusedComponent() {
+        if (treeViewer != null) {
+            return treeViewer;
+        }
         if (fieldType.equals(Field.Type.JSON)) {
             return textField; // for JSON Dialog, initial focus should be on the JSON Editor
         }
@@ -16,9 +16,12 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import oracle.nosql.driver.values.FieldValue;
 import oracle.nosql.driver.values.MapValue;
 import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.model.connection.BinaryExporter;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.event.ExportEvent;
 import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.FieldGroup;
 import oracle.nosql.model.schema.Table;
@@ -41,7 +44,6 @@ public class DownloadBinaryObject {
     private JTable jTable;
     private Project project;
     private Table table;
-    private static byte[] bytes;
 
     public DownloadBinaryObject(JTable jTable, MouseEvent e, Project project, Table table) {
         this.jTable = jTable;
@@ -51,6 +53,9 @@ public class DownloadBinaryObject {
         int row = jTable.rowAtPoint(clickedPoint);
         int col = jTable.columnAtPoint(clickedPoint);
         String binaryColumnName = jTable.getColumnName(col);
+        // the row as fetched holds typed keys and, mostly, the bytes already
+        MapValue fetched = jTable.getModel() instanceof DataBaseTableModel ?
+                ((DataBaseTableModel) jTable.getModel()).getRawRowAt(jTable.convertRowIndexToModel(row)) : null;
         FieldGroup fieldGroup = table.getPrimaryKeys();
         List<Field> fieldList = fieldGroup.getFields();
         MapValue mapValue = new MapValue();
@@ -61,7 +66,12 @@ public class DownloadBinaryObject {
                     Field currField = fieldList.get(j);
                     String columnName = jTable.getColumnName(i);
                     if (currField.getName().equals(columnName)) {
-                        mapValue.put(columnName, (String) jTable.getValueAt(row, i));
+                        FieldValue key = fetched == null ? null : fetched.get(columnName);
+                        if (key != null) {
+                            mapValue.put(columnName, key);
+                        } else {
+                            mapValue.put(columnName, DataBaseTableModel.getFullValue(jTable, row, i));
+                        }
                     }
                 }
             }
@@ -70,48 +80,48 @@ public class DownloadBinaryObject {
             Notifications.Bus.notify(notification, project);
             return;
         }
+        FieldValue held = fetched == null ? null : fetched.get(binaryColumnName);
 
-        ProgressManager.getInstance().run(new Task.Backgroundable(project, "In progress", false) {
+        // the file is chosen first, so that one task fetches the bytes and
+        // writes them; nothing is shared between downloads
+        JFileChooser jFileChooser = getjFileChooser(jTable, clickedPoint);
+        int returnVal = jFileChooser.showSaveDialog(jFileChooser.getParent());
+        if (returnVal != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File fileSelected = jFileChooser.getSelectedFile();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Downloading binary object", true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
-                IConnection con;
+                ExportEvent event = new ExportEvent();
+                event.begin();
                 try {
-                    con = DBProject.getInstance(project).getConnection();
-                    MapValue result;
-                    try {
-                        result = con.getData(mapValue, table);
-                    }catch (NullPointerException e){
-                        throw new NullPointerException();
-                    } catch (Exception ex) {
-                        throw new RuntimeException();
+                    byte[] bytes;
+                    if (held != null && held.getType() == FieldValue.Type.BINARY) {
+                        bytes = held.getBinary();
+                    } else {
+                        IConnection con = DBProject.getInstance(project).getConnection(table);
+                        bytes = con.getData(mapValue, table).getBinary(binaryColumnName);
                     }
-                    bytes = result.getBinary(binaryColumnName);
-                }catch (NullPointerException e){
-                    throw new NullPointerException();
-                }
-                catch (Exception ex) {
-                    throw new RuntimeException();
+                    if (bytes == null) {
+                        throw new IOException("the row holds no binary object");
+                    }
+                    BinaryExporter.write(bytes, fileSelected.toPath());
+                    if (event.shouldCommit()) {
+                        event.setKind("binary");
+                        event.setTable(table.getName());
+                        event.setPath(fileSelected.getPath());
+                        event.setRows(1);
+                        event.setBytes(bytes.length);
+                        event.commit();
+                    }
+                    setNotification(fileSelected);
+                } catch (Exception ex) {
+                    Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", "Error downloading file: " + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
                 }
             }
         });
-        JFileChooser jFileChooser = getjFileChooser(jTable, clickedPoint);
-        int returnVal = jFileChooser.showSaveDialog(jFileChooser.getParent());
-        if (returnVal == JFileChooser.APPROVE_OPTION) {
-            File fileSelected = jFileChooser.getSelectedFile();
-            ProgressManager.getInstance().run(new Task.Backgroundable(null, "Downloading binary object", true) {
-                @Override
-                public void run(@NotNull ProgressIndicator indicator) {
-                    try (FileOutputStream outputStream = new FileOutputStream(fileSelected.getAbsolutePath())) {
-                        outputStream.write(bytes);
-                        outputStream.close();
-                        setNotification(fileSelected);
-                    } catch (IOException e) {
-                        Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", "Error downloading file: " + e.getMessage(), NotificationType.ERROR);
-                        Notifications.Bus.notify(notification, project);
-                    }
-                }
-            });
-        }
     }
 
     /**
@@ -0,0 +1,199 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.recordView;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.ui.ColoredTreeCellRenderer;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SearchTextField;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.treeStructure.Tree;
+import com.intellij.util.ui.JBUI;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.model.cloud.table.ui.ValueNode;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JPanel;
+import javax.swing.JTree;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.awt.BorderLayout;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows a value as a tree whose nodes are made as they are expanded, so that
+ * documents of many megabytes open at once and take memory only for what is
+ * shown. Large maps and arrays are shown in pages of {@link ValueNode#PAGE_SIZE}.
+ * Paths can be searched, e.g. {@code items[3]} or {@code .name}; Ctrl+C copies
+ * the path of the selected node.
+ */
+class JsonTreeViewer extends JPanel {
+    private static final int MAX_MATCHES = 1000;
+
+    private final ValueNode root;
+    private final Tree tree;
+    private final SearchTextField searchField = new SearchTextField(false);
+    private final DefaultListModel<ValueNode.Match> matchModel = new DefaultListModel<>();
+    private final JBLabel status = new JBLabel();
+
+    JsonTreeViewer(String name, FieldValue value) {
+        super(new BorderLayout());
+        root = new ValueNode(name, value);
+        tree = new Tree(new ValueTreeModel());
+        tree.setCellRenderer(new ValueRenderer());
+        tree.setRootVisible(true);
+        tree.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                TreePath selected = tree.getSelectionPath();
+                if (selected != null && e.getKeyCode() == KeyEvent.VK_C
+                        && (e.isControlDown() || e.isMetaDown())) {
+                    String path = ((ValueNode) selected.getLastPathComponent()).getPath();
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(path), null);
+                }
+            }
+        });
+
+        JBList<ValueNode.Match> matchList = new JBList<>(matchModel);
+        matchList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        matchList.setEmptyText("Search paths, e.g. items[3] or .name");
+        matchList.addListSelectionListener(e -> {
+            ValueNode.Match match = matchList.getSelectedValue();
+            if (!e.getValueIsAdjusting() && match != null) {
+                select(match);
+            }
+        });
+        searchField.addKeyboardListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    search(searchField.getText());
+                }
+            }
+        });
+        status.setBorder(JBUI.Borders.empty(2, 4));
+
+        JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.add(searchField, BorderLayout.NORTH);
+        searchPanel.add(ScrollPaneFactory.createScrollPane(matchList), BorderLayout.CENTER);
+        searchPanel.add(status, BorderLayout.SOUTH);
+        JBSplitter splitter = new JBSplitter(false, 0.7f);
+        splitter.setFirstComponent(ScrollPaneFactory.createScrollPane(tree));
+        splitter.setSecondComponent(searchPanel);
+        add(splitter, BorderLayout.CENTER);
+        tree.expandRow(0);
+    }
+
+    /**
+     * Walks the value off the EDT; the matches are shown when it is done.
+     */
+    private void search(String text) {
+        matchModel.clear();
+        if (text == null || text.trim().isEmpty()) {
+            status.setText("");
+            return;
+        }
+        status.setText("Searching...");
+        searchField.setEnabled(false);
+        String query = text.trim();
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            List<ValueNode.Match> matches = root.find(query, MAX_MATCHES);
+            ApplicationManager.getApplication().invokeLater(() -> {
+                matches.forEach(matchModel::addElement);
+                status.setText(matches.size() >= MAX_MATCHES ? "First " + MAX_MATCHES + " matches"
+                        : matches.size() + " match(es)");
+                searchField.setEnabled(true);
+            });
+        });
+    }
+
+    private void select(ValueNode.Match match) {
+        List<Object> nodes = new ArrayList<>();
+        ValueNode node = root;
+        nodes.add(node);
+        for (int index : match.getRoute()) {
+            node = node.getChild(index);
+            nodes.add(node);
+        }
+        TreePath path = new TreePath(nodes.toArray());
+        tree.expandPath(path.getParentPath());
+        tree.setSelectionPath(path);
+        tree.scrollPathToVisible(path);
+    }
+
+    /**
+     * Adapts the nodes, which never change, to a tree model.
+     */
+    private class ValueTreeModel implements TreeModel {
+        @Override
+        public Object getRoot() {
+            return root;
+        }
+
+        @Override
+        public Object getChild(Object parent, int index) {
+            return ((ValueNode) parent).getChild(index);
+        }
+
+        @Override
+        public int getChildCount(Object parent) {
+            return ((ValueNode) parent).getChildCount();
+        }
+
+        @Override
+        public boolean isLeaf(Object node) {
+            return ((ValueNode) node).isLeaf();
+        }
+
+        @Override
+        public void valueForPathChanged(TreePath path, Object newValue) {
+        }
+
+        @Override
+        public int getIndexOfChild(Object parent, Object child) {
+            return ((ValueNode) parent).getIndex((ValueNode) child);
+        }
+
+        @Override
+        public void addTreeModelListener(TreeModelListener l) {
+        }
+
+        @Override
+        public void removeTreeModelListener(TreeModelListener l) {
+        }
+    }
+
+    private static class ValueRenderer extends ColoredTreeCellRenderer {
+        @Override
+        public void customizeCellRenderer(@NotNull JTree tree, Object value, boolean selected, boolean expanded,
+                                          boolean leaf, int row, boolean hasFocus) {
+            ValueNode node = (ValueNode) value;
+            if (node.isPage()) {
+                append(node.getName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+                setIcon(AllIcons.Nodes.Folder);
+                return;
+            }
+            String label = node.getLabel();
+            int name = node.getName().length();
+            append(label.substring(0, name), SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES);
+            append(label.substring(name), SimpleTextAttributes.REGULAR_ATTRIBUTES);
+        }
+    }
+}
@@ -49,10 +49,13 @@ class NavigationBar extends JPanel {
         currentPageNumber=1;
     }
     void setPageCache(TablePageCache pageCache) {
+        setPageCache(pageCache, 1);
+    }
+    void setPageCache(TablePageCache pageCache, int pageNumber) {
         this.pageCache = pageCache;
-        setPageNumber(1);
+        setPageNumber(pageNumber);
     }
-    private void setPageNumber(@SuppressWarnings("SameParameterValue") int num) {
+    private void setPageNumber(int num) {
         currentPageNumber = num;
     }
     void addNextListener(ActionListener listener) {
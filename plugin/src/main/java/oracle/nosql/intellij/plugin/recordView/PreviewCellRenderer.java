@@ -0,0 +1,55 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.recordView;
+
+import com.intellij.openapi.vcs.FileStatus;
+import com.intellij.ui.JBColor;
+import oracle.nosql.model.cloud.table.ui.CloudTableRow;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+
+/**
+ * Paints the preview of a cell as a plain label. A cut preview tells that
+ * the whole value is shown on double click, and an edited cell not yet
+ * committed is painted in the color of modified files. Rows changed by
+ * the last run of a watched query are highlighted.
+ */
+class PreviewCellRenderer extends DefaultTableCellRenderer {
+    private static final String CUT_TOOLTIP = "Double-click to view the whole value";
+    private static final String EDITED_TOOLTIP = "Edited, not committed";
+    private static final Color CHANGED = new JBColor(new Color(0xE3F2E1), new Color(0x344134));
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        String text = value == null ? "" : value.toString();
+        boolean cut = !text.isEmpty() && text.charAt(text.length() - 1) == CloudTableRow.ELLIPSIS;
+        setToolTipText(cut ? CUT_TOOLTIP : null);
+        DataBaseTableModel model = table.getModel() instanceof DataBaseTableModel ?
+                (DataBaseTableModel) table.getModel() : null;
+        int modelRow = table.convertRowIndexToModel(row);
+        boolean edited = model != null &&
+                model.getEditedValueAt(modelRow, table.convertColumnIndexToModel(column)) != null;
+        if (!isSelected && model != null && model.isChangedRow(modelRow)) {
+            setBackground(CHANGED);
+        }
+        if (edited) {
+            setToolTipText(EDITED_TOOLTIP);
+            if (!isSelected) {
+                setForeground(FileStatus.MODIFIED.getColor());
+            }
+            setFont(getFont().deriveFont(Font.BOLD));
+        }
+        return this;
+    }
+}
@@ -106,7 +106,7 @@ class RecordViewer implements FileEditor {
 
     @Override
     public void dispose() {
-
+        UIComponent.dispose();
     }
 
     @Nullable
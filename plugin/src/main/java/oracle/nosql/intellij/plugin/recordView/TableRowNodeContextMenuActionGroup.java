@@ -34,6 +34,7 @@ import org.json.JSONObject;
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
@@ -49,7 +50,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
     public TableRowNodeContextMenuActionGroup(Table table, JTable jTable, Project project) {
         IConnection connection;
         try { // checks if the table is json collection table
-            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
             String schema = connection.showSchema(table);
             JSONObject jsonObject = new JSONObject(schema);
             isJsonCollection = jsonObject.has("jsonCollection");
@@ -81,6 +82,9 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
         add(new UpdateRowAction(table, jTable, project));
         add(new DeleteRowAction(table, jTable));
         add(new DownloadJsonAction(table, jTable, project));
+        if (!binSet.isEmpty()) {
+            add(new ExportBinaryObjectsAction(table, jTable));
+        }
     }
 
     /**
@@ -112,7 +116,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection(table);
                             try {
                                 Schema schema = table.getSchema();
                                 con.deleteRow(table, jString);
@@ -151,6 +155,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
         private JTable jTable;
         private String jString;
         private String primaryKeys;
+        private MapValue original;
         public DataBaseVirtualFile file;
         private static byte[] bytes;
 
@@ -161,11 +166,15 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
             this.file = new DataBaseVirtualFile(table);
             final int r = jTable.getSelectedRow();
             primaryKeys = getPrimaryKeys(table,jTable,r);
+            if (jTable.getModel() instanceof DataBaseTableModel && r >= 0) {
+                // the row as read, for updating only what is changed
+                original = ((DataBaseTableModel) jTable.getModel()).getRawRowAt(jTable.convertRowIndexToModel(r));
+            }
             StringBuilder jsonString = new StringBuilder();
             jsonString.append("{");
             boolean isRowDataEmpty = false;
             for (int i = 0; i < jTable.getColumnCount(); i++) {
-                if (jTable.getValueAt(r, i) != "") {
+                if (DataBaseTableModel.getFullValue(jTable, r, i) != "") {
                     if (binSet.contains(jTable.getColumnName(i))) {
                         String binaryColumnName = jTable.getColumnName(i);
                         MapValue mapValue = new MapValue();
@@ -178,7 +187,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                                     Field currField = fieldList.get(l);
                                     String columnName = jTable.getColumnName(k);
                                     if (currField.getName().equals(columnName)) {
-                                        mapValue.put(columnName, (String) jTable.getValueAt(r, k));
+                                        mapValue.put(columnName, DataBaseTableModel.getFullValue(jTable, r, k));
                                     }
                                 }
                             }
@@ -190,7 +199,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
 
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(project).getConnection();
+                            con = DBProject.getInstance(project).getConnection(table);
                             MapValue result;
                             try {
                                 result = con.getData(mapValue, table);
@@ -214,13 +223,13 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                         }
                     }
                     else if(TableRowNodeContextMenuActionGroup.isJsonCollection && jTable.getColumnName(i).equals("Rowdata")){
-                        String rowdata = (String) jTable.getValueAt(r, i);
+                        String rowdata = DataBaseTableModel.getFullValue(jTable, r, i);
                         if(rowdata.equals("{}"))
                             isRowDataEmpty = true;
                         jsonString.append(rowdata.substring(1, rowdata.length()));
                     }
                     else
-                        jsonString.append("\"").append(jTable.getColumnName(i)).append("\":").append(jTable.getValueAt(r, i)).append(",");
+                        jsonString.append("\"").append(jTable.getColumnName(i)).append("\":").append(DataBaseTableModel.getFullValue(jTable, r, i)).append(",");
                 } else {
                     jsonString.append("\"").append(jTable.getColumnName(i)).append("\":").append("null").append(",");
                 }
@@ -233,7 +242,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
 
         @Override
         public void actionPerformed(@NotNull AnActionEvent e) {
-            SwingUtilities.invokeLater(() -> new UpdateRowGUI(e.getProject(), table, jString, primaryKeys));
+            SwingUtilities.invokeLater(() -> new UpdateRowGUI(e.getProject(), table, jString, primaryKeys, original));
         }
 
         @Override
@@ -268,8 +277,8 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
             StringBuilder jsonString = new StringBuilder();
             jsonString.append("{");
             for (int i = 0; i < jTable.getColumnCount(); i++) {
-                if (jTable.getValueAt(r, i) != "") {
-                    Object temp = jTable.getValueAt(r, i);
+                if (DataBaseTableModel.getFullValue(jTable, r, i) != "") {
+                    Object temp = DataBaseTableModel.getFullValue(jTable, r, i);
                     if (binSet.contains(jTable.getColumnName(i))) {
                         String binaryColumnName = jTable.getColumnName(i);
                         MapValue mapValue = new MapValue();
@@ -282,7 +291,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                                     Field currField = fieldList.get(l);
                                     String columnName = jTable.getColumnName(k);
                                     if (currField.getName().equals(columnName)) {
-                                        mapValue.put(columnName, (String) jTable.getValueAt(r, k));
+                                        mapValue.put(columnName, DataBaseTableModel.getFullValue(jTable, r, k));
                                     }
                                 }
                             }
@@ -294,7 +303,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
 
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(project).getConnection();
+                            con = DBProject.getInstance(project).getConnection(table);
                             MapValue result;
                             try {
                                 result = con.getData(mapValue, table);
@@ -318,7 +327,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                         }
                     }
                     else if(TableRowNodeContextMenuActionGroup.isJsonCollection && jTable.getColumnName(i).equals("Rowdata")){
-                        String rowdata = (String) jTable.getValueAt(r, i);
+                        String rowdata = DataBaseTableModel.getFullValue(jTable, r, i);
                         jsonString.append(rowdata.substring(1, rowdata.length()));
                     }
                     else
@@ -424,6 +433,52 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
         }
     }
 
+    /**
+     * Class that exports the binary objects of the selected rows, one file
+     * per object, to a directory
+     */
+    private static class ExportBinaryObjectsAction extends AnAction {
+        private static final String EXPORT_BINARY_OBJECTS = "Export Binary Objects...";
+        private final Table table;
+        private final JTable jTable;
+
+        public ExportBinaryObjectsAction(Table table, JTable jTable) {
+            super(EXPORT_BINARY_OBJECTS);
+            this.table = table;
+            this.jTable = jTable;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            if (!(jTable.getModel() instanceof DataBaseTableModel)) {
+                return;
+            }
+            DataBaseTableModel model = (DataBaseTableModel) jTable.getModel();
+            List<MapValue> rows = new ArrayList<>();
+            for (int r : jTable.getSelectedRows()) {
+                MapValue row = model.getRawRowAt(jTable.convertRowIndexToModel(r));
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+            JFileChooser jFileChooser = new JFileChooser(System.getProperty("user.home") + File.separator + "Downloads");
+            jFileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            jFileChooser.setDialogTitle("Export binary objects of " + rows.size() + " row(s) to");
+            if (jFileChooser.showSaveDialog(jTable) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            ProgressManager.getInstance().run(BinaryExportTask.forRows(e.getProject(), table, rows, jFileChooser.getSelectedFile()));
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return false;
+        }
+    }
+
     // returns primary keys and their values from table
     private static String getPrimaryKeys(Table table, JTable jTable, int row){
         StringBuilder jsonString = new StringBuilder();
@@ -436,7 +491,7 @@ public class TableRowNodeContextMenuActionGroup extends DefaultActionGroup {
                 Field currPkField = pkList.get(j);
                 String columnName = jTable.getColumnName(i);
                 if (currPkField.getName().equals(columnName)) {
-                    jsonString.append("\"").append(jTable.getColumnName(i)).append("\":").append(jTable.getValueAt(row, i)).append(" , ");
+                    jsonString.append("\"").append(jTable.getColumnName(i)).append("\":").append(DataBaseTableModel.getFullValue(jTable, row, i)).append(" , ");
                 }
             }
         }
@@ -12,6 +12,7 @@ import com.intellij.notification.*;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.colors.EditorColors;
+import com.intellij.openapi.ide.CopyPasteManager;
 import com.intellij.openapi.editor.colors.EditorColorsManager;
 import com.intellij.openapi.editor.colors.EditorColorsScheme;
 import com.intellij.openapi.progress.ProgressIndicator;
@@ -19,40 +20,60 @@ import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.ui.components.JBScrollPane;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.util.ui.JBUI;
+import oracle.nosql.driver.NoSQLHandle;
+import oracle.nosql.driver.values.MapValue;
 import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
 import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.FullScanCheck;
 import oracle.nosql.intellij.plugin.common.NoSQLKeywords;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.KeyLookup;
+import oracle.nosql.model.connection.ResultCache;
+import oracle.nosql.model.connection.RowChangeset;
+import oracle.nosql.model.event.ExportEvent;
+import oracle.nosql.model.query.ColumnProfiler;
+import oracle.nosql.model.query.RowWatcher;
 import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.Table;
 import oracle.nosql.model.table.ui.TablePageCache;
+import oracle.nosql.model.table.ui.TableRow;
 import org.fife.ui.rsyntaxtextarea.*;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import javax.swing.event.*;
-import javax.swing.table.TableCellRenderer;
 import javax.swing.text.BadLocationException;
 import java.awt.*;
+import java.awt.datatransfer.StringSelection;
 import java.awt.event.*;
 import java.awt.geom.Rectangle2D;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.fife.ui.rtextarea.RTextScrollPane;
 import org.json.JSONObject;
@@ -79,6 +100,24 @@ class TableView {
     private JButton executeButton;
     private JButton queryPlanButton;
     private JButton queryDownloadButton;
+    private JLabel scanWarningLabel;
+    private JCheckBox profileCheckBox;
+    private JCheckBox cacheCheckBox;
+    private JLabel cachedLabel;
+    private JButton refreshButton;
+    private JCheckBox editCheckBox;
+    private JLabel editsLabel;
+    private JButton commitButton;
+    private JButton discardButton;
+    private JCheckBox watchCheckBox;
+    private JComboBox<Integer> watchIntervalBox;
+    private Timer watchTimer;
+    private JButton lookupButton;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile String lastQuery;
+    /* the query the watch checked the plan of, null until it starts */
+    private volatile String watchedQuery;
+    private RowWatcher rowWatcher;
     private JPanel resultPanel;
     private JPanel errorResultPanel;
     private DatabaseTable myTable;
@@ -93,10 +132,12 @@ class TableView {
     private List<String> keywordSuggestions;
     private List<String> triggerList;
     private boolean isJsonCollection;
+    private final FullScanCheck fullScanCheck;
 
     TableView(Project project, DataBaseVirtualFile file) {
         this.file = file;
         this.project = project;
+        this.fullScanCheck = new FullScanCheck(project);
         this.pageCache = null;
         previousCommandsSet = new HashSet<>();
 
@@ -105,7 +146,7 @@ class TableView {
         IConnection connection;
 
         try { // checks if the table is json collection
-            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(file.getTable());
 
             String schemaJson = connection.showSchema(file.getTable());
             String result = connection.showSchema(file.getTable());
@@ -139,6 +180,43 @@ class TableView {
             queryDownloadButton.setEnabled(false);
             downloadQueryResult();
         });
+        profileCheckBox.addActionListener(e -> {
+            if (pageCache != null) {
+                pageCache.setProfiler(profileCheckBox.isSelected() ? new ColumnProfiler() : null);
+            }
+        });
+        cacheCheckBox.addActionListener(e -> ConnectionDataProviderService.getInstance(project).putValue(
+                ConnectionDataProviderService.KEY_RESULT_CACHE, String.valueOf(cacheCheckBox.isSelected())));
+        refreshButton.addActionListener(e -> {
+            executeButton.setEnabled(false);
+            refreshButton.setEnabled(false);
+            executeQuery(true);
+        });
+        editCheckBox.addActionListener(e -> toggleEditing());
+        commitButton.addActionListener(e -> commitEdits());
+        discardButton.addActionListener(e -> {
+            if (myTable.isEditing()) {
+                myTable.getCellEditor().cancelCellEditing();
+            }
+            myModel.getChangeset().discard();
+            myModel.fireTableDataChanged();
+        });
+        myModel.addTableModelListener(e -> updateEditButtons());
+        watchTimer = new Timer(5000, e -> poll());
+        watchCheckBox.addActionListener(e -> {
+            if (watchCheckBox.isSelected()) {
+                watchedQuery = null;
+                watchTimer.setDelay((Integer) watchIntervalBox.getSelectedItem() * 1000);
+                watchTimer.start();
+            } else {
+                watchTimer.stop();
+            }
+        });
+        watchIntervalBox.addActionListener(e -> {
+            watchTimer.setDelay((Integer) watchIntervalBox.getSelectedItem() * 1000);
+            watchTimer.setInitialDelay(watchTimer.getDelay());
+        });
+        lookupButton.addActionListener(e -> lookupKeys());
         navBar.addNextListener(e -> nextPage());
         navBar.addPrevListener(e -> prevPage());
 
@@ -262,6 +340,11 @@ class TableView {
         queryDownloadButton.setText("Download Query Result");
         queryDownloadButton.setIcon(AllIcons.Actions.Download);
         queryComponent.add(queryDownloadButton, new GridConstraints(4, 3, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        //warning about expensive operations in the plan of the last executed query
+        scanWarningLabel = new JLabel();
+        scanWarningLabel.setIcon(AllIcons.General.Warning);
+        scanWarningLabel.setVisible(false);
+        queryComponent.add(scanWarningLabel, new GridConstraints(5, 0, 1, 4, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
 
         resultPanel = new JPanel(myLayout);
 
@@ -282,6 +365,53 @@ class TableView {
 
         //navigation bar
         navBar = new NavigationBar();
+        //statistics of the fetched rows shown in the column header tooltips
+        profileCheckBox = new JCheckBox("Profile columns");
+        profileCheckBox.setToolTipText("Show null rate, range, distinct values and JSON fields of the fetched rows in the column headers");
+        navBar.add(profileCheckBox);
+        //rows of a query run again are shown from the result cache of the connection
+        cacheCheckBox = new JCheckBox("Cache results");
+        cacheCheckBox.setToolTipText("Show the rows of a query run again without reading the table, until the table is written through this connection");
+        cacheCheckBox.setSelected(Boolean.parseBoolean(ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_RESULT_CACHE)));
+        navBar.add(cacheCheckBox);
+        cachedLabel = new JLabel();
+        cachedLabel.setIcon(AllIcons.General.Information);
+        cachedLabel.setVisible(false);
+        navBar.add(cachedLabel);
+        refreshButton = new JButton(AllIcons.Actions.Refresh);
+        refreshButton.setToolTipText("Run the query again on the table");
+        refreshButton.setVisible(false);
+        navBar.add(refreshButton);
+        //cells edited in place, written together on commit
+        editCheckBox = new JCheckBox("Edit cells");
+        editCheckBox.setToolTipText("Edit cells in place and write the edited rows together, in one request per shard");
+        navBar.add(editCheckBox);
+        editsLabel = new JLabel();
+        navBar.add(editsLabel);
+        commitButton = new JButton("Commit", AllIcons.Actions.Commit);
+        commitButton.setToolTipText("Write the edited rows");
+        navBar.add(commitButton);
+        discardButton = new JButton(AllIcons.Actions.Rollback);
+        discardButton.setToolTipText("Discard the edits");
+        navBar.add(discardButton);
+        updateEditButtons();
+        //query run again on an interval, showing the rows that changed
+        watchCheckBox = new JCheckBox("Watch");
+        watchCheckBox.setToolTipText("Run the query again on an interval and highlight the rows that changed");
+        navBar.add(watchCheckBox);
+        watchIntervalBox = new ComboBox<>(new Integer[]{2, 5, 10, 30, 60});
+        watchIntervalBox.setSelectedItem(5);
+        watchIntervalBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, value + " s", index, isSelected, cellHasFocus);
+            }
+        });
+        navBar.add(watchIntervalBox);
+        //rows read by a list of primary keys
+        lookupButton = new JButton("Lookup keys", AllIcons.Actions.Find);
+        lookupButton.setToolTipText("Read the rows of a pasted or loaded list of primary keys, each by its key");
+        navBar.add(lookupButton);
         topComponent.add(navBar, BorderLayout.SOUTH);
     }
 
@@ -487,7 +617,7 @@ class TableView {
             public void run(@NotNull ProgressIndicator indicator) {
                 IConnection con;
                 try {
-                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(file.getTable());
                     String queryPlan = con.fetchQueryPlan(query);
                     SwingUtilities.invokeLater(() -> {
                         JTextArea textArea = new JTextArea(queryPlan);
@@ -509,21 +639,59 @@ class TableView {
     }
 
     private void executeQuery() {
+        executeQuery(false);
+    }
+
+    /**
+     * Executes the query, or shows the rows kept by the result cache of the
+     * connection if caching is on and the table was not written since.
+     * Only a query known to read just the table of this view is cached.
+     *
+     * @param refresh true to read the table even if rows are kept
+     */
+    private void executeQuery(boolean refresh) {
         final String query = queryField.getText();
+        final String tableName = ResultCache.getTable(query);
+        final boolean useCache = cacheCheckBox.isSelected() && tableName != null &&
+                tableName.equalsIgnoreCase(file.getTable().getName());
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Executing Query", false) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
                 IConnection con;
                 try {
-                    con = DBProject.getInstance(project).getConnection();
+                    con = DBProject.getInstance(project).getConnection(file.getTable());
+                    ResultCache cache = con.getResultCache();
+                    if (useCache && !refresh) {
+                        ResultCache.Rows cached = cache.get(query, tableName, () -> con.query(query));
+                        if (cached != null) {
+                            setResult(cached, query, null);
+                            showCached(cached);
+                            return;
+                        }
+                    }
+                    showCached(null);
+                    indicator.setText("Checking query plan");
+                    if (!checkFullScan(con, query)) {
+                        ApplicationManager.getApplication().invokeLater(() -> executeButton.setEnabled(true));
+                        return;
+                    }
+                    indicator.setText("Executing query");
+                    StatementLogService.Recorder recorder = StatementLogService.getInstance(project).start(
+                            DBProject.getConnectionUid(file.getTable()), con, StatementLogService.QUERY,
+                            file.getTable().getName(), query);
                     Iterator<?> result;
                     try {
+                        long stamp = useCache ? cache.getStamp(tableName) : 0;
                         result = con.query(query);
+                        if (useCache) {
+                            result = cache.record(query, tableName, stamp, result);
+                        }
                     } catch (Exception ex) {
+                        recorder.failed(ex);
                         showErrorResult(OracleNoSqlBundle.message(ERROR, ex.getMessage()));
                         return;
                     }
-                    setResult(result, query);
+                    setResult(result, query, recorder);
                 } catch (Exception ex) {
                     showErrorResult(OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage());
                 }
@@ -531,6 +699,28 @@ class TableView {
         });
     }
 
+    /**
+     * Analyzes the plan of a query before it is executed. Expensive operations
+     * are shown below the query. Runs in a background thread.
+     *
+     * @return false if the user cancelled the query
+     */
+    private boolean checkFullScan(IConnection con, String query) {
+        return fullScanCheck.check(DBProject.getConnectionUid(file.getTable()), con, query, this::showScanWarning);
+    }
+
+    /**
+     * Shows or hides the warning below the query.
+     *
+     * @param warning text of the warning, null to hide it
+     */
+    private void showScanWarning(String warning) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            scanWarningLabel.setText(warning);
+            scanWarningLabel.setVisible(warning != null);
+        });
+    }
+
     /**
      * Method to add a successfull query run in the history of previous commands
      */
@@ -568,7 +758,7 @@ class TableView {
                 Iterator<?> result;
                 try {
                     IConnection con;
-                    con = DBProject.getInstance(project).getConnection();
+                    con = DBProject.getInstance(project).getConnection(file.getTable());
                     try {
                         result = con.query(query);
                     } catch (Exception ex) {
@@ -640,6 +830,8 @@ class TableView {
                         showErrorResult("Error downloading the query result: " + e.getMessage());
                         return;
                     }
+                    ExportEvent event = new ExportEvent();
+                    event.begin();
                     try (BufferedWriter writer = new BufferedWriter(fileWriter, 8192)) {
                         int batchSize = 100;
                         writer.write("[");
@@ -662,6 +854,14 @@ class TableView {
                             }
                         }
                         writer.flush();
+                        if (event.shouldCommit()) {
+                            event.setKind("queryResult");
+                            event.setTable(file.getTable().getName());
+                            event.setPath(selectedFile.getPath());
+                            event.setRows(count);
+                            event.setBytes(selectedFile.length());
+                            event.commit();
+                        }
                         downloadComplete(result, returnVal, selectedFile);
                     } catch (Exception e) {
                         showErrorResult("Download Failed:<br/>Error downloading the query result: " + e.getMessage());
@@ -709,18 +909,44 @@ class TableView {
 
     }
 
-    private void setResult(Iterator<?> result, String query) {
-        try {
-            pageCache =  DBProject.getInstance(project).getConnectionProfile().getTablePageCacheInstance(result, file.getTable());
-            String pageSizeAsString = ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE);
-            if (pageSizeAsString == null) {
-                pageSizeAsString = "20";
-                ConnectionDataProviderService.getInstance(project).putValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE, pageSizeAsString);
+    /**
+     * Shows when the rows shown were read from the table, next to a button
+     * reading them again, or hides both if the rows were just read.
+     */
+    private void showCached(ResultCache.Rows cached) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (cached != null) {
+                long minutes = (System.currentTimeMillis() - cached.getCreated()) / 60000;
+                cachedLabel.setText("Cached " + (minutes == 0 ? "less than a minute" : minutes + " min") + " ago");
+                cachedLabel.setToolTipText(cached.isComplete() ? "All rows of the result are kept" :
+                        "The first " + cached.getCachedRows() + " rows are kept, the next are read from the table");
             }
-            int pageSize = Integer.parseInt(pageSizeAsString);
+            cachedLabel.setVisible(cached != null);
+            refreshButton.setVisible(cached != null);
+            refreshButton.setEnabled(true);
+        });
+    }
 
-            pageCache.setPageSize(pageSize);
+    /**
+     * Shows the first page of a query result and logs the query with the
+     * cost of fetching that page.
+     *
+     * @param query the query, or null if the rows are not the result of a
+     * query
+     * @param recorder log of the query, or null if the rows are not read
+     * from the table
+     */
+    private void setResult(Iterator<?> result, String query, StatementLogService.Recorder recorder) {
+        try {
+            pageCache =  DBProject.getInstance(project).getConnection(file.getTable()).getProfile().getTablePageCacheInstance(result, file.getTable());
+            pageCache.setPageSize(getPageSize());
+            if (profileCheckBox.isSelected()) {
+                pageCache.setProfiler(new ColumnProfiler());
+            }
         } catch (Exception ex) {
+            if (recorder != null) {
+                recorder.failed(ex);
+            }
             showErrorResult("Error getting Connection Profile" + ex.getMessage());
             return;
         }
@@ -728,48 +954,141 @@ class TableView {
 
         try {
             pageCache.nextPage(isJsonCollection);
-            if (!pageCache.getPages().isEmpty())
+            if (query != null && !pageCache.getPages().isEmpty())
                 setPreviousCommand(query);
         } catch (Exception ex) {
+            if (recorder != null) {
+                recorder.failed(ex);
+            }
             showErrorResult(OracleNoSqlBundle.message(ERROR, ex.getMessage()));
             return;
         }
+        lastQuery = query;
+        if (recorder != null) {
+            recorder.succeeded(pageCache.getPages().isEmpty() ? 0 : pageCache.getCurrentPage().getRows().size());
+        }
         ApplicationManager.getApplication().invokeLater(() -> {
+            // a watch compares the next run with the rows of this one
+            rowWatcher = null;
             updateTable();
             navBar.updateButtons();
             executeButton.setEnabled(true);
         });
     }
 
+    private int getPageSize() {
+        String pageSizeAsString = ConnectionDataProviderService.getInstance(project).getValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE);
+        if (pageSizeAsString == null) {
+            pageSizeAsString = "20";
+            ConnectionDataProviderService.getInstance(project).putValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE, pageSizeAsString);
+        }
+        return Integer.parseInt(pageSizeAsString);
+    }
+
     /**
-     * Method that hardcodes the text to "Download Binary Object" in the UI table.
+     * Runs the last query again for a watch, in the background, and shows
+     * the page shown before with only the rows that changed redrawn. A run
+     * is skipped while the previous one has not finished or a cell is
+     * edited. The first run of a watch, or of a query run since, goes through
+     * the full scan check: the watch stops if the user cancels it.
      */
-    private void setBinaryRenderer() {
-        Table table = file.getTable();
-        for (int i = 0; i < table.getFieldCount(); i++) {
-            String name = table.getFields().get(i).getName();
-            if (table.getFields().get(i).getType().equals(Field.Type.BINARY) || table.getFields().get(i).getType().equals(Field.Type.FIXED_BINARY)) {
-                myTable.getColumnModel().getColumn(i).setCellRenderer(new HardCodedTextRenderer());
+    private void poll() {
+        String query = lastQuery;
+        if (query == null || pageCache == null || myTable.isEditing() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        int pageNumber = Math.max(1, pageCache.getCurrentPageNumber());
+        boolean profile = profileCheckBox.isSelected();
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            try {
+                IConnection con = DBProject.getInstance(project).getConnection(file.getTable());
+                if (!query.equals(watchedQuery)) {
+                    if (!checkFullScan(con, query)) {
+                        ApplicationManager.getApplication().invokeLater(() -> {
+                            watchCheckBox.setSelected(false);
+                            watchTimer.stop();
+                        });
+                        return;
+                    }
+                    watchedQuery = query;
+                }
+                TablePageCache cache = con.getProfile().getTablePageCacheInstance(con.query(query), file.getTable());
+                cache.setPageSize(getPageSize());
+                if (profile) {
+                    cache.setProfiler(new ColumnProfiler());
+                }
+                for (int i = 0; i < pageNumber && cache.hasNextPage(); i++) {
+                    cache.nextPage(isJsonCollection);
+                }
+                ApplicationManager.getApplication().invokeLater(() -> showWatched(query, cache));
+            } catch (Exception ex) {
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    watchCheckBox.setSelected(false);
+                    watchTimer.stop();
+                    showErrorResult(OracleNoSqlBundle.message(ERROR, ex.getMessage()));
+                });
+            } finally {
+                polling.set(false);
             }
+        });
+    }
 
+    private void showWatched(String query, TablePageCache cache) {
+        if (!watchCheckBox.isSelected() || !query.equals(lastQuery)) {
+            return;
         }
+        List<MapValue> rows = cache.getCurrentPageNumber() == 0 ? Collections.emptyList() : rawRows(cache);
+        if (rowWatcher == null) {
+            List<String> primaryKey = new ArrayList<>();
+            for (Field field : file.getTable().getFields()) {
+                if (field.isPrimaryKey() || field.isShardKey()) {
+                    primaryKey.add(field.getName());
+                }
+            }
+            rowWatcher = new RowWatcher(primaryKey);
+            rowWatcher.update(pageCache.getCurrentPageNumber() == 0 ? Collections.emptyList() : rawRows(pageCache));
+        }
+        RowWatcher.Changes changes = rowWatcher.update(rows);
+        boolean sameColumns = !rows.isEmpty() && myModel.getPageCache() == pageCache &&
+                cache.getColumnHeaders().equals(pageCache.getColumnHeaders());
+        pageCache = cache;
+        navBar.setPageCache(cache, cache.getCurrentPageNumber());
+        if (sameColumns) {
+            if (!changes.isEmpty()) {
+                myModel.setWatchedPage(cache, changes);
+            }
+        } else {
+            updateTable();
+        }
+        navBar.updateButtons();
     }
 
-    public class HardCodedTextRenderer extends JEditorPane implements TableCellRenderer {
-        public HardCodedTextRenderer() {
-            setEditorKit(JEditorPane.createEditorKitForContentType("text/html"));
-            setEditable(false);
+    private static List<MapValue> rawRows(TablePageCache cache) {
+        List<MapValue> rows = new ArrayList<>();
+        for (TableRow row : cache.getCurrentPage().getRows()) {
+            rows.add((MapValue) row.getRawData());
         }
+        return rows;
+    }
+
+    /**
+     * Stops the watch of the query, when the editor is closed.
+     */
+    void dispose() {
+        watchTimer.stop();
+    }
+
+    /**
+     * Method that shows "Download Binary Object" in the binary columns of the UI table.
+     */
+    private void setBinaryRenderer() {
+        Table table = file.getTable();
+        BinaryCellRenderer renderer = new BinaryCellRenderer();
+        for (int i = 0; i < table.getFieldCount(); i++) {
+            if (table.getFields().get(i).getType().equals(Field.Type.BINARY) || table.getFields().get(i).getType().equals(Field.Type.FIXED_BINARY)) {
+                myTable.getColumnModel().getColumn(i).setCellRenderer(renderer);
+            }
 
-        @Override
-        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-            // Set the text for the cell
-            String val = Objects.requireNonNull(table.getValueAt(row, column)).toString();
-            if (val != null && !val.trim().isEmpty()) {
-                setText("<html><body><u><font color='#1E90FF'>Download binary object</font></u></body></html>");
-            } else
-                setText("null");
-            return this;
         }
     }
 
@@ -787,6 +1106,282 @@ class TableView {
         return topComponent;
     }
 
+    /**
+     * Starts collecting edits of cells, or stops and drops them once
+     * confirmed.
+     */
+    private void toggleEditing() {
+        RowChangeset changeset = myModel.getChangeset();
+        if (editCheckBox.isSelected()) {
+            if (isJsonCollection) {
+                editCheckBox.setSelected(false);
+                JOptionPane.showMessageDialog(null, "Rows of JSON collection tables can not be edited in place", "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+                return;
+            }
+            Table table = file.getTable();
+            List<String> primaryKey = new ArrayList<>();
+            List<String> shardKey = new ArrayList<>();
+            for (Field field : table.getFields()) {
+                if (field.isPrimaryKey() || field.isShardKey()) {
+                    primaryKey.add(field.getName());
+                }
+                if (field.isShardKey()) {
+                    shardKey.add(field.getName());
+                }
+            }
+            myModel.setChangeset(new RowChangeset(table.getName(), primaryKey, shardKey));
+            return;
+        }
+        if (myTable.isEditing()) {
+            myTable.getCellEditor().cancelCellEditing();
+        }
+        if (changeset != null && !changeset.isEmpty()) {
+            String msg = "Discard the edits of " + changeset.size() + " row(s)?";
+            int result = JOptionPane.showConfirmDialog(null, msg, "Edit cells", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonWarning);
+            if (result != JOptionPane.OK_OPTION) {
+                editCheckBox.setSelected(true);
+                return;
+            }
+        }
+        myModel.setChangeset(null);
+    }
+
+    private void updateEditButtons() {
+        RowChangeset changeset = myModel.getChangeset();
+        boolean edited = changeset != null && !changeset.isEmpty();
+        editsLabel.setText(edited ? changeset.size() + " row(s) edited" : "");
+        editsLabel.setVisible(edited);
+        commitButton.setVisible(changeset != null);
+        commitButton.setEnabled(edited);
+        discardButton.setVisible(changeset != null);
+        discardButton.setEnabled(edited);
+    }
+
+    /**
+     * Writes the edited rows in the background, then reads the rows again
+     * if any was written. Rows not written stay edited.
+     */
+    private void commitEdits() {
+        if (myTable.isEditing() && !myTable.getCellEditor().stopCellEditing()) {
+            return;
+        }
+        RowChangeset changeset = myModel.getChangeset();
+        if (changeset == null || changeset.isEmpty()) {
+            return;
+        }
+        commitButton.setEnabled(false);
+        editCheckBox.setEnabled(false);
+        myTable.setEnabled(false);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Committing Edits", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                RowChangeset.Result result = null;
+                try {
+                    IConnection con = DBProject.getInstance(project).getConnection(file.getTable());
+                    result = changeset.commit(con.unwrap(NoSQLHandle.class));
+                    notifyCommit(result);
+                } catch (Exception ex) {
+                    Notifications.Bus.notify(new Notification("Oracle NOSQL", "Oracle NoSql explorer",
+                            "Error committing edits: " + ex.getMessage(), NotificationType.ERROR), project);
+                }
+                boolean written = result != null && result.getWritten() > 0;
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    editCheckBox.setEnabled(true);
+                    myTable.setEnabled(true);
+                    myModel.fireTableDataChanged();
+                    if (written) {
+                        executeButton.setEnabled(false);
+                        executeQuery(true);
+                    }
+                });
+            }
+        });
+    }
+
+    private void notifyCommit(RowChangeset.Result result) {
+        StringBuilder message = new StringBuilder();
+        message.append(result.getWritten()).append(" row(s) written in ")
+                .append(result.getBatches()).append(" request(s)");
+        for (String conflict : result.getConflicts()) {
+            message.append("<br>").append(StringUtil.escapeXmlEntities(conflict));
+        }
+        for (String error : result.getErrors()) {
+            message.append("<br>").append(StringUtil.escapeXmlEntities(error));
+        }
+        boolean failed = !result.getConflicts().isEmpty() || !result.getErrors().isEmpty();
+        if (failed) {
+            message.append("<br>Rows not written stay edited.");
+        }
+        Notifications.Bus.notify(new Notification("Oracle NOSQL", "Oracle NoSql explorer", message.toString(),
+                failed ? NotificationType.WARNING : NotificationType.INFORMATION), project);
+    }
+
+    /**
+     * Asks for a list of primary keys, pasted or loaded from a file, then
+     * reads their rows in the background. Rows found are shown as they are
+     * read; keys without a row are listed in a notification.
+     */
+    private void lookupKeys() {
+        Table table = file.getTable();
+        Map<String, Field.Type> primaryKey = new LinkedHashMap<>();
+        if (table.getPrimaryKeys() != null) {
+            for (Field field : table.getPrimaryKeys().getFields()) {
+                primaryKey.put(field.getName(), field.getType());
+            }
+        }
+        if (primaryKey.isEmpty()) {
+            JOptionPane.showMessageDialog(null, "Primary key of table " + table.getName() + " is not known, refresh the table first", "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            return;
+        }
+        JTextArea keysArea = new JTextArea(12, 40);
+        JButton loadButton = new JButton("Load file...", AllIcons.Actions.MenuOpen);
+        loadButton.addActionListener(e -> {
+            JFileChooser jFileChooser = new JFileChooser();
+            jFileChooser.setDialogTitle("Load keys of " + table.getName());
+            if (jFileChooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            try {
+                keysArea.setText(new String(Files.readAllBytes(jFileChooser.getSelectedFile().toPath()), StandardCharsets.UTF_8));
+            } catch (IOException | RuntimeException ex) {
+                JOptionPane.showMessageDialog(null, "Error reading file: " + ex.getMessage(), "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            }
+        });
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(new JLabel("<html>One key per line: values of " + StringUtil.escapeXmlEntities(String.join(", ", primaryKey.keySet())) +
+                " separated by commas, optionally under a line naming them, or JSON objects</html>"), BorderLayout.NORTH);
+        panel.add(new JBScrollPane(keysArea), BorderLayout.CENTER);
+        JPanel loadPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        loadPanel.add(loadButton);
+        panel.add(loadPanel, BorderLayout.SOUTH);
+        int option = JOptionPane.showConfirmDialog(null, panel, "Lookup keys of " + table.getName(), JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        String text = keysArea.getText();
+        if (option != JOptionPane.OK_OPTION || text.trim().isEmpty()) {
+            return;
+        }
+        lookupButton.setEnabled(false);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Looking up keys of " + table.getName(), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    IConnection con = DBProject.getInstance(project).getConnection(table);
+                    KeyLookup lookup = new KeyLookup(con.unwrap(NoSQLHandle.class), table.getName(), primaryKey);
+                    KeyLookup.Keys keys = lookup.parseKeys(text);
+                    if (keys.getKeys().isEmpty()) {
+                        notifyLookup(keys, null);
+                        return;
+                    }
+                    KeyLookup.Hits hits = new KeyLookup.Hits(new KeyLookup.Listener() {
+                        @Override
+                        public void found(MapValue row) {
+                        }
+
+                        @Override
+                        public void missing(MapValue key) {
+                        }
+
+                        @Override
+                        public void progress(int done, int total) {
+                            if (indicator.isCanceled()) {
+                                lookup.cancel();
+                            }
+                            indicator.setFraction((double) done / total);
+                            indicator.setText2(done + " of " + total + " key(s) read");
+                        }
+                    }, getPageSize());
+                    Future<KeyLookup.Result> future = ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                        try {
+                            return lookup.lookup(keys.getKeys(), hits);
+                        } finally {
+                            hits.close();
+                        }
+                    });
+                    // the first page is shown once read; the hits never wait, so
+                    // the buttons are refreshed as the next pages are read
+                    hits.awaitPage();
+                    setResult(hits, null, null);
+                    KeyLookup.Result result;
+                    int available = -1;
+                    while (true) {
+                        try {
+                            result = future.get(200, TimeUnit.MILLISECONDS);
+                            break;
+                        } catch (TimeoutException ex) {
+                            if (indicator.isCanceled()) {
+                                lookup.cancel();
+                            }
+                            if (hits.getAvailable() != available) {
+                                available = hits.getAvailable();
+                                ApplicationManager.getApplication().invokeLater(() -> navBar.updateButtons());
+                            }
+                        }
+                    }
+                    ApplicationManager.getApplication().invokeLater(() -> navBar.updateButtons());
+                    notifyLookup(keys, result);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception ex) {
+                    Notifications.Bus.notify(new Notification("Oracle NOSQL", "Oracle NoSql explorer",
+                            "Error looking up keys: " + ex.getMessage(), NotificationType.ERROR), project);
+                } finally {
+                    ApplicationManager.getApplication().invokeLater(() -> lookupButton.setEnabled(true));
+                }
+            }
+        });
+    }
+
+    /**
+     * @param result what the lookup found, or null if no key was parsed
+     */
+    private void notifyLookup(KeyLookup.Keys keys, KeyLookup.Result result) {
+        StringBuilder message = new StringBuilder();
+        List<MapValue> missing = result == null ? Collections.emptyList() : result.getMissing();
+        if (result == null) {
+            message.append("No key to look up");
+        } else {
+            message.append(result.isCancelled() ? "Lookup cancelled: " : "")
+                    .append(result.getFound()).append(" of ").append(keys.getKeys().size())
+                    .append(" key(s) found in ").append(StringUtil.formatDuration(result.getMillis()));
+            if (!missing.isEmpty()) {
+                message.append("<br>").append(missing.size()).append(" not found:");
+                for (int i = 0; i < Math.min(10, missing.size()); i++) {
+                    message.append("<br>").append(StringUtil.escapeXmlEntities(missing.get(i).toJson()));
+                }
+                if (missing.size() > 10) {
+                    message.append("<br>...");
+                }
+            }
+            if (result.getFailures() > 0) {
+                message.append("<br>").append(result.getFailures()).append(" could not be read:");
+                for (String error : result.getErrors()) {
+                    message.append("<br>").append(StringUtil.escapeXmlEntities(error));
+                }
+            }
+        }
+        if (keys.getInvalid() > 0) {
+            message.append("<br>").append(keys.getInvalid()).append(" line(s) are not keys:");
+            for (String error : keys.getErrors()) {
+                message.append("<br>").append(StringUtil.escapeXmlEntities(error));
+            }
+        }
+        boolean failed = result == null || result.getFailures() > 0 || keys.getInvalid() > 0;
+        Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", message.toString(),
+                failed ? NotificationType.WARNING : NotificationType.INFORMATION);
+        if (!missing.isEmpty()) {
+            notification.addAction(new NotificationAction("Copy keys not found") {
+                @Override
+                public void actionPerformed(@NotNull AnActionEvent e, @NotNull Notification notification) {
+                    StringBuilder lines = new StringBuilder();
+                    for (MapValue key : missing) {
+                        lines.append(key.toJson()).append('\n');
+                    }
+                    CopyPasteManager.getInstance().setContents(new StringSelection(lines.toString()));
+                }
+            });
+        }
+        Notifications.Bus.notify(notification, project);
+    }
+
     private void prevPage() {
         pageCache.prevPage();
         updateTable();
@@ -18,6 +18,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 
 import oracle.nosql.driver.values.ArrayValue;
 import oracle.nosql.driver.values.FieldValue;
@@ -25,7 +26,11 @@ import oracle.nosql.driver.values.JsonUtils;
 import oracle.nosql.driver.values.MapValue;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.model.cloud.table.ui.CloudTablePageCache;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.query.RowUpdate;
+import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.Field.Type;
 import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.Table;
@@ -36,8 +41,10 @@ import org.json.JSONObject;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -65,10 +72,18 @@ public class UpdateRowGUI {
     private static Project project;
     private String schema = null;
     private String jString;
-
-    public UpdateRowGUI(Project project, Table table, String jString, String primaryKeys) {
+    private final MapValue original;
+    /** clauses of a partial update shown for confirmation, at most */
+    private static final int MAX_SHOWN_CLAUSES = 12;
+
+    /**
+     * @param original the row as read, to update only the fields changed
+     *                 in its JSON; null to set every field
+     */
+    public UpdateRowGUI(Project project, Table table, String jString, String primaryKeys, MapValue original) {
         assert comboBox1 != null;
         this.primaryKeys = primaryKeys;
+        this.original = original;
         mrCounters = new HashMap<>();
         mrCounterType = new HashMap<>();
         jsonFields = new HashSet<>();
@@ -89,7 +104,7 @@ public class UpdateRowGUI {
 
         IConnection connection;
         try {
-            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
             schema = connection.showSchema(table);
             JSONObject schemaJson = new JSONObject(schema);
             isJsonCollection = schemaJson.has("jsonCollection");
@@ -151,7 +166,7 @@ public class UpdateRowGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
                                     Schema schema = table.getSchema();
                                     String schemaJson = con.showSchema(table);
@@ -165,11 +180,11 @@ public class UpdateRowGUI {
                                     }
                                     if (flag3) {
                                         String st = formUpdateQuery(table, schemaJson);
-                                        con.dmlQuery(st);
+                                        executeDml(con, table, st);
                                     } else {
                                         String test = formInsertQuery(table, schemaJson);
                                         if(!mrCounterUpdateError)
-                                            con.dmlQuery(test);
+                                            executeDml(con, table, test);
                                     }
                                     schema.recursiveRefresh();
                                 } catch (Exception ex) {
@@ -197,13 +212,23 @@ public class UpdateRowGUI {
                         }
                     });
                 } else if (comboItem.equals("Supply row contents as a JSON object (For Advanced DDL input)")) {
+                    RowUpdate partial = partialUpdate(table);
+                    if (partial != null) {
+                        if (partial.isEmpty()) {
+                            JOptionPane.showMessageDialog(frame, "No field of the row was changed.", "Update Row", JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonInformation);
+                        } else if (confirmPartialUpdate(partial)) {
+                            frame.dispose();
+                            runPartialUpdate(table, partial);
+                        }
+                        return;
+                    }
                     frame.dispose();
                     ProgressManager.getInstance().run(new Task.Backgroundable(project, "Updating Row", false) {
                         @Override
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
 
                                     Schema schema = table.getSchema();
@@ -220,14 +245,14 @@ public class UpdateRowGUI {
                                     if (flag3) {
                                         String st = jsonDDLUpdate(table, schemaJson, jString);
                                         if (!st.equals("generate_new_row"))
-                                            con.dmlQuery(st);
+                                            executeDml(con, table, st);
                                         else
                                             con.insertFromJson(table, "{}", true);
                                     } else {
                                         String ddljString = formDDLUpdate();
                                         String st = formDDLUpdate(ddljString, table);
                                         if(!mrCounterUpdateError)
-                                            con.dmlQuery(st);
+                                            executeDml(con, table, st);
                                     }
                                     schema.recursiveRefresh();
                                 } catch (Exception ex) {
@@ -263,6 +288,106 @@ public class UpdateRowGUI {
         createFrame();
     }
 
+    /**
+     * Returns the update of only the fields changed in the JSON of the row,
+     * or null if every field is to be set as before: the row as read is not
+     * known, the table has MR counters, which are updated by clauses of
+     * their own, or the edit adds a column or would send no less than the
+     * whole row.
+     */
+    private RowUpdate partialUpdate(Table table) {
+        if (original == null || !mrCounters.isEmpty()) {
+            return null;
+        }
+        try {
+            MapValue edited = JsonUtils.createValueFromJson(formDDLUpdate(), null).asMap();
+            List<String> keys = new ArrayList<>();
+            for (Field field : table.getPrimaryKeys().getFields()) {
+                keys.add(field.getName());
+            }
+            // a row of a JSON collection is read with its document nested, but edited flat
+            RowUpdate update = isJsonCollection
+                    ? RowUpdate.diffDocument(table.getName(), keys, original, CloudTablePageCache.ROW_DATA, edited)
+                    : RowUpdate.diff(table.getName(), keys, original, edited);
+            if (update.requiresFullWrite() || update.getStatementBytes() >= update.getRowBytes()) {
+                return null;
+            }
+            return update;
+        } catch (RuntimeException ex) {
+            // e.g. the key was changed, which validate() reports
+            return null;
+        }
+    }
+
+    private boolean confirmPartialUpdate(RowUpdate update) {
+        List<String> clauses = update.getClauses();
+        StringBuilder msg = new StringBuilder("Update ").append(clauses.size()).append(" field(s) of the row:\n");
+        for (int i = 0; i < clauses.size() && i < MAX_SHOWN_CLAUSES; i++) {
+            msg.append("  ").append(StringUtil.trimMiddle(clauses.get(i), 100)).append("\n");
+        }
+        if (clauses.size() > MAX_SHOWN_CLAUSES) {
+            msg.append("  and ").append(clauses.size() - MAX_SHOWN_CLAUSES).append(" more\n");
+        }
+        msg.append("\nSends ").append(StringUtil.formatFileSize(update.getStatementBytes()))
+                .append(" instead of the ").append(StringUtil.formatFileSize(update.getRowBytes()))
+                .append(" of the whole row.");
+        int result = JOptionPane.showConfirmDialog(frame, msg.toString(), "Update Row",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonWarning);
+        return result == JOptionPane.OK_OPTION;
+    }
+
+    private static void runPartialUpdate(Table table, RowUpdate update) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Updating Row", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(
+                            "Oracle NOSQL", "Oracle NoSql explorer",
+                            OracleNoSqlBundle
+                                    .message(
+                                            "oracle.nosql.toolWindow.connection.get.error") +
+                                    ex.getMessage(),
+                            NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                try {
+                    executeDml(con, table, update.getStatement());
+                    table.getSchema().recursiveRefresh();
+                } catch (Exception ex) {
+                    Notification notification = new Notification(
+                            "Oracle NOSQL", "Oracle NoSql explorer",
+                            OracleNoSqlBundle
+                                    .message(
+                                            "oracle.nosql.toolWindow.updateRow.error") +
+                                    ex.getMessage(),
+                            NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                table.recursiveRefresh();
+            }
+        });
+    }
+
+    /**
+     * Executes an update statement and adds it to the statement log.
+     */
+    private static void executeDml(IConnection con, Table table, String statement) throws Exception {
+        StatementLogService.Recorder recorder = StatementLogService.getInstance(project).start(
+                DBProject.getConnectionUid(table), con, StatementLogService.DML, table.getName(), statement);
+        try {
+            con.dmlQuery(statement);
+        } catch (Exception ex) {
+            recorder.failed(ex);
+            throw ex;
+        }
+        recorder.succeeded(0);
+    }
+
     private void createFrame() {
         frame = new JFrame("Update Row");
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -21,6 +21,7 @@ import java.util.Map;
 class GeneralSettingsGUI {
     private JPanel mainPanel;
     private JTextField rowField;
+    private JTextField scanThresholdField;
     private Project project;
     private ConnectionDataProviderService conService;
 
@@ -33,20 +34,29 @@ class GeneralSettingsGUI {
             service.putValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE,rowSize);
         }
         rowField.setText(rowSize);
+        String threshold = service.getValue(ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD);
+        if(threshold == null) {
+            threshold = ConnectionDataProviderService.DEFAULT_FULL_SCAN_THRESHOLD;
+            service.putValue(ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD,threshold);
+        }
+        scanThresholdField.setText(threshold);
         return mainPanel;
     }
 
 
     public boolean isModified() {
         return !rowField.getText().equals(conService.getValue(
-                ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE));
+                ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE)) ||
+                !scanThresholdField.getText().equals(conService.getValue(
+                ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD));
     }
 
     public void apply() throws ConfigurationException {
         validate();
         conService.putValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE,rowField.getText());
+        conService.putValue(ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD,scanThresholdField.getText());
 
-        // Update PAGE_SIZE in all multiple-connection states
+        // Update PAGE_SIZE and full scan threshold in all multiple-connection states
         MultipleConnectionsDataProviderService multi =
                 MultipleConnectionsDataProviderService.getInstance(project);
 
@@ -61,6 +71,10 @@ class GeneralSettingsGUI {
                     ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE,
                     rowField.getText()
             );
+            perConnectionState.dict.put(
+                    ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD,
+                    scanThresholdField.getText()
+            );
         }
     }
 
@@ -74,9 +88,19 @@ class GeneralSettingsGUI {
         if(!(rowSize>=5 && rowSize<=100)) {
             throw new ConfigurationException("Please enter an integer between 5-100");
         }
+        long threshold;
+        try {
+            threshold = Long.parseLong(scanThresholdField.getText());
+        } catch(Exception ex) {
+            throw new ConfigurationException("Please enter a number of read units, 0 to never confirm full scans");
+        }
+        if(threshold < 0) {
+            throw new ConfigurationException("Please enter a number of read units, 0 to never confirm full scans");
+        }
     }
 
     public void reset() {
         rowField.setText(conService.getValue(ConnectionDataProviderService.KEY_SHOW_TABLE_PAGE_SIZE));
+        scanThresholdField.setText(conService.getValue(ConnectionDataProviderService.KEY_FULL_SCAN_THRESHOLD));
     }
 }
@@ -0,0 +1,277 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.statementLog;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SearchTextField;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.intellij.plugin.common.StatementLogListener;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.model.connection.StatementLog;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.ListSelectionModel;
+import javax.swing.RowFilter;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.BorderLayout;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Toolwindow listing the logged statements of the project. The statements
+ * can be filtered by table or connection, sorted by any column and executed
+ * again. They are initially sorted by consumed capacity, most expensive
+ * first.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public class StatementLogToolWindow extends SimpleToolWindowPanel implements Disposable {
+    private static final String[] COLUMNS = {"Time", "Connection", "Kind", "Table", "Statement",
+            "Duration (ms)", "Rows", "Read Units", "Write Units", "Units", "Outcome"};
+    private static final int UNITS_COLUMN = 9;
+
+    private final Project project;
+    private final StatementTableModel tableModel = new StatementTableModel();
+    private final JBTable table = new JBTable(tableModel);
+    private final TableRowSorter<StatementTableModel> sorter = new TableRowSorter<>(tableModel);
+    private final SearchTextField filterField = new SearchTextField(false);
+
+    public StatementLogToolWindow(Project project) {
+        super(true, true);
+        this.project = project;
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setRowSorter(sorter);
+        sorter.setSortKeys(Collections.singletonList(new RowSorter.SortKey(UNITS_COLUMN, SortOrder.DESCENDING)));
+        filterField.getTextEditor().setToolTipText("Filter by table or connection");
+        filterField.addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent e) {
+                applyFilter();
+            }
+        });
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(filterField, BorderLayout.NORTH);
+        content.add(ScrollPaneFactory.createScrollPane(table), BorderLayout.CENTER);
+        setContent(content);
+        setToolbar(createToolbar().getComponent());
+
+        project.getMessageBus().connect(this).subscribe(StatementLogListener.TOPIC,
+                (StatementLogListener) entry -> ApplicationManager.getApplication().invokeLater(() -> tableModel.add(entry)));
+        reload();
+    }
+
+    private ActionToolbar createToolbar() {
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Reload the statement log", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                reload();
+            }
+        });
+        group.add(new DumbAwareAction("Run Again", "Execute the selected statement again", AllIcons.Actions.Execute) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                rerun(getSelectedEntry());
+            }
+
+            @Override
+            public void update(@NotNull AnActionEvent e) {
+                e.getPresentation().setEnabled(getSelectedEntry() != null);
+            }
+        });
+        group.add(new DumbAwareAction("Clear", "Delete all logged statements", AllIcons.Actions.GC) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                StatementLogService.getInstance(project).clear();
+                tableModel.setEntries(new ArrayList<>());
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, group, true);
+        toolbar.setTargetComponent(this);
+        return toolbar;
+    }
+
+    private StatementLog.Entry getSelectedEntry() {
+        int row = table.getSelectedRow();
+        return row < 0 ? null : tableModel.getEntry(table.convertRowIndexToModel(row));
+    }
+
+    private void applyFilter() {
+        String text = filterField.getText().trim().toLowerCase();
+        if (text.isEmpty()) {
+            sorter.setRowFilter(null);
+            return;
+        }
+        sorter.setRowFilter(new RowFilter<StatementTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends StatementTableModel, ? extends Integer> row) {
+                StatementLog.Entry entry = row.getModel().getEntry(row.getIdentifier());
+                return contains(entry.getTable(), text) || contains(entry.getConnectionName(), text);
+            }
+        });
+    }
+
+    private static boolean contains(String value, String lowerCaseText) {
+        return value != null && value.toLowerCase().contains(lowerCaseText);
+    }
+
+    /**
+     * Reloads the statements from the log file.
+     */
+    public void reload() {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Loading statement log", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    List<StatementLog.Entry> entries = StatementLogService.getInstance(project).getEntries();
+                    ApplicationManager.getApplication().invokeLater(() -> tableModel.setEntries(entries));
+                } catch (Exception ex) {
+                    notifyError("Error reading statement log: " + ex.getMessage());
+                }
+            }
+        });
+    }
+
+    private void rerun(StatementLog.Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (!StatementLogService.QUERY.equals(entry.getKind())) {
+            String msg = "<html>Execute this " + entry.getKind() + " statement again on " +
+                    StringUtil.escapeXmlEntities(String.valueOf(entry.getConnectionName())) + "?<br/><br/>" +
+                    StringUtil.escapeXmlEntities(StringUtil.shortenTextWithEllipsis(entry.getStatement(), 500, 0)) + "</html>";
+            int result = JOptionPane.showConfirmDialog(null, msg, "Run Again", JOptionPane.OK_CANCEL_OPTION,
+                    JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonWarning);
+            if (result != JOptionPane.OK_OPTION) {
+                return;
+            }
+        }
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Executing statement", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    StatementLog.Entry result = StatementLogService.getInstance(project).rerun(entry, indicator);
+                    if (result == null) {
+                        return;
+                    }
+                    Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer",
+                            "Statement executed in " + result.getDurationMs() + " ms, " + result.getRows() +
+                                    " row(s), " + result.getUnits() + " unit(s)", NotificationType.INFORMATION);
+                    Notifications.Bus.notify(notification, project);
+                } catch (Exception ex) {
+                    notifyError("Error executing statement: " + ex.getMessage());
+                }
+            }
+        });
+    }
+
+    private void notifyError(String message) {
+        Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", message, NotificationType.ERROR);
+        Notifications.Bus.notify(notification, project);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private static class StatementTableModel extends AbstractTableModel {
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        private List<StatementLog.Entry> entries = new ArrayList<>();
+
+        void setEntries(List<StatementLog.Entry> entries) {
+            this.entries = entries;
+            fireTableDataChanged();
+        }
+
+        void add(StatementLog.Entry entry) {
+            entries.add(entry);
+            fireTableRowsInserted(entries.size() - 1, entries.size() - 1);
+        }
+
+        StatementLog.Entry getEntry(int row) {
+            return entries.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return entries.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column >= 5 && column <= UNITS_COLUMN ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            StatementLog.Entry e = entries.get(row);
+            switch (column) {
+                case 0:
+                    return timeFormat.format(new Date(e.getTimestamp()));
+                case 1:
+                    return e.getConnectionName();
+                case 2:
+                    return e.getKind();
+                case 3:
+                    return e.getTable();
+                case 4:
+                    return e.getStatement();
+                case 5:
+                    return e.getDurationMs();
+                case 6:
+                    return e.getRows();
+                case 7:
+                    return e.getReadUnits();
+                case 8:
+                    return e.getWriteUnits();
+                case UNITS_COLUMN:
+                    return e.getUnits();
+                default:
+                    return e.isSucceeded() ? "OK" : e.getError();
+            }
+        }
+    }
+}
@@ -10,15 +10,18 @@ package oracle.nosql.intellij.plugin.toolWindow;
 import java.util.HashSet;
 import oracle.nosql.model.schema.Datamodel;
 import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.FieldGroup;
 import oracle.nosql.model.schema.Index;
+import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.SchemaContainer;
+import oracle.nosql.model.schema.SchemaElement;
 import oracle.nosql.model.schema.Table;
+import oracle.nosql.model.util.NameIndex;
 
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -31,41 +34,119 @@ class BrowserTreeModel implements TreeModel {
 
     private final Set<TreeModelListener> treeModelListeners = new HashSet<>();
     private Datamodel root;
+    private NameIndex<SchemaElement<?>> searchIndex;
 
     public BrowserTreeModel(Datamodel root) {
         this.root = root;
     }
 
+    /**
+     * The root holds one schema per connection. It is not shown in the tree.
+     */
     @Override
     public Object getRoot() {
-        if (root == null) return null;
-        return root.getChildAt(0);
+        return root;
     }
 
     @SuppressWarnings("unused")
     public void setRoot(Datamodel root) {
         Object oldRoot = this.root;
         this.root = root;
+        this.searchIndex = null;
         fireTreeStructureChanged(this, null);
     }
 
     @SuppressWarnings("unused")
     public void reload() {
+        searchIndex = null;
         fireTreeStructureChanged(this,null);
     }
 
+    /**
+     * Replaces the schema of a connection by the schema of same name, e.g.
+     * once the tables of the connection are loaded.
+     *
+     * @param schema the schema to show
+     */
+    public void replaceSchema(Schema schema) {
+        if (root == null) {
+            return;
+        }
+        root.addChild(schema, true);
+        synchronized (this) {
+            searchIndex = null;
+        }
+        fireTreeStructureChanged(this, new TreePath(new Object[]{root, schema}));
+    }
+
+    /**
+     * Gets an index over the names of the tables, columns and indexes in the
+     * tree. The index is built on first use after the tree is (re)loaded.
+     *
+     * @return name index of the schema elements, empty if there is no schema
+     */
+    public synchronized NameIndex<SchemaElement<?>> getSearchIndex() {
+        if (searchIndex == null) {
+            NameIndex<SchemaElement<?>> index = new NameIndex<>();
+            if (root != null) {
+                for (Schema schema : root.getChildren()) {
+                    for (Table table : schema.getChildren()) {
+                        index.add(table);
+                        index.addAll(table.getChildren());
+                        for (int i = 0; i < table.getIndexCount(); i++) {
+                            index.add(table.getIndexAt(i));
+                        }
+                    }
+                }
+            }
+            searchIndex = index;
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Gets the path from the root of the tree to the given table, column or
+     * index.
+     *
+     * @param element a table, column or index
+     * @return path to the element or null if it is not in this tree
+     */
+    public TreePath getPathTo(SchemaElement<?> element) {
+        if (root == null || element == null) {
+            return null;
+        }
+        Table table;
+        if (element instanceof Table) {
+            table = (Table) element;
+        } else if (element instanceof Field) {
+            table = ((Field) element).getTable();
+        } else if (element instanceof Index) {
+            table = ((Index) element).getTable();
+        } else {
+            return null;
+        }
+        Schema schema = table == null ? null : table.getSchema();
+        if (schema == null || getIndexOfChild(root, schema) < 0 || getIndexOfChild(schema, table) < 0) {
+            return null;
+        }
+        TreePath path = new TreePath(new Object[]{root, schema, table});
+        if (element == table) {
+            return path;
+        }
+        return getIndexOfChild(table, element) < 0 ? null : path.pathByAddingChild(element);
+    }
+
     @Override
     public Object getChild(Object parent, int index)  {
        if(parent instanceof SchemaContainer) {
            if(parent instanceof Table) {
                Table table = (Table) parent;
-               List<Index> indexes = table.getIndexes();
                int fieldCount = table.getFieldCount();
-               int idxCount = indexes.size();
+               int idxCount = table.getIndexCount();
                if (index < fieldCount) {
                    return table.getChildAt(index);
                } else if (index < (fieldCount + idxCount)) {
-                   return indexes.get(index - fieldCount);
+                   return table.getIndexAt(index - fieldCount);
                } else if (index < (fieldCount + idxCount + 1)) {
                    return table.getPrimaryKeys();
                } else {
@@ -84,7 +165,7 @@ class BrowserTreeModel implements TreeModel {
         if(parent instanceof  SchemaContainer) {
             if(parent instanceof Table) {
                 Table table = (Table) parent;
-                return table.getChildCount()+table.getIndexes().size()+2;
+                return table.getChildCount()+table.getIndexCount()+2;
             }
             return ((SchemaContainer) parent).getChildCount();
         }
@@ -102,9 +183,45 @@ class BrowserTreeModel implements TreeModel {
 
     }
 
+    /**
+     * Children of a table are laid out as fields, then indexes, then the
+     * primary key group and finally the shard key group.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public int getIndexOfChild(Object parent, Object child) {
-        return 0;
+        if (parent == null || child == null) {
+            return -1;
+        }
+        if (parent instanceof Table) {
+            Table table = (Table) parent;
+            int fieldCount = table.getFieldCount();
+            if (child instanceof Field) {
+                return table.indexOfChild((Field) child);
+            } else if (child instanceof Index) {
+                int idx = table.indexOfIndex((Index) child);
+                return idx < 0 ? -1 : fieldCount + idx;
+            } else if (child instanceof FieldGroup) {
+                FieldGroup group = (FieldGroup) child;
+                if (group.getTable() != table) {
+                    return -1;
+                }
+                int idxCount = table.getIndexCount();
+                switch (group.getType()) {
+                    case PRIMARY_KEY:
+                        return fieldCount + idxCount;
+                    case SHARD_KEY:
+                        return fieldCount + idxCount + 1;
+                    default:
+                        return -1;
+                }
+            }
+            return -1;
+        }
+        if (parent instanceof SchemaContainer && child instanceof SchemaElement) {
+            return ((SchemaContainer) parent).indexOfChild((SchemaElement<?>) child);
+        }
+        return -1;
     }
 
 
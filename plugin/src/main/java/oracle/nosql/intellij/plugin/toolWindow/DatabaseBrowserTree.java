@@ -37,6 +37,9 @@ class DatabaseBrowserTree extends JTree {
 
     public DatabaseBrowserTree(BrowserTreeModel model, Project project) {
         super(model);
+        // one schema node per connection under a hidden root
+        this.setRootVisible(false);
+        this.setShowsRootHandles(true);
         this.setCellRenderer(new DatabaseBrowserTreeCellRenderer(project));
         MouseListener mouseListener = new MouseAdapter() {
             public void mouseClicked(MouseEvent event) {
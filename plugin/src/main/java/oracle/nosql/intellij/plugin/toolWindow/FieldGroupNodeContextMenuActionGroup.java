@@ -72,7 +72,7 @@ class FieldGroupNodeContextMenuActionGroup extends DefaultActionGroup {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection(field);
                             try {
                                 Schema schema = field.getTable().getSchema();
                                 con.deleteIndex(field);
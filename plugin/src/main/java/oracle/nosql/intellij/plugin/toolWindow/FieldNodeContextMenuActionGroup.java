@@ -95,7 +95,7 @@ class FieldNodeContextMenuActionGroup extends DefaultActionGroup {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection(field);
                             try {
                                 Schema schema = field.getTable().getSchema();
                                 con.deleteField(field);
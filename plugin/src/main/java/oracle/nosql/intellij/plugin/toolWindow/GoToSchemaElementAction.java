@@ -0,0 +1,155 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.toolWindow;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.popup.JBPopup;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.DocumentAdapter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleListCellRenderer;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.JBUI;
+import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
+import oracle.nosql.intellij.plugin.common.NoSqlIcons;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.Index;
+import oracle.nosql.model.schema.SchemaElement;
+import oracle.nosql.model.schema.Table;
+import oracle.nosql.model.util.NameIndex;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JPanel;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import java.awt.BorderLayout;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Objects;
+
+/**
+ * Opens a popup to find a table, column or index of the loaded schema by
+ * name and selects it in the schema tree.
+ */
+public class GoToSchemaElementAction extends AnAction {
+    private static final int MAX_RESULTS = 50;
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = Objects.requireNonNull(e.getProject());
+        NoSQLToolWindow toolWindow = DatabaseBrowserManager.getInstance(project).getToolWindowForm();
+        NameIndex<SchemaElement<?>> index = toolWindow.getMyTreeModel().getSearchIndex();
+
+        DefaultListModel<SchemaElement<?>> listModel = new DefaultListModel<>();
+        JBList<SchemaElement<?>> list = new JBList<>(listModel);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(SimpleListCellRenderer.create((label, value, i) -> {
+            if (value instanceof Table) {
+                label.setIcon(NoSqlIcons.TABLE);
+                label.setText(value.getName() + "  (" + ((Table) value).getSchema().getName() + ")");
+            } else if (value instanceof Index) {
+                label.setIcon(NoSqlIcons.GROUP_index_KEY);
+                label.setText(value.getName() + "  (" + ((Index) value).getTable().getName() + ")");
+            } else if (value instanceof Field) {
+                label.setIcon(NoSqlIcons.COL_ICON);
+                label.setText(value.getName() + "  (" + ((Field) value).getTable().getName() + ")");
+            }
+        }));
+        JBTextField searchField = new JBTextField(30);
+        searchField.getDocument().addDocumentListener(new DocumentAdapter() {
+            @Override
+            protected void textChanged(@NotNull DocumentEvent event) {
+                listModel.clear();
+                for (SchemaElement<?> element : index.search(searchField.getText().trim(), MAX_RESULTS)) {
+                    listModel.addElement(element);
+                }
+                if (!listModel.isEmpty()) {
+                    list.setSelectedIndex(0);
+                }
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(JBUI.Borders.empty(4));
+        panel.add(searchField, BorderLayout.NORTH);
+        panel.add(ScrollPaneFactory.createScrollPane(list), BorderLayout.CENTER);
+        panel.setPreferredSize(JBUI.size(420, 300));
+
+        JBPopup popup = JBPopupFactory.getInstance()
+                .createComponentPopupBuilder(panel, searchField)
+                .setTitle("Go to Table/Column/Index")
+                .setRequestFocus(true)
+                .setMovable(true)
+                .setResizable(true)
+                .createPopup();
+        Runnable choose = () -> {
+            SchemaElement<?> selected = list.getSelectedValue();
+            if (selected == null) {
+                return;
+            }
+            popup.closeOk(null);
+            ToolWindow window = ToolWindowManager.getInstance(project).getToolWindow("Schema  Explorer");
+            if (window != null) {
+                window.activate(() -> toolWindow.selectElement(selected));
+            } else {
+                toolWindow.selectElement(selected);
+            }
+        };
+        searchField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent event) {
+                int size = listModel.getSize();
+                int selected = list.getSelectedIndex();
+                if (event.getKeyCode() == KeyEvent.VK_ENTER) {
+                    choose.run();
+                } else if (event.getKeyCode() == KeyEvent.VK_DOWN && size > 0) {
+                    list.setSelectedIndex(Math.min(selected + 1, size - 1));
+                    list.ensureIndexIsVisible(list.getSelectedIndex());
+                    event.consume();
+                } else if (event.getKeyCode() == KeyEvent.VK_UP && size > 0) {
+                    list.setSelectedIndex(Math.max(selected - 1, 0));
+                    list.ensureIndexIsVisible(list.getSelectedIndex());
+                    event.consume();
+                }
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                if (event.getClickCount() > 1) {
+                    choose.run();
+                }
+            }
+        });
+        popup.showCenteredInCurrentWindow(project);
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(e.getProject() != null);
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public boolean isDumbAware() {
+        return true;
+    }
+}
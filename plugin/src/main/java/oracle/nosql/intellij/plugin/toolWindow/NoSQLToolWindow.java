@@ -18,13 +18,16 @@ import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.SimpleToolWindowPanel;
 import com.intellij.ui.ScrollPaneFactory;
-import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.model.cloud.schema.SchemaImpl;
 import oracle.nosql.model.connection.IConnection;
 import oracle.nosql.model.schema.Datamodel;
+import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.SchemaBuilder;
+import oracle.nosql.model.schema.SchemaElement;
+import oracle.nosql.model.schema.impl.DatamodelImpl;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.JComponent;
@@ -32,11 +35,20 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.SwingConstants;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.TreePath;
 import java.awt.CardLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Toolwindow for browsing schema.
@@ -54,6 +66,8 @@ public class NoSQLToolWindow extends SimpleToolWindowPanel {
 
     private DatabaseBrowserTree browserTree;
     private BrowserTreeModel myTreeModel;
+    /* uids of the connections whose schema is being loaded */
+    private final Set<String> loading = new HashSet<>();
 
     public NoSQLToolWindow(Project project) {
         super(true, true);
@@ -73,6 +87,19 @@ public class NoSQLToolWindow extends SimpleToolWindowPanel {
 
         myTreeModel = new BrowserTreeModel(null);
         browserTree = new DatabaseBrowserTree(myTreeModel, project);
+        browserTree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent event) {
+                Object node = event.getPath().getLastPathComponent();
+                if (node instanceof Schema && !((Schema) node).isFetched()) {
+                    loadSchema((Schema) node);
+                }
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent event) {
+            }
+        });
 
         GridBagConstraints constraints = new GridBagConstraints();
         constraints.gridwidth = GridBagConstraints.REMAINDER;
@@ -105,54 +132,112 @@ public class NoSQLToolWindow extends SimpleToolWindowPanel {
         return result;
     }
 
+    /**
+     * Builds a datamodel holding one schema per configured connection. The
+     * schemas are not loaded: no connection is opened until its node is
+     * expanded, see {@link #loadSchema(Schema)}.
+     */
     private Datamodel getDataModel() {
-        Datamodel store;
+        MultipleConnectionsDataProviderService.State states =
+                Objects.requireNonNull(MultipleConnectionsDataProviderService.getInstance(project).getState());
+        if (states.dict.isEmpty()) {
+            String error = "No added connections!";
+            Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", error, NotificationType.INFORMATION);
+            Notifications.Bus.notify(notification, project);
+            return null;
+        }
+        Map<String, String> uidToName = new TreeMap<>();
+        for (Map.Entry<String, String> e : states.nameToUidMap.entrySet()) {
+            if (states.dict.containsKey(e.getValue())) {
+                uidToName.put(e.getValue(), e.getKey());
+            }
+        }
+        List<String> uids = new ArrayList<>(uidToName.keySet());
+        uids.sort(Comparator.comparing(uidToName::get, String.CASE_INSENSITIVE_ORDER));
+
+        Datamodel store = new DatamodelImpl("connections");
+        for (String uid : uids) {
+            // named as the builder names a loaded schema, so that it replaces this one
+            Datamodel model = new DatamodelImpl(uid);
+            Schema schema = new SchemaImpl(uidToName.get(uid) + " : " + uid);
+            model.addChild(schema, true);
+            store.addChild(schema, true);
+        }
+        return store.isEmpty() ? null : store;
+    }
+
+    /**
+     * Loads the tables of a connection whose schema is not loaded yet, in
+     * the background, then shows them in place of the schema node.
+     *
+     * @param schema a schema of the tree, not fetched
+     */
+    public void loadSchema(Schema schema) {
+        String uid = schema.getDatastore().getName();
+        synchronized (loading) {
+            if (!loading.add(uid)) {
+                return;
+            }
+        }
+        String name = uid;
+        MultipleConnectionsDataProviderService.State states = MultipleConnectionsDataProviderService.getInstance(project).getState();
+        for (Map.Entry<String, String> e : Objects.requireNonNull(states).nameToUidMap.entrySet()) {
+            if (uid.equals(e.getValue())) {
+                name = e.getKey();
+            }
+        }
+        String connectionName = name;
+        ProgressManager.getInstance().run(new Task.Backgroundable(project,
+            "Loading NOSQL Schema " + connectionName, false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                Schema loaded;
+                try {
+                    loaded = getSchema(uid, connectionName);
+                } finally {
+                    synchronized (loading) {
+                        loading.remove(uid);
+                    }
+                }
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    Datamodel store = (Datamodel) myTreeModel.getRoot();
+                    if (store == null || myTreeModel.getIndexOfChild(store, schema) < 0) {
+                        // refreshed since
+                        return;
+                    }
+                    if (loaded == null) {
+                        browserTree.collapsePath(new TreePath(new Object[]{store, schema}));
+                        return;
+                    }
+                    myTreeModel.replaceSchema(loaded);
+                    browserTree.expandPath(new TreePath(new Object[]{store, loaded}));
+                });
+            }
+        });
+    }
+
+    /**
+     * Loads the schema of one connection. The datamodel that owns the schema
+     * is named by the connection uid so that elements of the schema can be
+     * traced back to their connection.
+     */
+    private Schema getSchema(String uid, String name) {
         IConnection con;
         try {
-            if (Objects.requireNonNull(MultipleConnectionsDataProviderService.getInstance(project).getState()).dict.isEmpty()) {
-                String error = "No added connections!";
-                Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", error, NotificationType.INFORMATION);
-                Notifications.Bus.notify(notification, project);
-                return null;
-            }
-            con = DBProject.getInstance(project).getConnection();
+            con = DBProject.getInstance(project).getConnection(uid);
         } catch (Exception ex) {
-            Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+            Notification notification = new Notification("Oracle NOSQL", "Oracle NoSql explorer", OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + name + " : " + ex.getMessage(), NotificationType.ERROR);
             Notifications.Bus.notify(notification, project);
             return null;
         }
         try {
-            String conString = con.getConnectionString();
             SchemaBuilder builder = con.getSchemaBuilder();
-            String prefKey = "/" + DBProject.getInstance(project).getConnectionProfile().getType().getName() + "/" + "TENANT_ID";
-            String schemaName = ConnectionDataProviderService.getInstance(project).getValue(prefKey);
-            if (schemaName == null) schemaName = "CloudTenant";
-            ConnectionDataProviderService.State state = ConnectionDataProviderService.getInstance(project).getState();
-            schemaName = getNewSchemaName(state);
-            store = builder.build(conString, schemaName);
+            return builder.build(uid, name + " : " + uid).getChildAt(0);
         } catch (Exception ex) {
-            Notification notification = new Notification("Oracle NOSQL", "Oracle NoSQL Explorer", OracleNoSqlBundle.message("oracle.nosql.toolWindow.schema.get.error") + ex.getMessage(), NotificationType.ERROR);
+            Notification notification = new Notification("Oracle NOSQL", "Oracle NoSQL Explorer", OracleNoSqlBundle.message("oracle.nosql.toolWindow.schema.get.error") + name + " : " + ex.getMessage(), NotificationType.ERROR);
             Notifications.Bus.notify(notification, project);
             return null;
         }
-        return store;
-    }
-
-    private String getNewSchemaName(ConnectionDataProviderService.State state) {
-        Map<String, ConnectionDataProviderService.State> dict = Objects.requireNonNull(MultipleConnectionsDataProviderService.getInstance(project).getState()).dict;
-        for (Map.Entry<String, ConnectionDataProviderService.State> e : dict.entrySet()) {
-            String uid = e.getKey();
-            if (state.dict.equals(e.getValue().dict)) {
-                Map<String, String> nameToUidMap = MultipleConnectionsDataProviderService.getInstance(project).getNameToUidMap();
-                for (Map.Entry<String, String> e1 : nameToUidMap.entrySet()) {
-                    if (uid.equals(e1.getValue())) {
-                        String name = e1.getKey();
-                        return name + " : " + uid;
-                    }
-                }
-            }
-        }
-        return "null";
     }
 
     private JPanel createToolbarPanel() {
@@ -188,6 +273,13 @@ public class NoSQLToolWindow extends SimpleToolWindowPanel {
                         myLayout.show(myContent, NON_LINKED_CARD_NAME);
                     } else {
                         myTreeModel.setRoot(store);
+                        // only the active connection is opened, the others when expanded
+                        String active = DBProject.getInstance(project).getActiveConnectionUid();
+                        for (Schema schema : store.getChildren()) {
+                            if (schema.getDatastore().getName().equals(active)) {
+                                browserTree.expandPath(new TreePath(new Object[]{store, schema}));
+                            }
+                        }
                         myLayout.show(myContent, CONTENT_CARD_NAME);
                     }
                     // Ensure UI refresh
@@ -202,4 +294,22 @@ public class NoSQLToolWindow extends SimpleToolWindowPanel {
     public BrowserTreeModel getMyTreeModel() {
         return myTreeModel;
     }
+
+    /**
+     * Selects the given table, column or index in the schema tree and scrolls
+     * it into view.
+     *
+     * @param element element to select
+     * @return false if the element is not in the tree
+     */
+    public boolean selectElement(SchemaElement<?> element) {
+        TreePath path = myTreeModel.getPathTo(element);
+        if (path == null) {
+            return false;
+        }
+        browserTree.setSelectionPath(path);
+        browserTree.scrollPathToVisible(path);
+        browserTree.requestFocusInWindow();
+        return true;
+    }
 }
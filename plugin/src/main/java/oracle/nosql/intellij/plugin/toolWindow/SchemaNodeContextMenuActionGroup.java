@@ -14,8 +14,9 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
-import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
+import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
+import oracle.nosql.intellij.plugin.toolWindow.bulkReplicas.BulkReplicaGUI;
 import oracle.nosql.intellij.plugin.toolWindow.createTable.MainFormGUI;
 import oracle.nosql.intellij.plugin.toolWindow.executeDDL.executeDdlGUI;
 import oracle.nosql.model.schema.Schema;
@@ -29,19 +30,22 @@ import java.util.Objects;
  * Refresh Schema action - refreshes schema tree
  * Create Table action - opens Create Table dialog
  * Change Endpoint/Compartment - opens dialog to change endpoint and compartment of Cloud Connection
+ * Bulk Regional Replicas - opens dialog to add or drop replicas of many tables of a Cloud Connection
  */
 public class SchemaNodeContextMenuActionGroup extends DefaultActionGroup {
     public SchemaNodeContextMenuActionGroup(Project project, Schema schema) {
         add(new RefreshSchemaAction(schema));
-        add(new CreateTableAction());
-        String prefKeyForProfileType = "/profile_type";
+        add(new CreateTableAction(schema));
 
-        // Get the latest profile type.
-        String profileType = ConnectionDataProviderService.getInstance(Objects.requireNonNull(project)).getValue(prefKeyForProfileType);
+        // Profile type of the connection this schema was loaded from.
+        String profileType = DBProject.getInstance(Objects.requireNonNull(project)).getConnectionType(schema);
 
-        // This action is only for cloud connection.
+        // This action is only for on-premise connection.
         if (profileType != null && profileType.equals("Onprem")) {
-            add(new ExecuteDdlAction());
+            add(new ExecuteDdlAction(schema));
+        }
+        if ("Cloud".equals(profileType)) {
+            add(new BulkReplicasAction(schema));
         }
     }
 
@@ -56,6 +60,11 @@ public class SchemaNodeContextMenuActionGroup extends DefaultActionGroup {
 
         @Override
         public void actionPerformed(@NotNull AnActionEvent e) {
+            if (!schema.isFetched()) {
+                // the connection is not opened yet
+                DatabaseBrowserManager.getInstance(Objects.requireNonNull(e.getProject())).getToolWindowForm().loadSchema(schema);
+                return;
+            }
             ProgressManager.getInstance().run(new Task.Backgroundable(e.getProject(), "Refreshing schema " + schema.getName(), false) {
                 @Override
                 public void run(@NotNull ProgressIndicator indicator) {
@@ -73,14 +82,16 @@ public class SchemaNodeContextMenuActionGroup extends DefaultActionGroup {
 
     private static class CreateTableAction extends AnAction {
         private static final String CREATE_TABLE = "Create Table";
+        private final Schema schema;
 
-        public CreateTableAction() {
+        public CreateTableAction(Schema schema) {
             super(CREATE_TABLE);
+            this.schema = schema;
         }
 
         @Override
         public void actionPerformed(@NotNull AnActionEvent e) {
-            SwingUtilities.invokeLater(() -> new MainFormGUI(e.getProject()));
+            SwingUtilities.invokeLater(() -> new MainFormGUI(e.getProject(), schema));
         }
 
         @Override
@@ -91,14 +102,16 @@ public class SchemaNodeContextMenuActionGroup extends DefaultActionGroup {
 
     private static class ExecuteDdlAction extends AnAction {
         private static final String EXECUTE_DDL = "Execute DDL";
+        private final Schema schema;
 
-        public ExecuteDdlAction() {
+        public ExecuteDdlAction(Schema schema) {
             super(EXECUTE_DDL);
+            this.schema = schema;
         }
 
         @Override
         public void actionPerformed(@NotNull AnActionEvent e) {
-            SwingUtilities.invokeLater(() -> new executeDdlGUI(e.getProject()));
+            SwingUtilities.invokeLater(() -> new executeDdlGUI(e.getProject(), schema));
         }
 
         @Override
@@ -106,4 +119,24 @@ public class SchemaNodeContextMenuActionGroup extends DefaultActionGroup {
             return false;
         }
     }
+
+    private static class BulkReplicasAction extends AnAction {
+        private static final String BULK_REPLICAS = "Bulk Regional Replicas";
+        private final Schema schema;
+
+        public BulkReplicasAction(Schema schema) {
+            super(BULK_REPLICAS);
+            this.schema = schema;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            SwingUtilities.invokeLater(() -> new BulkReplicaGUI(e.getProject(), schema));
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
 }
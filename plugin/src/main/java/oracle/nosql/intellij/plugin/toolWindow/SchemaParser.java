@@ -148,7 +148,7 @@ public class SchemaParser {
         IConnection con;
         String result;
         try {
-            con = DBProject.getInstance(project).getConnection();
+            con = DBProject.getInstance(project).getConnection(table);
             try {
                 result = con.showSchema(table);
             } catch (Exception ex) {
@@ -19,21 +19,30 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
 import com.intellij.ui.JBColor;
-import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.intellij.plugin.ddlJobs.DdlJobNotifier;
+import oracle.nosql.intellij.plugin.recordView.BinaryExportTask;
 import oracle.nosql.intellij.plugin.recordView.DataBaseVirtualFile;
 import oracle.nosql.intellij.plugin.toolWindow.addColumn.AddColumnGUI;
 import oracle.nosql.intellij.plugin.toolWindow.addReplica.AddReplicaGUI;
+import oracle.nosql.intellij.plugin.toolWindow.compareTable.CompareTableGUI;
 import oracle.nosql.intellij.plugin.toolWindow.createChildTable.CreateChildGUI;
+import oracle.nosql.intellij.plugin.toolWindow.createIndex.IndexAdvisorGUI;
 import oracle.nosql.intellij.plugin.toolWindow.createIndex.MainFormGUI;
 import oracle.nosql.intellij.plugin.toolWindow.dropReplicas.DropReplicasGUI;
+import oracle.nosql.intellij.plugin.toolWindow.editReservedCapacity.CapacityAdvisorGUI;
 import oracle.nosql.intellij.plugin.toolWindow.editReservedCapacity.editReservedCapacityGUI;
 import oracle.nosql.intellij.plugin.toolWindow.insertRow.InsertRowGUI;
 import oracle.nosql.intellij.plugin.toolWindow.viewReplicas.ViewReplicaGUI;
+import oracle.nosql.model.connection.DdlJob;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.schema.Field;
 import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.Table;
 import org.jetbrains.annotations.NotNull;
@@ -42,6 +51,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.List;
@@ -52,6 +62,7 @@ import java.util.List;
  * Refresh Table action - refreshes table DDL data
  * Drop Table action - drops table then refreshes schema tree
  * Create Index action - create index in the table
+ * Index Advisor action - recommends indexes from the recorded queries
  * Add Column action -alters table schema to add column in a table
  * Insert Row action - inserts a row in table
  * View table DDL - fetches the current table DDL
@@ -60,6 +71,8 @@ import java.util.List;
  * View Replica - Gets the replicas of the table
  * Add Replica - help adding replica to other cloud regions
  * Drop Replica - help dropping the table replicas in other regions
+ * Monitor Usage - polls the table usage and charts it in the usage toolwindow
+ * Capacity Advisor - recommends table limits from the recorded usage
  *
  * @author amsundar,kunalgup
  */
@@ -67,16 +80,23 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
     public TableNodeContextMenuActionGroup(Table table, Project project) {
         add(new AddColumnAction(table));
         add(new BrowseTableAction(table));
+        add(new CompareTableAction(table));
         add(new CreateChildTableAction(table));
         add(new CreateIndexAction(table));
+        add(new IndexAdvisorAction(table));
         add(new DropTableAction(table));
         add(new InsertRowAction(table));
         add(new RefreshTableAction(table));
         add(new ViewTableDdlAction(table));
+        if (!BinaryExportTask.binaryColumns(table).isEmpty()) {
+            add(new ExportBinaryObjectsAction(table));
+        }
 
-        if (cloudCheck(project)) {
+        if (cloudCheck(project, table)) {
             add(new editReserveCapacityAction(table));
+            add(new CapacityAdvisorAction(table));
             add(new FreezeOrUnfreezeSchemaAction(table));
+            add(new MonitorUsageAction(table));
             DefaultActionGroup replicaActions = new DefaultActionGroup("Regional Replicas", true);
             replicaActions.add(new ViewReplicasAction(table));
             replicaActions.add(new AddReplicaAction(table));
@@ -86,11 +106,8 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
         }
     }
 
-    private boolean cloudCheck(Project project) {
-        ConnectionDataProviderService conServ = ConnectionDataProviderService.getInstance(project);
-        if (conServ != null && conServ.getState().dict.get(ConnectionDataProviderService.KEY_PROFILE_TYPE).equals("Cloud"))
-            return true;
-        return false;
+    private boolean cloudCheck(Project project, Table table) {
+        return "Cloud".equals(DBProject.getInstance(project).getConnectionType(table));
     }
 
     @SuppressWarnings({"WeakerAccess", "HardCodedStringLiteral"})
@@ -173,26 +190,24 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                     @Override
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
+                        StatementLogService.Recorder recorder = null;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection();
-                            try {
-                                Schema schema = table.getSchema();
-                                con.dropTable(table);
+                            con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection(table);
+                            Schema schema = table.getSchema();
+                            String ddl = "drop table if exists " + table.getName();
+                            recorder = StatementLogService.getInstance(e.getProject()).start(
+                                    DBProject.getConnectionUid(table), con, StatementLogService.DDL, table.getName(), ddl);
+                            DdlJob job = con.getDdlJobs().submit(table.getName(), ddl);
+                            DdlJobNotifier.whenDone(e.getProject(), job, recorder, () -> {
                                 schema.recursiveRefresh();
-                            } catch (Exception ex) {
-                                Notification notification = new Notification(
-                                        "Oracle NOSQL", "Oracle NoSQL Explorer",
-                                        OracleNoSqlBundle
-                                                .message(
-                                                        "oracle.nosql.toolWindow.dropTable.error") +
-                                                ex.getMessage(),
-                                        NotificationType.ERROR);
-                                Notifications.Bus.notify(notification, e.getProject());
-                                return;
-                            }
-                            DatabaseBrowserManager.getInstance(e.getProject())
-                                    .getToolWindowForm().getMyTreeModel().reload();
+                                DatabaseBrowserManager.getInstance(e.getProject())
+                                        .getToolWindowForm().getMyTreeModel().reload();
+                            }, "Dropped table " + table.getName(), OracleNoSqlBundle
+                                    .message("oracle.nosql.toolWindow.dropTable.error"));
                         } catch (Exception ex) {
+                            if (recorder != null) {
+                                recorder.failed(ex);
+                            }
                             Notification notification = new Notification(
                                     "Oracle NOSQL", "Oracle NoSQL Explorer",
                                     OracleNoSqlBundle
@@ -235,6 +250,46 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
         }
     }
 
+    private static class CompareTableAction extends AnAction {
+        private static final String COMPARE_TABLE = "Compare With...";
+        private final Table table;
+
+        public CompareTableAction(Table table) {
+            super(COMPARE_TABLE);
+            this.table = table;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            SwingUtilities.invokeLater(() -> new CompareTableGUI(e.getProject(), table));
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
+
+    private static class IndexAdvisorAction extends AnAction {
+        private static final String INDEX_ADVISOR = "Index Advisor";
+        private final Table table;
+
+        public IndexAdvisorAction(Table table) {
+            super(INDEX_ADVISOR);
+            this.table = table;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            new IndexAdvisorGUI(e.getProject(), table);
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
+
     private static class AddColumnAction extends AnAction {
         private static final String ADD_COLUMN = "Add Column";
         private final Table table;
@@ -275,6 +330,53 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
         }
     }
 
+    /**
+     * Exports the binary objects of the rows of the table matching a
+     * condition, one file per object, to a directory.
+     */
+    private static class ExportBinaryObjectsAction extends AnAction {
+        private static final String EXPORT_BINARY_OBJECTS = "Export Binary Objects...";
+        private final Table table;
+
+        public ExportBinaryObjectsAction(Table table) {
+            super(EXPORT_BINARY_OBJECTS);
+            this.table = table;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            String condition = JOptionPane.showInputDialog(null,
+                    "Export the binary objects of the rows of " + table.getName()
+                            + " where (empty for all rows):",
+                    "Export Binary Objects", JOptionPane.PLAIN_MESSAGE);
+            if (condition == null) {
+                return;
+            }
+            JFileChooser jFileChooser = new JFileChooser(System.getProperty("user.home") + File.separator + "Downloads");
+            jFileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            jFileChooser.setDialogTitle("Export binary objects of " + table.getName() + " to");
+            if (jFileChooser.showSaveDialog(null) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            // the query reads the key and binary columns only
+            List<String> columns = new ArrayList<>();
+            for (Field field : table.getPrimaryKeys().getFields()) {
+                columns.add(field.getName());
+            }
+            columns.addAll(BinaryExportTask.binaryColumns(table));
+            String query = "SELECT " + String.join(", ", columns) + " FROM " + table.getName();
+            if (!condition.trim().isEmpty()) {
+                query += " WHERE " + condition.trim();
+            }
+            ProgressManager.getInstance().run(BinaryExportTask.forQuery(e.getProject(), table, query, jFileChooser.getSelectedFile()));
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
+
     private static class ViewTableDdlAction extends AnAction {
         private static final String SHOW_TABLE_DDL = "View Table DDL";
         private final Table table;
@@ -291,7 +393,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection();
+                        con = DBProject.getInstance(Objects.requireNonNull(e.getProject())).getConnection(table);
                         String tableDdl = con.showTableDdl(table);
                         //Frame which will display the table DDL
                         SwingUtilities.invokeLater(() -> {
@@ -395,6 +497,45 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
         }
     }
 
+    private static class MonitorUsageAction extends AnAction {
+        private static final String MONITOR_USAGE = "Monitor Usage";
+        private final Table table;
+
+        public MonitorUsageAction(Table table) {
+            super(MONITOR_USAGE);
+            this.table = table;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            Project project = Objects.requireNonNull(e.getProject());
+            IConnection con;
+            try {
+                con = DBProject.getInstance(project).getConnection(table);
+            } catch (Exception ex) {
+                Notification notification = new Notification(
+                        "Oracle NOSQL", "Oracle NoSql explorer",
+                        OracleNoSqlBundle
+                                .message(
+                                        "oracle.nosql.toolWindow.connection.get.error") +
+                                ex.getMessage(),
+                        NotificationType.ERROR);
+                Notifications.Bus.notify(notification, project);
+                return;
+            }
+            con.getUsageMonitor().watch(table.getName());
+            ToolWindow window = ToolWindowManager.getInstance(project).getToolWindow("NoSQL Usage");
+            if (window != null) {
+                window.show();
+            }
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
+
     private static class AddReplicaAction extends AnAction {
         private static final String ADD_REPLICA = "Add Replica";
         private final Table table;
@@ -413,7 +554,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                         try {
                             replicasNames = con.getReplicas(table);
                         } catch (Exception ex) {
@@ -468,7 +609,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                         try {
                             replicasNames = con.getReplicas(table);
                         } catch (Exception ex) {
@@ -533,7 +674,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
 
                         try {
                             isFrozen = con.isFreezed(table.getName());
@@ -583,7 +724,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                             public void run(@NotNull ProgressIndicator indicator) {
                                 IConnection con;
                                 try {
-                                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
 
                                     try {
                                         boolean result = con.unfreezeSchema(table.getName());
@@ -643,7 +784,7 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
                             public void run(@NotNull ProgressIndicator indicator) {
                                 IConnection con;
                                 try {
-                                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
 
                                     try {
                                         boolean result = con.freezeSchema(table.getName());
@@ -693,6 +834,26 @@ class TableNodeContextMenuActionGroup extends DefaultActionGroup {
             return true;
         }
     }
+    private static class CapacityAdvisorAction extends AnAction {
+        private static final String CAPACITY_ADVISOR = "Capacity Advisor";
+        private final Table table;
+
+        public CapacityAdvisorAction(Table table) {
+            super(CAPACITY_ADVISOR);
+            this.table = table;
+        }
+
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+            SwingUtilities.invokeLater(() -> new CapacityAdvisorGUI(e.getProject(), table));
+        }
+
+        @Override
+        public boolean isDumbAware() {
+            return true;
+        }
+    }
+
     private static class editReserveCapacityAction extends AnAction {
         private static final String EDIT_CAPACITY = "Edit Reserved Capacity";
         private final Table table;
@@ -18,6 +18,7 @@ import com.intellij.openapi.project.Project;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
 import oracle.nosql.model.connection.IConnection;
 import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.Table;
@@ -45,7 +46,7 @@ public class AddColumnGUI {
     public AddColumnGUI(Project project, Table table) {
         IConnection con;
         try{
-            con = DBProject.getInstance(project).getConnection();
+            con = DBProject.getInstance(project).getConnection(table);
             String result = con.showSchema(table);
             JSONObject jsonObject = new JSONObject(result);
             isJsonCollection = jsonObject.has("jsonCollection");
@@ -83,7 +84,7 @@ public class AddColumnGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
                                     Schema schema = table.getSchema();
                                     String str = flattenedColumn();
@@ -123,12 +124,20 @@ public class AddColumnGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
 
                                     Schema schema = table.getSchema();
                                     String ddlStatement = formddlColumn();
-                                    con.ddlQuery(ddlStatement);
+                                    StatementLogService.Recorder recorder = StatementLogService.getInstance(project).start(
+                                            DBProject.getConnectionUid(table), con, StatementLogService.DDL, table.getName(), ddlStatement);
+                                    try {
+                                        con.ddlQuery(ddlStatement);
+                                    } catch (Exception ex) {
+                                        recorder.failed(ex);
+                                        throw ex;
+                                    }
+                                    recorder.succeeded(0);
                                     schema.recursiveRefresh();
                                 } catch (Exception ex) {
                                     Notification notification = new Notification(
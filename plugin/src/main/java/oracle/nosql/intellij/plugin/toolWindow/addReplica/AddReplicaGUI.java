@@ -30,6 +30,14 @@ import java.util.*;
  * author @kunalgup
  */
 public class AddReplicaGUI {
+    private static final String[] REGIONS = {"af-johannesburg-1", "ap-chuncheon-1", "ap-hyderabad-1", "ap-melbourne-1", "ap-mumbai-1",
+                            "ap-osaka-1", "ap-seoul-1", "ap-sydney-1", "ap-tokyo-1", "ca-montreal-1", "ca-toronto-1",
+                            "eu-frankfurt-1", "eu-marseille-1", "eu-paris-1", "me-abudhabi-1", "me-dubai-1",
+                            "me-jeddah-1", "sa-santiago-1", "sa-saopaulo-1", "sa-valparaiso-1", "sa-vinhedo-1",
+                            "uk-cardiff-1", "uk-london-1", "us-ashburn-1", "us-chicago-1", "us-saltlake-2",
+                            "us-sanjose-1", "eu-amsterdam-1", "eu-stockholm-1", "sa-bogota-1", "eu-milan-1",
+                            "eu-madrid-1", "il-jerusalem-1", "mx-queretaro-1", "mx-monterrey-1", "ap-singapore-1",
+                            "eu-zurich-1","us-phoenix-1"};
     private JPanel rootPanel;
     private JComboBox<String> replicationRegionComboBox;
     private JTextField readCapacityTextField;
@@ -44,13 +52,13 @@ public class AddReplicaGUI {
         String tableName = table.getName();
         this.project = project;
 
-        manageAvailableRegions(replicaNames);
+        manageAvailableRegions(table, replicaNames);
         ProgressManager.getInstance().run(new Task.Backgroundable(project, "Fetching table limits", false) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
                 IConnection con;
                 try {
-                    con = DBProject.getInstance(project).getConnection();
+                    con = DBProject.getInstance(project).getConnection(table);
                     int initialReadUnits = 0;
                     int initialWriteUnits = 0;
                     int diskStorage = 0;
@@ -91,7 +99,7 @@ public class AddReplicaGUI {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                             try {
                                 boolean status = con.addReplica(tableName, replicatingRegion, readUnits, writeUnits);
                                 if (!status) {
@@ -118,23 +126,14 @@ public class AddReplicaGUI {
         });
     }
 
-    private void manageAvailableRegions(List<String> replicaNames) {
+    private void manageAvailableRegions(Table table, List<String> replicaNames) {
         Set<String> regionsPresent = new HashSet<>(replicaNames);
         List<String> regionsAvailable = new ArrayList<>();
-        String[] regions = {"af-johannesburg-1", "ap-chuncheon-1", "ap-hyderabad-1", "ap-melbourne-1", "ap-mumbai-1",
-                            "ap-osaka-1", "ap-seoul-1", "ap-sydney-1", "ap-tokyo-1", "ca-montreal-1", "ca-toronto-1",
-                            "eu-frankfurt-1", "eu-marseille-1", "eu-paris-1", "me-abudhabi-1", "me-dubai-1",
-                            "me-jeddah-1", "sa-santiago-1", "sa-saopaulo-1", "sa-valparaiso-1", "sa-vinhedo-1",
-                            "uk-cardiff-1", "uk-london-1", "us-ashburn-1", "us-chicago-1", "us-saltlake-2",
-                            "us-sanjose-1", "eu-amsterdam-1", "eu-stockholm-1", "sa-bogota-1", "eu-milan-1",
-                            "eu-madrid-1", "il-jerusalem-1", "mx-queretaro-1", "mx-monterrey-1", "ap-singapore-1",
-                            "eu-zurich-1","us-phoenix-1"};
-
-        Arrays.sort(regions);
-        ConnectionDataProviderService conService = ConnectionDataProviderService.getInstance(project);
+        String[] regions = getRegions();
+        ConnectionDataProviderService.State conState = DBProject.getInstance(project).getConnectionState(table);
         try {
-            assert conService.getState() != null;
-            String currentEndpoint = conService.getState().dict.get("/Cloud/Cloud/endpoint");
+            assert conState != null;
+            String currentEndpoint = conState.dict.get("/Cloud/Cloud/endpoint");
             for (String region : regions) {
                 if (currentEndpoint.contains(region)) regionsPresent.add(region);
             }
@@ -154,6 +153,15 @@ public class AddReplicaGUI {
 
     }
 
+    /**
+     * @return the regions a table can be replicated to, sorted by name
+     */
+    public static String[] getRegions() {
+        String[] regions = REGIONS.clone();
+        Arrays.sort(regions);
+        return regions;
+    }
+
     private void createFrame() {
         frame = new JFrame("Add Regional Replica");
         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -0,0 +1,363 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.toolWindow.bulkReplicas;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.CheckBoxList;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
+import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.toolWindow.addReplica.AddReplicaGUI;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.ReplicaBatch;
+import oracle.nosql.model.schema.Schema;
+import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Adds or drops regional replicas of many tables at once. The chosen tables
+ * and regions are shown as a matrix whose cells follow the state of each
+ * replica operation.
+ */
+public class BulkReplicaGUI {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+    private static final int REFRESH_MILLIS = 1000;
+
+    private final Project project;
+    private final Schema schema;
+    private final JFrame frame = new JFrame("Bulk Regional Replicas");
+    private final CheckBoxList<String> tableList = new CheckBoxList<>();
+    private final CheckBoxList<String> regionList = new CheckBoxList<>();
+    private final JRadioButton addButton = new JRadioButton("Add replicas", true);
+    private final JRadioButton dropButton = new JRadioButton("Drop replicas");
+    private final JTextField readUnitsField = new JTextField(6);
+    private final JTextField writeUnitsField = new JTextField(6);
+    private final JSpinner concurrencySpinner =
+            new JSpinner(new SpinnerNumberModel(ReplicaBatch.DEFAULT_MAX_CONCURRENT, 1, 20, 1));
+    private ReplicaBatch batch;
+    private Timer timer;
+
+    public BulkReplicaGUI(Project project, Schema schema) {
+        this.project = project;
+        this.schema = schema;
+        List<String> tables = new ArrayList<>(schema.getTableNames());
+        Collections.sort(tables);
+        tableList.setItems(tables, null);
+        regionList.setItems(getOtherRegions(), null);
+        createFrame();
+    }
+
+    /**
+     * @return the regions other than the one of the connection
+     */
+    private List<String> getOtherRegions() {
+        ConnectionDataProviderService.State conState = DBProject.getInstance(project).getConnectionState(schema);
+        String endpoint = conState == null ? null : conState.dict.get("/Cloud/Cloud/endpoint");
+        List<String> regions = new ArrayList<>();
+        for (String region : AddReplicaGUI.getRegions()) {
+            if (endpoint == null || !endpoint.contains(region)) {
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
+    private void createFrame() {
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        ButtonGroup actionGroup = new ButtonGroup();
+        actionGroup.add(addButton);
+        actionGroup.add(dropButton);
+        readUnitsField.setToolTipText("Read units of the added replicas, empty for those of the table");
+        writeUnitsField.setToolTipText("Write units of the added replicas, empty for those of the table");
+        dropButton.addActionListener(e -> setUnitsEnabled(false));
+        addButton.addActionListener(e -> setUnitsEnabled(true));
+
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        optionsPanel.add(addButton);
+        optionsPanel.add(dropButton);
+        optionsPanel.add(new JLabel("Read units"));
+        optionsPanel.add(readUnitsField);
+        optionsPanel.add(new JLabel("Write units"));
+        optionsPanel.add(writeUnitsField);
+        optionsPanel.add(new JLabel("Tables at once"));
+        optionsPanel.add(concurrencySpinner);
+
+        JPanel listsPanel = new JPanel(new GridLayout(1, 2, 8, 0));
+        listsPanel.add(titled("Tables", tableList));
+        listsPanel.add(titled("Regions", regionList));
+
+        JButton startButton = new JButton("Start");
+        startButton.addActionListener(e -> start());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> frame.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(startButton);
+        buttonPanel.add(closeButton);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(optionsPanel, BorderLayout.NORTH);
+        content.add(listsPanel, BorderLayout.CENTER);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        frame.setContentPane(content);
+        frame.setSize(700, 500);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private static JComponent titled(String title, JComponent list) {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(new JLabel(title), BorderLayout.NORTH);
+        panel.add(new JBScrollPane(list), BorderLayout.CENTER);
+        return panel;
+    }
+
+    private void setUnitsEnabled(boolean enabled) {
+        readUnitsField.setEnabled(enabled);
+        writeUnitsField.setEnabled(enabled);
+    }
+
+    private static List<String> getChecked(CheckBoxList<String> list) {
+        List<String> checked = new ArrayList<>();
+        for (int i = 0; i < list.getItemsCount(); i++) {
+            String item = list.getItemAt(i);
+            if (item != null && list.isItemSelected(item)) {
+                checked.add(item);
+            }
+        }
+        return checked;
+    }
+
+    private void start() {
+        List<String> tables = getChecked(tableList);
+        List<String> regions = getChecked(regionList);
+        if (tables.isEmpty() || regions.isEmpty()) {
+            JOptionPane.showMessageDialog(frame, "Select at least one table and one region", "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            return;
+        }
+        ReplicaBatch.Action action = addButton.isSelected() ? ReplicaBatch.Action.ADD : ReplicaBatch.Action.DROP;
+        int readUnits;
+        int writeUnits;
+        try {
+            readUnits = parseUnits(readUnitsField.getText(), 40000);
+            writeUnits = parseUnits(writeUnitsField.getText(), 20000);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(frame, "Read units must be 1 to 40000 and write units 1 to 20000", "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            return;
+        }
+        int result = JOptionPane.showConfirmDialog(
+                frame,
+                (action == ReplicaBatch.Action.ADD ? "Add" : "Drop") + " replicas of " + tables.size() +
+                        " table(s) in " + regions.size() + " region(s)?",
+                "Regional Replicas",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE,
+                AllIcons.General.BalloonWarning);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int maxConcurrent = (Integer) concurrencySpinner.getValue();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Fetching replicas", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(schema);
+                } catch (Exception ex) {
+                    notify(OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    return;
+                }
+                ReplicaBatch newBatch = new ReplicaBatch(con.getDdlJobs(), action, tables, regions,
+                        readUnits, writeUnits, maxConcurrent);
+                try {
+                    for (String tableName : tables) {
+                        indicator.setText("Fetching replicas of " + tableName);
+                        Table table = schema.getTable(tableName);
+                        List<String> replicas = con.getReplicas(table);
+                        for (String region : regions) {
+                            // nothing to do where the replica is already present or absent
+                            if (replicas.contains(region) == (action == ReplicaBatch.Action.ADD)) {
+                                newBatch.skip(tableName, region);
+                            }
+                        }
+                    }
+                } catch (Exception ex) {
+                    notify("Error fetching table replicas : " + ex.getMessage(), NotificationType.ERROR);
+                    return;
+                }
+                batch = newBatch.start();
+            }
+
+            @Override
+            public void onSuccess() {
+                if (batch != null) {
+                    showMatrix();
+                }
+            }
+
+            private void notify(String message, NotificationType type) {
+                Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, message, type);
+                Notifications.Bus.notify(notification, project);
+            }
+        });
+    }
+
+    private static int parseUnits(String text, int max) {
+        if (text.trim().isEmpty()) {
+            return 0;
+        }
+        int units = Integer.parseInt(text.trim());
+        if (units < 1 || units > max) {
+            throw new NumberFormatException(text);
+        }
+        return units;
+    }
+
+    /**
+     * Replaces the form by the matrix of tables and regions, refreshed until
+     * the batch is done.
+     */
+    private void showMatrix() {
+        MatrixModel model = new MatrixModel();
+        JBTable matrix = new JBTable(model) {
+            @Override
+            public String getToolTipText(@NotNull MouseEvent event) {
+                int row = rowAtPoint(event.getPoint());
+                int column = columnAtPoint(event.getPoint());
+                if (row < 0 || column < 1) {
+                    return null;
+                }
+                DdlJob job = batch.getJob(batch.getTables().get(row), batch.getRegions().get(column - 1));
+                if (job == null) {
+                    return null;
+                }
+                String text = job.getStatement() + ", " + job.getElapsedMillis() / 1000 + " s";
+                return job.getError() == null ? text : text + ": " + job.getError().getMessage();
+            }
+        };
+        matrix.setDefaultRenderer(Object.class, new StateRenderer());
+        JLabel statusLabel = new JLabel();
+
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> frame.dispose());
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(statusLabel, BorderLayout.CENTER);
+        bottomPanel.add(closeButton, BorderLayout.EAST);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(new JBScrollPane(matrix), BorderLayout.CENTER);
+        content.add(bottomPanel, BorderLayout.SOUTH);
+        frame.setContentPane(content);
+        frame.revalidate();
+
+        timer = new Timer(REFRESH_MILLIS, e -> {
+            model.fireTableRowsUpdated(0, Math.max(0, model.getRowCount() - 1));
+            statusLabel.setText(String.format("%d succeeded, %d failed, %d running, %d pending, %d skipped",
+                    batch.count(ReplicaBatch.CellState.SUCCEEDED),
+                    batch.count(ReplicaBatch.CellState.FAILED),
+                    batch.count(ReplicaBatch.CellState.RUNNING) + batch.count(ReplicaBatch.CellState.QUEUED),
+                    batch.count(ReplicaBatch.CellState.PENDING),
+                    batch.count(ReplicaBatch.CellState.SKIPPED)));
+            if (batch.isDone()) {
+                timer.stop();
+                done();
+            }
+        });
+        timer.start();
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                // the jobs go on, see the NoSQL Jobs toolwindow
+                timer.stop();
+            }
+        });
+    }
+
+    private void done() {
+        int failed = batch.count(ReplicaBatch.CellState.FAILED);
+        String message = batch.count(ReplicaBatch.CellState.SUCCEEDED) + " replica operation(s) succeeded" +
+                (failed > 0 ? ", " + failed + " failed" : "");
+        Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, message,
+                failed > 0 ? NotificationType.WARNING : NotificationType.INFORMATION);
+        Notifications.Bus.notify(notification, project);
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Refreshing schema " + schema.getName(), false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                schema.recursiveRefresh();
+                DatabaseBrowserManager.getInstance(Objects.requireNonNull(project)).getToolWindowForm().getMyTreeModel().reload();
+            }
+        });
+    }
+
+    private class MatrixModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return batch.getTables().size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return batch.getRegions().size() + 1;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return column == 0 ? "Table" : batch.getRegions().get(column - 1);
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            String table = batch.getTables().get(row);
+            return column == 0 ? table : batch.getState(table, batch.getRegions().get(column - 1));
+        }
+    }
+
+    private static class StateRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                if (value == ReplicaBatch.CellState.SUCCEEDED) {
+                    c.setForeground(JBColor.GREEN);
+                } else if (value == ReplicaBatch.CellState.FAILED) {
+                    c.setForeground(JBColor.RED);
+                } else if (value == ReplicaBatch.CellState.SKIPPED) {
+                    c.setForeground(JBColor.GRAY);
+                } else {
+                    c.setForeground(table.getForeground());
+                }
+            }
+            return c;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.toolWindow.compareTable;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.driver.values.FieldValue;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService;
+import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.query.TableDiff;
+import oracle.nosql.model.schema.Field;
+import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Compares the rows of a table with those of a table of the same or another
+ * connection, e.g. after a copy or a migration. Rows are read from both
+ * tables ordered by primary key and joined as they stream in, so the tables
+ * are never held in memory.
+ */
+public class CompareTableGUI {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+    /** differences kept for display, the rest are only counted */
+    private static final int MAX_SHOWN = 1000;
+    private static final String[] COLUMNS = {"Difference", "Primary Key", "Field", "Left", "Right"};
+
+    private final Project project;
+    private final Table table;
+    private final TableDiff diff;
+    private final JFrame frame;
+    private final JComboBox<String> connectionComboBox = new JComboBox<>();
+    private final JTextField tableField = new JTextField(20);
+    private final JTextField conditionField = new JTextField(30);
+    private final JCheckBox digestCheckBox = new JCheckBox("Compare digests of key ranges first");
+    private final JSpinner rangesSpinner = new JSpinner(new SpinnerNumberModel(8, 1, 256, 1));
+    private final Map<String, String> uidByName = new TreeMap<>();
+
+    public CompareTableGUI(Project project, Table table) {
+        this.project = project;
+        this.table = table;
+        this.frame = new JFrame("Compare Table : " + table.getName());
+        List<String> primaryKey = new ArrayList<>();
+        if (table.getPrimaryKeys() != null) {
+            for (Field f : table.getPrimaryKeys().getFields()) {
+                primaryKey.add(f.getName());
+            }
+        }
+        if (primaryKey.isEmpty()) {
+            this.diff = null;
+            Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                    "Primary key of table " + table.getName() + " is not known, refresh the table first", NotificationType.ERROR);
+            Notifications.Bus.notify(notification, project);
+            return;
+        }
+        this.diff = new TableDiff(primaryKey);
+        createFrame();
+    }
+
+    private void createFrame() {
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        MultipleConnectionsDataProviderService.State states =
+                MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (states != null) {
+            uidByName.putAll(states.nameToUidMap);
+        }
+        String uid = DBProject.getConnectionUid(table);
+        for (Map.Entry<String, String> e : uidByName.entrySet()) {
+            connectionComboBox.addItem(e.getKey());
+            if (e.getValue().equals(uid)) {
+                connectionComboBox.setSelectedItem(e.getKey());
+            }
+        }
+        tableField.setText(table.getName());
+        conditionField.setToolTipText("Optional condition on both tables, e.g. " + TableDiff.ALIAS + ".id > 100");
+        // key ranges are split on the first primary key field, which must be numeric
+        Field.Type firstType = table.getPrimaryKeys().getFields().get(0).getType();
+        boolean numericKey = firstType == Field.Type.INTEGER || firstType == Field.Type.LONG;
+        digestCheckBox.setEnabled(numericKey);
+        digestCheckBox.setToolTipText(numericKey ? "Rows of ranges with equal digests are not compared one by one"
+                : "Only possible when the first primary key field is an integer");
+        rangesSpinner.setEnabled(false);
+        digestCheckBox.addActionListener(e -> rangesSpinner.setEnabled(digestCheckBox.isSelected()));
+
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.anchor = GridBagConstraints.WEST;
+        c.insets = new Insets(4, 4, 4, 4);
+        addRow(form, c, 0, "Compare with connection", connectionComboBox);
+        addRow(form, c, 1, "Table", tableField);
+        addRow(form, c, 2, "Where", conditionField);
+        addRow(form, c, 3, "", digestCheckBox);
+        addRow(form, c, 4, "Key ranges", rangesSpinner);
+
+        JButton compareButton = new JButton("Compare");
+        compareButton.addActionListener(e -> compare());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> frame.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(compareButton);
+        buttonPanel.add(closeButton);
+
+        frame.setLayout(new BorderLayout());
+        frame.add(form, BorderLayout.CENTER);
+        frame.add(buttonPanel, BorderLayout.SOUTH);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private static void addRow(JPanel form, GridBagConstraints c, int row, String label, JComponent component) {
+        c.gridy = row;
+        c.gridx = 0;
+        form.add(new JLabel(label), c);
+        c.gridx = 1;
+        form.add(component, c);
+    }
+
+    private void compare() {
+        String otherUid = uidByName.get((String) connectionComboBox.getSelectedItem());
+        String otherTable = tableField.getText().trim();
+        if (otherUid == null || otherTable.isEmpty()) {
+            JOptionPane.showMessageDialog(frame, "Choose a connection and a table to compare with", "Error", JOptionPane.PLAIN_MESSAGE, AllIcons.General.ErrorDialog);
+            return;
+        }
+        String condition = conditionField.getText().trim();
+        boolean byRanges = digestCheckBox.isSelected();
+        int ranges = (Integer) rangesSpinner.getValue();
+        frame.dispose();
+        List<TableDiff.Difference> differences = new ArrayList<>();
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Comparing " + table.getName() + " with " + otherTable, true) {
+            private TableDiff.Summary summary;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection left;
+                IConnection right;
+                try {
+                    left = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                    right = DBProject.getInstance(project).getConnection(otherUid);
+                } catch (Exception ex) {
+                    showNotification(OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    return;
+                }
+                TableDiff.Listener listener = d -> {
+                    if (differences.size() < MAX_SHOWN) {
+                        differences.add(d);
+                    }
+                    indicator.setText2(differences.size() + " difference(s) so far");
+                    return !indicator.isCanceled();
+                };
+                try {
+                    if (byRanges) {
+                        indicator.setText("Computing digests of key ranges");
+                        summary = diff.diffByRanges(
+                                range -> rows(left, table.getName(), and(condition, range)),
+                                range -> rows(right, otherTable, and(condition, range)),
+                                splitRanges(left, condition, ranges), ranges, listener);
+                    } else {
+                        indicator.setText("Comparing rows");
+                        summary = diff.diff(rows(left, table.getName(), condition),
+                                rows(right, otherTable, condition), listener);
+                    }
+                } catch (Exception ex) {
+                    showNotification("Error comparing tables : " + ex.getMessage(), NotificationType.ERROR);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (summary == null) {
+                    return;
+                }
+                if (summary.isIdentical()) {
+                    showNotification("Tables " + table.getName() + " and " + otherTable + " are identical: " + summary, NotificationType.INFORMATION);
+                } else {
+                    showResult(otherTable, summary, differences);
+                }
+            }
+
+            private void showNotification(String message, NotificationType type) {
+                Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, message, type);
+                Notifications.Bus.notify(notification, project);
+            }
+        });
+    }
+
+    private Iterator<MapValue> rows(IConnection con, String tableName, String condition) {
+        Iterator<?> rows = con.query(diff.orderedQuery(tableName, condition));
+        return new Iterator<MapValue>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public MapValue next() {
+                return (MapValue) rows.next();
+            }
+        };
+    }
+
+    private static String and(String condition, String range) {
+        if (condition.isEmpty()) {
+            return range;
+        }
+        return range == null ? condition : "(" + condition + ") AND " + range;
+    }
+
+    /**
+     * Splits the values of the first primary key field of this table into
+     * ranges, from its smallest and largest values. A table that is empty,
+     * or whose first key field is not an integer, e.g. a DOUBLE, FLOAT or
+     * NUMBER, is a single range.
+     */
+    private List<String> splitRanges(IConnection con, String condition, int ranges) {
+        List<String> all = new ArrayList<>();
+        all.add(null);
+        Field key = table.getPrimaryKeys().getFields().get(0);
+        if (key.getType() != Field.Type.INTEGER && key.getType() != Field.Type.LONG) {
+            return all;
+        }
+        String field = key.getName();
+        String f = TableDiff.ALIAS + "." + field;
+        Iterator<?> it = con.query("SELECT min(" + f + ") AS lo, max(" + f + ") AS hi FROM " + table.getName() +
+                " " + TableDiff.ALIAS + (condition.isEmpty() ? "" : " WHERE " + condition));
+        MapValue bounds = it.hasNext() ? (MapValue) it.next() : null;
+        if (bounds == null || !isIntegral(bounds.get("lo")) || !isIntegral(bounds.get("hi"))) {
+            return all;
+        }
+        return TableDiff.splitRanges(field, bounds.get("lo").getLong(), bounds.get("hi").getLong(), ranges);
+    }
+
+    private static boolean isIntegral(FieldValue value) {
+        return value != null && (value.getType() == FieldValue.Type.INTEGER || value.getType() == FieldValue.Type.LONG);
+    }
+
+    private void showResult(String otherTable, TableDiff.Summary summary, List<TableDiff.Difference> differences) {
+        List<Object[]> rows = new ArrayList<>();
+        for (TableDiff.Difference d : differences) {
+            String key = d.getKey().toJson();
+            if (d.getFields().isEmpty()) {
+                rows.add(new Object[]{d.getKind().name(), key, null, json(d.getLeft()), json(d.getRight())});
+            }
+            for (TableDiff.FieldDifference f : d.getFields()) {
+                rows.add(new Object[]{d.getKind().name(), key, f.getPath(), json(f.getLeft()), json(f.getRight())});
+            }
+        }
+        JFrame resultFrame = new JFrame(table.getName() + " compared with " + otherTable);
+        resultFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        JBTable resultTable = new JBTable(new AbstractTableModel() {
+            @Override
+            public int getRowCount() {
+                return rows.size();
+            }
+
+            @Override
+            public int getColumnCount() {
+                return COLUMNS.length;
+            }
+
+            @Override
+            public String getColumnName(int column) {
+                return COLUMNS[column];
+            }
+
+            @Override
+            public Object getValueAt(int row, int column) {
+                return rows.get(row)[column];
+            }
+        });
+        resultTable.setAutoCreateRowSorter(true);
+        String text = summary.toString();
+        if (summary.getMissing() + summary.getExtra() + summary.getDifferent() > differences.size()) {
+            text += " (first " + differences.size() + " shown)";
+        }
+        resultFrame.setLayout(new BorderLayout());
+        resultFrame.add(new JLabel(text), BorderLayout.NORTH);
+        resultFrame.add(new JBScrollPane(resultTable), BorderLayout.CENTER);
+        resultFrame.setSize(1000, 500);
+        resultFrame.setLocationRelativeTo(null);
+        resultFrame.setVisible(true);
+    }
+
+    private static String json(FieldValue value) {
+        return value == null ? null : value.toJson();
+    }
+}
@@ -10,11 +10,8 @@ package oracle.nosql.intellij.plugin.toolWindow.connectionChange;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationType;
 import com.intellij.notification.Notifications;
-import com.intellij.openapi.fileEditor.FileEditor;
-import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.project.Project;
 import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
-import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
 import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService.State;
 
 import javax.swing.*;
@@ -47,14 +44,10 @@ public class connectionChangeGUI {
 
             if (currentConnection != null) {
                 ConnectionDataProviderService.State connectionDataProviderService = state.dict.get(nameAndUrlToPair.get(currentConnection)[1]);
+                // Every connection is already loaded in the schema explorer and
+                // open editors are bound to their own connection, so only the
+                // active connection used by the toolbar actions changes.
                 ConnectionDataProviderService.getInstance(project).loadState(connectionDataProviderService);
-                DatabaseBrowserManager.getInstance(project).getToolWindowForm().refresh();
-                FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
-
-                FileEditor[] fileEditors = fileEditorManager.getAllEditors();
-                for (FileEditor fileEditor : fileEditors) {
-                    fileEditorManager.closeFile(fileEditor.getFile());
-                }
                 frame.dispose();
             }
         });
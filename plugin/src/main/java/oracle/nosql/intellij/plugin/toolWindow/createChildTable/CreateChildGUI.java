@@ -54,7 +54,7 @@ public class CreateChildGUI {
     public CreateChildGUI(Project project, Table table) {
         IConnection con;
         try{
-            con = DBProject.getInstance(project).getConnection();
+            con = DBProject.getInstance(project).getConnection(table);
             String result = con.showSchema(table);
             JSONObject jsonObject = new JSONObject(result);
             isJsonCollection = jsonObject.has("jsonCollection");
@@ -102,7 +102,7 @@ public class CreateChildGUI {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                             try {
                                 con.createChildTable(resultSet.get("TableName"), resultSet.get("query"));
                             } catch (Exception ex) {
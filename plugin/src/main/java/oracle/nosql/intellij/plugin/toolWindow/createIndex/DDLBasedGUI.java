@@ -19,9 +19,11 @@ import com.intellij.ui.JBColor;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.intellij.plugin.ddlJobs.DdlJobNotifier;
 import org.jetbrains.annotations.NotNull;
+import oracle.nosql.model.connection.DdlJob;
 import oracle.nosql.model.connection.IConnection;
-import oracle.nosql.model.schema.Schema;
 import oracle.nosql.model.schema.Table;
 
 import javax.swing.*;
@@ -48,23 +50,22 @@ public class DDLBasedGUI extends JDialog {
                     @Override
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
+                        StatementLogService.Recorder recorder = null;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
-                            try {
-                                String createIdxDdl = getDDLStatement();
-                                Schema schema = table.getSchema();
-                                con.createIndexUsingDdl(createIdxDdl);
-                                schema.recursiveRefresh();
-                            } catch (Exception ex) {
-                                Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.createIndex.error") + ex.getMessage(), NotificationType.ERROR);
-                                Notifications.Bus.notify(notification, project);
-                                return;
-                            }
-                            table.getSchema().recursiveRefresh();
-                            DatabaseBrowserManager.getInstance(project).getToolWindowForm().refresh();
-                            Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Successfully created index!", NotificationType.INFORMATION);
-                            Notifications.Bus.notify(notification, project);
+                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                            // the index is built in the background, see the NoSQL Jobs toolwindow
+                            String createIdxDdl = getDDLStatement();
+                            recorder = StatementLogService.getInstance(project).start(
+                                    DBProject.getConnectionUid(table), con, StatementLogService.DDL, table.getName(), createIdxDdl);
+                            DdlJob job = con.getDdlJobs().submit(table.getName(), createIdxDdl);
+                            DdlJobNotifier.whenDone(project, job, recorder, () -> {
+                                table.getSchema().recursiveRefresh();
+                                DatabaseBrowserManager.getInstance(project).getToolWindowForm().refresh();
+                            }, "Successfully created index!", OracleNoSqlBundle.message("oracle.nosql.toolWindow.createIndex.error"));
                         } catch (Exception ex) {
+                            if (recorder != null) {
+                                recorder.failed(ex);
+                            }
                             Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
                             Notifications.Bus.notify(notification, project);
                         }
@@ -91,7 +91,7 @@ public class FormBasedGUI {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                             try {
                                 String[] str = new String[ar.size()];
                                 for (int i = 0; i < ar.size(); i++) {
@@ -0,0 +1,290 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.toolWindow.createIndex;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.driver.values.MapValue;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
+import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
+import oracle.nosql.intellij.plugin.ddlJobs.DdlJobNotifier;
+import oracle.nosql.model.connection.DdlJob;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.StatementLog;
+import oracle.nosql.model.query.IndexAdvisor;
+import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Recommends secondary indexes for a table from the queries recorded in the
+ * statement log, and creates the chosen ones.
+ */
+public class IndexAdvisorGUI {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+    private static final int SAMPLE_SIZE = 100;
+    private static final String[] COLUMNS = {"Index", "Queries", "Runs",
+            "Saved RU", "Storage (KB)", "Extra WU per write"};
+
+    private final Project project;
+    private final Table table;
+    private List<IndexAdvisor.Recommendation> recommendations;
+    private int queryCount;
+
+    public IndexAdvisorGUI(Project project, Table table) {
+        this.project = project;
+        this.table = table;
+        analyze();
+    }
+
+    private void analyze() {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Analyzing queries of " + table.getName(), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                try {
+                    recommendations = recommend(con, indicator);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Error analyzing queries : " + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (recommendations == null) {
+                    return;
+                }
+                if (queryCount == 0) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                            "No queries recorded for table " + table.getName() + ". Run queries on the table first.",
+                            NotificationType.INFORMATION);
+                    Notifications.Bus.notify(notification, project);
+                } else if (recommendations.isEmpty()) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                            "No new index would help the " + queryCount + " queries recorded for table " + table.getName(),
+                            NotificationType.INFORMATION);
+                    Notifications.Bus.notify(notification, project);
+                } else {
+                    createFrame();
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs in a background thread: groups the recorded queries of the table,
+     * fetches their plans and a sample of rows and asks the advisor.
+     */
+    private List<IndexAdvisor.Recommendation> recommend(IConnection con, ProgressIndicator indicator) throws Exception {
+        // statement -> {runs, highest read units of a run}
+        Map<String, long[]> queries = new LinkedHashMap<>();
+        // tables of other connections may have the same name
+        String uid = DBProject.getConnectionUid(table);
+        if (uid == null) {
+            uid = DBProject.getInstance(project).getActiveConnectionUid();
+        }
+        for (StatementLog.Entry entry : StatementLogService.getInstance(project).getEntries()) {
+            if (StatementLogService.QUERY.equals(entry.getKind()) && entry.isSucceeded()
+                    && Objects.equals(uid, entry.getConnectionUid())
+                    && table.getName().equalsIgnoreCase(entry.getTable())) {
+                long[] stats = queries.computeIfAbsent(entry.getStatement().trim(), s -> new long[]{0, -1});
+                stats[0]++;
+                stats[1] = Math.max(stats[1], entry.getReadUnits());
+            }
+        }
+        queryCount = queries.size();
+        if (queries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        IndexAdvisor advisor = IndexAdvisor.forTable(table);
+        indicator.setText("Estimating size of " + table.getName());
+        advisor.setTableSizeKB(con.estimateTableSizeKB(table.getName()));
+        indicator.setText("Sampling rows of " + table.getName());
+        List<MapValue> sample = new ArrayList<>();
+        Iterator<?> rows = con.query("SELECT * FROM " + table.getName() + " LIMIT " + SAMPLE_SIZE);
+        while (rows.hasNext() && sample.size() < SAMPLE_SIZE) {
+            Object row = rows.next();
+            if (row instanceof MapValue) {
+                sample.add((MapValue) row);
+            }
+        }
+        advisor.setSample(sample);
+        int done = 0;
+        for (Map.Entry<String, long[]> query : queries.entrySet()) {
+            indicator.checkCanceled();
+            indicator.setFraction((double) done++ / queries.size());
+            indicator.setText("Fetching plan of query " + done + " of " + queries.size());
+            String plan;
+            try {
+                plan = con.fetchQueryPlan(query.getKey());
+            } catch (Exception ex) {
+                // the query no longer compiles, e.g. a column was dropped
+                continue;
+            }
+            advisor.addQuery(query.getKey(), plan, (int) query.getValue()[0], query.getValue()[1]);
+        }
+        return advisor.recommend();
+    }
+
+    private void createFrame() {
+        JFrame frame = new JFrame("Index Advisor : " + table.getName());
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        JBTable resultTable = new JBTable(new RecommendationModel());
+        resultTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultTable.getColumnModel().getColumn(0).setPreferredWidth(400);
+        JTextArea queriesArea = new JTextArea(6, 60);
+        queriesArea.setEditable(false);
+        queriesArea.setLineWrap(true);
+        resultTable.getSelectionModel().addListSelectionListener(e -> {
+            int row = resultTable.getSelectedRow();
+            if (row < 0) {
+                queriesArea.setText("");
+                return;
+            }
+            IndexAdvisor.Recommendation r = recommendations.get(resultTable.convertRowIndexToModel(row));
+            StringBuilder text = new StringBuilder("Queries that would use the index:\n");
+            for (String query : r.getQueries()) {
+                text.append(query).append('\n');
+            }
+            text.append(String.format("Estimated selectivity %.4f, index entry of %d bytes", r.getSelectivity(), r.getEntryBytes()));
+            if (r.getWriteAmplification() > 0) {
+                text.append(String.format(", write amplification %.2f", r.getWriteAmplification()));
+            }
+            queriesArea.setText(text.toString());
+            queriesArea.setCaretPosition(0);
+        });
+        if (!recommendations.isEmpty()) {
+            resultTable.setRowSelectionInterval(0, 0);
+        }
+
+        JButton createButton = new JButton("Create Index");
+        createButton.addActionListener(e -> {
+            int row = resultTable.getSelectedRow();
+            if (row >= 0) {
+                createIndex(recommendations.get(resultTable.convertRowIndexToModel(row)).getDdl());
+            }
+        });
+        JButton copyButton = new JButton("Copy DDL");
+        copyButton.addActionListener(e -> {
+            int row = resultTable.getSelectedRow();
+            if (row >= 0) {
+                String ddl = recommendations.get(resultTable.convertRowIndexToModel(row)).getDdl();
+                Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(ddl), null);
+            }
+        });
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> frame.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(createButton);
+        buttonPanel.add(copyButton);
+        buttonPanel.add(closeButton);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(new JBScrollPane(queriesArea), BorderLayout.CENTER);
+        bottomPanel.add(buttonPanel, BorderLayout.SOUTH);
+        frame.setLayout(new BorderLayout());
+        frame.add(new JBScrollPane(resultTable), BorderLayout.CENTER);
+        frame.add(bottomPanel, BorderLayout.SOUTH);
+        frame.setSize(900, 450);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private void createIndex(String ddl) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Creating index", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                StatementLogService.Recorder recorder = StatementLogService.getInstance(project).start(
+                        DBProject.getConnectionUid(table), con, StatementLogService.DDL, table.getName(), ddl);
+                DdlJob job = con.getDdlJobs().submit(table.getName(), ddl);
+                DdlJobNotifier.whenDone(project, job, recorder, () -> {
+                    table.getSchema().recursiveRefresh();
+                    DatabaseBrowserManager.getInstance(project).getToolWindowForm().refresh();
+                }, "Successfully created index!", OracleNoSqlBundle.message("oracle.nosql.toolWindow.createIndex.error"));
+            }
+        });
+    }
+
+    private class RecommendationModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return recommendations.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            IndexAdvisor.Recommendation r = recommendations.get(row);
+            switch (column) {
+                case 0:
+                    return r.getDdl();
+                case 1:
+                    return (long) r.getQueries().size();
+                case 2:
+                    return (long) r.getRuns();
+                case 3:
+                    return r.getSavedReadUnits();
+                case 4:
+                    return r.getStorageKB() < 0 ? null : r.getStorageKB();
+                default:
+                    return r.getExtraWriteUnits();
+            }
+        }
+    }
+}
@@ -42,7 +42,7 @@ public class MainFormGUI extends JDialog {
 
         IConnection connection;
         try {
-            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
             String schemaJson = connection.showSchema(table);
             JSONObject jsonObject = new JSONObject(schemaJson);
             isJsonCollection = jsonObject.has("jsonCollection");
@@ -15,12 +15,12 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
-import oracle.nosql.intellij.plugin.common.ConnectionDataProviderService;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
 import oracle.nosql.intellij.plugin.common.NoSqlIcons;
 import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.schema.Schema;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.DefaultComboBoxModel;
@@ -64,7 +64,7 @@ public class MainFormGUI {
     DDLBasedGUI ddlBasedGUI;
     HashMap<String,String> resultSet ; // contains parameters passed to create table method in CloudConnection.java
 
-    public MainFormGUI(Project project) {
+    public MainFormGUI(Project project, Schema schema) {
         assert comboBox1 != null;
         comboBox1.addItemListener(e -> {
             String name = (String) e.getItem();
@@ -87,10 +87,7 @@ public class MainFormGUI {
         ddlBasedGUI = new DDLBasedGUI();
 
         // Get the latest profile type.
-        String prefKeyForProfileType = "/profile_type";
-        String profileType = ConnectionDataProviderService
-                .getInstance(Objects.requireNonNull(project)).
-                        getValue(prefKeyForProfileType);
+        String profileType = DBProject.getInstance(Objects.requireNonNull(project)).getConnectionType(schema);
 
         // Enable Reserved Capacity Panel for Cloud & Cloudsim
         if(profileType != null && (profileType.equals("Cloud") || profileType.equals("Cloudsim"))){
@@ -120,7 +117,7 @@ public class MainFormGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(schema);
                                 try {
 
                                     if(profileType != null && (profileType.equals("Cloud") || profileType.equals("Cloudsim"))){
@@ -59,7 +59,7 @@ public class DropReplicasGUI {
                     public void run(@NotNull ProgressIndicator indicator) {
                         IConnection con;
                         try {
-                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                            con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                             try {
                                 con.dropReplicas(table.getName(), droppingRegionsList);
                             } catch (Exception ex) {
@@ -0,0 +1,309 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.toolWindow.editReservedCapacity;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.OracleNoSqlBundle;
+import oracle.nosql.model.connection.CapacityAdvisor;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.UsageHistory;
+import oracle.nosql.model.connection.UsageMonitor;
+import oracle.nosql.model.schema.Table;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * Recommends the capacity of a table from its recorded usage, and applies
+ * the chosen option after a preview of the change.
+ */
+public class CapacityAdvisorGUI {
+    private static final String NOTIFICATION_GROUP_ID = "Oracle NOSQL";
+    private static final String NOTIFICATION_TITLE = "Oracle NoSql explorer";
+    private static final String[] COLUMNS = {"Option", "Read units", "Write units",
+            "Storage (GB)", "Throttling risk (%)"};
+
+    private final Project project;
+    private final Table table;
+    private UsageHistory history;
+    private TableLimits currentLimits;
+    private CapacityAdvisor advisor;
+    private List<CapacityAdvisor.Option> options = new ArrayList<>();
+
+    public CapacityAdvisorGUI(Project project, Table table) {
+        this.project = project;
+        this.table = table;
+        analyze();
+    }
+
+    private void analyze() {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Fetching usage of " + table.getName(), false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                // a table not watched yet gets the usage of the last day on its first poll
+                UsageMonitor monitor = con.getUsageMonitor();
+                boolean watched = monitor.getWatched().contains(table.getName());
+                if (!watched) {
+                    monitor.watch(table.getName());
+                }
+                try {
+                    monitor.poll(table.getName());
+                    Exception error = monitor.getError(table.getName());
+                    if (error != null) {
+                        Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Error fetching table usage : " + error.getMessage(), NotificationType.ERROR);
+                        Notifications.Bus.notify(notification, project);
+                        return;
+                    }
+                    UsageHistory polled = monitor.getHistory(table.getName());
+                    history = polled == null ? null : polled.copy();
+                    currentLimits = monitor.getLimits(table.getName());
+                } finally {
+                    if (!watched) {
+                        monitor.unwatch(table.getName());
+                    }
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (history == null) {
+                    return;
+                }
+                if (history.size() == 0) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE,
+                            "No usage reported for table " + table.getName() + " yet.",
+                            NotificationType.INFORMATION);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                advisor = new CapacityAdvisor(history, currentLimits);
+                options = advisor.recommend();
+                createFrame();
+            }
+        });
+    }
+
+    private void createFrame() {
+        JFrame frame = new JFrame("Capacity Advisor : " + table.getName());
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        OptionModel model = new OptionModel();
+        JBTable optionTable = new JBTable(model);
+        optionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        optionTable.getColumnModel().getColumn(0).setPreferredWidth(200);
+        JTextArea detailsArea = new JTextArea(7, 60);
+        detailsArea.setEditable(false);
+        detailsArea.setLineWrap(true);
+        detailsArea.setWrapStyleWord(true);
+        optionTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                detailsArea.setText(describe(selected(optionTable)));
+                detailsArea.setCaretPosition(0);
+            }
+        });
+
+        JSpinner headroomSpinner = new JSpinner(new SpinnerNumberModel(
+                (int) Math.round(CapacityAdvisor.DEFAULT_HEADROOM * 100), 0, 200, 5));
+        headroomSpinner.addChangeListener(e -> {
+            int row = optionTable.getSelectedRow();
+            advisor.setHeadroom(((Integer) headroomSpinner.getValue()) / 100.0);
+            options = advisor.recommend();
+            model.fireTableDataChanged();
+            if (row >= 0 && row < options.size()) {
+                optionTable.setRowSelectionInterval(row, row);
+            }
+        });
+        JPanel headroomPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        headroomPanel.add(new JLabel("Headroom (%)"));
+        headroomPanel.add(headroomSpinner);
+
+        JButton applyButton = new JButton("Apply...");
+        applyButton.addActionListener(e -> {
+            CapacityAdvisor.Option option = selected(optionTable);
+            if (option != null && confirm(frame, option)) {
+                frame.dispose();
+                apply(option.getLimits());
+            }
+        });
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> frame.dispose());
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(applyButton);
+        buttonPanel.add(closeButton);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(new JBScrollPane(detailsArea), BorderLayout.CENTER);
+        bottomPanel.add(buttonPanel, BorderLayout.SOUTH);
+        frame.setLayout(new BorderLayout());
+        frame.add(headroomPanel, BorderLayout.NORTH);
+        frame.add(new JBScrollPane(optionTable), BorderLayout.CENTER);
+        frame.add(bottomPanel, BorderLayout.SOUTH);
+        // the first option that is not the current one
+        int first = currentLimits != null && currentLimits.getReadUnits() > 0 && options.size() > 1 ? 1 : 0;
+        optionTable.setRowSelectionInterval(first, first);
+        frame.setSize(800, 450);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private CapacityAdvisor.Option selected(JBTable optionTable) {
+        int row = optionTable.getSelectedRow();
+        return row < 0 ? null : options.get(optionTable.convertRowIndexToModel(row));
+    }
+
+    private String describe(CapacityAdvisor.Option option) {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%d periods of usage. Read units/s: p95 %.1f, peak %.1f. Write units/s: p95 %.1f, peak %.1f. Storage at most %d GB.%n",
+                advisor.getPeriods(), advisor.getReadPercentile(95), advisor.getReadPercentile(100),
+                advisor.getWritePercentile(95), advisor.getWritePercentile(100), advisor.getMaxStorageGB()));
+        if (advisor.getThrottledPeriods() > 0) {
+            text.append(String.format("Requests were throttled in %d periods under the current limits, so the demand was higher than recorded.%n",
+                    advisor.getThrottledPeriods()));
+        }
+        if (option == null) {
+            return text.toString();
+        }
+        if (option.isOnDemand()) {
+            text.append(String.format("On demand serves up to %d read and %d write units/s and is billed per request.%n",
+                    CapacityAdvisor.ON_DEMAND_READ_UNITS, CapacityAdvisor.ON_DEMAND_WRITE_UNITS));
+        }
+        if (option.getExceededPeriods() == 0) {
+            text.append("No recorded period would have exceeded this option.");
+        } else {
+            List<Integer> hours = advisor.getHoursAbove(option, TimeZone.getDefault());
+            StringBuilder list = new StringBuilder();
+            for (Integer h : hours) {
+                list.append(list.length() == 0 ? "" : ", ").append(String.format("%02d:00", h));
+            }
+            text.append(String.format("%d periods would have exceeded this option, in the hours starting %s (local time). "
+                            + "Raising the limits for these hours only would avoid that throttling.",
+                    option.getExceededPeriods(), list));
+        }
+        return text.toString();
+    }
+
+    private boolean confirm(Component parent, CapacityAdvisor.Option option) {
+        TableLimits limits = option.getLimits();
+        String msg = "Change the limits of table " + table.getName() + "\nfrom " + format(currentLimits)
+                + "\nto " + format(limits) + String.format("?%nEstimated throttling risk: %.1f%%", option.getThrottlingRisk() * 100);
+        int result = JOptionPane.showConfirmDialog(parent, msg, "Change Table Limits",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, AllIcons.General.BalloonWarning);
+        return result == JOptionPane.OK_OPTION;
+    }
+
+    private static String format(TableLimits limits) {
+        if (limits == null) {
+            return "unknown limits";
+        }
+        if (limits.getReadUnits() <= 0) {
+            return "on demand, " + limits.getStorageGB() + " GB";
+        }
+        return limits.getReadUnits() + " read units, " + limits.getWriteUnits() + " write units, "
+                + limits.getStorageGB() + " GB";
+    }
+
+    private void apply(TableLimits limits) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, "Changing capacity", false) {
+            private boolean changed;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                IConnection con;
+                try {
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, OracleNoSqlBundle.message("oracle.nosql.toolWindow.connection.get.error") + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                    return;
+                }
+                try {
+                    changed = con.setTableLimits(table, limits);
+                } catch (Exception ex) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Error changing table limits  : " + ex.getMessage(), NotificationType.ERROR);
+                    Notifications.Bus.notify(notification, project);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (changed) {
+                    Notification notification = new Notification(NOTIFICATION_GROUP_ID, NOTIFICATION_TITLE, "Table limits changed successfully!", NotificationType.INFORMATION);
+                    Notifications.Bus.notify(notification, project);
+                }
+            }
+        });
+    }
+
+    private class OptionModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return options.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            if (column == 0) {
+                return String.class;
+            }
+            return column == 4 ? Double.class : Integer.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            CapacityAdvisor.Option option = options.get(row);
+            TableLimits limits = option.getLimits();
+            switch (column) {
+                case 0:
+                    return option.getName();
+                case 1:
+                    return option.isOnDemand() ? null : limits.getReadUnits();
+                case 2:
+                    return option.isOnDemand() ? null : limits.getWriteUnits();
+                case 3:
+                    return limits.getStorageGB();
+                default:
+                    return Math.round(option.getThrottlingRisk() * 1000) / 10.0;
+            }
+        }
+    }
+}
@@ -83,7 +83,7 @@ public class editReservedCapacityGUI {
             public void run(@NotNull ProgressIndicator indicator) {
                 IConnection con;
                 try {
-                    con = DBProject.getInstance(project).getConnection();
+                    con = DBProject.getInstance(project).getConnection(table);
                     try {
                         TableLimits tableLimits = con.getTableLimits(table);
                         initialReadUnits = tableLimits.getReadUnits();
@@ -140,7 +140,7 @@ public class editReservedCapacityGUI {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                        con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                         try {
                             boolean status = con.setTableLimits(table,tableLimits);
                         } catch (Exception ex) {
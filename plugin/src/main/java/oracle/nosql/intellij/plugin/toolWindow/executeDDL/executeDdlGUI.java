@@ -17,7 +17,9 @@ import com.intellij.openapi.project.Project;
 import com.intellij.ui.JBColor;
 import oracle.nosql.intellij.plugin.common.DBProject;
 import oracle.nosql.intellij.plugin.common.DatabaseBrowserManager;
+import oracle.nosql.intellij.plugin.common.StatementLogService;
 import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.schema.Schema;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -46,6 +48,14 @@ public class executeDdlGUI {
     private JFrame frame;
 
     public executeDdlGUI(Project project) {
+        this(project, null);
+    }
+
+    /**
+     * @param schema schema whose connection runs the commands, or null for
+     *               the active connection
+     */
+    public executeDdlGUI(Project project, Schema schema) {
         ddlTextArea.setToolTipText("Enter the DDL command");
         createFrame();
         executeButton.addActionListener(e -> {
@@ -55,15 +65,19 @@ public class executeDdlGUI {
                 public void run(@NotNull ProgressIndicator indicator) {
                     IConnection con;
                     try {
-                        con = DBProject.getInstance(project).getConnection();
+                        con = schema == null ? DBProject.getInstance(project).getConnection() : DBProject.getInstance(project).getConnection(schema);
+                        StatementLogService.Recorder recorder = StatementLogService.getInstance(project).start(
+                                schema == null ? null : DBProject.getConnectionUid(schema), con, StatementLogService.DDL, null, query);
                         try {
                             String result = con.systemQuery(query);
+                            recorder.succeeded(0);
                             if (result != null) resultTextArea.setText(result.toString());
                             else {
                                 resultTextArea.setText("Executed successfully!");
                                 DatabaseBrowserManager.getInstance(project).getToolWindowForm().refresh();
                             }
                         } catch (Exception ex) {
+                            recorder.failed(ex);
                             String error = "Error executing DDL : " + ex.getMessage();
                             resultTextArea.setText(error);
                         }
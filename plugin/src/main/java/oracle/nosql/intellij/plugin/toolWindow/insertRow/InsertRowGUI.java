@@ -69,7 +69,7 @@ public class InsertRowGUI {
 
         IConnection connection;
         try {
-            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+            connection = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
             try {
                 String schema = connection.showSchema(table);
                 JSONObject schemaJson = new JSONObject(schema);
@@ -110,7 +110,7 @@ public class InsertRowGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
                                     Schema schema = table.getSchema();
                                     String schemaJson = con.showSchema(table);
@@ -149,7 +149,7 @@ public class InsertRowGUI {
                         public void run(@NotNull ProgressIndicator indicator) {
                             IConnection con;
                             try {
-                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                                con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                                 try {
                                     Schema schema = table.getSchema();
                                     String ddlStatement = formddlRows();
@@ -62,7 +62,7 @@ public class ViewReplicaGUI {
             public void run(@NotNull ProgressIndicator indicator) {
                 IConnection con;
                 try {
-                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection();
+                    con = DBProject.getInstance(Objects.requireNonNull(project)).getConnection(table);
                     try {
                         replicasNames = con.getReplicas(table);
                     } catch (Exception ex) {
@@ -0,0 +1,148 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.usage;
+
+import com.intellij.ui.JBColor;
+import com.intellij.util.ui.JBUI;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.model.connection.UsageHistory;
+
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Draws the read and write units per second of a table, one point per usage
+ * period, against the provisioned units drawn dashed. Periods with throttled
+ * requests are marked red along the time axis.
+ */
+class UsageChart extends JComponent {
+    private static final Color READ = JBColor.BLUE;
+    private static final Color WRITE = JBColor.ORANGE;
+    private static final Color THROTTLED = JBColor.RED;
+    private static final int MARGIN = JBUI.scale(30);
+    private static final int POINT_WIDTH = JBUI.scale(4);
+
+    private UsageHistory history;
+    private TableLimits limits;
+    private String message = "Choose a watched table";
+
+    UsageChart() {
+        setPreferredSize(new Dimension(JBUI.scale(600), JBUI.scale(250)));
+    }
+
+    void setUsage(UsageHistory history, TableLimits limits, String message) {
+        this.history = history;
+        this.limits = limits;
+        this.message = message;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+        Graphics2D g = (Graphics2D) graphics.create();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(getForeground());
+        FontMetrics fm = g.getFontMetrics();
+        if (history == null || history.size() == 0) {
+            g.drawString(message, MARGIN, MARGIN);
+            g.dispose();
+            return;
+        }
+        int left = MARGIN * 2;
+        int top = MARGIN;
+        int width = Math.max(1, getWidth() - left - MARGIN);
+        int height = Math.max(1, getHeight() - top - MARGIN);
+        // the latest periods that fit the width
+        int count = Math.min(history.size(), Math.max(2, width / POINT_WIDTH));
+        int first = history.size() - count;
+
+        double max = 1;
+        if (limits != null) {
+            max = Math.max(max, Math.max(limits.getReadUnits(), limits.getWriteUnits()));
+        }
+        for (int i = first; i < history.size(); i++) {
+            max = Math.max(max, Math.max(history.getReadUnitsPerSecond(i), history.getWriteUnitsPerSecond(i)));
+        }
+        max *= 1.1;
+
+        g.drawLine(left, top, left, top + height);
+        g.drawLine(left, top + height, left + width, top + height);
+        g.drawString(String.format("%.0f", max), left - fm.stringWidth(String.format("%.0f", max)) - 4, top + fm.getAscent());
+        g.drawString("0", left - fm.stringWidth("0") - 4, top + height);
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm");
+        g.drawString(format.format(new Date(history.getStart(first))), left, top + height + fm.getHeight());
+        String end = format.format(new Date(history.getStart(history.size() - 1)));
+        g.drawString(end, left + width - fm.stringWidth(end), top + height + fm.getHeight());
+
+        Stroke dashed = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{6, 4}, 0);
+        if (limits != null) {
+            drawLimit(g, dashed, READ, limits.getReadUnits(), max, left, top, width, height);
+            drawLimit(g, dashed, WRITE, limits.getWriteUnits(), max, left, top, width, height);
+        }
+        double step = count > 1 ? (double) width / (count - 1) : width;
+        int[] xs = new int[count];
+        int[] reads = new int[count];
+        int[] writes = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = first + i;
+            xs[i] = left + (int) Math.round(i * step);
+            reads[i] = top + height - (int) Math.round(history.getReadUnitsPerSecond(index) / max * height);
+            writes[i] = top + height - (int) Math.round(history.getWriteUnitsPerSecond(index) / max * height);
+            int throttles = history.getReadThrottles(index) + history.getWriteThrottles(index)
+                    + history.getStorageThrottles(index);
+            if (throttles > 0) {
+                g.setColor(THROTTLED);
+                g.fillRect(xs[i] - 1, top + height - POINT_WIDTH * 2, 3, POINT_WIDTH * 2);
+            }
+        }
+        g.setStroke(new BasicStroke(1.5f));
+        g.setColor(READ);
+        g.drawPolyline(xs, reads, count);
+        g.setColor(WRITE);
+        g.drawPolyline(xs, writes, count);
+
+        int x = left + 4;
+        x = legend(g, READ, "read units/s", x, top);
+        x = legend(g, WRITE, "write units/s", x, top);
+        legend(g, THROTTLED, "throttled", x, top);
+        g.dispose();
+    }
+
+    private static void drawLimit(Graphics2D g, Stroke stroke, Color color, int units, double max,
+                                  int left, int top, int width, int height) {
+        if (units <= 0) {
+            // on demand capacity has no provisioned units
+            return;
+        }
+        int y = top + height - (int) Math.round(units / max * height);
+        Stroke old = g.getStroke();
+        g.setStroke(stroke);
+        g.setColor(color);
+        g.drawLine(left, y, left + width, y);
+        g.setStroke(old);
+    }
+
+    private int legend(Graphics2D g, Color color, String text, int x, int top) {
+        FontMetrics fm = g.getFontMetrics();
+        g.setColor(color);
+        g.fillRect(x, top - fm.getAscent() / 2 - 8, 8, 8);
+        g.setColor(getForeground());
+        g.drawString(text, x + 12, top - 8);
+        return x + 12 + fm.stringWidth(text) + 12;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+* Copyright (C) 2019, 2025 Oracle and/or its affiliates.
+*
+* Licensed under the Universal Permissive License v 1.0 as shown at
+* https://oss.oracle.com/licenses/upl/
+*/
+
+package oracle.nosql.intellij.plugin.usage;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionPlaces;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.ui.JBSplitter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.util.ui.JBUI;
+import oracle.nosql.driver.ops.TableLimits;
+import oracle.nosql.intellij.plugin.common.DBProject;
+import oracle.nosql.intellij.plugin.common.MultipleConnectionsDataProviderService;
+import oracle.nosql.model.connection.IConnection;
+import oracle.nosql.model.connection.UsageHistory;
+import oracle.nosql.model.connection.UsageMonitor;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JPanel;
+import javax.swing.ListSelectionModel;
+import javax.swing.Timer;
+import java.awt.BorderLayout;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Toolwindow charting the usage of the watched tables of the open
+ * connections against their provisioned limits. Usage is polled by the
+ * {@link UsageMonitor} of each connection; this window only redraws what
+ * was polled.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public class UsageToolWindow extends SimpleToolWindowPanel implements Disposable {
+    private static final int REFRESH_MILLIS = 5000;
+
+    private final Project project;
+    private final DefaultListModel<Entry> listModel = new DefaultListModel<>();
+    private final JBList<Entry> list = new JBList<>(listModel);
+    private final UsageChart chart = new UsageChart();
+    private final JBLabel summary = new JBLabel();
+    private final Timer timer;
+
+    public UsageToolWindow(Project project) {
+        super(true, true);
+        this.project = project;
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setEmptyText("Use Monitor Usage on a table to watch it");
+        list.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showSelected();
+            }
+        });
+        summary.setBorder(JBUI.Borders.empty(4, 8));
+        JPanel right = new JPanel(new BorderLayout());
+        right.add(chart, BorderLayout.CENTER);
+        right.add(summary, BorderLayout.SOUTH);
+        JBSplitter splitter = new JBSplitter(false, 0.2f);
+        splitter.setFirstComponent(ScrollPaneFactory.createScrollPane(list));
+        splitter.setSecondComponent(right);
+        setContent(splitter);
+        setToolbar(createToolbar().getComponent());
+        timer = new Timer(REFRESH_MILLIS, e -> {
+            if (isShowing()) {
+                refresh();
+            }
+        });
+        timer.start();
+        refresh();
+    }
+
+    private ActionToolbar createToolbar() {
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Poll the usage of the watched tables now", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                List<UsageMonitor> monitors = new ArrayList<>();
+                for (IConnection con : DBProject.getInstance(project).getOpenConnections().values()) {
+                    monitors.add(con.getUsageMonitor());
+                }
+                ApplicationManager.getApplication().executeOnPooledThread(() -> {
+                    monitors.forEach(UsageMonitor::poll);
+                    ApplicationManager.getApplication().invokeLater(UsageToolWindow.this::refresh);
+                });
+            }
+        });
+        group.add(new DumbAwareAction("Stop Watching", "Stop polling the usage of the selected table", AllIcons.Actions.Cancel) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                Entry entry = list.getSelectedValue();
+                if (entry != null) {
+                    entry.monitor.unwatch(entry.table);
+                    refresh();
+                }
+            }
+
+            @Override
+            public void update(@NotNull AnActionEvent e) {
+                e.getPresentation().setEnabled(list.getSelectedValue() != null);
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar(ActionPlaces.TOOLBAR, group, true);
+        toolbar.setTargetComponent(this);
+        return toolbar;
+    }
+
+    /**
+     * Reloads the watched tables of the open connections and redraws the
+     * selected one.
+     */
+    public void refresh() {
+        Entry selected = list.getSelectedValue();
+        Map<String, String> names = getConnectionNames();
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, IConnection> e : DBProject.getInstance(project).getOpenConnections().entrySet()) {
+            UsageMonitor monitor = e.getValue().getUsageMonitor();
+            for (String table : monitor.getWatched()) {
+                entries.add(new Entry(names.getOrDefault(e.getKey(), e.getKey()), table, monitor));
+            }
+        }
+        if (!entries.equals(Collections.list(listModel.elements()))) {
+            listModel.clear();
+            entries.forEach(listModel::addElement);
+            int index = selected == null ? -1 : entries.indexOf(selected);
+            if (index < 0 && !entries.isEmpty()) {
+                index = 0;
+            }
+            list.setSelectedIndex(index);
+        }
+        showSelected();
+    }
+
+    private void showSelected() {
+        Entry entry = list.getSelectedValue();
+        if (entry == null) {
+            chart.setUsage(null, null, "Choose a watched table");
+            summary.setText("");
+            return;
+        }
+        UsageMonitor monitor = entry.monitor;
+        UsageHistory history = monitor.getHistory(entry.table);
+        if (history == null) {
+            chart.setUsage(null, null, "The table is no longer watched");
+            summary.setText("");
+            return;
+        }
+        history = history.copy();
+        TableLimits limits = monitor.getLimits(entry.table);
+        Exception error = monitor.getError(entry.table);
+        long lastPoll = monitor.getLastPollMillis(entry.table);
+        String message = lastPoll == 0 ? "Polling usage..." :
+                error != null ? "Usage is not available: " + error.getMessage() :
+                        "No usage reported yet";
+        chart.setUsage(history, limits, message);
+        summary.setText(summarize(history, limits, error, lastPoll));
+    }
+
+    private static String summarize(UsageHistory history, TableLimits limits, Exception error, long lastPoll) {
+        StringBuilder sb = new StringBuilder();
+        if (history.size() > 0) {
+            int last = history.size() - 1;
+            sb.append(String.format("Read %.1f", history.getReadUnitsPerSecond(last)));
+            if (limits != null && limits.getReadUnits() > 0) {
+                sb.append(" of ").append(limits.getReadUnits());
+            }
+            sb.append(String.format(" units/s, write %.1f", history.getWriteUnitsPerSecond(last)));
+            if (limits != null && limits.getWriteUnits() > 0) {
+                sb.append(" of ").append(limits.getWriteUnits());
+            }
+            sb.append(" units/s, storage ").append(history.getStorageGB(last));
+            if (limits != null && limits.getStorageGB() > 0) {
+                sb.append(" of ").append(limits.getStorageGB());
+            }
+            sb.append(" GB");
+            int read = 0;
+            int write = 0;
+            int storage = 0;
+            for (int i = 0; i < history.size(); i++) {
+                read += history.getReadThrottles(i);
+                write += history.getWriteThrottles(i);
+                storage += history.getStorageThrottles(i);
+            }
+            sb.append(", throttled ").append(read).append(" reads, ").append(write)
+                    .append(" writes, ").append(storage).append(" storage");
+        }
+        if (lastPoll > 0) {
+            sb.append(sb.length() > 0 ? ". " : "").append("Polled at ")
+                    .append(new SimpleDateFormat("HH:mm:ss").format(lastPoll));
+        }
+        if (error != null) {
+            sb.append(sb.length() > 0 ? ". " : "").append("Error: ").append(error.getMessage());
+        }
+        return sb.toString();
+    }
+
+    private Map<String, String> getConnectionNames() {
+        Map<String, String> names = new HashMap<>();
+        MultipleConnectionsDataProviderService.State states =
+                MultipleConnectionsDataProviderService.getInstance(project).getState();
+        if (states != null) {
+            for (Map.Entry<String, String> e : states.nameToUidMap.entrySet()) {
+                names.put(e.getValue(), e.getKey());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+
+    private static class Entry {
+        final String connection;
+        final String table;
+        final UsageMonitor monitor;
+
+        Entry(String connection, String table, UsageMonitor monitor) {
+            this.connection = connection;
+            this.table = table;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry other = (Entry) o;
+            return table.equals(other.table) && monitor == other.monitor;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, System.identityHashCode(monitor));
+        }
+
+        @Override
+        public String toString() {
+            return connection + " : " + table;
+        }
+    }
+}